@@ -24,6 +24,8 @@ import com.nsrs.common.exception.BusinessException;
 import com.nsrs.common.model.CommonResult;
 import com.nsrs.common.enums.NumberStatusEnum;
 import com.nsrs.common.utils.ExcelUtils;
+import com.nsrs.framework.cache.EntityCacheManager;
+import com.nsrs.framework.cache.EntityCacheNames;
 import com.nsrs.msisdn.entity.NumberResource;
 import com.nsrs.msisdn.service.NumberResourceService;
 import com.nsrs.msisdn.vo.NumberResourceVO;
@@ -68,6 +70,7 @@ public class BatchBindingTaskServiceImpl extends ServiceImpl<BatchBindingTaskMap
     private final ImsiResourceService imsiResourceService;
     private final SimCardService simCardService;
     private final TaskExecutionManager taskExecutionManager;
+    private final EntityCacheManager entityCacheManager;
     
     @Value("${nsrs.file.upload.path:/upload/}")
      private String uploadPath;
@@ -581,6 +584,7 @@ public class BatchBindingTaskServiceImpl extends ServiceImpl<BatchBindingTaskMap
                                     .set(NumberResource::getIccid, binding.getIccid())
                                     .set(NumberResource::getUpdateTime, new Date());
                             boolean updatedNumber = numberResourceService.update(updateWrapper);
+                            entityCacheManager.getCache(EntityCacheNames.NUMBER_RESOURCE, NumberResource.class).evict(binding.getNumber());
                             if (updatedNumber) {
                                 numbersToUpdate.add(binding.getNumber());
                             } else {
@@ -806,6 +810,7 @@ public class BatchBindingTaskServiceImpl extends ServiceImpl<BatchBindingTaskMap
                                          .set(NumberResource::getIccid, null) // Clear ICCID
                                          .set(NumberResource::getUpdateTime, new Date());
                                  boolean updatedNumber = numberResourceService.update(updateWrapper);
+                                 entityCacheManager.getCache(EntityCacheNames.NUMBER_RESOURCE, NumberResource.class).evict(detail.getNumber());
                                  if (updatedNumber) {
                                      numbersToUpdate.add(detail.getNumber());
                                  } else {
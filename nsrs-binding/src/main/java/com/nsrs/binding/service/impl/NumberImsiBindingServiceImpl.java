@@ -15,9 +15,17 @@ import com.nsrs.binding.query.NumberImsiBindingQuery;
 import com.nsrs.binding.service.NumberImsiBindingService;
 import com.nsrs.common.core.domain.PageRequest;
 import com.nsrs.common.core.domain.PageResult;
+import com.nsrs.common.enums.CountModeEnum;
 import com.nsrs.common.enums.NumberStatusEnum;
 import com.nsrs.common.model.CommonResult;
+import com.nsrs.common.utils.KeysetPageHelper;
 import com.nsrs.common.utils.SequenceService;
+import com.nsrs.common.utils.ShardingIdUtils;
+import com.nsrs.common.utils.ShardingBatchUpdateUtils;
+import com.nsrs.common.utils.TableStatisticsService;
+import com.nsrs.framework.cache.EntityCache;
+import com.nsrs.framework.cache.EntityCacheManager;
+import com.nsrs.framework.cache.EntityCacheNames;
 import com.nsrs.msisdn.entity.NumberResource;
 import com.nsrs.msisdn.service.NumberResourceService;
 import com.nsrs.msisdn.vo.NumberResourceVO;
@@ -53,6 +61,11 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
     
     private static final Logger logger = LoggerFactory.getLogger(NumberImsiBindingServiceImpl.class);
     
+    /**
+     * 绑定关系分表名前缀
+     */
+    private static final String BINDING_TABLE_PREFIX = "number_imsi_binding_";
+    
     @Autowired
     private NumberImsiBindingMapper bindingMapper;
     
@@ -68,16 +81,90 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
     @Autowired
     private SequenceService sequenceService;
     
+    @Autowired
+    private TableStatisticsService tableStatisticsService;
+
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+    
     // 注释：不再需要ImsiIccidMappingService，因为选卡选号时直接提供iccid
     // @Autowired
     // private ImsiIccidMappingService imsiIccidMappingService;
 
     @Override
     public PageResult<NumberImsiBinding> page(PageRequest<NumberImsiBindingQuery> request) {
+        // 游标分页：按分表seek后归并，避免深分页在每个分表上放大OFFSET
+        if (request.useCursor()) {
+            return cursorPage(request);
+        }
+
         // 构建查询条件
-        LambdaQueryWrapper<NumberImsiBinding> queryWrapper = new LambdaQueryWrapper<>();
+        LambdaQueryWrapper<NumberImsiBinding> queryWrapper = buildPageQueryWrapper(request.getQuery());
+        
+        // 默认按创建时间倒序
+        queryWrapper.orderByDesc(NumberImsiBinding::getCreateTime);
+        
+        // 列表页默认使用近似统计，避免每次翻页都跨分表COUNT(*)
+        CountModeEnum countMode = CountModeEnum.getByCode(request.getCountMode(), CountModeEnum.APPROXIMATE);
         
+        // 执行分页查询，利用ShardingSphere自动路由到对应分表
+        if (countMode == CountModeEnum.EXACT) {
+            Page<NumberImsiBinding> page = new Page<>(request.getCurrent(), request.getSize());
+            IPage<NumberImsiBinding> resultPage = this.page(page, queryWrapper);
+            return PageResult.of(resultPage.getRecords(), resultPage.getTotal(),
+                    request.getCurrent(), request.getSize(), CountModeEnum.EXACT);
+        }
+        
+        // 无过滤条件时使用表统计信息作为近似总数
+        if (countMode == CountModeEnum.APPROXIMATE && queryWrapper.isEmptyOfWhere()) {
+            Long estimatedTotal = tableStatisticsService.estimateRowCount(BINDING_TABLE_PREFIX);
+            if (estimatedTotal != null) {
+                Page<NumberImsiBinding> page = new Page<>(request.getCurrent(), request.getSize(), false);
+                return PageResult.of(this.page(page, queryWrapper).getRecords(), estimatedTotal,
+                        request.getCurrent(), request.getSize(), CountModeEnum.APPROXIMATE);
+            }
+        }
+        
+        // 不统计总数，多取一条判断是否有下一页
+        queryWrapper.last(PageResult.lookaheadLimit(request.getCurrent(), request.getSize()));
+        return PageResult.ofHasNext(this.list(queryWrapper), request.getCurrent(), request.getSize());
+    }
+
+    /**
+     * 游标分页查询绑定关系
+     */
+    private PageResult<NumberImsiBinding> cursorPage(PageRequest<NumberImsiBindingQuery> request) {
         NumberImsiBindingQuery query = request.getQuery();
+        String number = query != null ? query.getNumber() : null;
+        List<String> shards = ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES.stream()
+                .filter(prefix -> !StringUtils.hasText(number)
+                        || (number.length() >= 3 ? number.startsWith(prefix) : prefix.startsWith(number)))
+                .collect(Collectors.toList());
+
+        return KeysetPageHelper.query(shards, request.getCursor(), request.getSize(),
+                (shard, after, limit) -> {
+                    LambdaQueryWrapper<NumberImsiBinding> queryWrapper = buildPageQueryWrapper(query);
+                    // 通过前缀范围条件将查询路由到单个分表
+                    queryWrapper.between(NumberImsiBinding::getNumber, shard + "00000000", shard + "99999999");
+                    if (after != null) {
+                        Date afterTime = new Date(after.getCreateTime());
+                        queryWrapper.and(w -> w.lt(NumberImsiBinding::getCreateTime, afterTime)
+                                .or(o -> o.eq(NumberImsiBinding::getCreateTime, afterTime)
+                                        .lt(NumberImsiBinding::getBindingId, after.getId())));
+                    }
+                    queryWrapper.orderByDesc(NumberImsiBinding::getCreateTime)
+                            .orderByDesc(NumberImsiBinding::getBindingId);
+                    return this.page(new Page<>(1, limit, false), queryWrapper).getRecords();
+                },
+                NumberImsiBinding::getCreateTime, NumberImsiBinding::getBindingId);
+    }
+
+    /**
+     * 构建分页查询条件（不含排序）
+     */
+    private LambdaQueryWrapper<NumberImsiBinding> buildPageQueryWrapper(NumberImsiBindingQuery query) {
+        LambdaQueryWrapper<NumberImsiBinding> queryWrapper = new LambdaQueryWrapper<>();
+        
         if (query != null) {
             // 号码查询条件（支持精确查询和前缀查询）
             if (StringUtils.hasText(query.getNumber())) {
@@ -132,21 +219,7 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
             }
         }
         
-        // 默认按创建时间倒序
-        queryWrapper.orderByDesc(NumberImsiBinding::getCreateTime);
-        
-        // 执行分页查询，利用ShardingSphere自动路由到对应分表
-        Page<NumberImsiBinding> page = new Page<>(request.getCurrent(), request.getSize());
-        IPage<NumberImsiBinding> resultPage = this.page(page, queryWrapper);
-        
-        PageResult<NumberImsiBinding> result = new PageResult<>();
-        result.setList(resultPage.getRecords());
-        result.setTotal(resultPage.getTotal());
-        result.setPageNum(request.getCurrent());
-        result.setPageSize(request.getSize());
-        result.setPages((resultPage.getTotal() + request.getSize() - 1) / request.getSize());
-        
-        return result;
+        return queryWrapper;
     }
 
     @Override
@@ -253,7 +326,7 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
             // 创建绑定关系
             NumberImsiBinding binding = new NumberImsiBinding();
             // 生成全局ID
-            Long globalId = sequenceService.getNextSequenceValue(BindingConstants.SequenceName.NUMBER_IMSI_BINDING_ID_SEQ);
+            Long globalId = sequenceService.getNextNumberImsiBindingId(number);
             binding.setBindingId(globalId);
             binding.setNumberId(numberResource.getNumberId()); // 设置号码ID
             binding.setNumber(number);
@@ -271,6 +344,7 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
             
             // 保存绑定关系
             boolean savedBinding = save(binding);
+            evictBindingCache(number);
             if (!savedBinding) {
                 logger.error("Failed to save binding relationship: number={}, imsi={}", number, imsi);
                 return CommonResult.failed(BindingConstants.ErrorMessage.SAVE_BINDING_FAILED);
@@ -288,6 +362,7 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
                             .set(NumberResource::getIccid, iccid)
                             .set(NumberResource::getUpdateTime, new Date());
                 boolean updatedNumber = numberResourceService.update(updateWrapper);
+                evictNumberResourceCache(number);
                 if (!updatedNumber) {
                     logger.warn(BindingConstants.ErrorMessage.UPDATE_NUMBER_RESOURCE_ICCID_FAILED + ", number: {}", number);
                     // 继续执行，不影响绑定流程
@@ -388,6 +463,7 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
                                .set(NumberImsiBinding::getUnbindTime, new Date());
             
             boolean updated = this.update(bindingUpdateWrapper);
+            evictBindingCache(number);
             if (!updated) {
                 logger.error("Failed to update binding status for number: {}", number);
                 return CommonResult.failed(BindingConstants.ErrorMessage.UPDATE_BINDING_STATUS_FAILED);
@@ -405,6 +481,7 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
                             .set(NumberResource::getIccid, null)
                             .set(NumberResource::getUpdateTime, new Date());
                 boolean updatedNumber = numberResourceService.update(updateWrapper);
+                evictNumberResourceCache(number);
                 if (!updatedNumber) {
                     logger.warn(BindingConstants.ErrorMessage.CLEAR_NUMBER_RESOURCE_ICCID_FAILED + ", number: {}", number);
                     // 继续执行，不影响解绑流程
@@ -529,7 +606,8 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
                 }
                 
                 // 设置绑定信息
-                binding.setBindingId(globalIds.get(i)); // 设置全局ID
+                binding.setBindingId(sequenceService.toShardingId(globalIds.get(i),
+                        ShardingIdUtils.numberShardCode(binding.getNumber()))); // 设置全局ID（嵌入号码分片码）
                 binding.setNumberId(numberResource.getNumberId()); // 设置号码ID
                 binding.setImsiId(imsiResource.getImsiId()); // 设置IMSI ID
                 binding.setBindingStatus(BindingConstants.BindingStatus.BOUND); // 绑定状态
@@ -540,6 +618,7 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
                 
                 // 保存绑定关系到分表，使用MyBatis-Plus自动路由
                 boolean insertResult = this.save(binding);
+                evictBindingCache(binding.getNumber());
                 if (!insertResult) {
                     logger.warn("Failed to save binding relationship: number={}", binding.getNumber());
                     continue;
@@ -556,6 +635,7 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
                                 .set(NumberResource::getIccid, iccid)
                                 .set(NumberResource::getUpdateTime, new Date());
                     boolean updatedNumber = numberResourceService.update(updateWrapper);
+                    evictNumberResourceCache(binding.getNumber());
                     if (!updatedNumber) {
                         logger.warn("Failed to update number resource ICCID field: numberId={}", binding.getNumberId());
                     } else {
@@ -681,6 +761,7 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
                                    .set(NumberImsiBinding::getUnbindTime, new Date());
                 
                 boolean updateResult = this.update(bindingUpdateWrapper);
+                evictBindingCache(number);
                 
                 if (!updateResult) {
                     logger.warn("Failed to update binding status: number={}, imsi={}", number, imsi);
@@ -696,6 +777,7 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
                                 .set(NumberResource::getIccid, null)
                                 .set(NumberResource::getUpdateTime, new Date());
                     boolean updatedNumber = numberResourceService.update(updateWrapper);
+                    evictNumberResourceCache(number);
                     if (!updatedNumber) {
                         logger.warn(BindingConstants.ErrorMessage.CLEAR_NUMBER_RESOURCE_ICCID_FAILED + ", number: {}", number);
                         // 继续执行，不影响解绑流程
@@ -782,6 +864,13 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
             return null;
         }
         
+        return bindingCache().get(number, this::loadBoundByNumber);
+    }
+
+    /**
+     * 按号码查询已绑定关系
+     */
+    private NumberImsiBinding loadBoundByNumber(String number) {
         // 使用MyBatis-Plus标准查询，让ShardingSphere自动路由到对应分表
         LambdaQueryWrapper<NumberImsiBinding> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(NumberImsiBinding::getNumber, number);
@@ -790,6 +879,27 @@ public class NumberImsiBindingServiceImpl extends ServiceImpl<NumberImsiBindingM
         return getOne(wrapper);
     }
 
+    /**
+     * 绑定关系缓存（按号码，仅缓存已绑定记录）
+     */
+    private EntityCache<NumberImsiBinding> bindingCache() {
+        return entityCacheManager.getCache(EntityCacheNames.NUMBER_IMSI_BINDING, NumberImsiBinding.class);
+    }
+
+    /**
+     * 绑定关系写入后失效缓存
+     */
+    private void evictBindingCache(String number) {
+        bindingCache().evict(number);
+    }
+
+    /**
+     * 通过条件更新号码资源后失效号码缓存（号码服务的通用update不感知号码）
+     */
+    private void evictNumberResourceCache(String number) {
+        entityCacheManager.getCache(EntityCacheNames.NUMBER_RESOURCE, NumberResource.class).evict(number);
+    }
+
     @Override
     public NumberImsiBinding getByImsi(String imsi) {
         if (!StringUtils.hasText(imsi)) {
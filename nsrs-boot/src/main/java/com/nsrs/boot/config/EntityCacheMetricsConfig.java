@@ -0,0 +1,63 @@
+package com.nsrs.boot.config;
+
+import com.nsrs.framework.cache.EntityCacheManager;
+import com.nsrs.framework.cache.EntityCacheNames;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 实体缓存监控指标
+ * 通过 /actuator/metrics/nsrs.entity.cache.requests 查看各实体缓存的命中与未命中情况
+ */
+@Configuration
+public class EntityCacheMetricsConfig {
+
+    private static final List<String> CACHE_NAMES = Arrays.asList(
+            EntityCacheNames.NUMBER_RESOURCE,
+            EntityCacheNames.SIM_CARD,
+            EntityCacheNames.IMSI_RESOURCE,
+            EntityCacheNames.NUMBER_IMSI_BINDING);
+
+    @Bean
+    public MeterBinder entityCacheMetrics(EntityCacheManager entityCacheManager) {
+        return registry -> {
+            for (String name : CACHE_NAMES) {
+                // 缓存在首次访问时才创建，指标按名称从统计信息中读取
+                registerCounter(registry, entityCacheManager, name, "local_hit", "localHits");
+                registerCounter(registry, entityCacheManager, name, "redis_hit", "redisHits");
+                registerCounter(registry, entityCacheManager, name, "miss", "misses");
+                FunctionCounter.builder("nsrs.entity.cache.evictions", entityCacheManager,
+                                manager -> statistic(manager, name, "evictions"))
+                        .tag("entity", name)
+                        .register(registry);
+                Gauge.builder("nsrs.entity.cache.size", entityCacheManager,
+                                manager -> statistic(manager, name, "localSize"))
+                        .tag("entity", name)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static void registerCounter(MeterRegistry registry, EntityCacheManager entityCacheManager,
+                                        String name, String result, String statistic) {
+        FunctionCounter.builder("nsrs.entity.cache.requests", entityCacheManager,
+                        manager -> statistic(manager, name, statistic))
+                .tag("entity", name)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static double statistic(EntityCacheManager manager, String name, String statistic) {
+        Map<String, Object> stats = manager.getStatistics().get(name);
+        Object value = stats != null ? stats.get(statistic) : null;
+        return value instanceof Number ? ((Number) value).doubleValue() : 0D;
+    }
+}
@@ -0,0 +1,61 @@
+package com.nsrs.boot.config;
+
+import com.nsrs.common.utils.SequenceService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 序列号段分配监控指标
+ * 通过 /actuator/metrics/nsrs.sequence.ids 与 nsrs.sequence.allocations 对比可得每次数据库往返发放的ID数
+ */
+@Configuration
+public class SequenceMetricsConfig {
+
+    private static final List<String> SEQUENCE_NAMES = Arrays.asList(
+            SequenceService.NUMBER_RESOURCE_ID_SEQ,
+            SequenceService.SIM_CARD_ID_SEQ,
+            SequenceService.IMSI_RESOURCE_ID_SEQ,
+            SequenceService.NUMBER_IMSI_BINDING_ID_SEQ);
+
+    @Bean
+    public MeterBinder sequenceMetrics(SequenceService sequenceService) {
+        return registry -> {
+            for (String name : SEQUENCE_NAMES) {
+                // 号段在首次取号时才创建，指标按名称从统计信息中读取
+                FunctionCounter.builder("nsrs.sequence.ids", sequenceService,
+                                service -> statistic(service, name, "issued"))
+                        .tag("sequence", name)
+                        .register(registry);
+                FunctionCounter.builder("nsrs.sequence.allocations", sequenceService,
+                                service -> statistic(service, name, "allocations"))
+                        .tag("sequence", name)
+                        .register(registry);
+                FunctionCounter.builder("nsrs.sequence.sync.allocations", sequenceService,
+                                service -> statistic(service, name, "syncAllocations"))
+                        .tag("sequence", name)
+                        .register(registry);
+                Gauge.builder("nsrs.sequence.block.size", sequenceService,
+                                service -> statistic(service, name, "blockSize"))
+                        .tag("sequence", name)
+                        .register(registry);
+                Gauge.builder("nsrs.sequence.remaining", sequenceService,
+                                service -> statistic(service, name, "remaining"))
+                        .tag("sequence", name)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double statistic(SequenceService service, String name, String statistic) {
+        Map<String, Object> stats = service.getStatistics().get(name);
+        Object value = stats != null ? stats.get(statistic) : null;
+        return value instanceof Number ? ((Number) value).doubleValue() : 0D;
+    }
+}
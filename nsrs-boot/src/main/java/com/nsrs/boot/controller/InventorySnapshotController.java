@@ -0,0 +1,90 @@
+package com.nsrs.boot.controller;
+
+import com.nsrs.common.model.CommonResult;
+import com.nsrs.framework.snapshot.InventoryForecast;
+import com.nsrs.framework.snapshot.InventorySnapshotGranularity;
+import com.nsrs.framework.snapshot.InventorySnapshotService;
+import com.nsrs.framework.snapshot.InventoryTrendPoint;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 库存快照控制器
+ * 按资源类型、维度查询库存趋势、消耗速度与耗尽预测，资源类型：SIM、IMSI、NUMBER
+ */
+@RestController
+@RequestMapping("/inventory/snapshot")
+@Tag(name = "库存快照")
+public class InventorySnapshotController {
+
+    @Autowired
+    private InventorySnapshotService snapshotService;
+
+    /**
+     * 查询库存趋势
+     */
+    @Operation(summary = "查询库存趋势")
+    @GetMapping("/trend")
+    public CommonResult<List<InventoryTrendPoint>> trend(
+            @Parameter(description = "资源类型") @RequestParam String resourceType,
+            @Parameter(description = "维度键") @RequestParam String dimensionKey,
+            @Parameter(description = "状态，为空时汇总全部状态") @RequestParam(required = false) List<Integer> statuses,
+            @Parameter(description = "粒度：RAW、HOURLY、DAILY") @RequestParam(defaultValue = "HOURLY") InventorySnapshotGranularity granularity,
+            @Parameter(description = "开始时间，默认7天前") @RequestParam(required = false)
+                @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date beginTime,
+            @Parameter(description = "结束时间，默认当前时间") @RequestParam(required = false)
+                @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date endTime) {
+        Date to = endTime != null ? endTime : new Date();
+        Date from = beginTime != null ? beginTime
+                : Date.from(LocalDateTime.now().minusDays(7).atZone(ZoneId.systemDefault()).toInstant());
+        if (!from.before(to)) {
+            return CommonResult.failed("Begin time must be before end time");
+        }
+        return CommonResult.success(snapshotService.trend(resourceType, dimensionKey, statuses, granularity, from, to));
+    }
+
+    /**
+     * 预测单个维度的消耗速度与耗尽时间
+     */
+    @Operation(summary = "预测消耗速度与耗尽时间")
+    @GetMapping("/forecast")
+    public CommonResult<InventoryForecast> forecast(
+            @Parameter(description = "资源类型") @RequestParam String resourceType,
+            @Parameter(description = "维度键") @RequestParam String dimensionKey,
+            @Parameter(description = "状态，为空时取可用状态") @RequestParam(required = false) List<Integer> statuses,
+            @Parameter(description = "历史窗口（天）") @RequestParam(required = false) Integer windowDays) {
+        return CommonResult.success(snapshotService.forecast(resourceType, dimensionKey, statuses, windowDays));
+    }
+
+    /**
+     * 查询预计在指定天数内耗尽的维度
+     */
+    @Operation(summary = "查询即将耗尽的库存")
+    @GetMapping("/depletion")
+    public CommonResult<List<InventoryForecast>> depletion(
+            @Parameter(description = "资源类型") @RequestParam String resourceType,
+            @Parameter(description = "预警天数") @RequestParam(required = false) Integer horizonDays) {
+        return CommonResult.success(snapshotService.forecastDepletion(resourceType, horizonDays));
+    }
+
+    /**
+     * 立即采集一次快照
+     */
+    @Operation(summary = "立即采集库存快照")
+    @PostMapping("/collect")
+    public CommonResult<Integer> collect() {
+        if (!snapshotService.isEnabled()) {
+            return CommonResult.failed("Inventory snapshot is disabled");
+        }
+        return CommonResult.success(snapshotService.collect());
+    }
+}
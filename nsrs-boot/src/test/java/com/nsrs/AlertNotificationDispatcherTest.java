@@ -0,0 +1,223 @@
+package com.nsrs;
+
+import com.nsrs.simcard.config.AlertNotifyProperties;
+import com.nsrs.simcard.notify.AlertNotification;
+import com.nsrs.simcard.notify.AlertNotificationChannel;
+import com.nsrs.simcard.notify.AlertNotificationDispatcher;
+import com.nsrs.simcard.notify.AlertNotificationDispatcher.Submission;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 告警通知分发单元测试：覆盖接收人分批、失败退避重试、失败批次重发、维度抑制、禁用通道回落与队列上限
+ */
+public class AlertNotificationDispatcherTest {
+
+    private AlertNotificationDispatcher dispatcher;
+
+    @AfterEach
+    public void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.destroy();
+        }
+    }
+
+    @Test
+    public void testRecipientBatching() throws Exception {
+        RecordingChannel email = new RecordingChannel("email", true, 0);
+        RecordingChannel log = new RecordingChannel("log", true, 0);
+        dispatcher = start(properties(), email, log);
+
+        List<String> recipients = IntStream.range(0, 7).mapToObj(i -> "user" + i + "@nsrs.com").collect(Collectors.toList());
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        assertEquals(Submission.ACCEPTED, dispatcher.dispatch(notification(1L, "dim-1", "email", recipients), done::complete));
+
+        assertTrue(done.get(5, TimeUnit.SECONDS));
+        assertEquals(3, email.batches.size());
+        assertEquals(recipients, email.batches.stream().flatMap(List::stream).sorted().collect(Collectors.toList()));
+        assertTrue(email.batches.stream().allMatch(batch -> batch.size() <= 3));
+        assertTrue(log.batches.isEmpty());
+    }
+
+    @Test
+    public void testRetryWithBackoff() throws Exception {
+        RecordingChannel flaky = new RecordingChannel("email", true, 2);
+        RecordingChannel log = new RecordingChannel("log", true, 0);
+        dispatcher = start(properties(), flaky, log);
+
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        dispatcher.dispatch(notification(1L, "dim-1", "email", Collections.singletonList("a@nsrs.com")), done::complete);
+        assertTrue(done.get(5, TimeUnit.SECONDS));
+        assertEquals(3, flaky.attempts.get());
+
+        RecordingChannel broken = new RecordingChannel("sms", true, Integer.MAX_VALUE);
+        dispatcher.destroy();
+        dispatcher = start(properties(), broken, log);
+        CompletableFuture<Boolean> failed = new CompletableFuture<>();
+        dispatcher.dispatch(notification(2L, "dim-2", "sms", Collections.singletonList("13800000000")), failed::complete);
+        assertFalse(failed.get(5, TimeUnit.SECONDS));
+        assertEquals(3, broken.attempts.get());
+
+        // 失败后不占用抑制窗口，下一次告警仍可发送
+        CompletableFuture<Boolean> again = new CompletableFuture<>();
+        assertEquals(Submission.ACCEPTED,
+                dispatcher.dispatch(notification(3L, "dim-2", "sms", Collections.singletonList("13800000000")), again::complete));
+        assertFalse(again.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRetryResendsOnlyFailedBatches() throws Exception {
+        RecordingChannel email = new RecordingChannel("email", true, 0);
+        RecordingChannel sms = new RecordingChannel("sms", true, 3);
+        RecordingChannel log = new RecordingChannel("log", true, 0);
+        dispatcher = start(properties(), email, sms, log);
+
+        List<String> emails = IntStream.range(0, 4).mapToObj(i -> "user" + i + "@nsrs.com").collect(Collectors.toList());
+        AlertNotification notification = notification(1L, "dim-1", "email", emails);
+        notification.getRecipients().put("sms", Collections.singletonList("13800000000"));
+        CompletableFuture<Boolean> failed = new CompletableFuture<>();
+        dispatcher.dispatch(notification, failed::complete);
+        assertFalse(failed.get(5, TimeUnit.SECONDS));
+        assertEquals(2, email.batches.size());
+
+        // 重试同一日志时只重发失败的短信批次，已送达的邮件不再重复发送
+        CompletableFuture<Boolean> retried = new CompletableFuture<>();
+        assertEquals(Submission.ACCEPTED, dispatcher.dispatch(notification, retried::complete));
+        assertTrue(retried.get(5, TimeUnit.SECONDS));
+        assertEquals(2, email.batches.size());
+        assertEquals(Collections.singletonList(Collections.singletonList("13800000000")), sms.batches);
+    }
+
+    @Test
+    public void testSuppressionAndDuplicates() throws Exception {
+        RecordingChannel log = new RecordingChannel("log", true, 0);
+        log.blocked = new CompletableFuture<>();
+        dispatcher = start(properties(), log);
+
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        assertEquals(Submission.ACCEPTED, dispatcher.dispatch(notification(1L, "dim-1", "log", new ArrayList<>()), done::complete));
+        assertEquals(Submission.DUPLICATE, dispatcher.dispatch(notification(1L, "dim-9", "log", new ArrayList<>()), ok -> { }));
+        assertEquals(Submission.SUPPRESSED, dispatcher.dispatch(notification(2L, "dim-1", "log", new ArrayList<>()), ok -> { }));
+        log.blocked.complete(null);
+        assertTrue(done.get(5, TimeUnit.SECONDS));
+
+        assertEquals(Submission.SUPPRESSED, dispatcher.dispatch(notification(3L, "dim-1", "log", new ArrayList<>()), ok -> { }));
+        assertEquals(2L, dispatcher.getStatistics().get("suppressed"));
+        assertEquals(1L, dispatcher.getStatistics().get("duplicated"));
+    }
+
+    @Test
+    public void testDisabledChannelFallsBackToDefault() throws Exception {
+        RecordingChannel sms = new RecordingChannel("sms", false, 0);
+        RecordingChannel log = new RecordingChannel("log", true, 0);
+        dispatcher = start(properties(), sms, log);
+
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        dispatcher.dispatch(notification(1L, "dim-1", "sms", Arrays.asList("13800000000", "13900000000")), done::complete);
+        assertTrue(done.get(5, TimeUnit.SECONDS));
+        assertTrue(sms.batches.isEmpty());
+        assertEquals(Collections.singletonList(Arrays.asList("13800000000", "13900000000")), log.batches);
+    }
+
+    @Test
+    public void testQueueCapacity() throws Exception {
+        RecordingChannel log = new RecordingChannel("log", true, 0);
+        log.blocked = new CompletableFuture<>();
+        AlertNotifyProperties properties = properties();
+        properties.setQueueCapacity(2);
+        dispatcher = start(properties, log);
+
+        List<CompletableFuture<Boolean>> futures = new CopyOnWriteArrayList<>();
+        for (long logId = 1; logId <= 2; logId++) {
+            CompletableFuture<Boolean> done = new CompletableFuture<>();
+            futures.add(done);
+            assertEquals(Submission.ACCEPTED, dispatcher.dispatch(notification(logId, "dim-" + logId, "log", new ArrayList<>()), done::complete));
+        }
+        assertEquals(Submission.REJECTED, dispatcher.dispatch(notification(3L, "dim-3", "log", new ArrayList<>()), ok -> { }));
+
+        log.blocked.complete(null);
+        for (CompletableFuture<Boolean> future : futures) {
+            assertTrue(future.get(5, TimeUnit.SECONDS));
+        }
+        // 被拒绝的维度没有占用抑制窗口
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        assertEquals(Submission.ACCEPTED, dispatcher.dispatch(notification(3L, "dim-3", "log", new ArrayList<>()), done::complete));
+        assertTrue(done.get(5, TimeUnit.SECONDS));
+    }
+
+    private static AlertNotifyProperties properties() {
+        AlertNotifyProperties properties = new AlertNotifyProperties();
+        properties.setRecipientBatchSize(3);
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoffMs(10);
+        properties.setMaxBackoffMs(50);
+        properties.setDedupWindowMs(60000);
+        return properties;
+    }
+
+    private static AlertNotificationDispatcher start(AlertNotifyProperties properties, AlertNotificationChannel... channels) {
+        AlertNotificationDispatcher dispatcher = new AlertNotificationDispatcher(properties, Arrays.asList(channels));
+        dispatcher.init();
+        return dispatcher;
+    }
+
+    private static AlertNotification notification(Long logId, String dimensionKey, String channel, List<String> recipients) {
+        AlertNotification notification = new AlertNotification();
+        notification.setLogId(logId);
+        notification.setDimensionKey(dimensionKey);
+        notification.setSubject("subject");
+        notification.setShortContent("content");
+        notification.getRecipients().put(channel, recipients);
+        return notification;
+    }
+
+    private static class RecordingChannel implements AlertNotificationChannel {
+
+        private final String name;
+        private final boolean enabled;
+        private final int failures;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        private volatile CompletableFuture<Void> blocked;
+
+        RecordingChannel(String name, boolean enabled, int failures) {
+            this.name = name;
+            this.enabled = enabled;
+            this.failures = failures;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public void send(List<String> recipients, AlertNotification notification) throws Exception {
+            if (blocked != null) {
+                blocked.get(5, TimeUnit.SECONDS);
+            }
+            if (attempts.incrementAndGet() <= failures) {
+                throw new IllegalStateException("gateway unavailable");
+            }
+            batches.add(recipients);
+        }
+    }
+}
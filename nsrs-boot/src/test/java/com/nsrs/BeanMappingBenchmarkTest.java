@@ -0,0 +1,126 @@
+package com.nsrs;
+
+import com.nsrs.msisdn.convert.NumberResourceConvert;
+import com.nsrs.msisdn.entity.NumberResource;
+import com.nsrs.msisdn.vo.NumberResourceVO;
+import com.nsrs.simcard.convert.ImsiResourceConvert;
+import com.nsrs.simcard.entity.ImsiResource;
+import com.nsrs.simcard.model.dto.ImsiResourceDTO;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 对象映射基准测试：10000行分页数据下BeanUtils.copyProperties与MapStruct生成代码的单行耗时对比
+ */
+public class BeanMappingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BeanMappingBenchmarkTest.class);
+
+    private static final int PAGE_SIZE = 10000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURE_ROUNDS = 50;
+
+    @Test
+    public void testNumberResourcePageMapping() {
+        List<NumberResource> page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            NumberResource resource = new NumberResource();
+            resource.setNumberId(1000000L + i);
+            resource.setNumber(String.valueOf(13800000000L + i));
+            resource.setNumberType(2);
+            resource.setSegmentId(1L);
+            resource.setLevelId(2L);
+            resource.setPatternId(3L);
+            resource.setHlrId(4L);
+            resource.setStatus(1);
+            resource.setCharge(new BigDecimal("10.00"));
+            resource.setAttributiveOrg("100");
+            resource.setRemark("benchmark");
+            resource.setCreateTime(new Date());
+            resource.setUpdateTime(new Date());
+            page.add(resource);
+        }
+
+        NumberResourceVO expected = new NumberResourceVO();
+        BeanUtils.copyProperties(page.get(0), expected);
+        assertEquals(expected, NumberResourceConvert.INSTANCE.toVO(page.get(0)));
+
+        double reflective = measure(page, resource -> {
+            NumberResourceVO vo = new NumberResourceVO();
+            BeanUtils.copyProperties(resource, vo);
+            return vo;
+        });
+        double generated = measure(page, NumberResourceConvert.INSTANCE::toVO);
+        report("NumberResource -> NumberResourceVO", reflective, generated);
+    }
+
+    @Test
+    public void testImsiResourcePageMapping() {
+        List<ImsiResource> page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            ImsiResource resource = new ImsiResource();
+            resource.setImsiId(1000000L + i);
+            resource.setImsi(String.valueOf(460001234500000L + i));
+            resource.setImsiType(1);
+            resource.setGroupId(1L);
+            resource.setSupplierId(2L);
+            resource.setStatus(1);
+            resource.setCreateTime(new Date());
+            resource.setUpdateTime(new Date());
+            page.add(resource);
+        }
+
+        ImsiResourceDTO expected = new ImsiResourceDTO();
+        BeanUtils.copyProperties(page.get(0), expected);
+        assertEquals(expected, ImsiResourceConvert.INSTANCE.toDTO(page.get(0)));
+
+        double reflective = measure(page, resource -> {
+            ImsiResourceDTO dto = new ImsiResourceDTO();
+            BeanUtils.copyProperties(resource, dto);
+            return dto;
+        });
+        double generated = measure(page, ImsiResourceConvert.INSTANCE::toDTO);
+        report("ImsiResource -> ImsiResourceDTO", reflective, generated);
+    }
+
+    /**
+     * 返回单行平均耗时（纳秒）
+     */
+    private static <S, T> double measure(List<S> page, Function<S, T> mapper) {
+        long checksum = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            checksum += mapPage(page, mapper).size();
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURE_ROUNDS; round++) {
+            checksum += mapPage(page, mapper).size();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertEquals((long) PAGE_SIZE * (WARMUP_ROUNDS + MEASURE_ROUNDS), checksum);
+        return (double) elapsed / MEASURE_ROUNDS / page.size();
+    }
+
+    private static <S, T> List<T> mapPage(List<S> page, Function<S, T> mapper) {
+        List<T> result = new ArrayList<>(page.size());
+        for (S row : page) {
+            result.add(mapper.apply(row));
+        }
+        return result;
+    }
+
+    private static void report(String name, double reflective, double generated) {
+        log.info(String.format("%s: BeanUtils %.1f ns/row, MapStruct %.1f ns/row (%.1fx), %d-row page %.2f ms -> %.2f ms",
+                name, reflective, generated, reflective / generated, PAGE_SIZE,
+                reflective * PAGE_SIZE / 1_000_000, generated * PAGE_SIZE / 1_000_000));
+    }
+}
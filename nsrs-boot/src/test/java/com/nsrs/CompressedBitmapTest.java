@@ -0,0 +1,84 @@
+package com.nsrs;
+
+import com.nsrs.common.utils.CompressedBitmap;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 压缩位图单元测试：与TreeSet结果比对，覆盖数组容器与位图容器之间的转换
+ */
+public class CompressedBitmapTest {
+
+    @Test
+    public void testMatchesTreeSet() throws IOException {
+        Random random = new Random(7);
+        CompressedBitmap bitmap = new CompressedBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        // 前半段稠密（位图容器），后半段稀疏（数组容器）
+        for (int i = 0; i < 200000; i++) {
+            int value = random.nextBoolean() ? random.nextInt(150000) : random.nextInt(10000000);
+            assertEquals(expected.add(value), bitmap.add(value));
+        }
+        for (int i = 0; i < 150000; i++) {
+            int value = random.nextInt(150000);
+            assertEquals(expected.remove(value), bitmap.remove(value));
+        }
+        assertEquals(expected.size(), bitmap.cardinality());
+
+        List<Integer> ordered = new ArrayList<>(expected);
+        for (int i = 0; i < ordered.size(); i += 97) {
+            assertEquals(ordered.get(i).intValue(), bitmap.select(i));
+            assertTrue(bitmap.contains(ordered.get(i)));
+        }
+        int from = 70000;
+        int[] first = bitmap.first(from, 500);
+        List<Integer> tail = new ArrayList<>(expected.tailSet(from)).subList(0, 500);
+        for (int i = 0; i < first.length; i++) {
+            assertEquals(tail.get(i).intValue(), first[i]);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bitmap.writeTo(new DataOutputStream(bytes));
+        CompressedBitmap restored = CompressedBitmap.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(bitmap.cardinality(), restored.cardinality());
+        assertArrayEquals(bitmap.first(0, 5000), restored.first(0, 5000));
+    }
+
+    @Test
+    public void testSampleReturnsDistinctMembers() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < 1000000; i += 3) {
+            bitmap.add(i);
+        }
+        int[] sample = bitmap.sample(500, new Random(1));
+        Set<Integer> distinct = new HashSet<>();
+        for (int value : sample) {
+            assertTrue(bitmap.contains(value));
+            distinct.add(value);
+        }
+        assertEquals(500, distinct.size());
+        assertEquals(10, bitmap.sample(10, new Random(2)).length);
+
+        CompressedBitmap small = new CompressedBitmap();
+        small.add(5);
+        small.add(9);
+        assertArrayEquals(new int[]{5, 9}, small.sample(10, new Random(1)));
+        assertTrue(small.remove(5));
+        assertTrue(small.remove(9));
+        assertTrue(small.isEmpty());
+        assertEquals(0, small.sample(10, new Random(1)).length);
+    }
+}
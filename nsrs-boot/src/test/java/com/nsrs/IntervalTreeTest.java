@@ -0,0 +1,66 @@
+package com.nsrs;
+
+import com.nsrs.common.utils.IntervalTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 区间树单元测试：与线性扫描结果比对
+ */
+public class IntervalTreeTest {
+
+    @Test
+    public void testFindReturnsMostSpecificSegment() {
+        List<long[]> segments = Arrays.asList(
+                new long[]{13800000000L, 13899999999L},
+                new long[]{13812340000L, 13812349999L},
+                new long[]{13900000000L, 13999999999L});
+        IntervalTree<long[]> tree = IntervalTree.build(segments, s -> s[0], s -> s[1]);
+
+        assertSame(segments.get(1), tree.find(13812345678L));
+        assertSame(segments.get(0), tree.find(13800000000L));
+        assertSame(segments.get(2), tree.find(13999999999L));
+        assertNull(tree.find(13799999999L));
+        assertEquals(2, tree.overlapping(13899999999L, 13900000000L).size());
+        assertNull(IntervalTree.<long[]>empty().find(1L));
+    }
+
+    @Test
+    public void testOverlappingMatchesLinearScan() {
+        Random random = new Random(42);
+        List<long[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long start = random.nextInt(100000);
+            intervals.add(new long[]{start, start + random.nextInt(2000)});
+        }
+        IntervalTree<long[]> tree = IntervalTree.build(intervals, s -> s[0], s -> s[1]);
+        assertEquals(intervals.size(), tree.size());
+
+        for (int i = 0; i < 2000; i++) {
+            long start = random.nextInt(105000);
+            long end = start + random.nextInt(500);
+            List<long[]> expected = new ArrayList<>();
+            for (long[] interval : intervals) {
+                if (interval[0] <= end && interval[1] >= start) {
+                    expected.add(interval);
+                }
+            }
+            List<long[]> actual = tree.overlapping(start, end);
+            assertEquals(expected.size(), actual.size());
+            assertTrue(actual.containsAll(expected));
+        }
+    }
+
+    @Test
+    public void testRejectsInvertedInterval() {
+        assertThrows(IllegalArgumentException.class,
+                () -> IntervalTree.build(Collections.singletonList(new long[]{2L, 1L}), s -> s[0], s -> s[1]));
+    }
+}
@@ -0,0 +1,94 @@
+package com.nsrs;
+
+import com.nsrs.common.utils.NgramIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * n-gram子串索引单元测试：与逐条 contains 的结果比对，覆盖替换、删除与快照读写
+ */
+public class NgramIndexTest {
+
+    @Test
+    public void testMatchesBruteForce() throws IOException {
+        Random random = new Random(11);
+        NgramIndex index = new NgramIndex(4);
+        Map<Long, String> expected = new HashMap<>();
+        for (long key = 0; key < 20000; key++) {
+            String value = "8986" + String.format("%016d", Math.abs(random.nextLong()) % 10000000000000000L);
+            index.put(key, (int) (key % 10), value);
+            expected.put(key, value);
+        }
+        // 替换与删除
+        for (long key = 0; key < 20000; key += 7) {
+            if (key % 2 == 0) {
+                index.remove(key);
+                expected.remove(key);
+            } else {
+                String value = "46000" + String.format("%010d", key);
+                index.put(key, (int) (key % 10), value);
+                expected.put(key, value);
+            }
+        }
+        assertEquals(expected.size(), index.size());
+
+        for (int i = 0; i < 200; i++) {
+            String source = expected.get((long) random.nextInt(20000));
+            if (source == null) {
+                continue;
+            }
+            int start = random.nextInt(source.length() - 4);
+            String fragment = source.substring(start, start + 4 + random.nextInt(source.length() - start - 4 + 1));
+            assertEquals(bruteForce(expected, fragment), keys(index.search(fragment, Integer.MAX_VALUE)), fragment);
+        }
+        assertNull(index.search("898", 10));
+        assertTrue(index.search("ABCD", 10).isEmpty());
+        assertEquals(3, index.search("8986", 3).size());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        NgramIndex restored = NgramIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(index.size(), restored.size());
+        assertEquals(keys(index.search("46000", Integer.MAX_VALUE)), keys(restored.search("46000", Integer.MAX_VALUE)));
+    }
+
+    @Test
+    public void testHitCarriesShard() {
+        NgramIndex index = new NgramIndex(4);
+        index.put(1L, 3, "13912345678");
+        index.put(1L, 5, "13912345678");
+        List<NgramIndex.Hit> hits = index.search("12345", 10);
+        assertEquals(1, hits.size());
+        assertEquals(5, hits.get(0).getShard());
+        assertEquals("13912345678", hits.get(0).getValue());
+
+        index.put(1L, 5, "");
+        assertEquals(0, index.size());
+        assertTrue(index.search("12345", 10).isEmpty());
+    }
+
+    private static Set<Long> bruteForce(Map<Long, String> values, String fragment) {
+        return values.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(fragment))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static Set<Long> keys(List<NgramIndex.Hit> hits) {
+        return hits.stream().map(NgramIndex.Hit::getKey).collect(Collectors.toCollection(TreeSet::new));
+    }
+}
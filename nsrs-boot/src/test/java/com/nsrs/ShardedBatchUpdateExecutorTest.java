@@ -0,0 +1,169 @@
+package com.nsrs;
+
+import com.nsrs.common.utils.ShardedBatchUpdateExecutor;
+import com.nsrs.common.utils.ShardedBatchUpdateResult;
+import com.nsrs.common.utils.ShardingBatchUpdateUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分表批量更新执行器测试（H2单表模拟逻辑表，校验分组、执行方式选择与逐行结果）
+ */
+class ShardedBatchUpdateExecutorTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DriverManagerDataSource dataSource;
+
+    private ShardedBatchUpdateExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:sharded_batch_update;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS sim_card");
+        jdbcTemplate.execute("CREATE TABLE sim_card (iccid VARCHAR(20) PRIMARY KEY, status INT, org_id BIGINT)");
+        for (int i = 0; i < 100; i++) {
+            jdbcTemplate.update("INSERT INTO sim_card (iccid, status, org_id) VALUES (?, 1, 0)", iccid(i));
+        }
+
+        executor = new ShardedBatchUpdateExecutor();
+        ReflectionTestUtils.setField(executor, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(executor, "shardingBatchUpdateUtils", new ShardingBatchUpdateUtils());
+        ReflectionTestUtils.setField(executor, "parallelism", 4);
+        executor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    void testUniformValuesUseInListAndReportMissingRows() {
+        // 尾号为10的倍数的ICCID都落在 sim_card_0
+        List<String> iccids = new ArrayList<>();
+        for (int i = 0; i < 100; i += 10) {
+            iccids.add(iccid(i));
+        }
+        iccids.add(iccid(1000));
+
+        Map<String, Object> values = Collections.singletonMap("status", 2);
+        ShardedBatchUpdateResult result = executor.execute("sim_card", "iccid", iccids, iccid -> iccid, iccid -> values);
+
+        assertEquals(1, result.getShardCount());
+        assertEquals(Integer.valueOf(1), result.getStrategyCounts().get(ShardedBatchUpdateResult.Strategy.IN_LIST));
+        assertEquals(10, result.getUpdatedCount());
+        assertEquals(Collections.singletonList(iccid(1000)), result.getKeys(ShardedBatchUpdateResult.RowStatus.NOT_FOUND));
+        assertFalse(result.isAllUpdated());
+        assertEquals(iccids, result.getRows().stream().map(ShardedBatchUpdateResult.RowResult::getKey)
+                .collect(Collectors.toList()));
+        assertEquals(10, count("status = 2"));
+    }
+
+    @Test
+    void testDistinctValuesUseCaseWhenAcrossShardsInParallel() {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            indexes.add(i);
+        }
+
+        ShardedBatchUpdateResult result = executor.execute("sim_card", "iccid", indexes,
+                ShardedBatchUpdateExecutorTest::iccid, i -> {
+                    Map<String, Object> values = new LinkedHashMap<>();
+                    values.put("status", 3);
+                    values.put("org_id", (long) i);
+                    return values;
+                });
+
+        assertTrue(result.isAllUpdated());
+        assertEquals(100, result.getUpdatedCount());
+        assertEquals(10, result.getShardCount());
+        assertEquals(Integer.valueOf(10), result.getStrategyCounts().get(ShardedBatchUpdateResult.Strategy.CASE_WHEN));
+        assertEquals(10, result.getStatementCount());
+        assertEquals(100, count("status = 3 AND org_id = CAST(SUBSTRING(iccid, 13) AS BIGINT)"));
+    }
+
+    @Test
+    void testSmallGroupsUseJdbcBatchAndInvalidKeysFail() {
+        List<String> iccids = new ArrayList<>();
+        iccids.add(iccid(1));
+        iccids.add(iccid(2));
+        iccids.add(iccid(1002));
+        iccids.add("x");
+
+        ShardedBatchUpdateResult result = executor.execute("sim_card", "iccid", iccids, iccid -> iccid,
+                iccid -> Collections.singletonMap("org_id", null));
+
+        assertEquals(Integer.valueOf(2), result.getStrategyCounts().get(ShardedBatchUpdateResult.Strategy.JDBC_BATCH));
+        assertEquals(2, result.getUpdatedCount());
+        assertEquals(Collections.singletonList(iccid(1002)), result.getKeys(ShardedBatchUpdateResult.RowStatus.NOT_FOUND));
+        assertEquals(Collections.singletonList("x"), result.getKeys(ShardedBatchUpdateResult.RowStatus.FAILED));
+        assertEquals(2, count("org_id IS NULL"));
+    }
+
+    @Test
+    void testFailedStatementKeepsEarlierStatementsUpdated() {
+        // sim_card_0 中1200行，CASE WHEN 按500行拆分为3条语句，第2条语句中的非法值使其失败
+        for (int i = 100; i < 12000; i += 10) {
+            jdbcTemplate.update("INSERT INTO sim_card (iccid, status, org_id) VALUES (?, 1, 0)", iccid(i));
+        }
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < 12000; i += 10) {
+            indexes.add(i);
+        }
+
+        ShardedBatchUpdateResult result = executor.execute("sim_card", "iccid", indexes,
+                ShardedBatchUpdateExecutorTest::iccid, i -> {
+                    Map<String, Object> values = new LinkedHashMap<>();
+                    values.put("status", i == 7000 ? "invalid" : 4);
+                    values.put("org_id", (long) i);
+                    return values;
+                });
+
+        assertEquals(500, result.getUpdatedCount());
+        assertEquals(700, result.getFailedCount());
+        assertEquals(iccid(0), result.getKeys(ShardedBatchUpdateResult.RowStatus.UPDATED).get(0));
+        assertEquals(iccid(5000), result.getKeys(ShardedBatchUpdateResult.RowStatus.FAILED).get(0));
+        assertEquals(500, count("status = 4"));
+    }
+
+    @Test
+    void testFailureInsideTransactionIsRethrown() {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        List<String> iccids = new ArrayList<>();
+        for (int i = 0; i < 100; i += 10) {
+            iccids.add(iccid(i));
+        }
+
+        assertThrows(RuntimeException.class, () -> transaction.executeWithoutResult(status ->
+                executor.execute("sim_card", "iccid", iccids, iccid -> iccid,
+                        iccid -> Collections.singletonMap("status", "invalid"))));
+        assertEquals(0, count("status <> 1"));
+    }
+
+    private int count(String condition) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sim_card WHERE " + condition, Integer.class);
+        return count != null ? count : 0;
+    }
+
+    private static String iccid(int index) {
+        return String.format("898600000000%08d", index);
+    }
+}
@@ -0,0 +1,111 @@
+package com.nsrs;
+
+import com.nsrs.common.utils.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 时间轮单元测试：刻度10ms、8个槽位，一圈覆盖70ms
+ */
+public class TimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int SLOTS = 8;
+
+    @Test
+    public void testFiresAcrossRotations() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SLOTS, 0);
+        Map<String, Long> deadlines = new HashMap<>();
+        List<String> fired = new ArrayList<>();
+        // 共推进五圈，每个刻度添加一个35ms后到期的任务，槽位被反复复用
+        for (long now = 0; now <= 5 * SLOTS * TICK; now += TICK) {
+            for (String item : wheel.advance(now)) {
+                long deadline = deadlines.get(item);
+                assertTrue(deadline <= now && deadline > now - TICK, item + " fired at " + now);
+                fired.add(item);
+            }
+            String item = "t" + now;
+            deadlines.put(item, now + 35);
+            assertTrue(wheel.add(item, now + 35));
+        }
+        List<String> remaining = wheel.advance(6 * SLOTS * TICK);
+        assertEquals(deadlines.size(), fired.size() + remaining.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testDelayLongerThanOneRotationIsRejected() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SLOTS, 0);
+        assertEquals(70, wheel.getSpanMs());
+
+        assertTrue(wheel.add("edge", wheel.getSpanMs()));
+        assertFalse(wheel.add("far", wheel.getSpanMs() + 1));
+        assertFalse(wheel.add("farther", 10 * wheel.getSpanMs()));
+        assertEquals(1, wheel.size());
+
+        // 推进后由调用方重新添加，到期时间不变
+        assertTrue(wheel.advance(30).isEmpty());
+        assertTrue(wheel.add("far", 71));
+        assertEquals(Collections.singletonList("edge"), wheel.advance(70));
+        assertTrue(wheel.advance(79).isEmpty());
+        assertEquals(Collections.singletonList("far"), wheel.advance(80));
+    }
+
+    @Test
+    public void testAdvanceLaggingMoreThanOneRotation() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SLOTS, 0);
+        List<String> items = Arrays.asList("a", "b", "c", "d", "e", "f", "g");
+        for (int i = 0; i < items.size(); i++) {
+            assertTrue(wheel.add(items.get(i), (i + 1) * TICK));
+        }
+
+        List<String> expired = wheel.advance(1000);
+        Collections.sort(expired);
+        assertEquals(items, expired);
+        assertTrue(wheel.advance(1005).isEmpty());
+
+        assertTrue(wheel.add("late", 1015));
+        assertTrue(wheel.advance(1010).isEmpty());
+        assertEquals(Collections.singletonList("late"), wheel.advance(1020));
+    }
+
+    @Test
+    public void testRemoveCancelsPendingItem() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SLOTS, 0);
+        assertTrue(wheel.add("a", 25));
+        assertTrue(wheel.add("b", 25));
+        assertTrue(wheel.add("c", 65));
+
+        assertTrue(wheel.remove("a", 25));
+        assertFalse(wheel.remove("a", 25));
+        assertFalse(wheel.remove("c", 25));
+        assertEquals(2, wheel.size());
+
+        assertEquals(Collections.singletonList("b"), wheel.advance(30));
+        assertFalse(wheel.remove("b", 25));
+
+        // 已取消的任务在其槽位到期时不再返回
+        assertTrue(wheel.remove("c", 65));
+        assertTrue(wheel.add("d", 95));
+        assertTrue(wheel.advance(90).isEmpty());
+        assertEquals(Collections.singletonList("d"), wheel.advance(100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testPastDeadlineFiresOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SLOTS, 100);
+        assertTrue(wheel.add("overdue", 50));
+        assertTrue(wheel.advance(105).isEmpty());
+        assertEquals(Collections.singletonList("overdue"), wheel.advance(110));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(0, SLOTS, 0));
+    }
+}
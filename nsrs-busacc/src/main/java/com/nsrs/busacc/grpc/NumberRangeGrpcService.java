@@ -0,0 +1,110 @@
+package com.nsrs.busacc.grpc;
+
+import com.nsrs.common.exception.BusinessException;
+import com.nsrs.msisdn.dto.NumberRangeOperationResult;
+import com.nsrs.msisdn.service.NumberRangeOperationService;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.util.StringUtils;
+
+/**
+ * 号码区间操作GRPC服务实现
+ */
+@Slf4j
+@GrpcService
+@RequiredArgsConstructor
+public class NumberRangeGrpcService extends NumberRangeServiceGrpc.NumberRangeServiceImplBase {
+
+    private final NumberRangeOperationService rangeOperationService;
+
+    /**
+     * 提交号码区间批量操作
+     */
+    @Override
+    public void submitRangeOperation(NumberRangeRequest request, StreamObserver<NumberRangeResponse> responseObserver) {
+
+        log.info("GRPC range operation: [{}, {}], operationType: {}, dryRun: {}",
+                request.getStartNumber(), request.getEndNumber(), request.getOperationType(), request.getDryRun());
+
+        // 参数验证
+        if (!StringUtils.hasText(request.getStartNumber()) || !StringUtils.hasText(request.getEndNumber())) {
+            sendErrorResponse(responseObserver, "Start and end number cannot be empty");
+            return;
+        }
+
+        try {
+            NumberRangeOperationResult result = rangeOperationService.submit(convertToBusinessRequest(request));
+            responseObserver.onNext(convertToGrpcResponse(result));
+            responseObserver.onCompleted();
+        } catch (BusinessException e) {
+            sendErrorResponse(responseObserver, e.getMessage());
+        } catch (Exception e) {
+            log.error("GRPC exception occurred during range operation", e);
+            sendErrorResponse(responseObserver, "Range operation failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询号码区间批量操作进度
+     */
+    @Override
+    public void getRangeProgress(NumberRangeProgressRequest request, StreamObserver<NumberRangeResponse> responseObserver) {
+        if (!StringUtils.hasText(request.getJobId())) {
+            sendErrorResponse(responseObserver, "Job ID cannot be empty");
+            return;
+        }
+        NumberRangeOperationResult result = rangeOperationService.getProgress(request.getJobId());
+        if (result == null) {
+            sendErrorResponse(responseObserver, "Range operation job does not exist");
+            return;
+        }
+        responseObserver.onNext(convertToGrpcResponse(result));
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * 转换GRPC请求为业务DTO，0值字段视为未设置
+     */
+    private com.nsrs.msisdn.dto.NumberRangeOperationRequest convertToBusinessRequest(NumberRangeRequest request) {
+        com.nsrs.msisdn.dto.NumberRangeOperationRequest businessRequest = new com.nsrs.msisdn.dto.NumberRangeOperationRequest();
+        businessRequest.setStartNumber(request.getStartNumber());
+        businessRequest.setEndNumber(request.getEndNumber());
+        businessRequest.setOperationType(request.getOperationType() > 0 ? request.getOperationType() : null);
+        businessRequest.setLevelId(request.getLevelId() > 0 ? request.getLevelId() : null);
+        businessRequest.setHlrId(request.getHlrId() > 0 ? request.getHlrId() : null);
+        businessRequest.setAttributiveOrg(StringUtils.hasText(request.getAttributiveOrg()) ? request.getAttributiveOrg() : null);
+        businessRequest.setRemark(StringUtils.hasText(request.getRemark()) ? request.getRemark() : null);
+        businessRequest.setDryRun(request.getDryRun());
+        businessRequest.setChunkSize(request.getChunkSize() > 0 ? request.getChunkSize() : null);
+        return businessRequest;
+    }
+
+    private NumberRangeResponse convertToGrpcResponse(NumberRangeOperationResult result) {
+        NumberRangeResponse.Builder builder = NumberRangeResponse.newBuilder()
+                .setSuccess(result.getState() != NumberRangeOperationResult.State.FAILED)
+                .setState(result.getState().name())
+                .setMatchedCount(result.getMatchedCount())
+                .setTotalChunks(result.getTotalChunks())
+                .setProcessedChunks(result.getProcessedChunks())
+                .setUpdatedCount(result.getUpdatedCount());
+        if (result.getJobId() != null) {
+            builder.setJobId(result.getJobId());
+        }
+        if (result.getMessage() != null) {
+            builder.setMessage(result.getMessage());
+        }
+        return builder.build();
+    }
+
+    private void sendErrorResponse(StreamObserver<NumberRangeResponse> responseObserver, String errorMessage) {
+        responseObserver.onNext(NumberRangeResponse.newBuilder()
+                .setSuccess(false)
+                .setMessage(errorMessage)
+                .build());
+        responseObserver.onCompleted();
+
+        log.warn("GRPC range operation rejected: {}", errorMessage);
+    }
+}
@@ -112,9 +112,23 @@ public class NumberSelectionServiceImpl implements NumberSelectionService {
      * 根据号段前缀查询号码
      */
     private List<NumberSelectionResponse.NumberInfo> selectNumbersByPrefix(String prefix, Integer poolSize, NumberSelectionRequest request) {
-        // 使用工具类获取表名
-        String tableName = tableUtils.getTableNameByPrefix(prefix);
-        
+        // 热点前缀的号码分布在多个子表中，各表分别随机抽取后合并
+        List<String> tableNames = tableUtils.getTableNamesByPrefix(prefix);
+        if (tableNames.size() == 1) {
+            return selectNumbersFromTable(tableNames.get(0), prefix, poolSize, request);
+        }
+        List<NumberSelectionResponse.NumberInfo> result = new ArrayList<>();
+        for (String tableName : tableNames) {
+            result.addAll(selectNumbersFromTable(tableName, prefix, poolSize, request));
+        }
+        Collections.shuffle(result);
+        return result.size() > poolSize ? new ArrayList<>(result.subList(0, poolSize)) : result;
+    }
+    
+    /**
+     * 从指定分表中随机查询号码
+     */
+    private List<NumberSelectionResponse.NumberInfo> selectNumbersFromTable(String tableName, String prefix, Integer poolSize, NumberSelectionRequest request) {
         // 检查表是否存在
         if (!tableUtils.isTableExists(tableName)) {
             log.warn("Table {} does not exist for prefix {}", tableName, prefix);
@@ -1,5 +1,6 @@
 package com.nsrs.busacc.utils;
 
+import com.nsrs.common.utils.HotPrefixShardingRule;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -154,6 +155,21 @@ public class NumberResourceTableUtils {
         return PREFIX_TABLE_MAP.getOrDefault(prefix, DEFAULT_TABLE);
     }
 
+    /**
+     * 根据号码前缀获取号码所在的全部物理表
+     * 热点前缀返回其子表，迁移中时原前缀表排在最前
+     *
+     * @param prefix 号码前缀（3位）
+     * @return 表名列表
+     */
+    public List<String> getTableNamesByPrefix(String prefix) {
+        List<String> tableNames = new ArrayList<>(HotPrefixShardingRule.subTableNames(DEFAULT_TABLE, prefix));
+        if (tableNames.isEmpty() || HotPrefixShardingRule.isDualRead(prefix)) {
+            tableNames.add(0, getTableNameByPrefix(prefix));
+        }
+        return tableNames;
+    }
+
     /**
      * 获取所有分表表名
      *
@@ -1,17 +1,34 @@
 package com.nsrs.common.controller;
 
+import com.nsrs.common.core.domain.ImportResult;
+import com.nsrs.common.enums.ExportFormatEnum;
+import com.nsrs.common.exception.BusinessException;
 import com.nsrs.common.model.CommonResult;
+import com.nsrs.common.utils.ChunkedImportReader;
 import com.nsrs.common.utils.ExcelUtils;
+import com.nsrs.common.utils.StreamingExportWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Excel导入导出控制器基类
@@ -24,6 +41,8 @@ import java.util.List;
 @Slf4j
 public abstract class BaseExcelController<T, D> {
 
+    private static final Validator IMPORT_VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
     /**
      * Excel批量导入
      *
@@ -57,6 +76,86 @@ public abstract class BaseExcelController<T, D> {
         }
     }
 
+    /**
+     * Excel分块流式导入
+     * 逐行解析、校验后按分块提交，失败行写入错误报告，不中断整体导入
+     *
+     * @param file Excel文件
+     * @param chunkSize 分块大小
+     * @return 导入结果
+     */
+    @Operation(summary = "Excel分块流式导入")
+    @PostMapping("/import-stream")
+    public CommonResult<ImportResult> importStream(
+            @Parameter(description = "Excel文件") @RequestParam("file") MultipartFile file,
+            @Parameter(description = "分块大小") @RequestParam(value = "chunkSize", defaultValue = "1000") int chunkSize) {
+        if (!ExcelUtils.isValidExcelFile(file)) {
+            return CommonResult.failed("Invalid Excel file format");
+        }
+        try {
+            ImportResult result = ChunkedImportReader.read(file, getEntityClass(), chunkSize,
+                    this::validateImportRow, this::validateImportChunk, this::processImportChunk);
+            if (result.getTotalRows() == 0) {
+                return CommonResult.failed("No data found in Excel file");
+            }
+            return CommonResult.success(result);
+        } catch (Exception e) {
+            log.error("Excel chunked import failed", e);
+            return CommonResult.failed("Import failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 下载导入错误报告
+     *
+     * @param reportId 错误报告编号
+     * @param response HTTP响应
+     */
+    @Operation(summary = "下载导入错误报告")
+    @GetMapping("/import-error-report")
+    public void downloadImportErrorReport(
+            @Parameter(description = "错误报告编号") @RequestParam("reportId") String reportId,
+            HttpServletResponse response) {
+        File report = ChunkedImportReader.resolveErrorReport(reportId);
+        if (report == null) {
+            throw new BusinessException("404", "Import error report not found: " + reportId);
+        }
+        response.setContentType(ExportFormatEnum.CSV.getContentType());
+        response.setHeader("Content-Disposition", "attachment; filename=import_errors_" + reportId + ExportFormatEnum.CSV.getExtension());
+        try {
+            Files.copy(report.toPath(), response.getOutputStream());
+            response.getOutputStream().flush();
+        } catch (IOException e) {
+            log.error("Import error report download failed", e);
+            throw new RuntimeException("Download failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 流式导出（xlsx / csv / csv.gz），逐行写入响应流，适用于大数据量导出
+     *
+     * @param format 导出格式
+     * @param queryParams 查询参数
+     * @param response HTTP响应
+     */
+    @Operation(summary = "流式导出")
+    @PostMapping("/export-stream")
+    public void exportStream(
+            @Parameter(description = "导出格式：xlsx、csv、csv.gz") @RequestParam(value = "format", defaultValue = "xlsx") String format,
+            @RequestBody(required = false) D queryParams,
+            HttpServletResponse response) {
+        ExportFormatEnum exportFormat = ExportFormatEnum.getByCode(format);
+        if (exportFormat == null) {
+            throw new BusinessException("400", "Unsupported export format: " + format);
+        }
+        try (StreamingExportWriter<T> writer = StreamingExportWriter.open(exportFormat, getExportTitle(), getSheetName(), getEntityClass(), response)) {
+            streamDataForExport(queryParams, writer);
+        } catch (IOException e) {
+            log.error("Streaming export failed", e);
+            throw new RuntimeException("Export failed: " + e.getMessage());
+        }
+    }
+
     /**
      * 下载导入模板
      *
@@ -88,6 +187,42 @@ public abstract class BaseExcelController<T, D> {
      */
     protected abstract String processImportData(List<T> dataList);
 
+    /**
+     * 处理一个导入分块，调用方保证每次调用在独立事务中提交，失败时应抛出异常
+     * 默认委托给processImportData，子类应覆盖为直接调用事务性的服务方法
+     *
+     * @param chunk 分块数据
+     */
+    protected void processImportChunk(List<T> chunk) {
+        processImportData(chunk);
+    }
+
+    /**
+     * 校验单行导入数据，默认执行实体上的Bean Validation约束
+     *
+     * @param row 行数据
+     * @return 错误信息，校验通过返回null
+     */
+    protected String validateImportRow(T row) {
+        Set<ConstraintViolation<T>> violations = IMPORT_VALIDATOR.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * 提交前按分块校验导入数据，需要查库的校验应在此批量执行而不是放在validateImportRow中逐行查询
+     *
+     * @param chunk 行校验已通过的分块数据
+     * @return 分块内下标 -> 错误信息，全部通过时返回空Map
+     */
+    protected Map<Integer, String> validateImportChunk(List<T> chunk) {
+        return Collections.emptyMap();
+    }
+
     /**
      * 查询导出数据
      *
@@ -96,6 +231,17 @@ public abstract class BaseExcelController<T, D> {
      */
     protected abstract List<T> queryDataForExport(D queryParams);
 
+    /**
+     * 流式读取导出数据，逐条交给写入器
+     * 默认基于queryDataForExport实现，大数据量场景下子类应覆盖为游标读取
+     *
+     * @param queryParams 查询参数
+     * @param consumer 数据消费者
+     */
+    protected void streamDataForExport(D queryParams, Consumer<T> consumer) {
+        queryDataForExport(queryParams).forEach(consumer);
+    }
+
     /**
      * 获取导出标题
      *
@@ -0,0 +1,40 @@
+package com.nsrs.common.core.domain;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 分块导入结果
+ */
+@Data
+@NoArgsConstructor
+public class ImportResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 读取的数据行数
+     */
+    private long totalRows;
+
+    /**
+     * 成功导入行数
+     */
+    private long successRows;
+
+    /**
+     * 失败行数（校验失败或所在分块处理失败）
+     */
+    private long failedRows;
+
+    /**
+     * 已提交的分块数
+     */
+    private int committedChunks;
+
+    /**
+     * 错误报告编号，无失败行时为空，通过 import-error-report 接口下载
+     */
+    private String errorReportId;
+}
@@ -0,0 +1,128 @@
+package com.nsrs.common.core.domain;
+
+import com.nsrs.common.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 游标分页（keyset）续读令牌
+ * 记录每个分片已读到的 (create_time, id) 位置，排序固定为 create_time DESC, id DESC，
+ * 对外以不透明的Base64字符串传递
+ */
+@Data
+@NoArgsConstructor
+public class KeysetCursor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String ENTRY_SEPARATOR = ",";
+    private static final String FIELD_SEPARATOR = "~";
+    private static final String EXHAUSTED_FLAG = "x";
+
+    /**
+     * 各分片已读位置，key为分片标识（如号码前缀）
+     */
+    private Map<String, Position> positions = new LinkedHashMap<>();
+
+    /**
+     * 已读完的分片
+     */
+    private Set<String> exhausted = new LinkedHashSet<>();
+
+    /**
+     * 分片内的读位置
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Position implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 最后一条已读记录的创建时间（毫秒）
+         */
+        private long createTime;
+
+        /**
+         * 最后一条已读记录的主键
+         */
+        private long id;
+    }
+
+    /**
+     * 获取分片位置，首次读取时返回null
+     */
+    public Position getPosition(String shard) {
+        return positions.get(shard);
+    }
+
+    /**
+     * 分片是否已读完
+     */
+    public boolean isExhausted(String shard) {
+        return exhausted.contains(shard);
+    }
+
+    /**
+     * 编码为不透明令牌
+     */
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Position> entry : positions.entrySet()) {
+            if (exhausted.contains(entry.getKey())) {
+                continue;
+            }
+            appendEntry(sb, entry.getKey() + FIELD_SEPARATOR + entry.getValue().getCreateTime()
+                    + FIELD_SEPARATOR + entry.getValue().getId());
+        }
+        for (String shard : exhausted) {
+            appendEntry(sb, shard + FIELD_SEPARATOR + EXHAUSTED_FLAG);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析令牌，空令牌表示从第一页开始
+     */
+    public static KeysetCursor decode(String token) {
+        KeysetCursor cursor = new KeysetCursor();
+        if (StringUtils.isBlank(token)) {
+            return cursor;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            for (String entry : StringUtils.split(raw, ENTRY_SEPARATOR)) {
+                String[] fields = StringUtils.split(entry, FIELD_SEPARATOR);
+                if (fields.length == 2 && EXHAUSTED_FLAG.equals(fields[1])) {
+                    cursor.exhausted.add(fields[0]);
+                } else if (fields.length == 3) {
+                    cursor.positions.put(fields[0], new Position(Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+                } else {
+                    throw new IllegalArgumentException("Malformed cursor entry: " + entry);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("400", "Invalid page cursor");
+        }
+        return cursor;
+    }
+
+    private static void appendEntry(StringBuilder sb, String entry) {
+        if (sb.length() > 0) {
+            sb.append(ENTRY_SEPARATOR);
+        }
+        sb.append(entry);
+    }
+}
@@ -34,5 +34,21 @@ public class PageRequest<T> implements Serializable {
     @Min(value = 1, message = "Page size must be greater than 0")
     private Long size;
 
+    /**
+     * 游标分页令牌：为null时使用传统offset分页；首页传空字符串，后续传上一页返回的nextCursor
+     */
+    private String cursor;
+
+    /**
+     * 统计模式：exact-精确统计，approximate-近似统计，skip-不统计仅判断是否有下一页；为空时由接口决定
+     */
+    private String countMode;
+
+    /**
+     * 是否使用游标分页
+     */
+    public boolean useCursor() {
+        return cursor != null;
+    }
 
 }
\ No newline at end of file
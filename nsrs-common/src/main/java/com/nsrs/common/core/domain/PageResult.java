@@ -1,9 +1,11 @@
 package com.nsrs.common.core.domain;
 
+import com.nsrs.common.enums.CountModeEnum;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -23,7 +25,7 @@ public class PageResult<T> implements Serializable {
     private List<T> list;
     
     /**
-     * 总记录数
+     * 总记录数（未统计时为-1）
      */
     private long total;
     
@@ -41,6 +43,21 @@ public class PageResult<T> implements Serializable {
      * 总页数
      */
     private long pages;
+
+    /**
+     * 下一页游标（仅游标分页返回，为null表示没有更多数据）
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private Boolean hasNext;
+
+    /**
+     * 实际使用的统计模式，见 CountModeEnum
+     */
+    private String countMode;
     
     /**
      * 构造函数
@@ -57,4 +74,82 @@ public class PageResult<T> implements Serializable {
         this.pageSize = pageSize;
         this.pages = pageSize == 0 ? 0 : (long) Math.ceil((double) total / pageSize);
     }
-}
\ No newline at end of file
+
+    /**
+     * 构造游标分页结果
+     *
+     * @param list 列表数据
+     * @param pageSize 每页记录数
+     * @param nextCursor 下一页游标，为null表示没有更多数据
+     * @return 分页结果
+     */
+    public static <T> PageResult<T> ofCursor(List<T> list, long pageSize, String nextCursor) {
+        PageResult<T> result = new PageResult<>(list, -1, 0, pageSize);
+        result.setPages(-1);
+        result.setNextCursor(nextCursor);
+        result.setHasNext(nextCursor != null);
+        result.setCountMode(CountModeEnum.SKIP.getCode());
+        return result;
+    }
+
+    /**
+     * 不统计总数时的LIMIT子句，多取一条用于判断是否有下一页
+     *
+     * @param pageNum 当前页码
+     * @param pageSize 每页记录数
+     * @return LIMIT子句
+     */
+    public static String lookaheadLimit(long pageNum, long pageSize) {
+        return "LIMIT " + (pageNum - 1) * pageSize + ", " + (pageSize + 1);
+    }
+
+    /**
+     * 构造不统计总数的分页结果
+     *
+     * @param lookaheadList 按 lookaheadLimit 查询的列表数据
+     * @param pageNum 当前页码
+     * @param pageSize 每页记录数
+     * @return 分页结果
+     */
+    public static <T> PageResult<T> ofHasNext(List<T> lookaheadList, long pageNum, long pageSize) {
+        boolean hasNext = lookaheadList != null && lookaheadList.size() > pageSize;
+        List<T> list = hasNext ? new ArrayList<>(lookaheadList.subList(0, (int) pageSize)) : lookaheadList;
+        PageResult<T> result = new PageResult<>(list, -1, pageNum, pageSize);
+        result.setPages(-1);
+        result.setHasNext(hasNext);
+        result.setCountMode(CountModeEnum.SKIP.getCode());
+        return result;
+    }
+
+    /**
+     * 构造带统计模式的分页结果
+     *
+     * @param list 列表数据
+     * @param total 总记录数（精确或近似）
+     * @param pageNum 当前页码
+     * @param pageSize 每页记录数
+     * @param countMode 统计模式
+     * @return 分页结果
+     */
+    public static <T> PageResult<T> of(List<T> list, long total, long pageNum, long pageSize, CountModeEnum countMode) {
+        PageResult<T> result = new PageResult<>(list, total, pageNum, pageSize);
+        result.setHasNext(pageNum * pageSize < total);
+        result.setCountMode(countMode.getCode());
+        return result;
+    }
+
+    /**
+     * 替换列表数据并保留分页信息（如实体转换为VO）
+     *
+     * @param newList 新的列表数据
+     * @return 分页结果
+     */
+    public <R> PageResult<R> withList(List<R> newList) {
+        PageResult<R> result = new PageResult<>(newList, total, pageNum, pageSize);
+        result.setPages(pages);
+        result.setNextCursor(nextCursor);
+        result.setHasNext(hasNext);
+        result.setCountMode(countMode);
+        return result;
+    }
+}
@@ -0,0 +1,57 @@
+package com.nsrs.common.enums;
+
+/**
+ * 分页统计模式枚举
+ */
+public enum CountModeEnum {
+
+    /**
+     * 精确统计（执行COUNT(*)，跨所有分表）
+     */
+    EXACT("exact", "精确统计"),
+
+    /**
+     * 近似统计（来自号段计数器、批次库存计数器或表统计信息）
+     */
+    APPROXIMATE("approximate", "近似统计"),
+
+    /**
+     * 不统计总数，仅判断是否有下一页
+     */
+    SKIP("skip", "不统计");
+
+    private final String code;
+    private final String description;
+
+    CountModeEnum(String code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 根据编码获取枚举，编码为空或无法识别时返回默认值
+     *
+     * @param code 编码
+     * @param defaultMode 默认模式
+     * @return 枚举值
+     */
+    public static CountModeEnum getByCode(String code, CountModeEnum defaultMode) {
+        if (code == null) {
+            return defaultMode;
+        }
+        for (CountModeEnum mode : values()) {
+            if (mode.getCode().equalsIgnoreCase(code)) {
+                return mode;
+            }
+        }
+        return defaultMode;
+    }
+}
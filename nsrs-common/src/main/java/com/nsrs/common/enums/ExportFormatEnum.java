@@ -0,0 +1,62 @@
+package com.nsrs.common.enums;
+
+/**
+ * 流式导出格式枚举
+ */
+public enum ExportFormatEnum {
+
+    /**
+     * Excel（SXSSF流式写入）
+     */
+    XLSX("xlsx", ".xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+
+    /**
+     * CSV
+     */
+    CSV("csv", ".csv", "text/csv;charset=UTF-8"),
+
+    /**
+     * gzip压缩的CSV，适用于超大数据量导出
+     */
+    CSV_GZIP("csv.gz", ".csv.gz", "application/gzip");
+
+    private final String code;
+    private final String extension;
+    private final String contentType;
+
+    ExportFormatEnum(String code, String extension, String contentType) {
+        this.code = code;
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * 根据编码获取枚举，编码为空时默认XLSX
+     *
+     * @param code 编码
+     * @return 枚举值，无法识别时返回null
+     */
+    public static ExportFormatEnum getByCode(String code) {
+        if (code == null || code.isEmpty()) {
+            return XLSX;
+        }
+        for (ExportFormatEnum format : values()) {
+            if (format.getCode().equalsIgnoreCase(code)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,328 @@
+package com.nsrs.common.utils;
+
+import cn.afterturn.easypoi.excel.ExcelImportUtil;
+import cn.afterturn.easypoi.excel.entity.ImportParams;
+import cn.afterturn.easypoi.handler.inter.IReadHandler;
+import com.nsrs.common.core.domain.ImportResult;
+import com.nsrs.common.enums.ExportFormatEnum;
+import com.nsrs.common.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Excel分块流式导入器
+ * xlsx通过EasyPOI的SAX模式逐行解析，行数据经校验后按分块交给处理器，每个分块独立提交；
+ * 处理失败的分块会逐行重试以定位问题行，失败行连同错误原因写入CSV错误报告，不中断整体导入
+ *
+ * @param <T> 实体类型
+ * @author nsrs
+ */
+@Slf4j
+public class ChunkedImportReader<T> {
+
+    /**
+     * 默认分块大小
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    /**
+     * 最大分块大小，避免单个事务过大
+     */
+    public static final int MAX_CHUNK_SIZE = 5000;
+
+    /**
+     * 错误报告保留时间（毫秒）
+     */
+    private static final long ERROR_REPORT_RETENTION_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private static final File ERROR_REPORT_DIR = new File(System.getProperty("java.io.tmpdir"), "nsrs-import-errors");
+
+    private static final Pattern REPORT_ID_PATTERN = Pattern.compile("[0-9a-f]{32}");
+
+    private static final int TITLE_ROWS = 1;
+
+    private static final int HEAD_ROWS = 1;
+
+    /**
+     * 分块处理器，每次调用应在独立事务中完成，失败时抛出异常
+     *
+     * @param <T> 实体类型
+     */
+    @FunctionalInterface
+    public interface ChunkProcessor<T> {
+
+        /**
+         * 处理一个分块
+         *
+         * @param chunk 分块数据
+         */
+        void process(List<T> chunk);
+    }
+
+    /**
+     * 分块校验器，需要查库的校验按分块批量执行，避免逐行查询
+     *
+     * @param <T> 实体类型
+     */
+    @FunctionalInterface
+    public interface ChunkValidator<T> {
+
+        /**
+         * 校验一个分块
+         *
+         * @param chunk 分块数据
+         * @return 分块内下标 -> 错误信息，全部通过时返回空Map
+         */
+        Map<Integer, String> validate(List<T> chunk);
+    }
+
+    private final Class<T> clazz;
+    private final int chunkSize;
+    private final Function<T, String> validator;
+    private final ChunkValidator<T> chunkValidator;
+    private final ChunkProcessor<T> processor;
+    private final ImportResult result = new ImportResult();
+    private final List<T> chunk;
+    private final List<Long> chunkRowNums;
+    private long rowNum = TITLE_ROWS + HEAD_ROWS;
+    private StreamingExportWriter<T> errorWriter;
+
+    private ChunkedImportReader(Class<T> clazz, int chunkSize, Function<T, String> validator,
+                                ChunkValidator<T> chunkValidator, ChunkProcessor<T> processor) {
+        this.clazz = clazz;
+        this.chunkSize = Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE));
+        this.validator = validator;
+        this.chunkValidator = chunkValidator;
+        this.processor = processor;
+        this.chunk = new ArrayList<>(this.chunkSize);
+        this.chunkRowNums = new ArrayList<>(this.chunkSize);
+    }
+
+    /**
+     * 分块导入Excel文件（1行标题 + 1行表头，与导入模板一致）
+     *
+     * @param file Excel文件
+     * @param clazz 实体类
+     * @param chunkSize 分块大小
+     * @param validator 行校验函数，返回错误信息，校验通过返回null
+     * @param processor 分块处理器
+     * @param <T> 泛型类型
+     * @return 导入结果
+     */
+    public static <T> ImportResult read(MultipartFile file, Class<T> clazz, int chunkSize,
+                                        Function<T, String> validator, ChunkProcessor<T> processor) {
+        return read(file, clazz, chunkSize, validator, null, processor);
+    }
+
+    /**
+     * 分块导入Excel文件，行校验通过的数据在提交前再按分块校验
+     *
+     * @param file Excel文件
+     * @param clazz 实体类
+     * @param chunkSize 分块大小
+     * @param validator 行校验函数，返回错误信息，校验通过返回null
+     * @param chunkValidator 分块校验器，未通过的行写入错误报告，其余行交给处理器
+     * @param processor 分块处理器
+     * @param <T> 泛型类型
+     * @return 导入结果
+     */
+    public static <T> ImportResult read(MultipartFile file, Class<T> clazz, int chunkSize, Function<T, String> validator,
+                                        ChunkValidator<T> chunkValidator, ChunkProcessor<T> processor) {
+        ChunkedImportReader<T> reader = new ChunkedImportReader<>(clazz, chunkSize, validator, chunkValidator, processor);
+        ImportParams params = new ImportParams();
+        params.setTitleRows(TITLE_ROWS);
+        params.setHeadRows(HEAD_ROWS);
+        try (InputStream inputStream = file.getInputStream()) {
+            String fileName = file.getOriginalFilename();
+            if (fileName != null && fileName.toLowerCase().endsWith(".xlsx")) {
+                ExcelImportUtil.importExcelBySax(inputStream, clazz, params, new IReadHandler<T>() {
+                    @Override
+                    public void handler(T row) {
+                        reader.accept(row);
+                    }
+
+                    @Override
+                    public void doAfterAll() {
+                        reader.flush();
+                    }
+                });
+            } else {
+                // xls不支持SAX解析，且受65536行上限约束，整表读取后同样按分块处理
+                List<T> rows = ExcelImportUtil.importExcel(inputStream, clazz, params);
+                rows.forEach(reader::accept);
+                reader.flush();
+            }
+        } catch (Exception e) {
+            log.error("Chunked import aborted after {} rows", reader.result.getTotalRows(), e);
+            reader.closeErrorReport();
+            throw new BusinessException("Import failed at row " + reader.rowNum + ": " + e.getMessage());
+        }
+        reader.closeErrorReport();
+        log.info("Chunked import finished, total={}, success={}, failed={}, chunks={}",
+                reader.result.getTotalRows(), reader.result.getSuccessRows(),
+                reader.result.getFailedRows(), reader.result.getCommittedChunks());
+        return reader.result;
+    }
+
+    /**
+     * 获取错误报告文件
+     *
+     * @param reportId 错误报告编号
+     * @return 报告文件，不存在时返回null
+     */
+    public static File resolveErrorReport(String reportId) {
+        if (reportId == null || !REPORT_ID_PATTERN.matcher(reportId).matches()) {
+            return null;
+        }
+        File file = new File(ERROR_REPORT_DIR, reportId + ExportFormatEnum.CSV.getExtension());
+        return file.isFile() ? file : null;
+    }
+
+    private void accept(T row) {
+        rowNum++;
+        if (row == null) {
+            return;
+        }
+        result.setTotalRows(result.getTotalRows() + 1);
+        String error;
+        try {
+            error = validator != null ? validator.apply(row) : null;
+        } catch (Exception e) {
+            error = e.getMessage();
+        }
+        if (error != null) {
+            reportFailure(row, rowNum, error);
+            return;
+        }
+        chunk.add(row);
+        chunkRowNums.add(rowNum);
+        if (chunk.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        rejectInvalidRows();
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            processor.process(new ArrayList<>(chunk));
+            result.setSuccessRows(result.getSuccessRows() + chunk.size());
+            result.setCommittedChunks(result.getCommittedChunks() + 1);
+        } catch (Exception e) {
+            if (chunk.size() == 1) {
+                reportFailure(chunk.get(0), chunkRowNums.get(0), e.getMessage());
+            } else {
+                // 分块已整体回滚，逐行重试以隔离问题行，其余行仍可提交
+                log.warn("Import chunk of {} rows ending at row {} failed, retrying row by row: {}",
+                        chunk.size(), chunkRowNums.get(chunkRowNums.size() - 1), e.getMessage());
+                for (int i = 0; i < chunk.size(); i++) {
+                    try {
+                        processor.process(Collections.singletonList(chunk.get(i)));
+                        result.setSuccessRows(result.getSuccessRows() + 1);
+                        result.setCommittedChunks(result.getCommittedChunks() + 1);
+                    } catch (Exception rowException) {
+                        reportFailure(chunk.get(i), chunkRowNums.get(i), rowException.getMessage());
+                    }
+                }
+            }
+        } finally {
+            chunk.clear();
+            chunkRowNums.clear();
+        }
+    }
+
+    /**
+     * 分块校验未通过的行写入错误报告并移出分块
+     */
+    private void rejectInvalidRows() {
+        if (chunkValidator == null) {
+            return;
+        }
+        Map<Integer, String> errors = chunkValidator.validate(Collections.unmodifiableList(chunk));
+        if (errors == null || errors.isEmpty()) {
+            return;
+        }
+        List<T> accepted = new ArrayList<>(chunk.size() - errors.size());
+        List<Long> acceptedRowNums = new ArrayList<>(chunk.size() - errors.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            String error = errors.get(i);
+            if (error != null) {
+                reportFailure(chunk.get(i), chunkRowNums.get(i), error);
+            } else {
+                accepted.add(chunk.get(i));
+                acceptedRowNums.add(chunkRowNums.get(i));
+            }
+        }
+        chunk.clear();
+        chunk.addAll(accepted);
+        chunkRowNums.clear();
+        chunkRowNums.addAll(acceptedRowNums);
+    }
+
+    private void reportFailure(T row, long failedRowNum, String message) {
+        result.setFailedRows(result.getFailedRows() + 1);
+        try {
+            if (errorWriter == null) {
+                openErrorReport();
+            }
+            errorWriter.accept(row, String.valueOf(failedRowNum), message != null ? message : "Unknown error");
+        } catch (IOException e) {
+            log.error("Failed to write import error report, row {}: {}", failedRowNum, message, e);
+        }
+    }
+
+    private void openErrorReport() throws IOException {
+        if (!ERROR_REPORT_DIR.isDirectory() && !ERROR_REPORT_DIR.mkdirs()) {
+            throw new IOException("Cannot create error report directory " + ERROR_REPORT_DIR);
+        }
+        purgeExpiredReports();
+        String reportId = UUID.randomUUID().toString().replace("-", "");
+        File file = new File(ERROR_REPORT_DIR, reportId + ExportFormatEnum.CSV.getExtension());
+        errorWriter = StreamingExportWriter.open(ExportFormatEnum.CSV, "Import Errors", "Import Errors", clazz,
+                new BufferedOutputStream(new FileOutputStream(file)), "Row Number", "Error Message");
+        result.setErrorReportId(reportId);
+    }
+
+    private void closeErrorReport() {
+        if (errorWriter == null) {
+            return;
+        }
+        try {
+            errorWriter.close();
+        } catch (IOException e) {
+            log.error("Failed to close import error report {}", result.getErrorReportId(), e);
+        }
+        errorWriter = null;
+    }
+
+    private static void purgeExpiredReports() {
+        File[] files = ERROR_REPORT_DIR.listFiles();
+        if (files == null) {
+            return;
+        }
+        long expireBefore = System.currentTimeMillis() - ERROR_REPORT_RETENTION_MILLIS;
+        for (File file : files) {
+            if (file.lastModified() < expireBefore && !file.delete()) {
+                log.warn("Failed to delete expired import error report {}", file.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,472 @@
+package com.nsrs.common.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 压缩位图（Roaring格式）
+ * 非负int按高16位分桶，桶内基数不超过4096时以有序char数组存储，否则以1024个long的位图存储；
+ * 稀疏和稠密数据都只占用与基数相当的空间。非线程安全，由调用方负责同步
+ */
+public final class CompressedBitmap {
+
+    /**
+     * 数组容器与位图容器的切换阈值
+     */
+    private static final int ARRAY_MAX_SIZE = 4096;
+
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[0];
+    private Container[] containers = new Container[0];
+    private int size;
+    private long cardinality;
+
+    /**
+     * 设置位
+     *
+     * @return 原先未设置时返回true
+     */
+    public boolean add(int value) {
+        checkValue(value);
+        char high = (char) (value >>> 16);
+        int index = indexOf(high);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, high, new ArrayContainer());
+        }
+        Container container = containers[index];
+        long before = container.cardinality();
+        containers[index] = container.add((char) value);
+        if (containers[index].cardinality() == before) {
+            return false;
+        }
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * 清除位
+     *
+     * @return 原先已设置时返回true
+     */
+    public boolean remove(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = indexOf((char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        long before = container.cardinality();
+        containers[index] = container.remove((char) value);
+        if (containers[index].cardinality() == before) {
+            return false;
+        }
+        cardinality--;
+        if (containers[index].cardinality() == 0) {
+            removeContainer(index);
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = indexOf((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    /**
+     * 已设置的位数
+     */
+    public long cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * 返回第rank个（从0开始，升序）已设置的位
+     */
+    public int select(long rank) {
+        if (rank < 0 || rank >= cardinality) {
+            throw new IndexOutOfBoundsException("rank " + rank + " out of range [0, " + cardinality + ")");
+        }
+        for (int i = 0; i < size; i++) {
+            int containerCardinality = containers[i].cardinality();
+            if (rank < containerCardinality) {
+                return (keys[i] << 16) | containers[i].select((int) rank);
+            }
+            rank -= containerCardinality;
+        }
+        throw new IllegalStateException("Bitmap cardinality is inconsistent");
+    }
+
+    /**
+     * 从from（包含）开始升序返回最多limit个已设置的位
+     */
+    public int[] first(int from, int limit) {
+        int[] result = new int[(int) Math.min(limit, cardinality)];
+        int count = 0;
+        int start = indexOf((char) (Math.max(from, 0) >>> 16));
+        if (start < 0) {
+            start = -start - 1;
+        }
+        for (int i = start; i < size && count < result.length; i++) {
+            int base = keys[i] << 16;
+            char low = base < from ? (char) from : 0;
+            count = containers[i].collect(base, low, result, count);
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * 随机返回最多limit个互不相同的已设置的位
+     */
+    public int[] sample(int limit, Random random) {
+        int count = (int) Math.min(limit, cardinality);
+        if (count == cardinality) {
+            return first(0, count);
+        }
+        // Floyd算法抽取不重复的秩
+        Set<Long> ranks = new HashSet<>(count * 2);
+        for (long j = cardinality - count; j < cardinality; j++) {
+            long rank = (long) (random.nextDouble() * (j + 1));
+            if (!ranks.add(rank)) {
+                ranks.add(j);
+            }
+        }
+        List<Long> sortedRanks = new ArrayList<>(ranks);
+        sortedRanks.sort(null);
+        int[] result = new int[count];
+        int n = 0;
+        int containerIndex = 0;
+        long passed = 0;
+        for (long rank : sortedRanks) {
+            while (rank >= passed + containers[containerIndex].cardinality()) {
+                passed += containers[containerIndex].cardinality();
+                containerIndex++;
+            }
+            result[n++] = (keys[containerIndex] << 16) | containers[containerIndex].select((int) (rank - passed));
+        }
+        return result;
+    }
+
+    /**
+     * 估算占用的内存字节数
+     */
+    public long sizeInBytes() {
+        long bytes = 16L + keys.length * 2L + containers.length * 8L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * 序列化
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeChar(keys[i]);
+            containers[i].writeTo(out);
+        }
+    }
+
+    /**
+     * 反序列化
+     */
+    public static CompressedBitmap readFrom(DataInput in) throws IOException {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        int size = in.readInt();
+        bitmap.keys = new char[size];
+        bitmap.containers = new Container[size];
+        for (int i = 0; i < size; i++) {
+            bitmap.keys[i] = in.readChar();
+            bitmap.containers[i] = Container.readFrom(in);
+            bitmap.cardinality += bitmap.containers[i].cardinality();
+        }
+        bitmap.size = size;
+        return bitmap;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Bitmap value must not be negative: " + value);
+        }
+    }
+
+    private int indexOf(char key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else if (keys[mid] > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void insertContainer(int index, char key, Container container) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    /**
+     * 低16位容器，add/remove可能返回转换后的新容器
+     */
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract char select(int rank);
+
+        /**
+         * 将不小于low的位依次写入result，返回写入后的数量
+         */
+        abstract int collect(int base, char low, int[] result, int count);
+
+        abstract long sizeInBytes();
+
+        abstract void writeTo(DataOutput out) throws IOException;
+
+        static Container readFrom(DataInput in) throws IOException {
+            int cardinality = in.readInt();
+            if (cardinality <= ARRAY_MAX_SIZE) {
+                ArrayContainer container = new ArrayContainer();
+                container.values = new char[cardinality];
+                for (int i = 0; i < cardinality; i++) {
+                    container.values[i] = in.readChar();
+                }
+                container.size = cardinality;
+                return container;
+            }
+            BitmapContainer container = new BitmapContainer();
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                container.words[i] = in.readLong();
+            }
+            container.cardinality = cardinality;
+            return container;
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX_SIZE) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX_SIZE, Math.max(4, size * 2)));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        char select(int rank) {
+            return values[rank];
+        }
+
+        @Override
+        int collect(int base, char low, int[] result, int count) {
+            int index = Arrays.binarySearch(values, 0, size, low);
+            for (int i = index >= 0 ? index : -index - 1; i < size && count < result.length; i++) {
+                result[count++] = base | values[i];
+            }
+            return count;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16L + values.length * 2L;
+        }
+
+        @Override
+        void writeTo(DataOutput out) throws IOException {
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeChar(values[i]);
+            }
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.words[values[i] >>> 6] |= 1L << values[i];
+            }
+            bitmap.cardinality = size;
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words = new long[BITMAP_WORDS];
+        private int cardinality;
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality--;
+                if (cardinality <= ARRAY_MAX_SIZE) {
+                    return toArray();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        char select(int rank) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                int bits = Long.bitCount(words[i]);
+                if (rank < bits) {
+                    long word = words[i];
+                    for (int j = 0; j < rank; j++) {
+                        word &= word - 1;
+                    }
+                    return (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                }
+                rank -= bits;
+            }
+            throw new IllegalStateException("Container cardinality is inconsistent");
+        }
+
+        @Override
+        int collect(int base, char low, int[] result, int count) {
+            int wordIndex = low >>> 6;
+            long word = words[wordIndex] & (-1L << low);
+            while (count < result.length) {
+                while (word == 0) {
+                    if (++wordIndex == BITMAP_WORDS) {
+                        return count;
+                    }
+                    word = words[wordIndex];
+                }
+                result[count++] = base | ((wordIndex << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+            return count;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16L + BITMAP_WORDS * 8L;
+        }
+
+        @Override
+        void writeTo(DataOutput out) throws IOException {
+            out.writeInt(cardinality);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+
+        private ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[cardinality];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    array.values[array.size++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return array;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.nsrs.common.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 热点号码前缀子分表规则
+ * 热点前缀（如139）的号码按号码尾号哈希进一步拆分到 number_resource_139_0..N-1，按号码路由仍精确到单个子表。
+ * 前缀状态分两种：迁移中（双读：原前缀表与子表同时路由，原表数据由迁移工具分块搬迁到子表）和已迁移（只路由子表）。
+ * 分片算法由ShardingSphere反射创建，无法注入Spring Bean，因此规则以静态方式保存，在容器启动早期完成配置。
+ * 注意：子表数量与哈希算法一旦有数据写入就不能再调整，否则已有号码会路由到错误的子表
+ */
+public final class HotPrefixShardingRule {
+
+    /**
+     * 子表数量上限
+     */
+    public static final int MAX_SUB_TABLE_COUNT = 64;
+
+    private static final int PREFIX_LENGTH = 3;
+
+    private static volatile Map<String, Integer> subTableCounts = Collections.emptyMap();
+
+    private static final Set<String> MIGRATED_PREFIXES = Collections.synchronizedSet(new HashSet<>());
+
+    private static final ThreadLocal<Boolean> WRITE_SCOPE = new ThreadLocal<>();
+
+    private HotPrefixShardingRule() {
+    }
+
+    /**
+     * 配置热点前缀
+     *
+     * @param counts 前缀 -> 子表数量
+     * @param migratedPrefixes 已完成迁移的前缀，只路由子表
+     */
+    public static synchronized void configure(Map<String, Integer> counts, Collection<String> migratedPrefixes) {
+        Map<String, Integer> configured = new LinkedHashMap<>();
+        if (counts != null) {
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                String prefix = entry.getKey();
+                Integer count = entry.getValue();
+                if (!ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES.contains(prefix)) {
+                    throw new IllegalArgumentException("Hot prefix is not a supported number prefix: " + prefix);
+                }
+                if (count == null || count < 2 || count > MAX_SUB_TABLE_COUNT) {
+                    throw new IllegalArgumentException("Sub table count of hot prefix " + prefix
+                            + " must be between 2 and " + MAX_SUB_TABLE_COUNT + ", got " + count);
+                }
+                configured.put(prefix, count);
+            }
+        }
+        subTableCounts = Collections.unmodifiableMap(configured);
+        MIGRATED_PREFIXES.clear();
+        if (migratedPrefixes != null) {
+            for (String prefix : migratedPrefixes) {
+                if (!configured.containsKey(prefix)) {
+                    throw new IllegalArgumentException("Migrated prefix is not configured as hot prefix: " + prefix);
+                }
+                MIGRATED_PREFIXES.add(prefix);
+            }
+        }
+    }
+
+    /**
+     * 标记前缀迁移完成，之后只路由子表
+     */
+    public static void markMigrated(String prefix) {
+        if (isHot(prefix)) {
+            MIGRATED_PREFIXES.add(prefix);
+        }
+    }
+
+    /**
+     * 获取前缀的子表数量
+     *
+     * @return 子表数量，非热点前缀返回0
+     */
+    public static int getSubTableCount(String prefix) {
+        Integer count = prefix != null ? subTableCounts.get(prefix) : null;
+        return count != null ? count : 0;
+    }
+
+    public static boolean isHot(String prefix) {
+        return getSubTableCount(prefix) > 0;
+    }
+
+    /**
+     * 是否处于迁移中（原前缀表与子表双读）
+     */
+    public static boolean isDualRead(String prefix) {
+        return isHot(prefix) && !MIGRATED_PREFIXES.contains(prefix);
+    }
+
+    /**
+     * 已配置的热点前缀
+     */
+    public static Set<String> getHotPrefixes() {
+        return subTableCounts.keySet();
+    }
+
+    /**
+     * 计算号码所在子表下标：号码尾号（去掉前缀后的部分）哈希后对子表数量取模
+     *
+     * @param number 号码
+     * @param subTableCount 子表数量
+     * @return 子表下标
+     */
+    public static int subTableIndex(String number, int subTableCount) {
+        String tail = number.length() > PREFIX_LENGTH ? number.substring(PREFIX_LENGTH) : "";
+        long value;
+        try {
+            value = tail.isEmpty() ? 0L : Long.parseLong(tail);
+        } catch (NumberFormatException e) {
+            value = tail.hashCode();
+        }
+        // 乘法散列打散连续号段，避免顺序放号集中到同一子表
+        long hash = (value * 0x9E3779B97F4A7C15L) >>> 32;
+        return (int) (hash % subTableCount);
+    }
+
+    /**
+     * 号码所在子表名
+     *
+     * @param logicTable 逻辑表名
+     * @param number 号码
+     * @return 子表名，非热点前缀返回null
+     */
+    public static String subTableName(String logicTable, String number) {
+        if (number == null || number.length() < PREFIX_LENGTH) {
+            return null;
+        }
+        String prefix = number.substring(0, PREFIX_LENGTH);
+        int count = getSubTableCount(prefix);
+        if (count == 0) {
+            return null;
+        }
+        return logicTable + "_" + prefix + "_" + subTableIndex(number, count);
+    }
+
+    /**
+     * 前缀的全部子表名
+     *
+     * @param logicTable 逻辑表名
+     * @param prefix 号码前缀
+     * @return 子表名列表，非热点前缀返回空列表
+     */
+    public static List<String> subTableNames(String logicTable, String prefix) {
+        int count = getSubTableCount(prefix);
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(logicTable + "_" + prefix + "_" + i);
+        }
+        return names;
+    }
+
+    /**
+     * 在写入作用域内执行：迁移中的前缀按号码路由时只路由子表，避免INSERT同时写入原表和子表
+     *
+     * @param action 写操作
+     * @return 写操作结果
+     */
+    public static <T> T routeWritesToSubTables(Supplier<T> action) {
+        Boolean previous = WRITE_SCOPE.get();
+        WRITE_SCOPE.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                WRITE_SCOPE.remove();
+            } else {
+                WRITE_SCOPE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 当前线程是否处于写入作用域
+     */
+    public static boolean isWriteScope() {
+        return Boolean.TRUE.equals(WRITE_SCOPE.get());
+    }
+}
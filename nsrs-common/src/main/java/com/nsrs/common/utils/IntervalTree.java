@@ -0,0 +1,148 @@
+package com.nsrs.common.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * 不可变区间树（闭区间，long端点）
+ * 区间按起点排序后以数组中点为根构成平衡二叉树，每个节点记录子树最大终点；
+ * 点查询和区间重叠查询均为 O(log n + k)。更新时整体重建新实例，读取无需加锁
+ *
+ * @param <T> 区间关联的数据类型
+ */
+public final class IntervalTree<T> {
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final Object[] values;
+
+    private IntervalTree(long[] starts, long[] ends, Object[] values) {
+        this.starts = starts;
+        this.ends = ends;
+        this.values = values;
+        this.maxEnds = new long[starts.length];
+        buildMaxEnds(0, starts.length - 1);
+    }
+
+    /**
+     * 构建区间树
+     *
+     * @param items 数据
+     * @param startFn 区间起点
+     * @param endFn 区间终点（包含）
+     * @return 区间树
+     */
+    public static <T> IntervalTree<T> build(Collection<T> items, ToLongFunction<T> startFn, ToLongFunction<T> endFn) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingLong(startFn).thenComparingLong(endFn));
+        int size = sorted.size();
+        long[] starts = new long[size];
+        long[] ends = new long[size];
+        Object[] values = new Object[size];
+        for (int i = 0; i < size; i++) {
+            T item = sorted.get(i);
+            starts[i] = startFn.applyAsLong(item);
+            ends[i] = endFn.applyAsLong(item);
+            if (starts[i] > ends[i]) {
+                throw new IllegalArgumentException("Interval start " + starts[i] + " is greater than end " + ends[i]);
+            }
+            values[i] = item;
+        }
+        return new IntervalTree<>(starts, ends, values);
+    }
+
+    /**
+     * 空区间树
+     */
+    public static <T> IntervalTree<T> empty() {
+        return new IntervalTree<>(new long[0], new long[0], new Object[0]);
+    }
+
+    /**
+     * 查询包含指定点的全部区间
+     */
+    public List<T> stab(long point) {
+        return overlapping(point, point);
+    }
+
+    /**
+     * 查询包含指定点的区间，多个时返回起点最大（范围最具体）的一个
+     *
+     * @return 不存在时返回null
+     */
+    public T find(long point) {
+        List<T> matches = stab(point);
+        return matches.isEmpty() ? null : matches.get(matches.size() - 1);
+    }
+
+    /**
+     * 查询与 [start, end] 重叠的全部区间，按起点升序
+     */
+    public List<T> overlapping(long start, long end) {
+        List<T> result = new ArrayList<>();
+        collect(0, starts.length - 1, start, end, result);
+        return result;
+    }
+
+    /**
+     * 批量点查询
+     *
+     * @param points 查询点
+     * @return 与points一一对应的结果，不存在时为null
+     */
+    public List<T> findAll(long[] points) {
+        List<T> result = new ArrayList<>(points.length);
+        for (long point : points) {
+            result.add(find(point));
+        }
+        return result;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * 全部区间，按起点升序
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> values() {
+        return (List<T>) Arrays.asList(values.clone());
+    }
+
+    private long buildMaxEnds(int low, int high) {
+        if (low > high) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (low + high) >>> 1;
+        long max = Math.max(ends[mid], Math.max(buildMaxEnds(low, mid - 1), buildMaxEnds(mid + 1, high)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(int low, int high, long start, long end, List<T> result) {
+        if (low > high) {
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        // 子树内所有区间都在查询起点之前结束
+        if (maxEnds[mid] < start) {
+            return;
+        }
+        collect(low, mid - 1, start, end, result);
+        // 右子树起点都不小于当前节点起点
+        if (starts[mid] > end) {
+            return;
+        }
+        if (ends[mid] >= start) {
+            result.add((T) values[mid]);
+        }
+        collect(mid + 1, high, start, end, result);
+    }
+}
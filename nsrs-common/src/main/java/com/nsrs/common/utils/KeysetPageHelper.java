@@ -0,0 +1,142 @@
+package com.nsrs.common.utils;
+
+import com.nsrs.common.core.domain.KeysetCursor;
+import com.nsrs.common.core.domain.PageResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * 分表游标分页工具类
+ * 每个分片按 create_time DESC, id DESC 做seek查询（不带OFFSET），再对各分片结果做k路归并，
+ * 避免ShardingSphere将深分页改写为每个分片 LIMIT 0, N*size 后在内存中合并
+ */
+@Slf4j
+public final class KeysetPageHelper {
+
+    /**
+     * 游标分页单页最大记录数（每个分片会多取一条用于判断是否读完，需小于分页插件的maxLimit）
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private KeysetPageHelper() {
+    }
+
+    /**
+     * 分片seek查询
+     *
+     * @param <T> 记录类型
+     */
+    @FunctionalInterface
+    public interface ShardFetcher<T> {
+
+        /**
+         * 查询分片中位于after之后的记录
+         *
+         * @param shard 分片标识
+         * @param after 已读位置，null表示从头读取
+         * @param limit 最多返回记录数
+         * @return 按 create_time DESC, id DESC 排序的记录
+         */
+        List<T> fetch(String shard, KeysetCursor.Position after, int limit);
+    }
+
+    /**
+     * 执行游标分页查询
+     *
+     * @param shards 参与查询的分片
+     * @param cursorToken 上一页返回的游标，空表示首页
+     * @param pageSize 每页记录数
+     * @param fetcher 分片seek查询
+     * @param createTimeGetter 创建时间提取函数
+     * @param idGetter 主键提取函数
+     * @return 分页结果（total为-1）
+     */
+    public static <T> PageResult<T> query(Collection<String> shards, String cursorToken, long pageSize,
+                                          ShardFetcher<T> fetcher,
+                                          Function<T, Date> createTimeGetter,
+                                          Function<T, Long> idGetter) {
+        int size = (int) Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        int limit = size + 1;
+        KeysetCursor cursor = KeysetCursor.decode(cursorToken);
+        KeysetCursor next = new KeysetCursor();
+
+        Comparator<ShardBuffer<T>> order = (a, b) -> {
+            int cmp = Long.compare(a.headTime, b.headTime);
+            return cmp != 0 ? -cmp : -Long.compare(a.headId, b.headId);
+        };
+        PriorityQueue<ShardBuffer<T>> heap = new PriorityQueue<>(Math.max(1, shards.size()), order);
+
+        for (String shard : shards) {
+            if (cursor.isExhausted(shard)) {
+                next.getExhausted().add(shard);
+                continue;
+            }
+            KeysetCursor.Position after = cursor.getPosition(shard);
+            if (after != null) {
+                next.getPositions().put(shard, after);
+            }
+            List<T> rows = fetcher.fetch(shard, after, limit);
+            ShardBuffer<T> buffer = new ShardBuffer<>(shard, rows, rows.size() < limit);
+            if (buffer.advance(createTimeGetter, idGetter)) {
+                heap.add(buffer);
+            } else {
+                next.getExhausted().add(shard);
+            }
+        }
+
+        List<T> records = new ArrayList<>(size);
+        while (records.size() < size && !heap.isEmpty()) {
+            ShardBuffer<T> buffer = heap.poll();
+            records.add(buffer.head);
+            next.getPositions().put(buffer.shard, new KeysetCursor.Position(buffer.headTime, buffer.headId));
+            if (buffer.advance(createTimeGetter, idGetter)) {
+                heap.add(buffer);
+            } else if (buffer.complete) {
+                next.getExhausted().add(buffer.shard);
+            }
+        }
+
+        // 每个分片多取了一条，堆中仍有记录即说明存在下一页
+        boolean hasNext = !heap.isEmpty();
+        log.debug("Keyset page merged {} rows from {} shards, hasNext={}", records.size(), shards.size(), hasNext);
+        return PageResult.ofCursor(records, size, hasNext ? next.encode() : null);
+    }
+
+    /**
+     * 单个分片的归并缓冲
+     */
+    private static final class ShardBuffer<T> {
+        private final String shard;
+        private final List<T> rows;
+        private final boolean complete;
+        private int index;
+        private T head;
+        private long headTime;
+        private long headId;
+
+        private ShardBuffer(String shard, List<T> rows, boolean complete) {
+            this.shard = shard;
+            this.rows = rows;
+            this.complete = complete;
+        }
+
+        private boolean advance(Function<T, Date> createTimeGetter, Function<T, Long> idGetter) {
+            if (index >= rows.size()) {
+                return false;
+            }
+            head = rows.get(index++);
+            Date createTime = createTimeGetter.apply(head);
+            Long id = idGetter.apply(head);
+            headTime = createTime != null ? createTime.getTime() : 0L;
+            headId = id != null ? id : 0L;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.nsrs.common.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内存n-gram子串索引
+ * 每条记录以主键标识，字段值按固定长度n切分为n-gram，每个n-gram对应一个记录下标的压缩位图。
+ * 子串查询取查询串全部n-gram位图求交集，再逐条校验字段值确实包含查询串，得到记录的分片与主键，
+ * 从而把 LIKE '%xxx%' 转为按主键的精确查询。长度小于n的查询串无法使用索引。线程安全
+ */
+public final class NgramIndex {
+
+    /**
+     * 求交集时每次从最小位图中取出的候选数
+     */
+    private static final int CANDIDATE_PAGE_SIZE = 4096;
+
+    private final int gramLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, CompressedBitmap> postings = new HashMap<>();
+
+    /**
+     * 主键 -> 记录下标
+     */
+    private final Map<Long, Integer> docByKey = new HashMap<>();
+
+    private String[] values = new String[1024];
+
+    private int[] shards = new int[1024];
+
+    private long[] keys = new long[1024];
+
+    /**
+     * 已分配的最大记录下标 + 1
+     */
+    private int docLimit;
+
+    /**
+     * 删除后可复用的记录下标
+     */
+    private int[] freeDocs = new int[16];
+
+    private int freeCount;
+
+    public NgramIndex(int gramLength) {
+        if (gramLength < 2) {
+            throw new IllegalArgumentException("Gram length must be at least 2, got " + gramLength);
+        }
+        this.gramLength = gramLength;
+    }
+
+    public int getGramLength() {
+        return gramLength;
+    }
+
+    /**
+     * 添加或替换记录
+     *
+     * @param key 主键
+     * @param shard 分片下标
+     * @param value 字段值，为空时等同删除
+     */
+    public void put(long key, int shard, String value) {
+        if (value == null || value.isEmpty()) {
+            remove(key);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByKey.get(key);
+            if (existing != null) {
+                if (value.equals(values[existing])) {
+                    shards[existing] = shard;
+                    return;
+                }
+                removeDoc(existing);
+            }
+            int doc = allocateDoc();
+            values[doc] = value;
+            shards[doc] = shard;
+            keys[doc] = key;
+            docByKey.put(key, doc);
+            for (String gram : grams(value)) {
+                postings.computeIfAbsent(gram, g -> new CompressedBitmap()).add(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除记录
+     *
+     * @return 记录存在时返回true
+     */
+    public boolean remove(long key) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByKey.get(key);
+            if (doc == null) {
+                return false;
+            }
+            removeDoc(doc);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 子串查询
+     *
+     * @param fragment 查询串
+     * @param limit 最多返回的记录数
+     * @return 包含查询串的记录，按记录下标顺序；查询串短于n时返回null
+     */
+    public List<Hit> search(String fragment, int limit) {
+        if (fragment == null || fragment.length() < gramLength) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            List<CompressedBitmap> bitmaps = new ArrayList<>();
+            for (String gram : grams(fragment)) {
+                CompressedBitmap bitmap = postings.get(gram);
+                if (bitmap == null) {
+                    return new ArrayList<>();
+                }
+                bitmaps.add(bitmap);
+            }
+            bitmaps.sort(Comparator.comparingLong(CompressedBitmap::cardinality));
+            CompressedBitmap smallest = bitmaps.get(0);
+
+            List<Hit> hits = new ArrayList<>();
+            int from = 0;
+            while (hits.size() < limit) {
+                int[] candidates = smallest.first(from, CANDIDATE_PAGE_SIZE);
+                for (int doc : candidates) {
+                    if (matches(doc, fragment, bitmaps)) {
+                        hits.add(new Hit(values[doc], shards[doc], keys[doc]));
+                        if (hits.size() >= limit) {
+                            break;
+                        }
+                    }
+                }
+                if (candidates.length < CANDIDATE_PAGE_SIZE) {
+                    break;
+                }
+                from = candidates[candidates.length - 1] + 1;
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 记录数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 写出全部记录（不含n-gram位图，读取时重新切分）
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(gramLength);
+            out.writeInt(docByKey.size());
+            for (int doc = 0; doc < docLimit; doc++) {
+                if (values[doc] != null) {
+                    out.writeLong(keys[doc]);
+                    out.writeInt(shards[doc]);
+                    out.writeUTF(values[doc]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static NgramIndex readFrom(DataInput in) throws IOException {
+        NgramIndex index = new NgramIndex(in.readInt());
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            long key = in.readLong();
+            int shard = in.readInt();
+            index.put(key, shard, in.readUTF());
+        }
+        return index;
+    }
+
+    private boolean matches(int doc, String fragment, List<CompressedBitmap> bitmaps) {
+        for (int i = 1; i < bitmaps.size(); i++) {
+            if (!bitmaps.get(i).contains(doc)) {
+                return false;
+            }
+        }
+        return values[doc] != null && values[doc].contains(fragment);
+    }
+
+    private Set<String> grams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + gramLength <= value.length(); i++) {
+            grams.add(value.substring(i, i + gramLength));
+        }
+        return grams;
+    }
+
+    private int allocateDoc() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        if (docLimit == values.length) {
+            int capacity = values.length * 2;
+            values = Arrays.copyOf(values, capacity);
+            shards = Arrays.copyOf(shards, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+        }
+        return docLimit++;
+    }
+
+    private void removeDoc(int doc) {
+        for (String gram : grams(values[doc])) {
+            CompressedBitmap bitmap = postings.get(gram);
+            if (bitmap != null) {
+                bitmap.remove(doc);
+                if (bitmap.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        docByKey.remove(keys[doc]);
+        values[doc] = null;
+        if (freeCount == freeDocs.length) {
+            freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+        }
+        freeDocs[freeCount++] = doc;
+    }
+
+    /**
+     * 查询命中的记录
+     */
+    public static final class Hit {
+
+        private final String value;
+
+        private final int shard;
+
+        private final long key;
+
+        public Hit(String value, int shard, long key) {
+            this.value = value;
+            this.shard = shard;
+            this.key = key;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public int getShard() {
+            return shard;
+        }
+
+        public long getKey() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.nsrs.common.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个序列的双缓冲号段
+ * 当前号段在内存中分配，剩余量低于阈值时异步预取下一号段；号段大小按消耗速度自适应调整
+ */
+@Slf4j
+class SequenceBuffer {
+
+    private static final long EXHAUSTED = Long.MIN_VALUE;
+
+    /**
+     * 号段：first, first + step, ... 共count个值
+     */
+    static final class Block {
+        private final long first;
+        private final long step;
+        private final int count;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        Block(long first, long step, int count) {
+            this.first = first;
+            this.step = step;
+            this.count = count;
+        }
+
+        long next() {
+            int index = cursor.getAndIncrement();
+            return index < count ? first + index * step : EXHAUSTED;
+        }
+
+        int remaining() {
+            return Math.max(0, count - cursor.get());
+        }
+
+        List<Long> values() {
+            List<Long> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(first + i * step);
+            }
+            return values;
+        }
+    }
+
+    /**
+     * 号段分配函数，一次数据库原子更新预占size个值
+     */
+    @FunctionalInterface
+    interface BlockAllocator {
+        Block allocate(String sequenceName, int size);
+    }
+
+    private final String name;
+    private final SequenceProperties properties;
+    private final BlockAllocator allocator;
+    private final Executor prefetchExecutor;
+
+    private volatile Block current;
+    private Block next;
+    private final AtomicBoolean prefetching = new AtomicBoolean();
+
+    private int blockSize;
+    private long lastAllocateTime;
+
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder syncAllocations = new LongAdder();
+
+    SequenceBuffer(String name, SequenceProperties properties, BlockAllocator allocator, Executor prefetchExecutor) {
+        this.name = name;
+        this.properties = properties;
+        this.allocator = allocator;
+        this.prefetchExecutor = prefetchExecutor;
+        this.blockSize = Math.max(properties.getInitialBlockSize(), 1);
+    }
+
+    /**
+     * 获取下一个值
+     */
+    long nextValue() {
+        while (true) {
+            Block block = current;
+            if (block != null) {
+                long value = block.next();
+                if (value != EXHAUSTED) {
+                    issued.increment();
+                    prefetchIfNeeded(block);
+                    return value;
+                }
+            }
+            switchBlock(block);
+        }
+    }
+
+    /**
+     * 批量获取值，数量不小于号段大小时直接单独预占一段
+     */
+    List<Long> nextValues(int count) {
+        if (count >= currentBlockSize()) {
+            Block block = allocator.allocate(name, count);
+            allocations.increment();
+            issued.add(count);
+            return block.values();
+        }
+        List<Long> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(nextValue());
+        }
+        return values;
+    }
+
+    /**
+     * 号段统计
+     */
+    synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("issued", issued.sum());
+        stats.put("allocations", allocations.sum());
+        stats.put("syncAllocations", syncAllocations.sum());
+        stats.put("blockSize", blockSize);
+        stats.put("remaining", (current != null ? current.remaining() : 0) + (next != null ? next.remaining() : 0));
+        return stats;
+    }
+
+    private synchronized void switchBlock(Block exhausted) {
+        if (current != exhausted) {
+            // 其他线程已完成切换
+            return;
+        }
+        if (next != null) {
+            current = next;
+            next = null;
+            return;
+        }
+        // 预取未完成，同步分配；预取结果稍后作为下一号段使用
+        syncAllocations.increment();
+        current = allocate();
+    }
+
+    private void prefetchIfNeeded(Block block) {
+        if (block.remaining() > block.count * properties.getPrefetchRatio() || !prefetching.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (this) {
+            if (next != null || block != current) {
+                prefetching.set(false);
+                return;
+            }
+        }
+        try {
+            prefetchExecutor.execute(() -> {
+                try {
+                    Block prefetched = allocate();
+                    synchronized (this) {
+                        if (next == null) {
+                            next = prefetched;
+                        } else {
+                            log.warn("Discarding prefetched block of sequence {}, next block already present", name);
+                        }
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to prefetch block for sequence {}: {}", name, e.getMessage());
+                } finally {
+                    prefetching.set(false);
+                }
+            });
+        } catch (Exception e) {
+            prefetching.set(false);
+            log.warn("Failed to schedule prefetch for sequence {}: {}", name, e.getMessage());
+        }
+    }
+
+    private Block allocate() {
+        Block block = allocator.allocate(name, adjustBlockSize());
+        allocations.increment();
+        return block;
+    }
+
+    /**
+     * 按上一号段的使用时长调整号段大小
+     */
+    private synchronized int adjustBlockSize() {
+        long now = System.currentTimeMillis();
+        if (lastAllocateTime > 0) {
+            long elapsed = now - lastAllocateTime;
+            long target = properties.getTargetBlockDurationMs();
+            if (elapsed < target) {
+                blockSize = Math.min(blockSize * 2, properties.getMaxBlockSize());
+            } else if (elapsed > target * 2) {
+                blockSize = Math.max(blockSize / 2, properties.getMinBlockSize());
+            }
+        }
+        lastAllocateTime = now;
+        return blockSize;
+    }
+
+    private synchronized int currentBlockSize() {
+        return blockSize;
+    }
+}
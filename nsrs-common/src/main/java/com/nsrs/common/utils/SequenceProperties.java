@@ -0,0 +1,49 @@
+package com.nsrs.common.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 序列服务配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nsrs.sequence")
+public class SequenceProperties {
+
+    /**
+     * 号段分配模式：true-每个节点一次预占一段ID并在内存中分配，false-每次调用数据库序列函数
+     */
+    private boolean allocate = true;
+
+    /**
+     * 初始号段大小
+     */
+    private int initialBlockSize = 100;
+
+    /**
+     * 最小号段大小
+     */
+    private int minBlockSize = 100;
+
+    /**
+     * 最大号段大小
+     */
+    private int maxBlockSize = 100000;
+
+    /**
+     * 期望每个号段的使用时长（毫秒），消耗快于该时长时号段翻倍，慢于两倍时减半
+     */
+    private long targetBlockDurationMs = 60000;
+
+    /**
+     * 当前号段剩余比例低于该值时异步预取下一个号段
+     */
+    private double prefetchRatio = 0.2;
+
+    /**
+     * 号码资源、SIM卡、绑定关系ID是否嵌入分片码，见 {@link ShardingIdUtils}
+     */
+    private boolean shardingId = true;
+}
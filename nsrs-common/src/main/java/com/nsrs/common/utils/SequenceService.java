@@ -1,30 +1,83 @@
 package com.nsrs.common.utils;
 
+import com.nsrs.common.exception.BusinessException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * 通用序列服务
- * 用于获取数据库序列值，支持单个和批量获取
+ * 用于获取数据库序列值，支持单个和批量获取。
+ * 号段分配模式下每个节点通过一次原子UPDATE预占一段ID并在内存中分配（ID全局唯一、单节点内递增，
+ * 节点重启会跳过未用完的ID）；关闭时每次调用数据库序列函数
  */
 @Service
 public class SequenceService {
 
     @Autowired
     private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SequenceProperties properties;
     
     /**
      * SIM卡ID序列名称
      */
-    private static final String SIM_CARD_ID_SEQ = "sim_card_id_seq";
+    public static final String SIM_CARD_ID_SEQ = "sim_card_id_seq";
     
     /**
      * 号码资源ID序列名称
      */
-    private static final String NUMBER_RESOURCE_ID_SEQ = "number_resource_id_seq";
+    public static final String NUMBER_RESOURCE_ID_SEQ = "number_resource_id_seq";
+
+    /**
+     * IMSI资源ID序列名称
+     */
+    public static final String IMSI_RESOURCE_ID_SEQ = "imsi_resource_id_seq";
+
+    /**
+     * 号码IMSI绑定ID序列名称
+     */
+    public static final String NUMBER_IMSI_BINDING_ID_SEQ = "number_imsi_binding_id_seq";
+
+    private final Map<String, SequenceBuffer> buffers = new ConcurrentHashMap<>();
+
+    private TransactionTemplate allocateTransaction;
+
+    private ExecutorService prefetchExecutor;
+
+    @PostConstruct
+    public void init() {
+        // 号段预占使用独立事务，避免调用方事务长时间持有序列行锁
+        allocateTransaction = new TransactionTemplate(transactionManager);
+        allocateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sequence-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        prefetchExecutor.shutdownNow();
+    }
 
     /**
      * 获取下一个序列值
@@ -32,9 +85,46 @@ public class SequenceService {
      * @return 序列值
      */
     public Long getNextSequenceValue(String sequenceName) {
+        if (properties.isAllocate()) {
+            return buffer(sequenceName).nextValue();
+        }
         String sql = "SELECT get_next_sequence_value(?)";
         return jdbcTemplate.queryForObject(sql, Long.class, sequenceName);
     }
+
+    /**
+     * 各序列的号段分配统计
+     * @return 按序列名称分组的统计（已发放ID数、数据库分配次数、当前号段大小等）
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        buffers.forEach((name, buffer) -> stats.put(name, buffer.getStatistics()));
+        return stats;
+    }
+
+    private SequenceBuffer buffer(String sequenceName) {
+        return buffers.computeIfAbsent(sequenceName,
+                name -> new SequenceBuffer(name, properties, this::allocateBlock, prefetchExecutor));
+    }
+
+    /**
+     * 一次原子更新预占size个序列值
+     */
+    private SequenceBuffer.Block allocateBlock(String sequenceName, int size) {
+        return allocateTransaction.execute(status -> {
+            int updated = jdbcTemplate.update(
+                    "UPDATE global_sequence SET current_value = current_value + increment_step * ? WHERE sequence_name = ?",
+                    size, sequenceName);
+            if (updated == 0) {
+                throw new BusinessException("Sequence does not exist: " + sequenceName);
+            }
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                    "SELECT current_value, increment_step FROM global_sequence WHERE sequence_name = ?", sequenceName);
+            long currentValue = ((Number) row.get("current_value")).longValue();
+            long step = ((Number) row.get("increment_step")).longValue();
+            return new SequenceBuffer.Block(currentValue - step * (size - 1), step, size);
+        });
+    }
     
     /**
      * 获取SIM卡ID序列值
@@ -52,6 +142,46 @@ public class SequenceService {
         return getNextSequenceValue(NUMBER_RESOURCE_ID_SEQ);
     }
 
+    /**
+     * 获取嵌入号码分片码的号码资源ID
+     * @param number 号码
+     * @return 下一个号码资源ID
+     */
+    public Long getNextNumberResourceId(String number) {
+        return toShardingId(getNextNumberResourceId(), ShardingIdUtils.numberShardCode(number));
+    }
+
+    /**
+     * 获取嵌入ICCID分片码的SIM卡ID
+     * @param iccid ICCID
+     * @return 下一个SIM卡ID
+     */
+    public Long getNextSimCardId(String iccid) {
+        return toShardingId(getNextSimCardId(), ShardingIdUtils.iccidShardCode(iccid));
+    }
+
+    /**
+     * 获取嵌入号码分片码的绑定关系ID
+     * @param number 号码
+     * @return 下一个绑定关系ID
+     */
+    public Long getNextNumberImsiBindingId(String number) {
+        return toShardingId(getNextSequenceValue(NUMBER_IMSI_BINDING_ID_SEQ), ShardingIdUtils.numberShardCode(number));
+    }
+
+    /**
+     * 将序列值转换为分片感知ID，未启用或分片码无效时返回原序列值
+     * @param sequenceValue 序列值
+     * @param shardCode 分片码
+     * @return ID
+     */
+    public Long toShardingId(Long sequenceValue, int shardCode) {
+        if (!properties.isShardingId() || sequenceValue == null) {
+            return sequenceValue;
+        }
+        return ShardingIdUtils.encode(sequenceValue, shardCode);
+    }
+
     /**
      * 批量获取序列值
      * @param sequenceName 序列名称
@@ -59,12 +189,15 @@ public class SequenceService {
      * @return 序列值列表
      */
     public List<Long> getBatchSequenceValues(String sequenceName, int batchSize) {
+        if (properties.isAllocate()) {
+            return batchSize > 0 ? buffer(sequenceName).nextValues(batchSize) : Collections.emptyList();
+        }
         String sql = "SELECT get_batch_sequence_values(?, ?)";
         String result = jdbcTemplate.queryForObject(sql, String.class, sequenceName, batchSize);
         
         // 解析返回的序列值字符串，可能包含方括号，格式如："[15, 16, 17, 18, 19]" 或 "15,16,17,18,19"
         if (result == null || result.trim().isEmpty()) {
-            return java.util.Collections.emptyList();
+            return Collections.emptyList();
         }
         
         // 去除可能存在的方括号和多余的空格
@@ -74,7 +207,7 @@ public class SequenceService {
                 .trim();
         
         if (cleanResult.isEmpty()) {
-            return java.util.Collections.emptyList();
+            return Collections.emptyList();
         }
         
         String[] values = cleanResult.split(",");
@@ -0,0 +1,336 @@
+package com.nsrs.common.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 分表批量更新执行器
+ * 按分表算法把行分组到实际所在的分表，每组按更新列集合再细分后选择执行方式：
+ * 行数较少时使用JDBC批量（配合 rewriteBatchedStatements 一次网络往返），更新值相同时使用 WHERE key IN，
+ * 更新值不同时使用 CASE WHEN 多行更新。SQL仍针对逻辑表执行，由ShardingSphere路由，同组语句只命中一个分表
+ * （迁移中的热点前缀同时命中原前缀表和子表）。
+ * 调用方处于事务中时各分表在当前线程顺序执行，任一语句失败直接抛出异常，由调用方整体回滚；
+ * 否则各分表并行执行，并发数受限，失败的语句只把其包含及之后未执行的行标记为失败，已执行的语句保持更新结果
+ */
+@Slf4j
+@Component
+public class ShardedBatchUpdateExecutor {
+
+    /**
+     * 单条多行UPDATE包含的最大行数，超出后拆分为多条语句
+     */
+    public static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    /**
+     * 分组行数低于该值时使用JDBC批量
+     */
+    public static final int MULTI_ROW_THRESHOLD = 8;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardingBatchUpdateUtils shardingBatchUpdateUtils;
+
+    @Value("${nsrs.sharding.batch-update.parallelism:4}")
+    private int parallelism;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "sharded-batch-update-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 按逻辑表默认分表策略批量更新
+     *
+     * @param logicTable 逻辑表名（number_resource、imsi_resource、sim_card、number_imsi_binding）
+     * @param keyColumn 分表键列名，作为更新条件
+     * @param rows 待更新数据
+     * @param keyExtractor 分表键值提取函数
+     * @param valueExtractor 更新列提取函数，返回 列名 -> 值（值为null时更新为NULL）
+     * @return 逐行更新结果
+     */
+    public <T> ShardedBatchUpdateResult execute(String logicTable, String keyColumn, List<T> rows,
+                                                Function<T, String> keyExtractor,
+                                                Function<T, Map<String, Object>> valueExtractor) {
+        return execute(logicTable, keyColumn, defaultShardResolver(logicTable), rows, keyExtractor, valueExtractor);
+    }
+
+    /**
+     * 批量更新
+     *
+     * @param logicTable 逻辑表名
+     * @param keyColumn 分表键列名，作为更新条件
+     * @param shardResolver 分表键值 -> 分表名
+     * @param rows 待更新数据，分表键重复时以最后一行为准
+     * @param keyExtractor 分表键值提取函数
+     * @param valueExtractor 更新列提取函数，返回 列名 -> 值（值为null时更新为NULL）
+     * @return 逐行更新结果，顺序与分表键首次出现的顺序一致
+     */
+    public <T> ShardedBatchUpdateResult execute(String logicTable, String keyColumn,
+                                                Function<String, String> shardResolver, List<T> rows,
+                                                Function<T, String> keyExtractor,
+                                                Function<T, Map<String, Object>> valueExtractor) {
+        long startTime = System.currentTimeMillis();
+        ShardedBatchUpdateResult result = new ShardedBatchUpdateResult();
+        result.setLogicTable(logicTable);
+        if (rows == null || rows.isEmpty()) {
+            return result;
+        }
+
+        Map<String, RowUpdate> updates = new LinkedHashMap<>();
+        for (T row : rows) {
+            String key = keyExtractor.apply(row);
+            Map<String, Object> values = valueExtractor.apply(row);
+            if (values == null || values.isEmpty()) {
+                throw new IllegalArgumentException("No column to update for key " + key);
+            }
+            updates.put(key, new RowUpdate(key, new LinkedHashMap<>(values)));
+        }
+
+        // 分表名排序，保证并发批次按相同顺序加锁
+        Map<String, ShardedBatchUpdateResult.RowResult> rowResults = new LinkedHashMap<>();
+        Map<String, Map<List<String>, List<RowUpdate>>> groups = new TreeMap<>();
+        for (RowUpdate update : updates.values()) {
+            String shard;
+            try {
+                shard = shardResolver.apply(update.key);
+            } catch (RuntimeException e) {
+                rowResults.put(update.key, new ShardedBatchUpdateResult.RowResult(update.key, null,
+                        ShardedBatchUpdateResult.RowStatus.FAILED, e.getMessage()));
+                continue;
+            }
+            rowResults.put(update.key, null);
+            List<String> columns = new ArrayList<>(update.values.keySet());
+            groups.computeIfAbsent(shard, s -> new LinkedHashMap<>())
+                    .computeIfAbsent(columns, c -> new ArrayList<>())
+                    .add(update);
+        }
+
+        List<GroupTask> tasks = new ArrayList<>();
+        groups.forEach((shard, byColumns) -> byColumns.forEach((columns, groupRows) ->
+                tasks.add(new GroupTask(logicTable, keyColumn, shard, columns, groupRows))));
+
+        List<GroupOutcome> outcomes;
+        if (tasks.size() == 1 || TransactionSynchronizationManager.isActualTransactionActive()) {
+            outcomes = tasks.stream().map(this::runGroup).collect(Collectors.toList());
+        } else {
+            List<CompletableFuture<GroupOutcome>> futures = tasks.stream()
+                    .map(task -> CompletableFuture.supplyAsync(() -> runGroup(task), executor))
+                    .collect(Collectors.toList());
+            outcomes = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        }
+
+        for (GroupOutcome outcome : outcomes) {
+            outcome.rows.forEach(row -> rowResults.put(row.getKey(), row));
+            result.setStatementCount(result.getStatementCount() + outcome.statementCount);
+            result.getStrategyCounts().merge(outcome.strategy, 1, Integer::sum);
+        }
+        for (ShardedBatchUpdateResult.RowResult row : rowResults.values()) {
+            result.getRows().add(row);
+            switch (row.getStatus()) {
+                case UPDATED:
+                    result.setUpdatedCount(result.getUpdatedCount() + 1);
+                    break;
+                case NOT_FOUND:
+                    result.setNotFoundCount(result.getNotFoundCount() + 1);
+                    break;
+                default:
+                    result.setFailedCount(result.getFailedCount() + 1);
+                    break;
+            }
+        }
+        result.setShardCount(groups.size());
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        log.debug("Sharded batch update of {}: {} rows, {} shards, {} statements, strategies {}, updated {}, not found {}, failed {}, {}ms",
+                logicTable, rowResults.size(), result.getShardCount(), result.getStatementCount(), result.getStrategyCounts(),
+                result.getUpdatedCount(), result.getNotFoundCount(), result.getFailedCount(), result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * 逻辑表的默认分表策略，与ShardingSphere配置的分表算法一致
+     */
+    private Function<String, String> defaultShardResolver(String logicTable) {
+        switch (logicTable) {
+            case "number_resource":
+                return shardingBatchUpdateUtils::getNumberResourceTableName;
+            case "imsi_resource":
+                return shardingBatchUpdateUtils::getImsiResourceTableName;
+            case "sim_card":
+                return shardingBatchUpdateUtils::getSimCardTableName;
+            case "number_imsi_binding":
+                return shardingBatchUpdateUtils::getNumberImsiBindingTableName;
+            default:
+                throw new IllegalArgumentException("No default shard resolver for table: " + logicTable);
+        }
+    }
+
+    /**
+     * 执行单个分表内同一更新列集合的一组行
+     * 处于事务中时失败直接抛出；否则已执行语句的行保留结果，失败语句及之后的行标记为失败
+     */
+    private GroupOutcome runGroup(GroupTask task) {
+        GroupOutcome outcome = new GroupOutcome();
+        try {
+            if (task.rows.size() < MULTI_ROW_THRESHOLD) {
+                outcome.strategy = ShardedBatchUpdateResult.Strategy.JDBC_BATCH;
+                runJdbcBatch(task, outcome);
+            } else {
+                boolean uniform = task.rows.stream().allMatch(row -> row.values.equals(task.rows.get(0).values));
+                outcome.strategy = uniform ? ShardedBatchUpdateResult.Strategy.IN_LIST : ShardedBatchUpdateResult.Strategy.CASE_WHEN;
+                for (int i = 0; i < task.rows.size(); i += MAX_ROWS_PER_STATEMENT) {
+                    List<RowUpdate> chunk = task.rows.subList(i, Math.min(i + MAX_ROWS_PER_STATEMENT, task.rows.size()));
+                    runMultiRow(task, chunk, uniform, outcome);
+                }
+            }
+        } catch (RuntimeException e) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw e;
+            }
+            log.error("Sharded batch update of shard [{}] failed, {} of {} rows applied", task.shard,
+                    outcome.rows.size(), task.rows.size(), e);
+            if (outcome.strategy == null) {
+                outcome.strategy = ShardedBatchUpdateResult.Strategy.JDBC_BATCH;
+            }
+            for (RowUpdate row : task.rows.subList(outcome.rows.size(), task.rows.size())) {
+                outcome.rows.add(new ShardedBatchUpdateResult.RowResult(row.key, task.shard,
+                        ShardedBatchUpdateResult.RowStatus.FAILED, e.getMessage()));
+            }
+        }
+        return outcome;
+    }
+
+    private void runJdbcBatch(GroupTask task, GroupOutcome outcome) {
+        String sql = "UPDATE " + task.logicTable + " SET "
+                + task.columns.stream().map(column -> column + " = ?").collect(Collectors.joining(", "))
+                + " WHERE " + task.keyColumn + " = ?";
+        List<Object[]> args = new ArrayList<>(task.rows.size());
+        for (RowUpdate row : task.rows) {
+            List<Object> params = new ArrayList<>(row.values.values());
+            params.add(row.key);
+            args.add(params.toArray());
+        }
+        int[] counts = jdbcTemplate.batchUpdate(sql, args);
+        outcome.statementCount++;
+        for (int i = 0; i < task.rows.size(); i++) {
+            boolean updated = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+            outcome.rows.add(new ShardedBatchUpdateResult.RowResult(task.rows.get(i).key, task.shard,
+                    updated ? ShardedBatchUpdateResult.RowStatus.UPDATED : ShardedBatchUpdateResult.RowStatus.NOT_FOUND, null));
+        }
+    }
+
+    private void runMultiRow(GroupTask task, List<RowUpdate> chunk, boolean uniform, GroupOutcome outcome) {
+        String keyPlaceholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+        String sql;
+        List<Object> params = new ArrayList<>();
+        if (uniform) {
+            sql = "UPDATE " + task.logicTable + " SET "
+                    + task.columns.stream().map(column -> column + " = ?").collect(Collectors.joining(", "))
+                    + " WHERE " + task.keyColumn + " IN (" + keyPlaceholders + ")";
+            params.addAll(chunk.get(0).values.values());
+        } else {
+            sql = shardingBatchUpdateUtils.generateBatchUpdateSqlWithCaseWhen(task.logicTable, task.columns,
+                    task.keyColumn, chunk.size());
+            for (String column : task.columns) {
+                for (RowUpdate row : chunk) {
+                    params.add(row.key);
+                    params.add(row.values.get(column));
+                }
+            }
+        }
+        List<String> keys = chunk.stream().map(row -> row.key).collect(Collectors.toList());
+        params.addAll(keys);
+        int updated = jdbcTemplate.update(sql, params.toArray());
+        outcome.statementCount++;
+
+        // 影响行数按匹配行计，少于本块行数时再查询一次定位不存在的记录
+        Set<String> existing;
+        if (updated >= chunk.size()) {
+            existing = new HashSet<>(keys);
+        } else {
+            existing = new HashSet<>(jdbcTemplate.queryForList("SELECT " + task.keyColumn + " FROM " + task.logicTable
+                    + " WHERE " + task.keyColumn + " IN (" + keyPlaceholders + ")", String.class, keys.toArray()));
+        }
+        for (String key : keys) {
+            outcome.rows.add(new ShardedBatchUpdateResult.RowResult(key, task.shard, existing.contains(key)
+                    ? ShardedBatchUpdateResult.RowStatus.UPDATED : ShardedBatchUpdateResult.RowStatus.NOT_FOUND, null));
+        }
+    }
+
+    private static final class RowUpdate {
+
+        private final String key;
+
+        private final Map<String, Object> values;
+
+        private RowUpdate(String key, Map<String, Object> values) {
+            this.key = key;
+            this.values = values;
+        }
+    }
+
+    private static final class GroupTask {
+
+        private final String logicTable;
+
+        private final String keyColumn;
+
+        private final String shard;
+
+        private final List<String> columns;
+
+        private final List<RowUpdate> rows;
+
+        private GroupTask(String logicTable, String keyColumn, String shard, List<String> columns, List<RowUpdate> rows) {
+            this.logicTable = logicTable;
+            this.keyColumn = keyColumn;
+            this.shard = shard;
+            this.columns = columns;
+            this.rows = rows;
+        }
+    }
+
+    private static final class GroupOutcome {
+
+        private final List<ShardedBatchUpdateResult.RowResult> rows = new ArrayList<>();
+
+        private int statementCount;
+
+        private ShardedBatchUpdateResult.Strategy strategy;
+    }
+}
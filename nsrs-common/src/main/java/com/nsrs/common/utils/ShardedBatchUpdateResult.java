@@ -0,0 +1,129 @@
+package com.nsrs.common.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 分表批量更新结果，包含逐行结果与各分表执行方式统计
+ */
+@Data
+public class ShardedBatchUpdateResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 单行更新状态
+     */
+    public enum RowStatus {
+        /**
+         * 已更新（按匹配行计，值未变化也视为已更新）
+         */
+        UPDATED,
+        /**
+         * 分表中不存在该记录
+         */
+        NOT_FOUND,
+        /**
+         * 所在分表执行失败
+         */
+        FAILED
+    }
+
+    /**
+     * 分表内采用的更新方式
+     */
+    public enum Strategy {
+        /**
+         * 各行更新值相同，单条 UPDATE ... WHERE key IN (...)
+         */
+        IN_LIST,
+        /**
+         * 各行更新值不同，单条 CASE WHEN 多行更新
+         */
+        CASE_WHEN,
+        /**
+         * JDBC批量执行逐行UPDATE
+         */
+        JDBC_BATCH
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 分表键值
+         */
+        private String key;
+
+        /**
+         * 所在分表
+         */
+        private String shard;
+
+        private RowStatus status;
+
+        /**
+         * 失败原因
+         */
+        private String message;
+    }
+
+    /**
+     * 逻辑表名
+     */
+    private String logicTable;
+
+    /**
+     * 涉及的分表数
+     */
+    private int shardCount;
+
+    /**
+     * 执行的SQL语句数（JDBC批量按一次提交计）
+     */
+    private int statementCount;
+
+    /**
+     * 各更新方式使用的分组数（分表内按更新列集合分组）
+     */
+    private Map<Strategy, Integer> strategyCounts = new EnumMap<>(Strategy.class);
+
+    private int updatedCount;
+
+    private int notFoundCount;
+
+    private int failedCount;
+
+    private long elapsedMillis;
+
+    private List<RowResult> rows = new ArrayList<>();
+
+    /**
+     * 是否全部更新成功
+     */
+    public boolean isAllUpdated() {
+        return notFoundCount == 0 && failedCount == 0;
+    }
+
+    /**
+     * 指定状态的分表键值
+     */
+    public List<String> getKeys(RowStatus status) {
+        return rows.stream()
+                .filter(row -> row.getStatus() == status)
+                .map(RowResult::getKey)
+                .collect(Collectors.toList());
+    }
+}
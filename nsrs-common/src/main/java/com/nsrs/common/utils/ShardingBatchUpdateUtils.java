@@ -48,12 +48,16 @@ public class ShardingBatchUpdateUtils {
 
     /**
      * 号码资源分表策略
-     * 根据号码前3位确定分表名
+     * 根据号码前3位确定分表名，热点前缀返回号码所在子表
      */
     public String getNumberResourceTableName(String number) {
         if (number == null || number.length() < 3) {
             throw new IllegalArgumentException("Invalid number for sharding: " + number);
         }
+        String subTable = HotPrefixShardingRule.subTableName("number_resource", number);
+        if (subTable != null) {
+            return subTable;
+        }
         String prefix = number.substring(0, 3);
         return "number_resource_" + prefix;
     }
@@ -205,6 +209,38 @@ public class ShardingBatchUpdateUtils {
             "185", "186", "187", "188", "189"
     );
 
+    /**
+     * SIM卡分表数量（sim_card_0 ~ sim_card_9）
+     */
+    public static final int SIM_CARD_SHARD_COUNT = 10;
+
+    /**
+     * IMSI资源分表数量（imsi_resource_0 ~ imsi_resource_9）
+     */
+    public static final int IMSI_RESOURCE_SHARD_COUNT = 10;
+
+    /**
+     * 获取全部SIM卡物理分表名
+     */
+    public static List<String> getAllSimCardTableNames() {
+        List<String> tables = new ArrayList<>(SIM_CARD_SHARD_COUNT);
+        for (int i = 0; i < SIM_CARD_SHARD_COUNT; i++) {
+            tables.add("sim_card_" + i);
+        }
+        return tables;
+    }
+
+    /**
+     * 获取全部IMSI资源物理分表名
+     */
+    public static List<String> getAllImsiResourceTableNames() {
+        List<String> tables = new ArrayList<>(IMSI_RESOURCE_SHARD_COUNT);
+        for (int i = 0; i < IMSI_RESOURCE_SHARD_COUNT; i++) {
+            tables.add("imsi_resource_" + i);
+        }
+        return tables;
+    }
+
     /**
      * 验证号码前缀是否支持
      */
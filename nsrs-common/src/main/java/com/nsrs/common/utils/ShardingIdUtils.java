@@ -0,0 +1,118 @@
+package com.nsrs.common.utils;
+
+/**
+ * 分片感知ID工具类
+ * ID格式：BASE + 序列值 * 100 + 分片码，分片码为号码前缀在 {@link ShardingBatchUpdateUtils#SUPPORTED_NUMBER_PREFIXES}
+ * 中的下标（号码资源、绑定关系）或ICCID后3位对10取模（SIM卡），路由算法据此直接定位分表。
+ * 小于BASE的ID为历史ID，不含分片码，按ID查询时仍需广播；ID保持在2^53以内，前端JSON解析不丢精度。
+ * 注意：前缀列表只能在末尾追加，不能调整顺序，否则已生成的ID会路由到错误的分表
+ */
+public final class ShardingIdUtils {
+
+    /**
+     * 分片感知ID基数，历史ID均小于该值
+     */
+    public static final long BASE = 1_000_000_000_000_000L;
+
+    /**
+     * 分片码取值范围（两位十进制）
+     */
+    public static final int SHARD_CODE_RANGE = 100;
+
+    /**
+     * 序列值上限，保证生成的ID不超过2^53
+     */
+    public static final long MAX_SEQUENCE_VALUE = ((1L << 53) - BASE - SHARD_CODE_RANGE) / SHARD_CODE_RANGE;
+
+    private ShardingIdUtils() {
+    }
+
+    /**
+     * 将序列值与分片码组合为ID
+     *
+     * @param sequenceValue 序列值
+     * @param shardCode 分片码，小于0时返回原序列值（无法确定分片）
+     * @return ID
+     */
+    public static long encode(long sequenceValue, int shardCode) {
+        if (shardCode < 0) {
+            return sequenceValue;
+        }
+        if (shardCode >= SHARD_CODE_RANGE || sequenceValue < 0 || sequenceValue > MAX_SEQUENCE_VALUE) {
+            throw new IllegalArgumentException("Cannot encode sharding id, sequence=" + sequenceValue + ", shardCode=" + shardCode);
+        }
+        return BASE + sequenceValue * SHARD_CODE_RANGE + shardCode;
+    }
+
+    /**
+     * 是否为分片感知ID
+     */
+    public static boolean isShardingId(Long id) {
+        return id != null && id >= BASE;
+    }
+
+    /**
+     * 解析ID中的分片码
+     *
+     * @param id ID
+     * @return 分片码，历史ID返回-1
+     */
+    public static int decodeShardCode(Long id) {
+        return isShardingId(id) ? (int) ((id - BASE) % SHARD_CODE_RANGE) : -1;
+    }
+
+    /**
+     * 号码的分片码
+     *
+     * @param number 号码
+     * @return 号码前缀下标，前缀不支持时返回-1
+     */
+    public static int numberShardCode(String number) {
+        if (number == null || number.length() < 3) {
+            return -1;
+        }
+        return ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES.indexOf(number.substring(0, 3));
+    }
+
+    /**
+     * 解析号码资源/绑定关系ID对应的号码前缀
+     *
+     * @param id ID
+     * @return 号码前缀，历史ID或分片码无效时返回null
+     */
+    public static String decodeNumberPrefix(Long id) {
+        int shardCode = decodeShardCode(id);
+        if (shardCode < 0 || shardCode >= ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES.size()) {
+            return null;
+        }
+        return ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES.get(shardCode);
+    }
+
+    /**
+     * ICCID的分片码，与sim_card分表规则一致（后3位对分表数取模）
+     *
+     * @param iccid ICCID
+     * @return 分表下标，ICCID无效时返回-1
+     */
+    public static int iccidShardCode(String iccid) {
+        if (iccid == null || iccid.length() < 3) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(iccid.substring(iccid.length() - 3)) % ShardingBatchUpdateUtils.SIM_CARD_SHARD_COUNT;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 解析SIM卡ID对应的分表下标
+     *
+     * @param id SIM卡ID
+     * @return 分表下标，历史ID或分片码无效时返回-1
+     */
+    public static int decodeSimCardShard(Long id) {
+        int shardCode = decodeShardCode(id);
+        return shardCode < ShardingBatchUpdateUtils.SIM_CARD_SHARD_COUNT ? shardCode : -1;
+    }
+}
@@ -0,0 +1,292 @@
+package com.nsrs.common.utils;
+
+import cn.afterturn.easypoi.excel.annotation.Excel;
+import com.nsrs.common.enums.ExportFormatEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 流式导出写入器
+ * 按EasyPOI的@Excel注解生成列，逐行写入SXSSF工作簿或CSV（可gzip）直接输出到响应流，内存占用与导出行数无关
+ *
+ * @param <T> 实体类型
+ * @author nsrs
+ */
+@Slf4j
+public class StreamingExportWriter<T> implements Consumer<T>, Closeable {
+
+    /**
+     * SXSSF内存中保留的行数，超出部分刷写到临时文件
+     */
+    private static final int WINDOW_SIZE = 500;
+
+    private static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    private final ExportFormatEnum format;
+    private final List<Column> columns;
+    private final String[] leadingHeaders;
+    private final OutputStream outputStream;
+    private SXSSFWorkbook workbook;
+    private Sheet sheet;
+    private Writer csvWriter;
+    private int rowIndex;
+    private long count;
+
+    private StreamingExportWriter(ExportFormatEnum format, String title, String sheetName,
+                                  Class<T> clazz, OutputStream outputStream, String... leadingHeaders) throws IOException {
+        this.format = format;
+        this.columns = resolveColumns(clazz);
+        this.leadingHeaders = leadingHeaders;
+        this.outputStream = outputStream;
+        if (format == ExportFormatEnum.XLSX) {
+            workbook = new SXSSFWorkbook(WINDOW_SIZE);
+            workbook.setCompressTempFiles(true);
+            sheet = workbook.createSheet(sheetName);
+            // 与EasyPOI导出格式保持一致：1行标题 + 1行表头，便于回导
+            sheet.createRow(rowIndex++).createCell(0).setCellValue(title);
+            Row header = sheet.createRow(rowIndex++);
+            for (int i = 0; i < leadingHeaders.length; i++) {
+                header.createCell(i).setCellValue(leadingHeaders[i]);
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                header.createCell(leadingHeaders.length + i).setCellValue(columns.get(i).name);
+                sheet.setColumnWidth(leadingHeaders.length + i, (int) (columns.get(i).width * 256));
+            }
+        } else {
+            OutputStream target = format == ExportFormatEnum.CSV_GZIP ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+            csvWriter = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+            // UTF-8 BOM，保证Excel打开中文不乱码
+            csvWriter.write('\uFEFF');
+            List<String> header = new ArrayList<>(leadingHeaders.length + columns.size());
+            Collections.addAll(header, leadingHeaders);
+            for (Column column : columns) {
+                header.add(column.name);
+            }
+            writeCsvLine(header);
+        }
+    }
+
+    /**
+     * 设置响应头并创建写入器
+     *
+     * @param format 导出格式
+     * @param title 标题（同时作为文件名）
+     * @param sheetName 工作表名称
+     * @param clazz 实体类
+     * @param response HTTP响应
+     * @param <T> 泛型类型
+     * @return 写入器
+     */
+    public static <T> StreamingExportWriter<T> open(ExportFormatEnum format, String title, String sheetName,
+                                                    Class<T> clazz, HttpServletResponse response) throws IOException {
+        String safeTitle = title != null ? title : "Export";
+        String safeSheetName = sheetName != null ? sheetName : "Sheet1";
+        String fileName = URLEncoder.encode(safeTitle + format.getExtension(), StandardCharsets.UTF_8.toString());
+        response.setContentType(format.getContentType());
+        response.setHeader("Content-Disposition", "attachment; filename=" + fileName);
+        return new StreamingExportWriter<>(format, safeTitle, safeSheetName, clazz, response.getOutputStream());
+    }
+
+    /**
+     * 创建写入到指定输出流的写入器，可在实体列之前追加额外列（如导入错误报告的行号、错误信息）
+     *
+     * @param format 导出格式
+     * @param title 标题
+     * @param sheetName 工作表名称
+     * @param clazz 实体类
+     * @param outputStream 输出流，由写入器关闭前负责刷写
+     * @param leadingHeaders 额外列的表头
+     * @param <T> 泛型类型
+     * @return 写入器
+     */
+    public static <T> StreamingExportWriter<T> open(ExportFormatEnum format, String title, String sheetName,
+                                                    Class<T> clazz, OutputStream outputStream,
+                                                    String... leadingHeaders) throws IOException {
+        return new StreamingExportWriter<>(format, title != null ? title : "Export",
+                sheetName != null ? sheetName : "Sheet1", clazz, outputStream, leadingHeaders);
+    }
+
+    @Override
+    public void accept(T data) {
+        accept(data, new String[0]);
+    }
+
+    /**
+     * 写入一行数据，leadingValues依次填入open时声明的额外列
+     *
+     * @param data 实体数据
+     * @param leadingValues 额外列的值
+     */
+    public void accept(T data, String... leadingValues) {
+        try {
+            if (format == ExportFormatEnum.XLSX) {
+                Row row = sheet.createRow(rowIndex++);
+                int offset = leadingHeaders.length;
+                for (int i = 0; i < offset && i < leadingValues.length; i++) {
+                    if (leadingValues[i] != null) {
+                        row.createCell(i).setCellValue(leadingValues[i]);
+                    }
+                }
+                for (int i = 0; i < columns.size(); i++) {
+                    Object value = columns.get(i).read(data);
+                    if (value == null) {
+                        continue;
+                    }
+                    Cell cell = row.createCell(offset + i);
+                    if (value instanceof Number && columns.get(i).replace.isEmpty()) {
+                        cell.setCellValue(((Number) value).doubleValue());
+                    } else {
+                        cell.setCellValue(columns.get(i).format(value));
+                    }
+                }
+            } else {
+                List<String> values = new ArrayList<>(leadingHeaders.length + columns.size());
+                for (int i = 0; i < leadingHeaders.length; i++) {
+                    values.add(i < leadingValues.length && leadingValues[i] != null ? leadingValues[i] : "");
+                }
+                for (Column column : columns) {
+                    Object value = column.read(data);
+                    values.add(value == null ? "" : column.format(value));
+                }
+                writeCsvLine(values);
+            }
+            count++;
+        } catch (IOException e) {
+            throw new IllegalStateException("Streaming export write failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 已写入的数据行数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (workbook != null) {
+            try {
+                workbook.write(outputStream);
+            } finally {
+                workbook.dispose();
+                workbook.close();
+            }
+        } else if (csvWriter != null) {
+            // 关闭写入器以完成gzip尾部
+            csvWriter.close();
+        }
+        outputStream.flush();
+        log.info("Streaming export finished, format={}, rows={}", format.getCode(), count);
+    }
+
+    private void writeCsvLine(List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                csvWriter.write(',');
+            }
+            csvWriter.write(escapeCsv(values.get(i)));
+        }
+        csvWriter.write("\r\n");
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static <T> List<Column> resolveColumns(Class<T> clazz) {
+        List<Column> columns = new ArrayList<>();
+        for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                Excel excel = field.getAnnotation(Excel.class);
+                if (excel != null) {
+                    field.setAccessible(true);
+                    columns.add(new Column(field, excel));
+                }
+            }
+        }
+        columns.sort(Comparator.comparingInt(column -> column.order));
+        return columns;
+    }
+
+    /**
+     * 导出列定义
+     */
+    private static final class Column {
+        private final Field field;
+        private final String name;
+        private final int order;
+        private final double width;
+        private final Map<String, String> replace = new HashMap<>();
+        private final String dateFormat;
+        private final String numFormat;
+
+        private Column(Field field, Excel excel) {
+            this.field = field;
+            this.name = excel.name();
+            this.order = StringUtils.isNumeric(excel.orderNum()) ? Integer.parseInt(excel.orderNum()) : 0;
+            this.width = excel.width();
+            for (String item : excel.replace()) {
+                int split = item.lastIndexOf('_');
+                if (split > 0) {
+                    replace.put(item.substring(split + 1), item.substring(0, split));
+                }
+            }
+            String pattern = StringUtils.isNotBlank(excel.exportFormat()) ? excel.exportFormat() : excel.format();
+            this.dateFormat = StringUtils.isNotBlank(pattern) ? pattern : DEFAULT_DATE_FORMAT;
+            this.numFormat = excel.numFormat();
+        }
+
+        private Object read(Object data) {
+            try {
+                return field.get(data);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read export field " + field.getName(), e);
+            }
+        }
+
+        private String format(Object value) {
+            if (!replace.isEmpty()) {
+                String label = replace.get(String.valueOf(value));
+                return label != null ? label : String.valueOf(value);
+            }
+            if (value instanceof Date) {
+                return new SimpleDateFormat(dateFormat).format((Date) value);
+            }
+            if (StringUtils.isNotBlank(numFormat) && (value instanceof Number)) {
+                return new DecimalFormat(numFormat).format(value instanceof BigDecimal ? value : ((Number) value).doubleValue());
+            }
+            return String.valueOf(value);
+        }
+    }
+}
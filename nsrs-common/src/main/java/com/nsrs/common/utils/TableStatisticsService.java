@@ -0,0 +1,54 @@
+package com.nsrs.common.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 表统计信息服务
+ * 基于information_schema的TABLE_ROWS估算分表总行数，用于分页近似统计
+ */
+@Slf4j
+@Service
+public class TableStatisticsService {
+
+    /**
+     * 统计结果缓存时间（毫秒）
+     */
+    private static final long CACHE_TTL_MILLIS = 5 * 60 * 1000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, long[]> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 估算以指定前缀命名的所有分表的总行数
+     *
+     * @param tablePrefix 分表名前缀，如 number_resource_
+     * @return 估算行数，查询失败时返回null
+     */
+    public Long estimateRowCount(String tablePrefix) {
+        long now = System.currentTimeMillis();
+        long[] cached = cache.get(tablePrefix);
+        if (cached != null && now - cached[1] < CACHE_TTL_MILLIS) {
+            return cached[0];
+        }
+
+        try {
+            String sql = "SELECT COALESCE(SUM(TABLE_ROWS), 0) FROM information_schema.TABLES "
+                    + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME LIKE ?";
+            Long rows = jdbcTemplate.queryForObject(sql, Long.class, tablePrefix.replace("_", "\\_") + "%");
+            long value = rows != null ? rows : 0L;
+            cache.put(tablePrefix, new long[]{value, now});
+            return value;
+        } catch (Exception e) {
+            log.warn("Failed to estimate row count for tables [{}*]: {}", tablePrefix, e.getMessage());
+            return null;
+        }
+    }
+}
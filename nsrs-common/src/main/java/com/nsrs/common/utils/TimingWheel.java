@@ -0,0 +1,112 @@
+package com.nsrs.common.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 单层时间轮
+ * 到期时间按刻度散列到槽位，推进时只处理经过的槽位，添加与到期都是O(1)；
+ * 只接受一圈（tickMs * wheelSize）以内的到期时间，更远的任务应由调用方在之后重新添加
+ *
+ * @param <T> 任务类型
+ */
+public class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final Deque<T>[] buckets;
+
+    /**
+     * 已处理到的刻度
+     */
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.buckets = new Deque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * 添加任务，已过期的任务在下一个刻度到期
+     *
+     * @param item 任务
+     * @param deadlineMs 到期时间（毫秒时间戳）
+     * @return 超出时间轮范围时返回false
+     */
+    public synchronized boolean add(T item, long deadlineMs) {
+        // 向上取整到刻度，保证推进返回时任务确已到期
+        long tick = Math.max((deadlineMs + tickMs - 1) / tickMs, currentTick + 1);
+        if (tick - currentTick >= wheelSize) {
+            return false;
+        }
+        buckets[(int) (tick % wheelSize)].add(item);
+        size++;
+        return true;
+    }
+
+    /**
+     * 取消尚未到期的任务，只查找到期时间对应的槽位
+     *
+     * @param item 任务
+     * @param deadlineMs 添加时的到期时间（毫秒时间戳）
+     * @return 任务已到期或不存在时返回false
+     */
+    public synchronized boolean remove(T item, long deadlineMs) {
+        long tick = Math.max((deadlineMs + tickMs - 1) / tickMs, currentTick + 1);
+        if (tick - currentTick >= wheelSize) {
+            return false;
+        }
+        if (!buckets[(int) (tick % wheelSize)].remove(item)) {
+            return false;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * 推进到指定时间，返回期间到期的任务
+     *
+     * @param nowMs 当前时间（毫秒时间戳）
+     * @return 到期任务
+     */
+    public synchronized List<T> advance(long nowMs) {
+        long targetTick = nowMs / tickMs;
+        if (targetTick <= currentTick) {
+            return new ArrayList<>(0);
+        }
+        List<T> expired = new ArrayList<>();
+        // 落后超过一圈时每个槽位只需处理一次
+        long fromTick = Math.max(currentTick + 1, targetTick - wheelSize + 1);
+        for (long tick = fromTick; tick <= targetTick; tick++) {
+            Deque<T> bucket = buckets[(int) (tick % wheelSize)];
+            expired.addAll(bucket);
+            bucket.clear();
+        }
+        size -= expired.size();
+        currentTick = targetTick;
+        return expired;
+    }
+
+    /**
+     * 时间轮覆盖的时长（毫秒）
+     */
+    public long getSpanMs() {
+        return tickMs * (wheelSize - 1);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
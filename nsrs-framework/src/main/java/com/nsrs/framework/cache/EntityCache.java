@@ -0,0 +1,278 @@
+package com.nsrs.framework.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 单个实体的两级缓存（本地 + Redis）
+ * 本地缓存的按键加载保证同一节点上同一个键的并发未命中只触发一次加载（single-flight）；
+ * Redis键中带有代次号，整体清空时递增代次使旧键失效，无需按模式删除
+ *
+ * @param <V> 实体类型
+ * @author NSRS
+ */
+@Slf4j
+public class EntityCache<V> {
+
+    private final String name;
+    private final Class<V> type;
+    private final EntityCacheProperties properties;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final EntityCacheManager manager;
+    private final Cache<String, Optional<V>> localCache;
+
+    /**
+     * Redis键代次，整体清空时递增
+     */
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean generationLoaded;
+
+    /**
+     * 失效计数，用于丢弃加载期间被失效的结果，避免把旧值写回缓存
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    EntityCache(String name, Class<V> type, EntityCacheProperties properties,
+                RedisTemplate<String, Object> redisTemplate, EntityCacheManager manager) {
+        this.name = name;
+        this.type = type;
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.manager = manager;
+        this.localCache = CacheBuilder.newBuilder()
+                .maximumSize(properties.getLocalMaxSize())
+                .expireAfterWrite(properties.getLocalExpireSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 读取缓存，未命中时通过loader从数据库加载（null结果不缓存）
+     * 返回的实例在本节点内共享，调用方不应修改
+     *
+     * @param key 自然键
+     * @param loader 数据库加载函数
+     * @return 实体，不存在时返回null
+     */
+    public V get(String key, Function<String, V> loader) {
+        if (key == null || !properties.isEntityEnabled(name)) {
+            return loader.apply(key);
+        }
+        boolean[] loaded = new boolean[1];
+        Optional<V> value;
+        try {
+            value = localCache.get(key, () -> {
+                loaded[0] = true;
+                return loadThrough(key, loader);
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            loadFailures.increment();
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+        if (!loaded[0]) {
+            localHits.increment();
+        }
+        if (!value.isPresent()) {
+            // 不存在的记录不驻留本地缓存，同一时刻的并发请求仍只触发一次查询
+            localCache.invalidate(key);
+        }
+        return value.orElse(null);
+    }
+
+    /**
+     * 失效单个键（本节点、Redis，并广播到其他节点）
+     * 处于事务中时在提交后再失效一次，避免提交前被并发读回填旧值
+     *
+     * @param key 自然键
+     */
+    public void evict(String key) {
+        if (key == null) {
+            return;
+        }
+        evictLocal(key);
+        deleteRedis(key);
+        manager.publish(name, EntityCacheManager.OP_EVICT, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocal(key);
+                    deleteRedis(key);
+                    manager.publish(name, EntityCacheManager.OP_EVICT, key);
+                }
+            });
+        }
+    }
+
+    /**
+     * 批量失效
+     *
+     * @param keys 自然键集合
+     */
+    public void evictAll(Collection<String> keys) {
+        if (keys != null) {
+            keys.forEach(this::evict);
+        }
+    }
+
+    /**
+     * 清空整个实体缓存，用于无法确定受影响键的批量写操作
+     */
+    public void clear() {
+        clearGeneration();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clearGeneration();
+                }
+            });
+        }
+    }
+
+    private void clearGeneration() {
+        long newGeneration = generation.incrementAndGet();
+        if (redisAvailable()) {
+            try {
+                Long value = redisTemplate.opsForValue().increment(generationKey());
+                if (value != null) {
+                    newGeneration = value;
+                    generation.set(value);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to bump cache generation for [{}]: {}", name, e.getMessage());
+            }
+        }
+        clearLocal(newGeneration);
+        manager.publish(name, EntityCacheManager.OP_CLEAR, String.valueOf(newGeneration));
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @return 命中、未命中等计数
+     */
+    public Map<String, Object> getStatistics() {
+        long local = localHits.sum();
+        long redis = redisHits.sum();
+        long miss = misses.sum();
+        long total = local + redis + miss;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEntityEnabled(name));
+        stats.put("localHits", local);
+        stats.put("redisHits", redis);
+        stats.put("misses", miss);
+        stats.put("loadFailures", loadFailures.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", total == 0 ? 0D : (double) (local + redis) / total);
+        stats.put("localSize", localCache.size());
+        return stats;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    void evictLocal(String key) {
+        invalidations.incrementAndGet();
+        localCache.invalidate(key);
+        evictions.increment();
+    }
+
+    void clearLocal(long newGeneration) {
+        invalidations.incrementAndGet();
+        generation.accumulateAndGet(newGeneration, Math::max);
+        localCache.invalidateAll();
+        evictions.increment();
+    }
+
+    private Optional<V> loadThrough(String key, Function<String, V> loader) {
+        String redisKey = redisKey(key);
+        if (redisKey != null) {
+            try {
+                Object cached = redisTemplate.opsForValue().get(redisKey);
+                if (type.isInstance(cached)) {
+                    redisHits.increment();
+                    return Optional.of(type.cast(cached));
+                }
+            } catch (Exception e) {
+                log.warn("Redis cache read failed for [{}:{}], falling back to database: {}", name, key, e.getMessage());
+            }
+        }
+
+        misses.increment();
+        long invalidationsBefore = invalidations.get();
+        V value = loader.apply(key);
+        if (value != null && redisKey != null && invalidations.get() == invalidationsBefore) {
+            try {
+                redisTemplate.opsForValue().set(redisKey, value, properties.getRedisExpireSeconds(), TimeUnit.SECONDS);
+            } catch (Exception e) {
+                log.warn("Redis cache write failed for [{}:{}]: {}", name, key, e.getMessage());
+            }
+        }
+        return Optional.ofNullable(value);
+    }
+
+    private void deleteRedis(String key) {
+        String redisKey = redisKey(key);
+        if (redisKey == null) {
+            return;
+        }
+        try {
+            redisTemplate.delete(redisKey);
+        } catch (Exception e) {
+            log.warn("Redis cache delete failed for [{}:{}]: {}", name, key, e.getMessage());
+        }
+    }
+
+    private String redisKey(String key) {
+        if (!redisAvailable()) {
+            return null;
+        }
+        if (!generationLoaded) {
+            try {
+                Object value = redisTemplate.opsForValue().get(generationKey());
+                if (value != null) {
+                    generation.accumulateAndGet(Long.parseLong(value.toString()), Math::max);
+                }
+                generationLoaded = true;
+            } catch (Exception e) {
+                log.warn("Failed to load cache generation for [{}]: {}", name, e.getMessage());
+                return null;
+            }
+        }
+        return properties.getKeyPrefix() + ":" + name + ":" + generation.get() + ":" + key;
+    }
+
+    private String generationKey() {
+        return properties.getKeyPrefix() + ":" + name + ":gen";
+    }
+
+    private boolean redisAvailable() {
+        return redisTemplate != null && properties.isRedisEnabled();
+    }
+}
@@ -0,0 +1,150 @@
+package com.nsrs.framework.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 实体缓存管理器
+ * 创建并持有各实体的两级缓存，通过Redis发布订阅在节点间广播失效消息
+ *
+ * @author NSRS
+ */
+@Slf4j
+@Component
+public class EntityCacheManager {
+
+    static final String OP_EVICT = "evict";
+    static final String OP_CLEAR = "clear";
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 本节点标识，忽略自己发出的广播
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, EntityCache<?>> caches = new ConcurrentHashMap<>();
+
+    @Autowired
+    private EntityCacheProperties properties;
+
+    @Autowired(required = false)
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired(required = false)
+    private RedisConnectionFactory connectionFactory;
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    public void init() {
+        if (!properties.isEnabled() || !properties.isRedisEnabled() || connectionFactory == null) {
+            log.info("Entity cache invalidation broadcast disabled, enabled={}, redisEnabled={}",
+                    properties.isEnabled(), properties.isRedisEnabled());
+            return;
+        }
+        try {
+            listenerContainer = new RedisMessageListenerContainer();
+            listenerContainer.setConnectionFactory(connectionFactory);
+            listenerContainer.addMessageListener(this::onMessage, new ChannelTopic(properties.getInvalidationChannel()));
+            listenerContainer.afterPropertiesSet();
+            listenerContainer.start();
+            log.info("Entity cache invalidation listener started on channel {}", properties.getInvalidationChannel());
+        } catch (Exception e) {
+            log.warn("Failed to start entity cache invalidation listener, remote invalidation disabled: {}", e.getMessage());
+            listenerContainer = null;
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    /**
+     * 获取（或创建）实体缓存
+     *
+     * @param name 实体缓存名称，见 {@link EntityCacheNames}
+     * @param type 实体类型
+     * @param <V> 实体类型
+     * @return 实体缓存
+     */
+    @SuppressWarnings("unchecked")
+    public <V> EntityCache<V> getCache(String name, Class<V> type) {
+        return (EntityCache<V>) caches.computeIfAbsent(name,
+                key -> new EntityCache<>(key, type, properties, redisTemplate, this));
+    }
+
+    /**
+     * 所有实体缓存的统计信息
+     *
+     * @return 按实体名称分组的统计
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        caches.forEach((name, cache) -> stats.put(name, cache.getStatistics()));
+        return stats;
+    }
+
+    /**
+     * 已创建的实体缓存
+     *
+     * @return 实体缓存集合
+     */
+    public Collection<EntityCache<?>> getCaches() {
+        return Collections.unmodifiableCollection(caches.values());
+    }
+
+    void publish(String name, String op, String payload) {
+        if (listenerContainer == null || redisTemplate == null) {
+            return;
+        }
+        try {
+            byte[] channel = properties.getInvalidationChannel().getBytes(StandardCharsets.UTF_8);
+            byte[] body = String.join(SEPARATOR, nodeId, name, op, payload).getBytes(StandardCharsets.UTF_8);
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, body));
+        } catch (Exception e) {
+            log.warn("Failed to broadcast cache invalidation [{} {} {}]: {}", name, op, payload, e.getMessage());
+        }
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 4);
+        if (parts.length != 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+        EntityCache<?> cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (OP_CLEAR.equals(parts[2])) {
+            try {
+                cache.clearLocal(Long.parseLong(parts[3]));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed cache clear message: {}", body);
+            }
+        } else {
+            cache.evictLocal(parts[3]);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.nsrs.framework.cache;
+
+/**
+ * 实体缓存名称常量
+ *
+ * @author NSRS
+ */
+public final class EntityCacheNames {
+
+    /**
+     * 号码资源，按号码缓存
+     */
+    public static final String NUMBER_RESOURCE = "numberResource";
+
+    /**
+     * SIM卡，按ICCID缓存
+     */
+    public static final String SIM_CARD = "simCard";
+
+    /**
+     * IMSI资源，按IMSI缓存
+     */
+    public static final String IMSI_RESOURCE = "imsiResource";
+
+    /**
+     * 号码-IMSI绑定关系（已绑定），按号码缓存
+     */
+    public static final String NUMBER_IMSI_BINDING = "numberImsiBinding";
+
+    private EntityCacheNames() {
+    }
+}
@@ -0,0 +1,70 @@
+package com.nsrs.framework.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 实体缓存配置属性
+ * 本地缓存 + Redis 两级缓存，按自然键（号码、ICCID、IMSI）缓存热点实体
+ *
+ * @author NSRS
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nsrs.entity-cache")
+public class EntityCacheProperties {
+
+    /**
+     * 是否启用实体缓存（总开关），默认启用
+     */
+    private boolean enabled = true;
+
+    /**
+     * 是否启用Redis二级缓存及跨节点失效广播，关闭时仅使用本地缓存
+     */
+    private boolean redisEnabled = true;
+
+    /**
+     * Redis键前缀
+     */
+    private String keyPrefix = "nsrs:cache";
+
+    /**
+     * 跨节点失效广播频道
+     */
+    private String invalidationChannel = "nsrs:cache:invalidation";
+
+    /**
+     * 每个实体本地缓存的最大条目数
+     */
+    private long localMaxSize = 10000;
+
+    /**
+     * 本地缓存过期时间（秒），同时作为未覆盖写路径的最大不一致时间
+     */
+    private long localExpireSeconds = 60;
+
+    /**
+     * Redis缓存过期时间（秒）
+     */
+    private long redisExpireSeconds = 600;
+
+    /**
+     * 按实体的开关，key为实体缓存名称（如 numberResource、simCard），未配置的实体默认启用
+     */
+    private Map<String, Boolean> entities = new HashMap<>();
+
+    /**
+     * 判断指定实体是否启用缓存
+     *
+     * @param name 实体缓存名称
+     * @return 是否启用
+     */
+    public boolean isEntityEnabled(String name) {
+        return enabled && entities.getOrDefault(name, Boolean.TRUE);
+    }
+}
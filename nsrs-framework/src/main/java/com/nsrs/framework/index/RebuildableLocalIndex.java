@@ -0,0 +1,416 @@
+package com.nsrs.framework.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 可重建的进程内索引基类
+ * 索引状态从数据库全量重建后整体替换，本节点的写入在事务提交后以增量变更应用，并通过Redis发布订阅广播给其他节点；
+ * 重建期间提交或收到的变更在替换前重放到新状态，变更须为幂等操作。
+ * 状态可持久化为本地快照，启动时先加载快照再在后台重建；快照可能落后于其他节点的写入，首次重建完成前索引不可用于查询
+ *
+ * @param <S> 索引状态
+ * @param <C> 增量变更
+ * @author NSRS
+ */
+@Slf4j
+public abstract class RebuildableLocalIndex<S, C> {
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final String SEPARATOR = "|";
+
+    private static final String CHANGE_SEPARATOR = "\n";
+
+    /**
+     * 单条广播消息携带的最大变更数
+     */
+    private static final int MAX_CHANGES_PER_MESSAGE = 500;
+
+    /**
+     * 本节点标识，忽略自己发出的广播
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired(required = false)
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired(required = false)
+    private RedisConnectionFactory connectionFactory;
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    private volatile S state;
+
+    private volatile boolean ready;
+
+    /**
+     * 应用变更与重建替换的互斥锁
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * 重建期间提交的变更，重建完成后重放到新状态
+     */
+    private List<C> pendingDuringRebuild;
+
+    private ScheduledExecutorService rebuilder;
+
+    protected RebuildableLocalIndex(S initialState) {
+        this.state = initialState;
+    }
+
+    /**
+     * 索引名，用于日志和线程名
+     */
+    protected abstract String getName();
+
+    /**
+     * 是否启用
+     */
+    protected abstract boolean isEnabled();
+
+    /**
+     * 全量重建间隔（毫秒），0表示只在启动时重建
+     */
+    protected abstract long getRebuildIntervalMs();
+
+    /**
+     * 本地快照文件，返回null时不持久化
+     */
+    protected abstract Path getSnapshotPath();
+
+    /**
+     * 快照文件标识，用于识别不同索引的快照格式
+     */
+    protected abstract int getSnapshotMagic();
+
+    /**
+     * 节点间变更广播频道，返回空时不广播，其他节点的写入只由定时重建同步
+     */
+    protected abstract String getChangeChannel();
+
+    /**
+     * 变更编码为单行文本，用于节点间广播
+     */
+    protected abstract String encodeChange(C change);
+
+    /**
+     * 解码其他节点广播的变更
+     */
+    protected abstract C decodeChange(String encoded);
+
+    /**
+     * 从数据库加载全部数据，返回新状态
+     */
+    protected abstract S loadAll();
+
+    /**
+     * 将变更应用到状态
+     */
+    protected abstract void applyTo(S target, C change);
+
+    /**
+     * 写出快照内容（不含文件头）
+     */
+    protected abstract void writeSnapshot(S source, DataOutputStream out) throws IOException;
+
+    /**
+     * 读取快照内容（不含文件头）
+     *
+     * @return 快照与当前配置不兼容时返回null
+     */
+    protected abstract S readSnapshot(DataInputStream in) throws IOException;
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            log.info("Local index [{}] disabled", getName());
+            return;
+        }
+        loadSnapshot();
+        startListener();
+        rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "local-index-" + getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (getRebuildIntervalMs() > 0) {
+            rebuilder.scheduleWithFixedDelay(this::rebuildQuietly, 0, getRebuildIntervalMs(), TimeUnit.MILLISECONDS);
+        } else {
+            rebuilder.execute(this::rebuildQuietly);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+        if (listenerContainer != null) {
+            try {
+                listenerContainer.destroy();
+            } catch (Exception e) {
+                log.warn("Failed to stop local index [{}] change listener: {}", getName(), e.getMessage());
+            }
+        }
+        if (ready) {
+            saveSnapshot();
+        }
+    }
+
+    /**
+     * 索引是否可用于查询
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 当前状态，重建时整体替换，读取方应只取一次引用
+     */
+    protected S currentState() {
+        return state;
+    }
+
+    /**
+     * 记录变更，存在事务时在提交后生效并广播给其他节点
+     */
+    protected void record(C change) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyAndPublish(Collections.singletonList(change));
+            return;
+        }
+        // 同一事务内的变更合并到一个同步回调中
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof RebuildableLocalIndex.PendingChanges) {
+                @SuppressWarnings("unchecked")
+                PendingChanges pending = (PendingChanges) synchronization;
+                if (pending.owner() == this) {
+                    pending.changes.add(change);
+                    return;
+                }
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        pending.changes.add(change);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    /**
+     * 从数据库全量重建，期间提交的变更在替换前重放
+     */
+    public void rebuild() {
+        long startTime = System.currentTimeMillis();
+        synchronized (writeLock) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        try {
+            S rebuilt = loadAll();
+            synchronized (writeLock) {
+                for (C change : pendingDuringRebuild) {
+                    applyTo(rebuilt, change);
+                }
+                state = rebuilt;
+                ready = true;
+            }
+            log.info("Local index [{}] rebuilt in {}ms", getName(), System.currentTimeMillis() - startTime);
+        } finally {
+            synchronized (writeLock) {
+                pendingDuringRebuild = null;
+            }
+        }
+        saveSnapshot();
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Failed to rebuild local index [{}]", getName(), e);
+        }
+    }
+
+    private void applyAndPublish(List<C> changes) {
+        apply(changes);
+        publish(changes);
+    }
+
+    private void apply(List<C> changes) {
+        synchronized (writeLock) {
+            S current = state;
+            for (C change : changes) {
+                applyTo(current, change);
+            }
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.addAll(changes);
+            }
+        }
+    }
+
+    private void startListener() {
+        if (StringUtils.isBlank(getChangeChannel()) || connectionFactory == null || redisTemplate == null) {
+            log.info("Local index [{}] change broadcast disabled, other nodes' writes are synced by rebuild", getName());
+            return;
+        }
+        try {
+            listenerContainer = new RedisMessageListenerContainer();
+            listenerContainer.setConnectionFactory(connectionFactory);
+            listenerContainer.addMessageListener(this::onMessage, new ChannelTopic(getChangeChannel()));
+            listenerContainer.afterPropertiesSet();
+            listenerContainer.start();
+            log.info("Local index [{}] change listener started on channel {}", getName(), getChangeChannel());
+        } catch (Exception e) {
+            log.warn("Failed to start local index [{}] change listener, remote changes are synced by rebuild: {}",
+                    getName(), e.getMessage());
+            listenerContainer = null;
+        }
+    }
+
+    /**
+     * 广播本节点已提交的变更，按批拆分为多条消息
+     */
+    private void publish(List<C> changes) {
+        if (listenerContainer == null || changes.isEmpty()) {
+            return;
+        }
+        byte[] channel = getChangeChannel().getBytes(StandardCharsets.UTF_8);
+        for (int from = 0; from < changes.size(); from += MAX_CHANGES_PER_MESSAGE) {
+            StringBuilder payload = new StringBuilder();
+            for (C change : changes.subList(from, Math.min(from + MAX_CHANGES_PER_MESSAGE, changes.size()))) {
+                if (payload.length() > 0) {
+                    payload.append(CHANGE_SEPARATOR);
+                }
+                payload.append(encodeChange(change));
+            }
+            byte[] body = String.join(SEPARATOR, nodeId, getName(), payload).getBytes(StandardCharsets.UTF_8);
+            try {
+                redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, body));
+            } catch (Exception e) {
+                log.warn("Failed to broadcast local index [{}] changes: {}", getName(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0]) || !getName().equals(parts[1])) {
+            return;
+        }
+        List<C> changes = new ArrayList<>();
+        for (String encoded : parts[2].split(CHANGE_SEPARATOR)) {
+            try {
+                changes.add(decodeChange(encoded));
+            } catch (RuntimeException e) {
+                log.warn("Ignoring malformed local index [{}] change: {}", getName(), encoded);
+            }
+        }
+        apply(changes);
+    }
+
+    /**
+     * 加载本地快照，格式或内容与当前配置不一致时丢弃
+     */
+    private void loadSnapshot() {
+        Path path = getSnapshotPath();
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != getSnapshotMagic() || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignore local index [{}] snapshot with unknown format: {}", getName(), path);
+                return;
+            }
+            long savedAt = in.readLong();
+            S loaded = readSnapshot(in);
+            if (loaded == null) {
+                log.warn("Ignore local index [{}] snapshot {} built with a different configuration", getName(), path);
+                return;
+            }
+            // 快照期间其他节点的写入只有重建才能补齐，重建完成前不标记为可用
+            synchronized (writeLock) {
+                state = loaded;
+            }
+            log.info("Local index [{}] snapshot loaded, saved {}s ago, serving queries after the first rebuild",
+                    getName(), (System.currentTimeMillis() - savedAt) / 1000);
+        } catch (IOException e) {
+            log.warn("Failed to load local index [{}] snapshot {}: {}", getName(), path, e.getMessage());
+        }
+    }
+
+    /**
+     * 保存本地快照，先写临时文件再替换，避免中途失败留下损坏的快照
+     */
+    private void saveSnapshot() {
+        Path path = getSnapshotPath();
+        if (path == null) {
+            return;
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            S current = state;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(getSnapshotMagic());
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(System.currentTimeMillis());
+                writeSnapshot(current, out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to save local index [{}] snapshot {}: {}", getName(), path, e.getMessage());
+        }
+    }
+
+    /**
+     * 事务内累积的变更，提交后一次性应用
+     */
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final List<C> changes = new ArrayList<>();
+
+        private RebuildableLocalIndex<S, C> owner() {
+            return RebuildableLocalIndex.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            applyAndPublish(changes);
+        }
+    }
+}
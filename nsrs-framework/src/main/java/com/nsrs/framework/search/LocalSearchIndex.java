@@ -0,0 +1,235 @@
+package com.nsrs.framework.search;
+
+import com.nsrs.common.utils.NgramIndex;
+import com.nsrs.framework.index.RebuildableLocalIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 本地子串搜索索引基类
+ * 每个字段一个n-gram索引，记录以主键标识并携带分片下标。启动时先加载本地快照（如有），再在后台从数据库重建；
+ * 本节点的写入在事务提交后增量更新索引并广播给其他节点，定时重建兜底同步广播丢失的变更。
+ * 索引未就绪（首次重建完成前）、查询串过短或命中过多时查询方法返回null，由调用方回退到 LIKE 查询
+ *
+ * @author NSRS
+ */
+@Slf4j
+public abstract class LocalSearchIndex extends RebuildableLocalIndex<Map<String, NgramIndex>, LocalSearchIndex.Change> {
+
+    private static final int SNAPSHOT_MAGIC = 0x4E535358;
+
+    @Autowired
+    private SearchIndexProperties properties;
+
+    protected LocalSearchIndex() {
+        super(Collections.emptyMap());
+    }
+
+    /**
+     * 建立索引的字段
+     */
+    protected abstract List<String> getFields();
+
+    /**
+     * 从数据库加载全部记录
+     *
+     * @param loader 记录接收器
+     * @param batchSize 每次从单个分表读取的记录数
+     */
+    protected abstract void loadAll(Loader loader, int batchSize);
+
+    /**
+     * 重建时的记录接收器
+     */
+    @FunctionalInterface
+    protected interface Loader {
+
+        /**
+         * @param key 主键
+         * @param shard 分片下标
+         * @param values 字段名 -> 字段值
+         */
+        void accept(long key, int shard, Map<String, String> values);
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    protected long getRebuildIntervalMs() {
+        return properties.getRebuildIntervalMs();
+    }
+
+    @Override
+    protected Path getSnapshotPath() {
+        return StringUtils.isBlank(properties.getSnapshotDir()) ? null
+                : Paths.get(properties.getSnapshotDir(), "search-index-" + getName() + ".snap");
+    }
+
+    @Override
+    protected int getSnapshotMagic() {
+        return SNAPSHOT_MAGIC;
+    }
+
+    @Override
+    protected String getChangeChannel() {
+        return properties.getChangeChannel();
+    }
+
+    /**
+     * 删除编码为主键；写入编码为主键、分片下标及字段名/值，以制表符分隔，字段值为null时编码为空串
+     */
+    @Override
+    protected String encodeChange(Change change) {
+        StringBuilder encoded = new StringBuilder().append(change.key);
+        if (change.values == null) {
+            return encoded.toString();
+        }
+        encoded.append('\t').append(change.shard);
+        for (Map.Entry<String, String> entry : change.values.entrySet()) {
+            encoded.append('\t').append(entry.getKey()).append('\t').append(StringUtils.defaultString(entry.getValue()));
+        }
+        return encoded.toString();
+    }
+
+    @Override
+    protected Change decodeChange(String encoded) {
+        String[] parts = encoded.split("\t", -1);
+        long key = Long.parseLong(parts[0]);
+        if (parts.length == 1) {
+            return new Change(key, 0, null);
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 2; i + 1 < parts.length; i += 2) {
+            values.put(parts[i], StringUtils.defaultIfEmpty(parts[i + 1], null));
+        }
+        return new Change(key, Integer.parseInt(parts[1]), values);
+    }
+
+    /**
+     * 子串查询
+     *
+     * @param field 字段名
+     * @param fragment 查询串
+     * @return 命中记录；索引未就绪、查询串短于n-gram长度或命中数超过上限时返回null
+     */
+    public List<NgramIndex.Hit> search(String field, String fragment) {
+        if (!isReady() || StringUtils.isBlank(fragment)) {
+            return null;
+        }
+        NgramIndex index = currentState().get(field);
+        if (index == null) {
+            return null;
+        }
+        List<NgramIndex.Hit> hits = index.search(fragment.trim(), properties.getMaxHits() + 1);
+        if (hits != null && hits.size() > properties.getMaxHits()) {
+            log.debug("Search index [{}] fragment '{}' of field {} exceeds {} hits, fallback to LIKE",
+                    getName(), fragment, field, properties.getMaxHits());
+            return null;
+        }
+        return hits;
+    }
+
+    /**
+     * 记录写入，存在事务时在提交后生效
+     *
+     * @param key 主键
+     * @param shard 分片下标
+     * @param values 字段名 -> 字段值，未包含的字段保持不变，值为null时从该字段索引中删除
+     */
+    public void index(long key, int shard, Map<String, String> values) {
+        record(new Change(key, shard, values));
+    }
+
+    /**
+     * 记录删除，存在事务时在提交后生效
+     */
+    public void remove(long key) {
+        record(new Change(key, 0, null));
+    }
+
+    @Override
+    protected Map<String, NgramIndex> loadAll() {
+        Map<String, NgramIndex> rebuilt = new LinkedHashMap<>();
+        for (String field : getFields()) {
+            rebuilt.put(field, new NgramIndex(properties.getGramLength()));
+        }
+        int[] loaded = new int[1];
+        loadAll((key, shard, values) -> {
+            applyTo(rebuilt, new Change(key, shard, values));
+            loaded[0]++;
+        }, properties.getLoadBatchSize());
+        log.info("Search index [{}] loaded {} records", getName(), loaded[0]);
+        return rebuilt;
+    }
+
+    @Override
+    protected void applyTo(Map<String, NgramIndex> target, Change change) {
+        if (change.values == null) {
+            target.values().forEach(index -> index.remove(change.key));
+            return;
+        }
+        for (Map.Entry<String, String> entry : change.values.entrySet()) {
+            NgramIndex index = target.get(entry.getKey());
+            if (index != null) {
+                index.put(change.key, change.shard, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * n-gram长度或字段与当前配置不一致时丢弃快照
+     */
+    @Override
+    protected Map<String, NgramIndex> readSnapshot(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        Map<String, NgramIndex> loaded = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String field = in.readUTF();
+            NgramIndex index = NgramIndex.readFrom(in);
+            if (getFields().contains(field) && index.getGramLength() == properties.getGramLength()) {
+                loaded.put(field, index);
+            }
+        }
+        return loaded.keySet().containsAll(getFields()) ? loaded : null;
+    }
+
+    @Override
+    protected void writeSnapshot(Map<String, NgramIndex> source, DataOutputStream out) throws IOException {
+        out.writeInt(source.size());
+        for (Map.Entry<String, NgramIndex> entry : source.entrySet()) {
+            out.writeUTF(entry.getKey());
+            entry.getValue().writeTo(out);
+        }
+    }
+
+    /**
+     * 单条记录的索引变更
+     */
+    protected static final class Change {
+
+        private final long key;
+        private final int shard;
+        private final Map<String, String> values;
+
+        private Change(long key, int shard, Map<String, String> values) {
+            this.key = key;
+            this.shard = shard;
+            this.values = values;
+        }
+    }
+}
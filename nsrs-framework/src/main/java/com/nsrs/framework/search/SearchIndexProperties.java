@@ -0,0 +1,52 @@
+package com.nsrs.framework.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 本地子串搜索索引配置
+ * ICCID、IMSI的模糊查询先在进程内n-gram索引中解析为主键，再按主键精确查询，避免各分表全表扫描
+ *
+ * @author NSRS
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nsrs.search-index")
+public class SearchIndexProperties {
+
+    /**
+     * 是否启用本地搜索索引，关闭或索引未就绪时模糊查询直接使用 LIKE
+     */
+    private boolean enabled = true;
+
+    /**
+     * 本地快照目录，为空时不持久化；启动时先加载快照，再在后台从数据库重建，首次重建完成前不用于查询
+     */
+    private String snapshotDir;
+
+    /**
+     * 全量重建间隔（毫秒），兜底同步广播丢失的其他节点写入，0表示只在启动时重建
+     */
+    private long rebuildIntervalMs = 3600000;
+
+    /**
+     * 节点间索引变更广播频道（Redis发布订阅），为空时其他节点的写入只由定时重建同步
+     */
+    private String changeChannel = "nsrs:search-index:changes";
+
+    /**
+     * 重建时每次从单个分表读取的记录数
+     */
+    private int loadBatchSize = 5000;
+
+    /**
+     * n-gram长度，查询串短于该长度时使用 LIKE
+     */
+    private int gramLength = 4;
+
+    /**
+     * 单次查询允许的最大命中数，超出时结果过于宽泛，回退到 LIKE
+     */
+    private int maxHits = 2000;
+}
@@ -0,0 +1,82 @@
+package com.nsrs.framework.sharding;
+
+import com.nsrs.common.utils.HotPrefixShardingRule;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.shardingsphere.underlying.common.config.inline.InlineExpressionParser;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 热点前缀子分表规则加载器
+ * 在任何业务Bean创建前加载配置，保证启动期间（如位图重建）的查询也按子表路由；
+ * 子表未全部加入 number_resource 的 actual-data-nodes 时启动失败，避免迁移把号码搬到ShardingSphere无法路由的表
+ */
+@Slf4j
+@Component
+public class HotPrefixShardingConfigurer implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final String PROPERTY_PREFIX = "nsrs.sharding.hot-prefix";
+
+    private static final String LOGIC_TABLE = "number_resource";
+
+    private static final String SHARDING_TABLES = "spring.shardingsphere.sharding.tables";
+
+    private static final String ACTUAL_DATA_NODES = LOGIC_TABLE + ".actual-data-nodes";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        HotPrefixShardingProperties properties = Binder.get(environment)
+                .bind(PROPERTY_PREFIX, HotPrefixShardingProperties.class)
+                .orElseGet(HotPrefixShardingProperties::new);
+        HotPrefixShardingRule.configure(properties.getSubTables(), properties.getMigratedPrefixes());
+        if (!properties.getSubTables().isEmpty()) {
+            validateDataNodes(properties);
+            log.info("Hot prefix sub-sharding configured: {}, migrated: {}",
+                    properties.getSubTables(), properties.getMigratedPrefixes());
+        }
+    }
+
+    /**
+     * 校验所有热点前缀子表均已声明为 number_resource 的实际数据节点
+     */
+    private void validateDataNodes(HotPrefixShardingProperties properties) {
+        // 逻辑表名含下划线，不能作为Binder属性名，按Map读取；行表达式与占位符语法相同，Binder保留未解析的 ${...}
+        String dataNodes = Binder.get(environment)
+                .bind(SHARDING_TABLES, Bindable.mapOf(String.class, String.class))
+                .orElse(Collections.emptyMap())
+                .get(ACTUAL_DATA_NODES);
+        if (dataNodes == null) {
+            throw new IllegalStateException("Hot prefix sub-tables are configured but "
+                    + SHARDING_TABLES + "." + ACTUAL_DATA_NODES + " is not set");
+        }
+        Set<String> tables = new InlineExpressionParser(dataNodes).splitAndEvaluate().stream()
+                .map(node -> node.substring(node.indexOf('.') + 1).trim())
+                .collect(Collectors.toSet());
+        properties.getSubTables().keySet().forEach(prefix -> {
+            List<String> missing = HotPrefixShardingRule.subTableNames(LOGIC_TABLE, prefix).stream()
+                    .filter(table -> !tables.contains(table))
+                    .collect(Collectors.toList());
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("Hot prefix " + prefix + " sub-tables " + missing
+                        + " are missing from " + SHARDING_TABLES + "." + ACTUAL_DATA_NODES);
+            }
+        });
+    }
+}
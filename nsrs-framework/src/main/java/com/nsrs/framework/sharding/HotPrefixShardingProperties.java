@@ -0,0 +1,26 @@
+package com.nsrs.framework.sharding;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 热点号码前缀子分表配置
+ * 子表需同时加入number_resource的actual-data-nodes，例如 ds0.number_resource_139_${0..7}
+ */
+@Data
+public class HotPrefixShardingProperties {
+
+    /**
+     * 热点前缀 -> 子表数量，例如 '139': 8
+     */
+    private Map<String, Integer> subTables = new LinkedHashMap<>();
+
+    /**
+     * 已完成迁移的前缀，只路由子表；其余热点前缀处于迁移中，原前缀表与子表双读
+     */
+    private List<String> migratedPrefixes = new ArrayList<>();
+}
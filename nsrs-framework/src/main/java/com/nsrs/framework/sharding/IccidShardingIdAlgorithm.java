@@ -0,0 +1,59 @@
+package com.nsrs.framework.sharding;
+
+import com.nsrs.common.utils.ShardingIdUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.shardingsphere.api.sharding.complex.ComplexKeysShardingAlgorithm;
+import org.apache.shardingsphere.api.sharding.complex.ComplexKeysShardingValue;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SIM卡复合分表算法
+ * 分片键为ICCID和主键ID：有ICCID条件时按后3位对10取模路由，
+ * 只有ID条件时从分片感知ID中解析分表下标，历史ID无法解析时广播到全部分表
+ */
+@Slf4j
+public class IccidShardingIdAlgorithm implements ComplexKeysShardingAlgorithm<Comparable<?>> {
+
+    private static final String ICCID_COLUMN = "iccid";
+
+    @Override
+    public Collection<String> doSharding(Collection<String> availableTargetNames, ComplexKeysShardingValue<Comparable<?>> shardingValue) {
+        String logicTable = shardingValue.getLogicTableName();
+        Map<String, Collection<Comparable<?>>> values = shardingValue.getColumnNameAndShardingValuesMap();
+
+        Collection<Comparable<?>> iccids = ShardingValueHelper.getByColumn(values, ICCID_COLUMN);
+        if (iccids != null && !iccids.isEmpty()) {
+            Set<String> result = new LinkedHashSet<>();
+            for (Comparable<?> iccid : iccids) {
+                int shard = ShardingIdUtils.iccidShardCode(String.valueOf(iccid));
+                if (shard < 0) {
+                    throw new IllegalArgumentException("Invalid ICCID for sharding: " + iccid);
+                }
+                result.add(logicTable + "_" + shard);
+            }
+            return result;
+        }
+
+        // ICCID范围条件或无条件时无法定位，按ID解析
+        Collection<Comparable<?>> ids = ShardingValueHelper.getOtherColumn(values, ICCID_COLUMN);
+        if (ids == null || ids.isEmpty()) {
+            return availableTargetNames;
+        }
+        Set<String> result = new LinkedHashSet<>();
+        for (Comparable<?> id : ids) {
+            int shard = ShardingIdUtils.decodeSimCardShard(ShardingValueHelper.toLong(id));
+            String targetTable = logicTable + "_" + shard;
+            if (shard < 0 || !availableTargetNames.contains(targetTable)) {
+                log.debug("Id [{}] of table [{}] carries no shard key, routing to all tables", id, logicTable);
+                return availableTargetNames;
+            }
+            result.add(targetTable);
+        }
+        log.debug("Ids of table [{}] routed to tables {}", logicTable, result);
+        return result;
+    }
+}
@@ -1,5 +1,6 @@
 package com.nsrs.framework.sharding;
 
+import com.nsrs.common.utils.HotPrefixShardingRule;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.shardingsphere.api.sharding.standard.PreciseShardingAlgorithm;
 import org.apache.shardingsphere.api.sharding.standard.PreciseShardingValue;
@@ -7,25 +8,89 @@ import org.apache.shardingsphere.api.sharding.standard.RangeShardingAlgorithm;
 import org.apache.shardingsphere.api.sharding.standard.RangeShardingValue;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
 /**
  * MSISDN prefix sharding algorithm for number resource table
  * Shards directly by the first N digits (default 3 digits) of the number,
  * e.g., numbers with prefix 139 are assigned to number_resource_139 table
+ * Hot prefixes configured in {@link HotPrefixShardingRule} are further split by a hash of the number tail,
+ * e.g., number_resource_139_0..N-1
  * Supports prefix matching query optimization
  */
 @Slf4j
 @Component
 public class MsisdnPrefixShardingAlgorithm implements PreciseShardingAlgorithm<String>, RangeShardingAlgorithm<String> {
 
+    private static final String LOGIC_TABLE = "number_resource";
+
     private final int defaultPrefixLen = 3;
 
+    /**
+     * 精确分片只能返回单个表，热点前缀返回号码所在子表（写入位置）；迁移中的双读由 {@link #routeNumber} 处理
+     */
     @Override
     public String doSharding(Collection<String> availableTargetNames, PreciseShardingValue<String> shardingValue) {
         String number = shardingValue.getValue();
+        String subTable = resolveSubTable(availableTargetNames, number);
+        return subTable != null ? subTable : resolvePrefixTable(availableTargetNames, number);
+    }
+
+    /**
+     * 按号码路由
+     * 非热点前缀路由到前缀表；热点前缀路由到号码所在子表，迁移中（且不在写入作用域内）同时路由原前缀表。
+     * 原前缀表排在子表之前，并发更新与迁移搬迁按相同顺序加锁
+     *
+     * @param availableTargetNames 可用分表
+     * @param number 号码
+     * @return 目标分表
+     */
+    public Collection<String> routeNumber(Collection<String> availableTargetNames, String number) {
+        String prefixTable = resolvePrefixTable(availableTargetNames, number);
+        String subTable = resolveSubTable(availableTargetNames, number);
+        if (subTable == null) {
+            return Collections.singletonList(prefixTable);
+        }
+        String prefix = number.substring(0, defaultPrefixLen);
+        if (HotPrefixShardingRule.isDualRead(prefix) && !HotPrefixShardingRule.isWriteScope()
+                && prefixTable.equals(LOGIC_TABLE + "_" + prefix)) {
+            return Arrays.asList(prefixTable, subTable);
+        }
+        return Collections.singletonList(subTable);
+    }
+
+    /**
+     * 按号码前缀路由：热点前缀返回全部子表（迁移中包含原前缀表），否则返回前缀表
+     *
+     * @param availableTargetNames 可用分表
+     * @param prefix 号码前缀（3位）
+     * @return 目标分表，前缀不存在时返回空集合
+     */
+    public Collection<String> routePrefix(Collection<String> availableTargetNames, String prefix) {
+        Set<String> result = new LinkedHashSet<>();
+        String prefixTable = LOGIC_TABLE + "_" + prefix;
+        boolean hot = HotPrefixShardingRule.isHot(prefix);
+        if ((!hot || HotPrefixShardingRule.isDualRead(prefix)) && availableTargetNames.contains(prefixTable)) {
+            result.add(prefixTable);
+        }
+        if (hot) {
+            for (String subTable : HotPrefixShardingRule.subTableNames(LOGIC_TABLE, prefix)) {
+                if (availableTargetNames.contains(subTable)) {
+                    result.add(subTable);
+                }
+            }
+            // 子表未配置到actual-data-nodes时退回原前缀表
+            if (result.isEmpty() && availableTargetNames.contains(prefixTable)) {
+                result.add(prefixTable);
+            }
+        }
+        return result;
+    }
 
+    private String resolvePrefixTable(Collection<String> availableTargetNames, String number) {
         // 处理号码为空或长度不足的情况
         if (number == null || number.length() < defaultPrefixLen) {
             log.warn("Number [{}] is empty or insufficient length (< {}), using default table", number, defaultPrefixLen);
@@ -36,7 +101,7 @@ public class MsisdnPrefixShardingAlgorithm implements PreciseShardingAlgorithm<S
         String prefix = number.substring(0, defaultPrefixLen);
 
         // 构造目标表名
-        String targetTable = "number_resource_" + prefix;
+        String targetTable = LOGIC_TABLE + "_" + prefix;
 
         // 检查目标表是否在可用表列表中
         for (String availableTable : availableTargetNames) {
@@ -51,6 +116,19 @@ public class MsisdnPrefixShardingAlgorithm implements PreciseShardingAlgorithm<S
         return availableTargetNames.iterator().next();
     }
 
+    private String resolveSubTable(Collection<String> availableTargetNames, String number) {
+        String subTable = HotPrefixShardingRule.subTableName(LOGIC_TABLE, number);
+        if (subTable == null) {
+            return null;
+        }
+        if (!availableTargetNames.contains(subTable)) {
+            log.warn("Sub table [{}] of hot prefix is not in actual data nodes, using prefix table", subTable);
+            return null;
+        }
+        log.debug("Number [{}] assigned to sub table [{}]", number, subTable);
+        return subTable;
+    }
+
     @Override
     public Collection<String> doSharding(Collection<String> availableTargetNames, RangeShardingValue<String> shardingValue) {
         Set<String> result = new LinkedHashSet<>();
@@ -60,23 +138,24 @@ public class MsisdnPrefixShardingAlgorithm implements PreciseShardingAlgorithm<S
         if (prefix != null) {
             // 如果前缀长度等于默认前缀长度（3位），直接匹配单个表
             if (prefix.length() == defaultPrefixLen) {
-                String targetTable = "number_resource_" + prefix;
-                
-                // 如果目标表存在，只返回该表
-                for (String availableTable : availableTargetNames) {
-                    if (availableTable.equals(targetTable)) {
-                        result.add(availableTable);
-                        log.info("Range sharding optimized for exact prefix [{}], using table [{}]", prefix, availableTable);
-                        return result;
-                    }
+                // 如果目标表存在，只返回该表（热点前缀返回其全部子表）
+                result.addAll(routePrefix(availableTargetNames, prefix));
+                if (!result.isEmpty()) {
+                    log.info("Range sharding optimized for exact prefix [{}], using tables {}", prefix, result);
+                    return result;
                 }
             } else if (prefix.length() < defaultPrefixLen) {
                 // 如果前缀长度小于默认长度（如"17"），匹配所有以该前缀开头的表
+                Set<String> tablePrefixes = new LinkedHashSet<>();
                 for (String availableTable : availableTargetNames) {
-                    if (availableTable.startsWith("number_resource_" + prefix)) {
-                        result.add(availableTable);
+                    if (availableTable.startsWith(LOGIC_TABLE + "_" + prefix)) {
+                        tablePrefixes.add(availableTable.substring(LOGIC_TABLE.length() + 1,
+                                LOGIC_TABLE.length() + 1 + defaultPrefixLen));
                     }
                 }
+                for (String tablePrefix : tablePrefixes) {
+                    result.addAll(routePrefix(availableTargetNames, tablePrefix));
+                }
                 
                 if (!result.isEmpty()) {
                     log.info("Range sharding optimized for short prefix [{}], using tables: {}", prefix, result);
@@ -85,15 +164,12 @@ public class MsisdnPrefixShardingAlgorithm implements PreciseShardingAlgorithm<S
             } else {
                 // 如果前缀长度大于默认长度（如"1772"），取前3位匹配对应的表
                 String tablePrefix = prefix.substring(0, defaultPrefixLen);
-                String targetTable = "number_resource_" + tablePrefix;
                 
-                // 如果目标表存在，只返回该表
-                for (String availableTable : availableTargetNames) {
-                    if (availableTable.equals(targetTable)) {
-                        result.add(availableTable);
-                        log.info("Range sharding optimized for long prefix [{}] -> table prefix [{}], using table [{}]", prefix, tablePrefix, availableTable);
-                        return result;
-                    }
+                // 如果目标表存在，只返回该表（热点前缀返回其全部子表）
+                result.addAll(routePrefix(availableTargetNames, tablePrefix));
+                if (!result.isEmpty()) {
+                    log.info("Range sharding optimized for long prefix [{}] -> table prefix [{}], using tables {}", prefix, tablePrefix, result);
+                    return result;
                 }
             }
         }
@@ -0,0 +1,87 @@
+package com.nsrs.framework.sharding;
+
+import com.google.common.collect.Range;
+import com.nsrs.common.utils.ShardingIdUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.shardingsphere.api.sharding.complex.ComplexKeysShardingAlgorithm;
+import org.apache.shardingsphere.api.sharding.complex.ComplexKeysShardingValue;
+import org.apache.shardingsphere.api.sharding.standard.PreciseShardingValue;
+import org.apache.shardingsphere.api.sharding.standard.RangeShardingAlgorithm;
+import org.apache.shardingsphere.api.sharding.standard.RangeShardingValue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 号码资源/绑定关系复合分表算法
+ * 分片键为号码和主键ID：有号码条件时按号码前缀路由（与 {@link MsisdnPrefixShardingAlgorithm} 一致），
+ * 只有ID条件时从分片感知ID中解析号码前缀直接定位分表，历史ID无法解析时广播到全部分表。
+ * 号码资源表的热点前缀按号码路由到单个子表，按ID只能定位到该前缀的全部子表
+ */
+@Slf4j
+public class MsisdnShardingIdAlgorithm implements ComplexKeysShardingAlgorithm<Comparable<?>> {
+
+    private static final String NUMBER_COLUMN = "number";
+
+    private static final String BINDING_LOGIC_TABLE = "number_imsi_binding";
+
+    private final MsisdnPrefixShardingAlgorithm numberResourceAlgorithm = new MsisdnPrefixShardingAlgorithm();
+
+    private final NumberImsiBindingShardingAlgorithm bindingAlgorithm = new NumberImsiBindingShardingAlgorithm();
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Collection<String> doSharding(Collection<String> availableTargetNames, ComplexKeysShardingValue<Comparable<?>> shardingValue) {
+        String logicTable = shardingValue.getLogicTableName();
+        Map<String, Collection<Comparable<?>>> values = shardingValue.getColumnNameAndShardingValuesMap();
+        Map<String, Range<Comparable<?>>> ranges = shardingValue.getColumnNameAndRangeValuesMap();
+
+        // 号码条件优先
+        Collection<Comparable<?>> numbers = ShardingValueHelper.getByColumn(values, NUMBER_COLUMN);
+        if (numbers != null && !numbers.isEmpty()) {
+            Set<String> result = new LinkedHashSet<>();
+            for (Comparable<?> number : numbers) {
+                if (BINDING_LOGIC_TABLE.equals(logicTable)) {
+                    result.add(bindingAlgorithm.doSharding(availableTargetNames,
+                            new PreciseShardingValue<>(logicTable, NUMBER_COLUMN, String.valueOf(number))));
+                } else {
+                    result.addAll(numberResourceAlgorithm.routeNumber(availableTargetNames, String.valueOf(number)));
+                }
+            }
+            return result;
+        }
+        Range numberRange = ShardingValueHelper.getByColumn(ranges, NUMBER_COLUMN);
+        if (numberRange != null) {
+            return rangeAlgorithm(logicTable).doSharding(availableTargetNames,
+                    new RangeShardingValue<>(logicTable, NUMBER_COLUMN, (Range<String>) numberRange));
+        }
+
+        // 按ID解析号码前缀
+        Collection<Comparable<?>> ids = ShardingValueHelper.getOtherColumn(values, NUMBER_COLUMN);
+        if (ids == null || ids.isEmpty()) {
+            return availableTargetNames;
+        }
+        Set<String> result = new LinkedHashSet<>();
+        for (Comparable<?> id : ids) {
+            String prefix = ShardingIdUtils.decodeNumberPrefix(ShardingValueHelper.toLong(id));
+            Collection<String> targetTables = prefix == null ? Collections.<String>emptyList()
+                    : BINDING_LOGIC_TABLE.equals(logicTable)
+                    ? Collections.singletonList(logicTable + "_" + prefix)
+                    : numberResourceAlgorithm.routePrefix(availableTargetNames, prefix);
+            if (targetTables.isEmpty() || !availableTargetNames.containsAll(targetTables)) {
+                log.debug("Id [{}] of table [{}] carries no shard key, routing to all tables", id, logicTable);
+                return availableTargetNames;
+            }
+            result.addAll(targetTables);
+        }
+        log.debug("Ids of table [{}] routed to tables {}", logicTable, result);
+        return result;
+    }
+
+    private RangeShardingAlgorithm<String> rangeAlgorithm(String logicTable) {
+        return BINDING_LOGIC_TABLE.equals(logicTable) ? bindingAlgorithm : numberResourceAlgorithm;
+    }
+}
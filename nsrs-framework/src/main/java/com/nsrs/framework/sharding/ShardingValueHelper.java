@@ -0,0 +1,50 @@
+package com.nsrs.framework.sharding;
+
+import java.util.Map;
+
+/**
+ * 复合分表算法的分片值读取工具
+ */
+final class ShardingValueHelper {
+
+    private ShardingValueHelper() {
+    }
+
+    /**
+     * 按列名（忽略大小写）读取分片值
+     */
+    static <V> V getByColumn(Map<String, V> values, String column) {
+        for (Map.Entry<String, V> entry : values.entrySet()) {
+            if (column.equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 读取指定列以外的分片值（复合分片键中的ID列）
+     */
+    static <V> V getOtherColumn(Map<String, V> values, String column) {
+        for (Map.Entry<String, V> entry : values.entrySet()) {
+            if (!column.equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 分片值转换为Long，无法转换时返回null
+     */
+    static Long toLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        try {
+            return value == null ? null : Long.valueOf(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
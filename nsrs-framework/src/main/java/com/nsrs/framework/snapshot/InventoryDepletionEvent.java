@@ -0,0 +1,25 @@
+package com.nsrs.framework.snapshot;
+
+import lombok.Getter;
+
+/**
+ * 库存耗尽预警事件
+ * 预测某维度的可用库存将在预警天数内耗尽时发布，由各资源模块监听并接入各自的告警
+ *
+ * @author NSRS
+ */
+@Getter
+public class InventoryDepletionEvent {
+
+    private final InventoryForecast forecast;
+
+    /**
+     * 预警天数
+     */
+    private final int horizonDays;
+
+    public InventoryDepletionEvent(InventoryForecast forecast, int horizonDays) {
+        this.forecast = forecast;
+        this.horizonDays = horizonDays;
+    }
+}
@@ -0,0 +1,110 @@
+package com.nsrs.framework.snapshot;
+
+import lombok.Data;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 库存消耗速度与耗尽预测
+ * 对窗口内的趋势点做最小二乘线性拟合，斜率取反即每天的消耗量；按当前数量与消耗速度估算耗尽时间
+ *
+ * @author NSRS
+ */
+@Data
+public class InventoryForecast {
+
+    private static final double MILLIS_PER_DAY = 24 * 60 * 60 * 1000.0;
+
+    private String resourceType;
+
+    private String dimensionKey;
+
+    /**
+     * 参与拟合的趋势点数
+     */
+    private int pointCount;
+
+    /**
+     * 最新数量
+     */
+    private Long currentCount;
+
+    /**
+     * 最新趋势点时间
+     */
+    private Date currentTime;
+
+    /**
+     * 每天消耗量，负数表示库存在增长；趋势点不足时为空
+     */
+    private Double burnRatePerDay;
+
+    /**
+     * 预计耗尽天数，库存不减少或趋势点不足时为空
+     */
+    private Double daysToDepletion;
+
+    /**
+     * 预计耗尽时间
+     */
+    private Date depletionTime;
+
+    /**
+     * 按趋势点计算预测
+     *
+     * @param points 按时间升序的趋势点
+     * @param minPoints 最少趋势点数，不足时只返回当前数量
+     */
+    public static InventoryForecast of(String resourceType, String dimensionKey, List<InventoryTrendPoint> points, int minPoints) {
+        InventoryForecast forecast = new InventoryForecast();
+        forecast.setResourceType(resourceType);
+        forecast.setDimensionKey(dimensionKey);
+        forecast.setPointCount(points.size());
+        if (points.isEmpty()) {
+            return forecast;
+        }
+        InventoryTrendPoint last = points.get(points.size() - 1);
+        forecast.setCurrentCount(last.getCount());
+        forecast.setCurrentTime(last.getTime());
+        if (points.size() < Math.max(2, minPoints)) {
+            return forecast;
+        }
+
+        long origin = points.get(0).getTime().getTime();
+        double meanX = 0;
+        double meanY = 0;
+        for (InventoryTrendPoint point : points) {
+            meanX += (point.getTime().getTime() - origin) / MILLIS_PER_DAY;
+            meanY += point.getCount();
+        }
+        meanX /= points.size();
+        meanY /= points.size();
+        double covariance = 0;
+        double variance = 0;
+        for (InventoryTrendPoint point : points) {
+            double dx = (point.getTime().getTime() - origin) / MILLIS_PER_DAY - meanX;
+            covariance += dx * (point.getCount() - meanY);
+            variance += dx * dx;
+        }
+        if (variance == 0) {
+            return forecast;
+        }
+
+        double burnRate = -covariance / variance;
+        forecast.setBurnRatePerDay(burnRate);
+        if (burnRate > 0) {
+            double days = Math.max(0, last.getCount()) / burnRate;
+            forecast.setDaysToDepletion(days);
+            forecast.setDepletionTime(new Date(last.getTime().getTime() + (long) (days * MILLIS_PER_DAY)));
+        }
+        return forecast;
+    }
+
+    /**
+     * 是否预计在指定天数内耗尽
+     */
+    public boolean depletesWithin(int days) {
+        return daysToDepletion != null && daysToDepletion <= days;
+    }
+}
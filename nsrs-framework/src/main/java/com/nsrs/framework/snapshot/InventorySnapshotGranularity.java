@@ -0,0 +1,57 @@
+package com.nsrs.framework.snapshot;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 快照粒度
+ * 原始快照按采集间隔写入，小时、天快照由下一级降采样生成，取时段内最后一次采集值及最小、最大值
+ *
+ * @author NSRS
+ */
+public enum InventorySnapshotGranularity {
+
+    RAW(1),
+
+    HOURLY(2),
+
+    DAILY(3);
+
+    private final int code;
+
+    InventorySnapshotGranularity(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * 时间所在时段的起点（本地时区）
+     */
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        switch (this) {
+            case HOURLY:
+                return time.truncatedTo(ChronoUnit.HOURS);
+            case DAILY:
+                return time.truncatedTo(ChronoUnit.DAYS);
+            default:
+                return time;
+        }
+    }
+
+    /**
+     * 下一个时段的起点
+     */
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        switch (this) {
+            case HOURLY:
+                return bucketStart.plusHours(1);
+            case DAILY:
+                return bucketStart.plusDays(1);
+            default:
+                return bucketStart;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.nsrs.framework.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个维度、状态的库存数量
+ *
+ * @author NSRS
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySnapshotPoint {
+
+    /**
+     * 维度键，由数据源定义，例如SIM卡为 卡类型_规格_供应商_组织
+     */
+    private String dimensionKey;
+
+    private Integer status;
+
+    private Long count;
+}
@@ -0,0 +1,67 @@
+package com.nsrs.framework.snapshot;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 库存快照配置属性
+ * 定期采集各资源按维度、状态的库存数量，原始快照按小时、按天降采样后分级保留，用于趋势、消耗速度与耗尽预测
+ *
+ * @author NSRS
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nsrs.inventory-snapshot")
+public class InventorySnapshotProperties {
+
+    /**
+     * 是否启用库存快照
+     */
+    private boolean enabled = true;
+
+    /**
+     * 采集间隔（毫秒），快照时间按该间隔对齐，多节点重复采集覆盖同一时间点
+     */
+    private long collectIntervalMs = 900000;
+
+    /**
+     * 降采样与过期清理间隔（毫秒）
+     */
+    private long downsampleIntervalMs = 3600000;
+
+    /**
+     * 原始快照保留时长（小时），需大于一天以覆盖按天降采样
+     */
+    private int rawRetentionHours = 48;
+
+    /**
+     * 小时快照保留天数
+     */
+    private int hourlyRetentionDays = 30;
+
+    /**
+     * 天快照保留天数
+     */
+    private int dailyRetentionDays = 730;
+
+    /**
+     * 耗尽预测间隔（毫秒）
+     */
+    private long forecastIntervalMs = 21600000;
+
+    /**
+     * 预测使用的历史窗口（天）
+     */
+    private int forecastWindowDays = 14;
+
+    /**
+     * 预计在该天数内耗尽时发出预警
+     */
+    private int forecastHorizonDays = 30;
+
+    /**
+     * 参与预测的最少快照点数
+     */
+    private int forecastMinPoints = 3;
+}
@@ -0,0 +1,313 @@
+package com.nsrs.framework.snapshot;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.nsrs.framework.snapshot.entity.InventorySnapshot;
+import com.nsrs.framework.snapshot.mapper.InventorySnapshotMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 库存快照服务
+ * 采集各数据源的当前数量写入原始快照，按小时、按天降采样并按粒度清理过期快照；
+ * 在快照之上提供趋势、消耗速度与耗尽预测，预计耗尽时发布 {@link InventoryDepletionEvent}
+ *
+ * @author NSRS
+ */
+@Slf4j
+@Component
+public class InventorySnapshotService {
+
+    /**
+     * 单条写入语句的最大行数
+     */
+    private static final int UPSERT_CHUNK_SIZE = 500;
+
+    /**
+     * 单次降采样处理的最大时段数，积压时分多次追赶
+     */
+    private static final int MAX_BUCKETS_PER_RUN = 96;
+
+    @Autowired
+    private InventorySnapshotProperties properties;
+
+    @Autowired
+    private InventorySnapshotMapper snapshotMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired(required = false)
+    private List<InventorySnapshotSource> sources = Collections.emptyList();
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 采集全部数据源，快照时间按采集间隔对齐
+     *
+     * @return 写入的快照行数
+     */
+    public int collect() {
+        long interval = Math.max(1, properties.getCollectIntervalMs());
+        Date snapshotTime = new Date(System.currentTimeMillis() / interval * interval);
+        int total = 0;
+        for (InventorySnapshotSource source : sources) {
+            try {
+                List<InventorySnapshot> rows = new ArrayList<>();
+                for (InventorySnapshotPoint point : source.collect()) {
+                    long count = point.getCount() != null ? point.getCount() : 0L;
+                    rows.add(snapshot(InventorySnapshotGranularity.RAW, source.getResourceType(), point.getDimensionKey(),
+                            point.getStatus(), snapshotTime, count, count, count));
+                }
+                upsert(rows);
+                total += rows.size();
+                log.debug("Collected {} inventory snapshots of {}", rows.size(), source.getResourceType());
+            } catch (Exception e) {
+                log.error("Failed to collect inventory snapshots of {}", source.getResourceType(), e);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 原始快照降采样为小时快照，小时快照降采样为天快照；只处理已结束的时段
+     *
+     * @return 写入的快照行数
+     */
+    public int downsample() {
+        return rollUp(InventorySnapshotGranularity.RAW, InventorySnapshotGranularity.HOURLY)
+                + rollUp(InventorySnapshotGranularity.HOURLY, InventorySnapshotGranularity.DAILY);
+    }
+
+    /**
+     * 按粒度删除超过保留期的快照（分区内按时间范围删除）
+     *
+     * @return 删除的行数
+     */
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        return purge(InventorySnapshotGranularity.RAW, now.minusHours(properties.getRawRetentionHours()))
+                + purge(InventorySnapshotGranularity.HOURLY, now.minusDays(properties.getHourlyRetentionDays()))
+                + purge(InventorySnapshotGranularity.DAILY, now.minusDays(properties.getDailyRetentionDays()));
+    }
+
+    /**
+     * 查询单个维度的趋势
+     *
+     * @param resourceType 资源类型
+     * @param dimensionKey 维度键
+     * @param statuses 状态，为空时汇总全部状态
+     * @param granularity 粒度，尚未降采样的最近时段以原始快照补齐
+     * @param from 起始时间
+     * @param to 截止时间
+     * @return 按时间升序的趋势点
+     */
+    public List<InventoryTrendPoint> trend(String resourceType, String dimensionKey, Collection<Integer> statuses,
+                                           InventorySnapshotGranularity granularity, Date from, Date to) {
+        return selectTrend(resourceType, dimensionKey, statuses, granularity, from, to)
+                .getOrDefault(dimensionKey, Collections.emptyList());
+    }
+
+    /**
+     * 预测单个维度的消耗速度与耗尽时间
+     *
+     * @param statuses 状态，为空时取数据源的可用状态
+     * @param windowDays 历史窗口（天），为空时取配置
+     */
+    public InventoryForecast forecast(String resourceType, String dimensionKey, Collection<Integer> statuses, Integer windowDays) {
+        Collection<Integer> forecastStatuses = statuses != null && !statuses.isEmpty() ? statuses : availableStatuses(resourceType);
+        int window = windowDays != null && windowDays > 0 ? windowDays : properties.getForecastWindowDays();
+        Date to = new Date();
+        Date from = toDate(LocalDateTime.now().minusDays(window));
+        List<InventoryTrendPoint> points = selectTrend(resourceType, dimensionKey, forecastStatuses,
+                forecastGranularity(window), from, to).getOrDefault(dimensionKey, Collections.emptyList());
+        return InventoryForecast.of(resourceType, dimensionKey, points, properties.getForecastMinPoints());
+    }
+
+    /**
+     * 预测资源全部维度的可用库存，返回预计在指定天数内耗尽的维度，按耗尽天数升序
+     *
+     * @param resourceType 资源类型
+     * @param horizonDays 预警天数，为空时取配置
+     */
+    public List<InventoryForecast> forecastDepletion(String resourceType, Integer horizonDays) {
+        int horizon = horizonDays != null && horizonDays > 0 ? horizonDays : properties.getForecastHorizonDays();
+        int window = properties.getForecastWindowDays();
+        Date to = new Date();
+        Date from = toDate(LocalDateTime.now().minusDays(window));
+        List<InventoryForecast> depleting = new ArrayList<>();
+        selectTrend(resourceType, null, availableStatuses(resourceType), forecastGranularity(window), from, to)
+                .forEach((dimensionKey, points) -> {
+                    InventoryForecast forecast = InventoryForecast.of(resourceType, dimensionKey, points,
+                            properties.getForecastMinPoints());
+                    if (forecast.depletesWithin(horizon)) {
+                        depleting.add(forecast);
+                    }
+                });
+        depleting.sort(Comparator.comparing(InventoryForecast::getDaysToDepletion));
+        return depleting;
+    }
+
+    /**
+     * 预测全部数据源，对预计在预警天数内耗尽的维度发布事件
+     *
+     * @return 发布的事件数
+     */
+    public int publishDepletionForecasts() {
+        int horizon = properties.getForecastHorizonDays();
+        int published = 0;
+        for (InventorySnapshotSource source : sources) {
+            try {
+                for (InventoryForecast forecast : forecastDepletion(source.getResourceType(), horizon)) {
+                    log.warn("Inventory {} [{}] expected to run out in {} days, current: {}, burn rate: {}/day",
+                            forecast.getResourceType(), forecast.getDimensionKey(),
+                            String.format("%.1f", forecast.getDaysToDepletion()), forecast.getCurrentCount(),
+                            String.format("%.1f", forecast.getBurnRatePerDay()));
+                    eventPublisher.publishEvent(new InventoryDepletionEvent(forecast, horizon));
+                    published++;
+                }
+            } catch (Exception e) {
+                log.error("Failed to forecast inventory depletion of {}", source.getResourceType(), e);
+            }
+        }
+        return published;
+    }
+
+    private Map<String, List<InventoryTrendPoint>> selectTrend(String resourceType, String dimensionKey,
+                                                              Collection<Integer> statuses,
+                                                              InventorySnapshotGranularity granularity,
+                                                              Date from, Date to) {
+        // 已降采样部分取指定粒度，之后的部分取原始快照
+        Date tailFrom = from;
+        if (granularity != InventorySnapshotGranularity.RAW) {
+            Date latest = snapshotMapper.selectLatestTime(granularity.getCode());
+            if (latest != null) {
+                Date rolledUntil = toDate(granularity.next(toLocal(latest)));
+                tailFrom = rolledUntil.after(from) ? rolledUntil : from;
+            }
+        }
+        Map<String, List<InventoryTrendPoint>> trends = new LinkedHashMap<>();
+        for (InventorySnapshot row : snapshotMapper.selectTrend(resourceType, dimensionKey, statuses,
+                granularity.getCode(), from, tailFrom, to)) {
+            trends.computeIfAbsent(row.getDimensionKey(), key -> new ArrayList<>())
+                    .add(new InventoryTrendPoint(row.getSnapshotTime(), row.getItemCount()));
+        }
+        return trends;
+    }
+
+    private int rollUp(InventorySnapshotGranularity source, InventorySnapshotGranularity target) {
+        Date earliest = snapshotMapper.selectEarliestTime(source.getCode());
+        if (earliest == null) {
+            return 0;
+        }
+        LocalDateTime bucket = target.bucketStart(toLocal(earliest));
+        Date latest = snapshotMapper.selectLatestTime(target.getCode());
+        if (latest != null) {
+            LocalDateTime next = target.next(toLocal(latest));
+            bucket = next.isAfter(bucket) ? next : bucket;
+        }
+        LocalDateTime end = target.bucketStart(LocalDateTime.now());
+        if (source != InventorySnapshotGranularity.RAW) {
+            // 下一级尚未降采样完的时段不参与上卷，避免生成不完整的快照
+            LocalDateTime sourceEnd = target.bucketStart(source.next(toLocal(snapshotMapper.selectLatestTime(source.getCode()))));
+            end = sourceEnd.isBefore(end) ? sourceEnd : end;
+        }
+
+        int written = 0;
+        for (int buckets = 0; bucket.isBefore(end) && buckets < MAX_BUCKETS_PER_RUN; buckets++) {
+            LocalDateTime next = target.next(bucket);
+            List<InventorySnapshot> rows = snapshotMapper.selectList(new LambdaQueryWrapper<InventorySnapshot>()
+                    .eq(InventorySnapshot::getGranularity, source.getCode())
+                    .ge(InventorySnapshot::getSnapshotTime, toDate(bucket))
+                    .lt(InventorySnapshot::getSnapshotTime, toDate(next))
+                    .orderByAsc(InventorySnapshot::getSnapshotTime));
+            Map<String, InventorySnapshot> merged = new LinkedHashMap<>();
+            Date bucketTime = toDate(bucket);
+            for (InventorySnapshot row : rows) {
+                String key = row.getResourceType() + '\u0001' + row.getDimensionKey() + '\u0001' + row.getStatus();
+                InventorySnapshot current = merged.get(key);
+                if (current == null) {
+                    merged.put(key, snapshot(target, row.getResourceType(), row.getDimensionKey(), row.getStatus(),
+                            bucketTime, row.getItemCount(), row.getMinCount(), row.getMaxCount()));
+                } else {
+                    // 按时间升序，数量取最后一次采集值
+                    current.setItemCount(row.getItemCount());
+                    current.setMinCount(Math.min(current.getMinCount(), row.getMinCount()));
+                    current.setMaxCount(Math.max(current.getMaxCount(), row.getMaxCount()));
+                }
+            }
+            upsert(new ArrayList<>(merged.values()));
+            written += merged.size();
+            bucket = next;
+        }
+        if (written > 0) {
+            log.info("Downsampled {} inventory snapshots to {}", written, target);
+        }
+        return written;
+    }
+
+    private int purge(InventorySnapshotGranularity granularity, LocalDateTime before) {
+        return snapshotMapper.delete(new LambdaQueryWrapper<InventorySnapshot>()
+                .eq(InventorySnapshot::getGranularity, granularity.getCode())
+                .lt(InventorySnapshot::getSnapshotTime, toDate(before)));
+    }
+
+    private void upsert(List<InventorySnapshot> rows) {
+        for (int from = 0; from < rows.size(); from += UPSERT_CHUNK_SIZE) {
+            snapshotMapper.upsertBatch(rows.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, rows.size())));
+        }
+    }
+
+    /**
+     * 窗口在小时快照保留期内时按小时拟合，否则按天
+     */
+    private InventorySnapshotGranularity forecastGranularity(int windowDays) {
+        return windowDays <= properties.getHourlyRetentionDays()
+                ? InventorySnapshotGranularity.HOURLY : InventorySnapshotGranularity.DAILY;
+    }
+
+    private Collection<Integer> availableStatuses(String resourceType) {
+        return sources.stream()
+                .filter(source -> source.getResourceType().equals(resourceType))
+                .findFirst()
+                .map(source -> (Collection<Integer>) source.getAvailableStatuses())
+                .orElse(Collections.emptyList());
+    }
+
+    private static InventorySnapshot snapshot(InventorySnapshotGranularity granularity, String resourceType,
+                                              String dimensionKey, Integer status, Date snapshotTime,
+                                              long count, long minCount, long maxCount) {
+        InventorySnapshot snapshot = new InventorySnapshot();
+        snapshot.setGranularity(granularity.getCode());
+        snapshot.setResourceType(resourceType);
+        snapshot.setDimensionKey(dimensionKey);
+        snapshot.setStatus(status);
+        snapshot.setSnapshotTime(snapshotTime);
+        snapshot.setItemCount(count);
+        snapshot.setMinCount(minCount);
+        snapshot.setMaxCount(maxCount);
+        return snapshot;
+    }
+
+    private static LocalDateTime toLocal(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    private static Date toDate(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,28 @@
+package com.nsrs.framework.snapshot;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 库存快照数据源
+ * 各资源模块实现并注册为Bean，采集时读取预聚合计数，不应扫描明细分表
+ *
+ * @author NSRS
+ */
+public interface InventorySnapshotSource {
+
+    /**
+     * 资源类型，例如 SIM、IMSI、NUMBER
+     */
+    String getResourceType();
+
+    /**
+     * 可用库存对应的状态，耗尽预测按这些状态的数量之和计算
+     */
+    Set<Integer> getAvailableStatuses();
+
+    /**
+     * 采集当前各维度、各状态的数量
+     */
+    List<InventorySnapshotPoint> collect();
+}
@@ -0,0 +1,63 @@
+package com.nsrs.framework.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 库存快照任务
+ * 按采集间隔写入原始快照，定期降采样并清理过期快照，定期预测耗尽并发布预警事件
+ *
+ * @author NSRS
+ */
+@Slf4j
+@Component
+public class InventorySnapshotTask {
+
+    @Autowired
+    private InventorySnapshotService snapshotService;
+
+    @Scheduled(fixedDelayString = "${nsrs.inventory-snapshot.collect-interval-ms:900000}")
+    public void collect() {
+        if (!snapshotService.isEnabled()) {
+            return;
+        }
+        try {
+            int collected = snapshotService.collect();
+            log.debug("Inventory snapshot collection completed, wrote {} snapshots", collected);
+        } catch (Exception e) {
+            log.error("Error occurred during inventory snapshot collection: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${nsrs.inventory-snapshot.downsample-interval-ms:3600000}",
+            fixedDelayString = "${nsrs.inventory-snapshot.downsample-interval-ms:3600000}")
+    public void downsample() {
+        if (!snapshotService.isEnabled()) {
+            return;
+        }
+        try {
+            int written = snapshotService.downsample();
+            int purged = snapshotService.purgeExpired();
+            log.info("Inventory snapshot downsampling completed, wrote {} snapshots, purged {} expired snapshots",
+                    written, purged);
+        } catch (Exception e) {
+            log.error("Error occurred during inventory snapshot downsampling: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${nsrs.inventory-snapshot.forecast-interval-ms:21600000}",
+            fixedDelayString = "${nsrs.inventory-snapshot.forecast-interval-ms:21600000}")
+    public void forecast() {
+        if (!snapshotService.isEnabled()) {
+            return;
+        }
+        try {
+            int published = snapshotService.publishDepletionForecasts();
+            log.info("Inventory depletion forecast completed, {} dimensions expected to run out", published);
+        } catch (Exception e) {
+            log.error("Error occurred during inventory depletion forecast: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.nsrs.framework.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * 趋势点：快照时间与所选状态的数量之和
+ *
+ * @author NSRS
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryTrendPoint {
+
+    private Date time;
+
+    private Long count;
+}
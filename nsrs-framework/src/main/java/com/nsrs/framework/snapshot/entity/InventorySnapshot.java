@@ -0,0 +1,57 @@
+package com.nsrs.framework.snapshot.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 库存快照实体类
+ * 主键为 粒度 + 资源类型 + 维度 + 状态 + 快照时间，按粒度分区
+ *
+ * @author NSRS
+ */
+@Data
+@TableName("inventory_snapshot")
+public class InventorySnapshot {
+
+    /**
+     * 粒度：1-原始，2-小时，3-天
+     */
+    private Integer granularity;
+
+    /**
+     * 资源类型
+     */
+    private String resourceType;
+
+    /**
+     * 维度键
+     */
+    private String dimensionKey;
+
+    /**
+     * 状态
+     */
+    private Integer status;
+
+    /**
+     * 快照时间，降采样快照为时段起点
+     */
+    private Date snapshotTime;
+
+    /**
+     * 数量，降采样快照为时段内最后一次采集值
+     */
+    private Long itemCount;
+
+    /**
+     * 时段内最小值
+     */
+    private Long minCount;
+
+    /**
+     * 时段内最大值
+     */
+    private Long maxCount;
+}
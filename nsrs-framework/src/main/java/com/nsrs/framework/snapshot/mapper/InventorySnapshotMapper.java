@@ -0,0 +1,60 @@
+package com.nsrs.framework.snapshot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.nsrs.framework.snapshot.entity.InventorySnapshot;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 库存快照数据访问层
+ *
+ * @author NSRS
+ */
+@Mapper
+public interface InventorySnapshotMapper extends BaseMapper<InventorySnapshot> {
+
+    /**
+     * 批量写入快照，主键相同时覆盖
+     *
+     * @param list 快照
+     * @return 影响行数
+     */
+    int upsertBatch(@Param("list") List<InventorySnapshot> list);
+
+    /**
+     * 指定粒度最新的快照时间
+     */
+    @Select("SELECT MAX(snapshot_time) FROM inventory_snapshot WHERE granularity = #{granularity}")
+    Date selectLatestTime(@Param("granularity") int granularity);
+
+    /**
+     * 指定粒度最早的快照时间
+     */
+    @Select("SELECT MIN(snapshot_time) FROM inventory_snapshot WHERE granularity = #{granularity}")
+    Date selectEarliestTime(@Param("granularity") int granularity);
+
+    /**
+     * 按维度、时间汇总所选状态的数量：from 至 tailFrom 取指定粒度，tailFrom 之后尚未降采样的部分取原始快照
+     *
+     * @param resourceType 资源类型
+     * @param dimensionKey 维度键，为空时返回全部维度
+     * @param statuses 状态，为空时不限
+     * @param granularity 粒度
+     * @param from 起始时间（含）
+     * @param tailFrom 原始快照起始时间（含）
+     * @param to 截止时间（含）
+     * @return dimensionKey、snapshotTime、itemCount，按维度、时间升序
+     */
+    List<InventorySnapshot> selectTrend(@Param("resourceType") String resourceType,
+                                        @Param("dimensionKey") String dimensionKey,
+                                        @Param("statuses") Collection<Integer> statuses,
+                                        @Param("granularity") int granularity,
+                                        @Param("from") Date from,
+                                        @Param("tailFrom") Date tailFrom,
+                                        @Param("to") Date to);
+}
@@ -0,0 +1,199 @@
+package com.nsrs.common.utils;
+
+import com.nsrs.common.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 序列服务号段分配单元测试，global_sequence 表由内存计数器模拟
+ *
+ * @author NSRS
+ */
+class SequenceServiceTest {
+
+    private static final String SEQ = "test_seq";
+
+    private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> lastUpdated = new ThreadLocal<>();
+    private final List<Integer> allocatedSizes = new CopyOnWriteArrayList<>();
+    private final long step = 2;
+    private volatile long allocateDelayMs;
+
+    private SequenceProperties properties;
+    private SequenceService sequenceService;
+
+    @BeforeEach
+    void setUp() {
+        sequences.put(SEQ, new AtomicLong(1000));
+        properties = new SequenceProperties();
+        properties.setShardingId(false);
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.update(anyString(), (Object) any(), (Object) any())).thenAnswer(invocation -> {
+            int size = invocation.getArgument(1);
+            AtomicLong current = sequences.get(invocation.<String>getArgument(2));
+            if (current == null) {
+                return 0;
+            }
+            sleep(allocateDelayMs);
+            allocatedSizes.add(size);
+            // 行锁语义：本事务随后读取的是自己更新后的值
+            lastUpdated.set(current.addAndGet(step * size));
+            return 1;
+        });
+        when(jdbcTemplate.queryForMap(anyString(), (Object) any())).thenAnswer(invocation -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put("current_value", lastUpdated.get());
+            row.put("increment_step", step);
+            return row;
+        });
+
+        sequenceService = new SequenceService();
+        ReflectionTestUtils.setField(sequenceService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(sequenceService, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(sequenceService, "properties", properties);
+        sequenceService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequenceService.destroy();
+    }
+
+    @Test
+    void testConcurrentDrawsUniqueWhilePrefetching() throws Exception {
+        properties.setInitialBlockSize(50);
+        properties.setMinBlockSize(50);
+        properties.setMaxBlockSize(400);
+        allocateDelayMs = 5;
+
+        int threads = 8;
+        int drawsPerThread = 3000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int drawn = 0;
+                for (int i = 0; i < drawsPerThread; i++) {
+                    if (i % 100 == 0) {
+                        // 小批量走当前号段，与单个获取交错
+                        List<Long> batch = sequenceService.getBatchSequenceValues(SEQ, 5);
+                        ids.addAll(batch);
+                        drawn += batch.size();
+                    } else {
+                        ids.add(sequenceService.getNextSequenceValue(SEQ));
+                        drawn++;
+                    }
+                }
+                return drawn;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> future : futures) {
+            total += future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(total, ids.size(), "IDs issued concurrently must be unique");
+        for (Long id : ids) {
+            assertEquals(0, (id - 1000) % step);
+        }
+        assertTrue(allocatedSizes.size() > 1);
+        for (int size : allocatedSizes) {
+            assertTrue(size >= 50 && size <= 400, "block size out of bounds: " + size);
+        }
+        // 消耗远快于期望时长，号段翻倍直至上限
+        assertTrue(allocatedSizes.contains(400));
+        Map<String, Object> stats = sequenceService.getStatistics().get(SEQ);
+        assertEquals((long) total, stats.get("issued"));
+        assertEquals(400, stats.get("blockSize"));
+    }
+
+    @Test
+    void testBlockSizeShrinksToMinWhenConsumptionIsSlow() {
+        properties.setInitialBlockSize(64);
+        properties.setMinBlockSize(8);
+        properties.setMaxBlockSize(64);
+        properties.setTargetBlockDurationMs(1);
+        List<Integer> sizes = new ArrayList<>();
+        AtomicLong counter = new AtomicLong();
+        SequenceBuffer buffer = new SequenceBuffer(SEQ, properties, (name, size) -> {
+            sizes.add(size);
+            sleep(5);
+            return new SequenceBuffer.Block(counter.getAndAdd(size) + 1, 1, size);
+        }, Runnable::run);
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            assertTrue(ids.add(buffer.nextValue()));
+        }
+
+        assertEquals(Integer.valueOf(64), sizes.get(0));
+        assertEquals(Integer.valueOf(32), sizes.get(1));
+        assertEquals(Integer.valueOf(16), sizes.get(2));
+        for (int size : sizes.subList(3, sizes.size())) {
+            assertEquals(8, size);
+        }
+        assertEquals(8, buffer.getStatistics().get("blockSize"));
+    }
+
+    @Test
+    void testLargeBatchReservesOwnBlock() {
+        properties.setInitialBlockSize(100);
+
+        List<Long> values = sequenceService.getBatchSequenceValues(SEQ, 500);
+
+        assertEquals(500, values.size());
+        assertEquals(Long.valueOf(1002), values.get(0));
+        assertEquals(Long.valueOf(2000), values.get(499));
+        assertEquals(Collections.singletonList(500), allocatedSizes);
+        assertEquals(Long.valueOf(2002), sequenceService.getNextSequenceValue(SEQ));
+        assertTrue(sequenceService.getBatchSequenceValues(SEQ, 0).isEmpty());
+    }
+
+    @Test
+    void testMissingSequenceThrows() {
+        assertThrows(BusinessException.class, () -> sequenceService.getNextSequenceValue("missing_seq"));
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
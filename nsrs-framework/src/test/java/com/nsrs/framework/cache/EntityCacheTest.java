@@ -0,0 +1,104 @@
+package com.nsrs.framework.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实体缓存单元测试（仅本地缓存）
+ *
+ * @author NSRS
+ */
+class EntityCacheTest {
+
+    private EntityCacheProperties properties;
+    private EntityCache<String> cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EntityCacheProperties();
+        properties.setRedisEnabled(false);
+        cache = new EntityCache<>("test", String.class, properties, null, new EntityCacheManager());
+    }
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return cache.get("13800000000", key -> {
+                    loads.incrementAndGet();
+                    sleep(200);
+                    return "value-" + key;
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<String> future : futures) {
+            assertEquals("value-13800000000", future.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getStatistics().get("misses"));
+    }
+
+    @Test
+    void testEvictReloads() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("k", key -> "v" + loads.incrementAndGet());
+        assertEquals("v1", cache.get("k", key -> "v" + loads.incrementAndGet()));
+
+        cache.evict("k");
+        assertEquals("v2", cache.get("k", key -> "v" + loads.incrementAndGet()));
+
+        cache.clear();
+        assertEquals("v3", cache.get("k", key -> "v" + loads.incrementAndGet()));
+        assertEquals(1L, cache.getStatistics().get("localHits"));
+    }
+
+    @Test
+    void testNullNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        assertNull(cache.get("missing", key -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get("missing", key -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testDisabledEntityBypassesCache() {
+        properties.getEntities().put("test", false);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("k", key -> "v" + loads.incrementAndGet());
+        cache.get("k", key -> "v" + loads.incrementAndGet());
+        assertEquals(2, loads.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.nsrs.framework.sharding;
+
+import com.google.common.collect.Range;
+import com.nsrs.common.utils.HotPrefixShardingRule;
+import com.nsrs.common.utils.ShardingBatchUpdateUtils;
+import com.nsrs.common.utils.ShardingIdUtils;
+import org.apache.shardingsphere.api.sharding.complex.ComplexKeysShardingValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 热点前缀子分表路由单元测试
+ *
+ * @author NSRS
+ */
+class HotPrefixShardingTest {
+
+    private static final int SUB_TABLE_COUNT = 8;
+
+    private final MsisdnShardingIdAlgorithm algorithm = new MsisdnShardingIdAlgorithm();
+
+    @AfterEach
+    void reset() {
+        HotPrefixShardingRule.configure(Collections.emptyMap(), Collections.emptyList());
+    }
+
+    @Test
+    void testMigratedPrefixRoutesNumberToSingleSubTable() {
+        configure(true);
+        int[] counts = new int[SUB_TABLE_COUNT];
+        for (int i = 0; i < 80000; i++) {
+            String number = "139" + String.format("%08d", 12340000 + i);
+            Collection<String> tables = algorithm.doSharding(availableTables(), number(number));
+            assertEquals(1, tables.size());
+            String table = tables.iterator().next();
+            assertEquals(HotPrefixShardingRule.subTableName("number_resource", number), table);
+            counts[Integer.parseInt(table.substring(table.lastIndexOf('_') + 1))]++;
+        }
+        // 连续号段均匀分布到各子表
+        for (int count : counts) {
+            assertTrue(count > 9000 && count < 11000, "uneven distribution: " + Arrays.toString(counts));
+        }
+
+        Collection<String> other = algorithm.doSharding(availableTables(), number("13812345678"));
+        assertEquals(Collections.singletonList("number_resource_138"), new ArrayList<>(other));
+    }
+
+    @Test
+    void testDualReadRoutesToPrefixTableAndSubTable() {
+        configure(false);
+        String number = "13912345678";
+        String subTable = HotPrefixShardingRule.subTableName("number_resource", number);
+
+        Collection<String> read = algorithm.doSharding(availableTables(), number(number));
+        assertEquals(Arrays.asList("number_resource_139", subTable), new ArrayList<>(read));
+
+        Collection<String> write = HotPrefixShardingRule.routeWritesToSubTables(
+                () -> algorithm.doSharding(availableTables(), number(number)));
+        assertEquals(Collections.singletonList(subTable), new ArrayList<>(write));
+        assertFalse(HotPrefixShardingRule.isWriteScope());
+
+        HotPrefixShardingRule.markMigrated("139");
+        assertEquals(Collections.singletonList(subTable),
+                new ArrayList<>(algorithm.doSharding(availableTables(), number(number))));
+    }
+
+    @Test
+    void testRangeAndIdFanOutToSubTables() {
+        configure(false);
+        Map<String, Range<Comparable<?>>> ranges = new HashMap<>();
+        ranges.put("number", Range.closed("13900000000", "13999999999"));
+        Collection<String> byRange = algorithm.doSharding(availableTables(),
+                new ComplexKeysShardingValue<>("number_resource", Collections.emptyMap(), ranges));
+        List<String> expected = new ArrayList<>();
+        expected.add("number_resource_139");
+        expected.addAll(HotPrefixShardingRule.subTableNames("number_resource", "139"));
+        assertEquals(expected, new ArrayList<>(byRange));
+
+        long id = ShardingIdUtils.encode(42L, ShardingIdUtils.numberShardCode("13912345678"));
+        Map<String, Collection<Comparable<?>>> values = new HashMap<>();
+        values.put("number_id", Collections.singletonList(id));
+        HotPrefixShardingRule.markMigrated("139");
+        Collection<String> byId = algorithm.doSharding(availableTables(),
+                new ComplexKeysShardingValue<>("number_resource", values, Collections.emptyMap()));
+        assertEquals(HotPrefixShardingRule.subTableNames("number_resource", "139"), new ArrayList<>(byId));
+    }
+
+    @Test
+    void testInvalidConfigurationRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> HotPrefixShardingRule.configure(Collections.singletonMap("999", 4), Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class,
+                () -> HotPrefixShardingRule.configure(Collections.singletonMap("139", 1), Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class,
+                () -> HotPrefixShardingRule.configure(Collections.emptyMap(), Collections.singletonList("139")));
+    }
+
+    @Test
+    void testSubTablesMustBeActualDataNodes() {
+        HotPrefixShardingConfigurer configurer = new HotPrefixShardingConfigurer();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("nsrs.sharding.hot-prefix.sub-tables.139", String.valueOf(SUB_TABLE_COUNT))
+                .withProperty("spring.shardingsphere.sharding.tables.number_resource.actual-data-nodes",
+                        "ds0.number_resource_${['139','138']},ds0.number_resource_139_${0..6}");
+        configurer.setEnvironment(environment);
+        assertThrows(IllegalStateException.class, () -> configurer.postProcessBeanFactory(null));
+
+        environment.setProperty("spring.shardingsphere.sharding.tables.number_resource.actual-data-nodes",
+                "ds0.number_resource_${['139','138']},ds0.number_resource_139_${0..7}");
+        configurer.postProcessBeanFactory(null);
+        assertEquals(SUB_TABLE_COUNT, HotPrefixShardingRule.getSubTableCount("139"));
+    }
+
+    private static void configure(boolean migrated) {
+        HotPrefixShardingRule.configure(Collections.singletonMap("139", SUB_TABLE_COUNT),
+                migrated ? Collections.singletonList("139") : Collections.emptyList());
+    }
+
+    private static ComplexKeysShardingValue<Comparable<?>> number(String number) {
+        Map<String, Collection<Comparable<?>>> values = new HashMap<>();
+        values.put("number", Collections.singletonList(number));
+        return new ComplexKeysShardingValue<>("number_resource", values, Collections.emptyMap());
+    }
+
+    private static List<String> availableTables() {
+        List<String> tables = new ArrayList<>();
+        for (String prefix : ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES) {
+            tables.add("number_resource_" + prefix);
+        }
+        for (int i = 0; i < SUB_TABLE_COUNT; i++) {
+            tables.add("number_resource_139_" + i);
+        }
+        return tables;
+    }
+}
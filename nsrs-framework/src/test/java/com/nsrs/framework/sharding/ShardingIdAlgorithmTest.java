@@ -0,0 +1,106 @@
+package com.nsrs.framework.sharding;
+
+import com.google.common.collect.Range;
+import com.nsrs.common.utils.ShardingBatchUpdateUtils;
+import com.nsrs.common.utils.ShardingIdUtils;
+import org.apache.shardingsphere.api.sharding.complex.ComplexKeysShardingValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分片感知ID路由算法单元测试
+ *
+ * @author NSRS
+ */
+class ShardingIdAlgorithmTest {
+
+    private final MsisdnShardingIdAlgorithm numberAlgorithm = new MsisdnShardingIdAlgorithm();
+    private final IccidShardingIdAlgorithm iccidAlgorithm = new IccidShardingIdAlgorithm();
+
+    @Test
+    void testNumberIdRoutesToSingleTable() {
+        long id = ShardingIdUtils.encode(1234567L, ShardingIdUtils.numberShardCode("18612345678"));
+        assertEquals("186", ShardingIdUtils.decodeNumberPrefix(id));
+
+        Collection<String> tables = numberAlgorithm.doSharding(numberTables("number_resource"),
+                value("number_resource", "number_id", Collections.singletonList(id)));
+        assertEquals(Collections.singletonList("number_resource_186"), new ArrayList<>(tables));
+    }
+
+    @Test
+    void testLegacyIdBroadcasts() {
+        List<String> available = numberTables("number_imsi_binding");
+        Collection<String> tables = numberAlgorithm.doSharding(available,
+                value("number_imsi_binding", "binding_id", Arrays.asList(ShardingIdUtils.encode(1L, 0), 1000001L)));
+        assertEquals(available.size(), tables.size());
+    }
+
+    @Test
+    void testNumberTakesPrecedenceOverId() {
+        Map<String, Collection<Comparable<?>>> values = new HashMap<>();
+        values.put("number", Collections.singletonList("13912345678"));
+        values.put("number_id", Collections.singletonList(ShardingIdUtils.encode(1L, 5)));
+        Collection<String> tables = numberAlgorithm.doSharding(numberTables("number_resource"),
+                new ComplexKeysShardingValue<>("number_resource", values, Collections.emptyMap()));
+        assertEquals(Collections.singletonList("number_resource_139"), new ArrayList<>(tables));
+    }
+
+    @Test
+    void testNumberRangeDelegatesToPrefixAlgorithm() {
+        Map<String, Range<Comparable<?>>> ranges = new HashMap<>();
+        ranges.put("number", Range.closed("17700000000", "17799999999"));
+        Collection<String> tables = numberAlgorithm.doSharding(numberTables("number_resource"),
+                new ComplexKeysShardingValue<>("number_resource", Collections.emptyMap(), ranges));
+        assertEquals(Collections.singletonList("number_resource_177"), new ArrayList<>(tables));
+    }
+
+    @Test
+    void testSimCardIdMatchesIccidShard() {
+        String iccid = "89860012345678901237";
+        long id = ShardingIdUtils.encode(42L, ShardingIdUtils.iccidShardCode(iccid));
+        List<String> available = ShardingBatchUpdateUtils.getAllSimCardTableNames();
+
+        Collection<String> byIccid = iccidAlgorithm.doSharding(available,
+                value("sim_card", "iccid", Collections.singletonList(iccid)));
+        Collection<String> byId = iccidAlgorithm.doSharding(available,
+                value("sim_card", "card_id", Collections.singletonList(id)));
+        assertEquals(Collections.singletonList("sim_card_7"), new ArrayList<>(byIccid));
+        assertEquals(new ArrayList<>(byIccid), new ArrayList<>(byId));
+    }
+
+    @Test
+    void testIdStaysWithinJavaScriptSafeRange() {
+        long id = ShardingIdUtils.encode(ShardingIdUtils.MAX_SEQUENCE_VALUE, ShardingIdUtils.SHARD_CODE_RANGE - 1);
+        assertTrue(id <= (1L << 53));
+        assertThrows(IllegalArgumentException.class,
+                () -> ShardingIdUtils.encode(ShardingIdUtils.MAX_SEQUENCE_VALUE + 1, 0));
+        assertEquals(1000001L, ShardingIdUtils.encode(1000001L, -1));
+    }
+
+    private static ComplexKeysShardingValue<Comparable<?>> value(String logicTable, String column, List<?> values) {
+        Map<String, Collection<Comparable<?>>> map = new HashMap<>();
+        List<Comparable<?>> list = new ArrayList<>();
+        for (Object each : values) {
+            list.add((Comparable<?>) each);
+        }
+        map.put(column, list);
+        return new ComplexKeysShardingValue<>(logicTable, map, Collections.emptyMap());
+    }
+
+    private static List<String> numberTables(String logicTable) {
+        List<String> tables = new ArrayList<>();
+        for (String prefix : ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES) {
+            tables.add(logicTable + "_" + prefix);
+        }
+        return tables;
+    }
+}
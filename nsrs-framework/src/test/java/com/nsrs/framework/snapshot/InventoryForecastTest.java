@@ -0,0 +1,88 @@
+package com.nsrs.framework.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 库存耗尽预测与快照粒度单元测试
+ *
+ * @author NSRS
+ */
+class InventoryForecastTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    @Test
+    void testLinearBurn() {
+        // 每天消耗100，当前剩余1000
+        List<InventoryTrendPoint> points = new ArrayList<>();
+        long start = System.currentTimeMillis() - 10 * DAY;
+        for (int day = 0; day <= 10; day++) {
+            points.add(new InventoryTrendPoint(new Date(start + day * DAY), 2000L - day * 100L));
+        }
+        InventoryForecast forecast = InventoryForecast.of("SIM", "1_null_null_null", points, 3);
+
+        assertEquals(11, forecast.getPointCount());
+        assertEquals(1000L, forecast.getCurrentCount());
+        assertEquals(100.0, forecast.getBurnRatePerDay(), 1e-6);
+        assertEquals(10.0, forecast.getDaysToDepletion(), 1e-6);
+        assertEquals(start + 20 * DAY, forecast.getDepletionTime().getTime(), 1000);
+        assertTrue(forecast.depletesWithin(10));
+        assertFalse(forecast.depletesWithin(9));
+    }
+
+    @Test
+    void testGrowingOrFlatInventoryNeverDepletes() {
+        List<InventoryTrendPoint> growing = new ArrayList<>();
+        List<InventoryTrendPoint> flat = new ArrayList<>();
+        long start = System.currentTimeMillis() - 5 * DAY;
+        for (int day = 0; day <= 5; day++) {
+            growing.add(new InventoryTrendPoint(new Date(start + day * DAY), 100L + day * 10L));
+            flat.add(new InventoryTrendPoint(new Date(start + day * DAY), 100L));
+        }
+
+        InventoryForecast growingForecast = InventoryForecast.of("IMSI", "1", growing, 3);
+        assertEquals(-10.0, growingForecast.getBurnRatePerDay(), 1e-6);
+        assertNull(growingForecast.getDaysToDepletion());
+        assertFalse(growingForecast.depletesWithin(Integer.MAX_VALUE));
+
+        InventoryForecast flatForecast = InventoryForecast.of("IMSI", "1", flat, 3);
+        assertEquals(0.0, flatForecast.getBurnRatePerDay(), 1e-6);
+        assertNull(flatForecast.getDaysToDepletion());
+    }
+
+    @Test
+    void testTooFewPoints() {
+        List<InventoryTrendPoint> points = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        points.add(new InventoryTrendPoint(new Date(now - DAY), 200L));
+        points.add(new InventoryTrendPoint(new Date(now), 100L));
+
+        InventoryForecast forecast = InventoryForecast.of("NUMBER", "1", points, 3);
+        assertEquals(100L, forecast.getCurrentCount());
+        assertNull(forecast.getBurnRatePerDay());
+        assertNull(forecast.getDaysToDepletion());
+
+        InventoryForecast empty = InventoryForecast.of("NUMBER", "1", new ArrayList<>(), 3);
+        assertNull(empty.getCurrentCount());
+        assertFalse(empty.depletesWithin(30));
+    }
+
+    @Test
+    void testGranularityBuckets() {
+        LocalDateTime time = LocalDateTime.of(2026, 3, 31, 23, 45, 10);
+        assertEquals(LocalDateTime.of(2026, 3, 31, 23, 0), InventorySnapshotGranularity.HOURLY.bucketStart(time));
+        assertEquals(LocalDateTime.of(2026, 4, 1, 0, 0),
+                InventorySnapshotGranularity.HOURLY.next(InventorySnapshotGranularity.HOURLY.bucketStart(time)));
+        assertEquals(LocalDateTime.of(2026, 3, 31, 0, 0), InventorySnapshotGranularity.DAILY.bucketStart(time));
+        assertEquals(LocalDateTime.of(2026, 4, 1, 0, 0),
+                InventorySnapshotGranularity.DAILY.next(InventorySnapshotGranularity.DAILY.bucketStart(time)));
+        assertEquals(time, InventorySnapshotGranularity.RAW.bucketStart(time));
+    }
+}
@@ -0,0 +1,362 @@
+package com.nsrs.msisdn.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.nsrs.common.enums.NumberStatusEnum;
+import com.nsrs.common.utils.CompressedBitmap;
+import com.nsrs.common.utils.ShardingBatchUpdateUtils;
+import com.nsrs.framework.index.RebuildableLocalIndex;
+import com.nsrs.msisdn.config.IdleNumberBitmapProperties;
+import com.nsrs.msisdn.entity.NumberResource;
+import com.nsrs.msisdn.entity.NumberSegment;
+import com.nsrs.msisdn.mapper.NumberResourceMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 号段空闲号码位图索引
+ * 每个号段一个压缩位图，第i位表示 startNumber + i 为空闲状态。启动时先加载本地快照（如有），
+ * 再在后台按分表从数据库重建；本节点的状态流转在事务提交后增量更新位图并广播给其他节点，定时重建兜底同步广播丢失的变更。
+ * 位图未就绪（首次重建完成前）时查询方法返回null，由调用方回退到数据库查询
+ */
+@Slf4j
+@Component
+public class IdleNumberBitmapIndex extends RebuildableLocalIndex<Map<Long, CompressedBitmap>, IdleNumberBitmapIndex.IdleChange> {
+
+    private static final int SNAPSHOT_MAGIC = 0x4E534942;
+
+    @Autowired
+    private IdleNumberBitmapProperties properties;
+
+    @Autowired
+    private NumberSegmentIndex segmentIndex;
+
+    @Autowired
+    private NumberResourceMapper numberResourceMapper;
+
+    public IdleNumberBitmapIndex() {
+        super(new ConcurrentHashMap<>());
+    }
+
+    @Override
+    protected String getName() {
+        return "idle-number-bitmap";
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    protected long getRebuildIntervalMs() {
+        return properties.getRebuildIntervalMs();
+    }
+
+    @Override
+    protected Path getSnapshotPath() {
+        return StringUtils.isBlank(properties.getSnapshotPath()) ? null : Paths.get(properties.getSnapshotPath());
+    }
+
+    @Override
+    protected int getSnapshotMagic() {
+        return SNAPSHOT_MAGIC;
+    }
+
+    @Override
+    protected String getChangeChannel() {
+        return properties.getChangeChannel();
+    }
+
+    /**
+     * 编码为 号段ID,号码,是否空闲(1/0)
+     */
+    @Override
+    protected String encodeChange(IdleChange change) {
+        return change.segmentId + "," + change.number + "," + (change.idle ? 1 : 0);
+    }
+
+    @Override
+    protected IdleChange decodeChange(String encoded) {
+        String[] parts = encoded.split(",");
+        return new IdleChange(Long.valueOf(parts[0]), parts[1], "1".equals(parts[2]));
+    }
+
+    /**
+     * 记录号码状态变更，存在事务时在提交后生效
+     *
+     * @param segmentId 号段ID
+     * @param number 号码
+     * @param status 新状态，null表示号码已删除
+     */
+    public void record(Long segmentId, String number, Integer status) {
+        if (!properties.isEnabled() || segmentId == null || number == null) {
+            return;
+        }
+        record(new IdleChange(segmentId, number, NumberStatusEnum.IDLE.getCode().equals(status)));
+    }
+
+    /**
+     * 清除数据库已确认不再空闲的号码，用于修正其他节点的变更尚未同步到本节点的情况
+     *
+     * @param numbers 号码
+     */
+    public void evict(Collection<String> numbers) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (String number : numbers) {
+            NumberSegment segment = segmentIndex.find(number);
+            if (segment != null) {
+                record(new IdleChange(segment.getSegmentId(), number, false));
+            }
+        }
+    }
+
+    /**
+     * 号段空闲号码数
+     *
+     * @return 位图未就绪时返回null
+     */
+    public Long countIdle(Long segmentId) {
+        if (!isReady()) {
+            return null;
+        }
+        CompressedBitmap bitmap = currentState().get(segmentId);
+        if (bitmap == null) {
+            return 0L;
+        }
+        synchronized (bitmap) {
+            return bitmap.cardinality();
+        }
+    }
+
+    /**
+     * 从号段中选取空闲号码
+     *
+     * @param segmentId 号段ID
+     * @param count 数量
+     * @param random true-随机选取，false-按号码升序选取
+     * @return 位图未就绪时返回null
+     */
+    public List<String> selectIdle(Long segmentId, int count, boolean random) {
+        if (!isReady()) {
+            return null;
+        }
+        NumberSegment segment = segmentIndex.getById(segmentId);
+        CompressedBitmap bitmap = currentState().get(segmentId);
+        if (segment == null || bitmap == null || count <= 0) {
+            return new ArrayList<>();
+        }
+        int[] offsets;
+        synchronized (bitmap) {
+            offsets = random ? bitmap.sample(count, ThreadLocalRandom.current()) : bitmap.first(0, count);
+        }
+        long start = Long.parseLong(segment.getStartNumber());
+        int length = segment.getStartNumber().length();
+        List<String> numbers = new ArrayList<>(offsets.length);
+        for (int offset : offsets) {
+            numbers.add(StringUtils.leftPad(Long.toString(start + offset), length, '0'));
+        }
+        return numbers;
+    }
+
+    /**
+     * 号码是否空闲
+     *
+     * @return 位图未就绪时返回null，号码不属于任何号段时返回false
+     */
+    public Boolean isIdle(String number) {
+        if (!isReady()) {
+            return null;
+        }
+        NumberSegment segment = segmentIndex.find(number);
+        if (segment == null) {
+            return false;
+        }
+        CompressedBitmap bitmap = currentState().get(segment.getSegmentId());
+        if (bitmap == null) {
+            return false;
+        }
+        int offset = offsetOf(segment, number);
+        synchronized (bitmap) {
+            return bitmap.contains(offset);
+        }
+    }
+
+    /**
+     * 位图统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        long idle = 0;
+        long bytes = 0;
+        Map<Long, CompressedBitmap> bitmaps = currentState();
+        for (CompressedBitmap bitmap : bitmaps.values()) {
+            synchronized (bitmap) {
+                idle += bitmap.cardinality();
+                bytes += bitmap.sizeInBytes();
+            }
+        }
+        statistics.put("ready", isReady());
+        statistics.put("segments", bitmaps.size());
+        statistics.put("idleNumbers", idle);
+        statistics.put("memoryBytes", bytes);
+        return statistics;
+    }
+
+    /**
+     * 从数据库全量加载空闲号码
+     */
+    @Override
+    protected Map<Long, CompressedBitmap> loadAll() {
+        Map<Long, CompressedBitmap> rebuilt = new ConcurrentHashMap<>();
+        long loaded = 0;
+        for (String prefix : ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES) {
+            loaded += loadPrefix(prefix, rebuilt);
+        }
+        log.info("Idle number bitmap loaded {} idle numbers in {} segments", loaded, rebuilt.size());
+        return rebuilt;
+    }
+
+    /**
+     * 按号码游标分批读取单个分表的空闲号码
+     */
+    private long loadPrefix(String prefix, Map<Long, CompressedBitmap> target) {
+        long loaded = 0;
+        String lastNumber = null;
+        while (true) {
+            LambdaQueryWrapper<NumberResource> queryWrapper = new LambdaQueryWrapper<>();
+            queryWrapper.select(NumberResource::getNumber, NumberResource::getSegmentId)
+                    .between(NumberResource::getNumber, prefix + "00000000", prefix + "99999999")
+                    .gt(lastNumber != null, NumberResource::getNumber, lastNumber)
+                    .eq(NumberResource::getStatus, NumberStatusEnum.IDLE.getCode())
+                    .isNotNull(NumberResource::getSegmentId)
+                    .orderByAsc(NumberResource::getNumber)
+                    // 不经过分页插件，避免被其单页上限截断
+                    .last("LIMIT " + properties.getLoadBatchSize());
+            List<NumberResource> batch = numberResourceMapper.selectList(queryWrapper);
+            for (NumberResource resource : batch) {
+                if (applyChange(target, new IdleChange(resource.getSegmentId(), resource.getNumber(), true))) {
+                    loaded++;
+                }
+            }
+            if (batch.size() < properties.getLoadBatchSize()) {
+                return loaded;
+            }
+            lastNumber = batch.get(batch.size() - 1).getNumber();
+        }
+    }
+
+    @Override
+    protected void applyTo(Map<Long, CompressedBitmap> target, IdleChange change) {
+        applyChange(target, change);
+    }
+
+    /**
+     * 将变更应用到位图，置位/清位为幂等操作，重复应用不影响结果
+     *
+     * @return 号码不在所属号段范围内时返回false
+     */
+    private boolean applyChange(Map<Long, CompressedBitmap> target, IdleChange change) {
+        NumberSegment segment = segmentIndex.getById(change.segmentId);
+        int offset = segment == null ? -1 : offsetOf(segment, change.number);
+        if (offset < 0) {
+            log.debug("Number {} is outside of segment {}, skip idle bitmap update", change.number, change.segmentId);
+            return false;
+        }
+        if (change.idle) {
+            CompressedBitmap bitmap = target.computeIfAbsent(change.segmentId, key -> new CompressedBitmap());
+            synchronized (bitmap) {
+                bitmap.add(offset);
+            }
+        } else {
+            CompressedBitmap bitmap = target.get(change.segmentId);
+            if (bitmap != null) {
+                synchronized (bitmap) {
+                    bitmap.remove(offset);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 号码在号段中的偏移量，不在号段范围内时返回-1
+     */
+    private static int offsetOf(NumberSegment segment, String number) {
+        if (!StringUtils.isNumeric(number) || number.length() != segment.getStartNumber().length()
+                || number.compareTo(segment.getStartNumber()) < 0 || number.compareTo(segment.getEndNumber()) > 0) {
+            return -1;
+        }
+        long offset = Long.parseLong(number) - Long.parseLong(segment.getStartNumber());
+        return offset > Integer.MAX_VALUE ? -1 : (int) offset;
+    }
+
+    /**
+     * 号段起始号码与当前不一致的位图丢弃
+     */
+    @Override
+    protected Map<Long, CompressedBitmap> readSnapshot(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        Map<Long, CompressedBitmap> loaded = new ConcurrentHashMap<>();
+        for (int i = 0; i < count; i++) {
+            long segmentId = in.readLong();
+            String startNumber = in.readUTF();
+            CompressedBitmap bitmap = CompressedBitmap.readFrom(in);
+            NumberSegment segment = segmentIndex.getById(segmentId);
+            if (segment != null && startNumber.equals(segment.getStartNumber())) {
+                loaded.put(segmentId, bitmap);
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    protected void writeSnapshot(Map<Long, CompressedBitmap> source, DataOutputStream out) throws IOException {
+        List<Map.Entry<Long, CompressedBitmap>> entries = new ArrayList<>();
+        for (Map.Entry<Long, CompressedBitmap> entry : source.entrySet()) {
+            if (segmentIndex.getById(entry.getKey()) != null) {
+                entries.add(entry);
+            }
+        }
+        out.writeInt(entries.size());
+        for (Map.Entry<Long, CompressedBitmap> entry : entries) {
+            out.writeLong(entry.getKey());
+            out.writeUTF(segmentIndex.getById(entry.getKey()).getStartNumber());
+            synchronized (entry.getValue()) {
+                entry.getValue().writeTo(out);
+            }
+        }
+    }
+
+    /**
+     * 单个号码的空闲状态变更
+     */
+    protected static final class IdleChange {
+
+        private final Long segmentId;
+        private final String number;
+        private final boolean idle;
+
+        private IdleChange(Long segmentId, String number, boolean idle) {
+            this.segmentId = segmentId;
+            this.number = number;
+            this.idle = idle;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.nsrs.msisdn.cache;
+
+import com.nsrs.common.utils.IntervalTree;
+import com.nsrs.msisdn.entity.NumberSegment;
+import com.nsrs.msisdn.mapper.NumberSegmentMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 号码段区间索引
+ * 全部号码段的 [startNumber, endNumber] 区间按号码长度分组构建区间树，提供号码→号码段的 O(log n) 查询、
+ * 新增号码段时的重叠检测以及导入流程的批量归属解析。
+ * 本节点号码段写入在事务提交后重建索引，其他节点的写入通过定时全量刷新同步
+ */
+@Slf4j
+@Component
+public class NumberSegmentIndex {
+
+    /**
+     * 号码最大位数，超过后无法用long表示
+     */
+    private static final int MAX_NUMBER_LENGTH = 18;
+
+    @Autowired
+    private NumberSegmentMapper numberSegmentMapper;
+
+    /**
+     * 号码长度 -> 该长度号码段的区间树，整体替换，读取无需加锁
+     */
+    private volatile Map<Integer, IntervalTree<NumberSegment>> trees = Collections.emptyMap();
+
+    /**
+     * 号码段ID -> 号码段，与区间树同时替换
+     */
+    private volatile Map<Long, NumberSegment> segmentsById = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Failed to load number segment index on startup, will retry on next refresh", e);
+        }
+    }
+
+    /**
+     * 定时全量刷新，同步其他节点的号码段变更
+     */
+    @Scheduled(fixedDelayString = "${nsrs.segment-index.refresh-interval-ms:300000}",
+            initialDelayString = "${nsrs.segment-index.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Failed to refresh number segment index", e);
+        }
+    }
+
+    /**
+     * 从数据库重建索引
+     */
+    public synchronized void refresh() {
+        List<NumberSegment> segments = numberSegmentMapper.selectList(null);
+        Map<Integer, List<NumberSegment>> grouped = new HashMap<>();
+        Map<Long, NumberSegment> byId = new HashMap<>();
+        for (NumberSegment segment : segments) {
+            Integer length = rangeLength(segment.getStartNumber(), segment.getEndNumber());
+            if (length == null) {
+                log.warn("Skip number segment {} with invalid range [{}, {}] in segment index",
+                        segment.getSegmentId(), segment.getStartNumber(), segment.getEndNumber());
+                continue;
+            }
+            grouped.computeIfAbsent(length, key -> new ArrayList<>()).add(segment);
+            byId.put(segment.getSegmentId(), segment);
+        }
+        Map<Integer, IntervalTree<NumberSegment>> rebuilt = new HashMap<>();
+        for (Map.Entry<Integer, List<NumberSegment>> entry : grouped.entrySet()) {
+            rebuilt.put(entry.getKey(), IntervalTree.build(entry.getValue(),
+                    segment -> Long.parseLong(segment.getStartNumber()),
+                    segment -> Long.parseLong(segment.getEndNumber())));
+        }
+        trees = rebuilt;
+        segmentsById = byId;
+        log.debug("Number segment index refreshed, {} segments indexed", segments.size());
+    }
+
+    /**
+     * 号码段写入后刷新索引，存在事务时在提交后执行，避免回滚的数据进入索引
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * 查询号码所属号码段，多个号码段包含该号码时返回起始号码最大的一个
+     *
+     * @param number 号码
+     * @return 号码段，不存在时返回null
+     */
+    public NumberSegment find(String number) {
+        if (!isNumeric(number)) {
+            return null;
+        }
+        IntervalTree<NumberSegment> tree = trees.get(number.length());
+        return tree == null ? null : tree.find(Long.parseLong(number));
+    }
+
+    /**
+     * 根据ID获取已索引的号码段
+     *
+     * @param segmentId 号码段ID
+     * @return 号码段，不存在或区间无效时返回null
+     */
+    public NumberSegment getById(Long segmentId) {
+        return segmentId == null ? null : segmentsById.get(segmentId);
+    }
+
+    /**
+     * 已索引的全部号码段
+     */
+    public Collection<NumberSegment> listAll() {
+        return Collections.unmodifiableCollection(segmentsById.values());
+    }
+
+    /**
+     * 批量解析号码所属号码段ID
+     *
+     * @param numbers 号码集合
+     * @return 号码 -> 号码段ID，未匹配的号码不在结果中
+     */
+    public Map<String, Long> resolveSegmentIds(Collection<String> numbers) {
+        Map<Integer, IntervalTree<NumberSegment>> snapshot = trees;
+        Map<String, Long> result = new LinkedHashMap<>();
+        if (numbers == null) {
+            return result;
+        }
+        for (String number : numbers) {
+            if (!isNumeric(number) || result.containsKey(number)) {
+                continue;
+            }
+            IntervalTree<NumberSegment> tree = snapshot.get(number.length());
+            NumberSegment segment = tree == null ? null : tree.find(Long.parseLong(number));
+            if (segment != null) {
+                result.put(number, segment.getSegmentId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 查询与 [startNumber, endNumber] 重叠的号码段
+     *
+     * @param startNumber 起始号码
+     * @param endNumber 结束号码
+     * @return 重叠的号码段，按起始号码升序；区间无效时返回空列表
+     */
+    public List<NumberSegment> findOverlapping(String startNumber, String endNumber) {
+        Integer length = rangeLength(startNumber, endNumber);
+        if (length == null) {
+            return Collections.emptyList();
+        }
+        IntervalTree<NumberSegment> tree = trees.get(length);
+        return tree == null ? Collections.emptyList()
+                : tree.overlapping(Long.parseLong(startNumber), Long.parseLong(endNumber));
+    }
+
+    /**
+     * 已索引的号码段数量
+     */
+    public int size() {
+        int size = 0;
+        for (IntervalTree<NumberSegment> tree : trees.values()) {
+            size += tree.size();
+        }
+        return size;
+    }
+
+    /**
+     * 区间号码长度，起止号码非数字、长度不一致或起始大于结束时返回null
+     */
+    private static Integer rangeLength(String startNumber, String endNumber) {
+        if (!isNumeric(startNumber) || !isNumeric(endNumber) || startNumber.length() != endNumber.length()
+                || startNumber.compareTo(endNumber) > 0) {
+            return null;
+        }
+        return startNumber.length();
+    }
+
+    private static boolean isNumeric(String number) {
+        return StringUtils.isNumeric(number) && number.length() <= MAX_NUMBER_LENGTH;
+    }
+}
@@ -0,0 +1,40 @@
+package com.nsrs.msisdn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 号段空闲号码位图配置
+ * 每个号段维护一个压缩位图，第i位表示 startNumber + i 是否空闲，用于空闲号码统计、可用性判断和选号
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nsrs.idle-bitmap")
+public class IdleNumberBitmapProperties {
+
+    /**
+     * 是否启用空闲号码位图，关闭后相关查询直接访问数据库
+     */
+    private boolean enabled = true;
+
+    /**
+     * 本地快照文件路径，为空时不持久化；启动时先加载快照，再在后台从数据库重建，首次重建完成前不用于查询
+     */
+    private String snapshotPath;
+
+    /**
+     * 全量重建间隔（毫秒），兜底同步广播丢失的其他节点状态变更，0表示只在启动时重建
+     */
+    private long rebuildIntervalMs = 3600000;
+
+    /**
+     * 节点间位图变更广播频道（Redis发布订阅），为空时其他节点的状态变更只由定时重建同步
+     */
+    private String changeChannel = "nsrs:idle-bitmap:changes";
+
+    /**
+     * 重建时每次从单个分表读取的号码数
+     */
+    private int loadBatchSize = 5000;
+}
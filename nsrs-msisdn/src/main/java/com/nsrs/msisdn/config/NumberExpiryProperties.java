@@ -0,0 +1,57 @@
+package com.nsrs.msisdn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 号码状态到期配置
+ * 预留、冻结按配置时长记录到期时间，回收后进入隔离期；到期后由到期引擎自动流转
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nsrs.number-expiry")
+public class NumberExpiryProperties {
+
+    /**
+     * 是否启用到期引擎，关闭后仍记录到期时间但不自动流转
+     */
+    private boolean enabled = true;
+
+    /**
+     * 预留有效期（小时），0表示预留不过期
+     */
+    private long reservationHours = 72;
+
+    /**
+     * 冻结有效期（小时），到期后恢复为已激活，0表示冻结不过期
+     */
+    private long freezeHours = 0;
+
+    /**
+     * 回收隔离期（小时），隔离期内号码为锁定状态，0表示回收后立即空闲
+     */
+    private long recycleQuarantineHours = 720;
+
+    /**
+     * 到期扫描间隔（毫秒），每次扫描加载下一个间隔内到期的号码到时间轮
+     */
+    private long scanIntervalMs = 60000;
+
+    /**
+     * 时间轮刻度（毫秒）
+     */
+    private long tickMs = 1000;
+
+    /**
+     * 每个分表每种流转单次扫描的最大号码数
+     */
+    private int scanBatchSize = 2000;
+
+    /**
+     * 回收是否进入隔离期
+     */
+    public boolean isQuarantineEnabled() {
+        return recycleQuarantineHours > 0;
+    }
+}
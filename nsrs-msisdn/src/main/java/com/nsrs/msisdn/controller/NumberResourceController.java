@@ -1,15 +1,21 @@
 package com.nsrs.msisdn.controller;
 
-import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.nsrs.common.controller.BaseExcelController;
+import com.nsrs.common.enums.CountModeEnum;
+import com.nsrs.common.exception.BusinessException;
 import com.nsrs.common.model.CommonResult;
 import com.nsrs.common.utils.ExcelUtils;
+import com.nsrs.msisdn.dto.HotPrefixMigrationResult;
+import com.nsrs.msisdn.dto.NumberRangeOperationRequest;
+import com.nsrs.msisdn.dto.NumberRangeOperationResult;
 import com.nsrs.msisdn.dto.NumberResourceDTO;
+import com.nsrs.msisdn.dto.NumberTransitionResult;
 import com.nsrs.common.core.domain.PageRequest;
 import com.nsrs.common.core.domain.PageResult;
 import com.nsrs.msisdn.dto.request.NumberResourceQueryEntity;
 import com.nsrs.msisdn.entity.NumberResource;
+import com.nsrs.msisdn.service.HotPrefixMigrationService;
+import com.nsrs.msisdn.service.NumberRangeOperationService;
 import com.nsrs.msisdn.service.NumberResourceService;
 import com.nsrs.msisdn.vo.NumberResourceVO;
 import io.swagger.v3.oas.annotations.Operation;
@@ -25,6 +31,7 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 号码资源管理接口
@@ -37,6 +44,12 @@ public class NumberResourceController extends BaseExcelController<NumberResource
     @Autowired
     private NumberResourceService numberResourceService;
 
+    @Autowired
+    private NumberRangeOperationService rangeOperationService;
+
+    @Autowired
+    private HotPrefixMigrationService hotPrefixMigrationService;
+
     /**
      * 分页查询号码资源
      */
@@ -58,24 +71,32 @@ public class NumberResourceController extends BaseExcelController<NumberResource
             dto.setStatus(request.getQuery().getStatus());
         }
         
-        // 构建分页参数
-        Page<NumberResource> page = new Page<>(request.getCurrent(), request.getSize());
+        // 游标分页：按分表seek后归并，适用于深分页
+        if (request.useCursor()) {
+            if (request.getQuery() != null && StringUtils.isNotBlank(request.getQuery().getNumberPrefix())) {
+                dto.setNumber(request.getQuery().getNumberPrefix());
+            }
+            return CommonResult.success(numberResourceService.cursorQuery(dto, request.getCursor(), request.getSize()));
+        }
+
+        // 列表页默认使用近似统计，避免每次翻页都跨分表COUNT(*)
+        CountModeEnum countMode = CountModeEnum.getByCode(request.getCountMode(), CountModeEnum.APPROXIMATE);
         
         // 智能选择查询方式：如果是前缀查询且长度小于11位，使用优化版本
-        IPage<NumberResourceVO> result;
+        PageResult<NumberResourceVO> result;
         if (request.getQuery() != null && StringUtils.isNotBlank(request.getQuery().getNumberPrefix())) {
             // 使用前缀查询优化版本（基于numberPrefix字段）
             dto.setNumber(request.getQuery().getNumberPrefix()); // 设置前缀作为查询条件
-            result = numberResourceService.prefixQuery(page, dto);
+            result = numberResourceService.pageQuery(dto, true, request.getCurrent(), request.getSize(), countMode);
         } else if (request.getQuery() != null && StringUtils.isNotBlank(request.getQuery().getNumber()) && request.getQuery().getNumber().length() < 11) {
             // 使用前缀查询优化版本
-            result = numberResourceService.prefixQuery(page, dto);
+            result = numberResourceService.pageQuery(dto, true, request.getCurrent(), request.getSize(), countMode);
         } else {
             // 使用普通查询
-            result = numberResourceService.pageQuery(page, dto);
+            result = numberResourceService.pageQuery(dto, false, request.getCurrent(), request.getSize(), countMode);
         }
 
-        return CommonResult.success(new PageResult<>(result.getRecords(), result.getTotal(), result.getCurrent(), result.getSize()));
+        return CommonResult.success(result);
     }
 
     /**
@@ -315,6 +336,73 @@ public class NumberResourceController extends BaseExcelController<NumberResource
         return CommonResult.success(count);
     }
     
+    /**
+     * 批量状态流转（按分表批量条件更新，返回每个号码的处理结果）
+     */
+    @Operation(summary = "批量状态流转")
+    @PutMapping("/batch-transition")
+    public CommonResult<NumberTransitionResult> batchTransition(
+            @Parameter(description = "号码列表") @RequestBody @NotNull(message = "Numbers list cannot be null") List<String> numbers,
+            @Parameter(description = "操作类型：2-预留，3-分配，4-激活，5-冻结，6-解冻，7-释放，8-回收")
+            @RequestParam @NotNull(message = "Operation type cannot be null") Integer operationType,
+            @Parameter(description = "归属组织，分配时使用") @RequestParam(required = false) String attributiveOrg,
+            @Parameter(description = "备注") @RequestParam(required = false) String remark) {
+        
+        return CommonResult.success(numberResourceService.batchTransition(numbers, operationType, attributiveOrg, remark));
+    }
+    
+    /**
+     * 号码区间批量操作（状态流转或修改级别、HLR、归属机构），试运行时只返回受影响的号码数
+     */
+    @Operation(summary = "号码区间批量操作")
+    @PostMapping("/range-operation")
+    public CommonResult<NumberRangeOperationResult> rangeOperation(@Valid @RequestBody NumberRangeOperationRequest request) {
+        
+        return CommonResult.success(rangeOperationService.submit(request));
+    }
+    
+    /**
+     * 查询号码区间批量操作进度
+     */
+    @Operation(summary = "查询号码区间批量操作进度")
+    @GetMapping("/range-operation/{jobId}")
+    public CommonResult<NumberRangeOperationResult> rangeOperationProgress(
+            @Parameter(description = "任务ID") @PathVariable @NotBlank(message = "Job ID cannot be blank") String jobId) {
+        
+        NumberRangeOperationResult result = rangeOperationService.getProgress(jobId);
+        if (result == null) {
+            throw new BusinessException("404", "Range operation job does not exist");
+        }
+        return CommonResult.success(result);
+    }
+    
+    /**
+     * 提交热点前缀子表在线迁移，迁移期间原前缀表与子表双读
+     */
+    @Operation(summary = "提交热点前缀子表迁移")
+    @PostMapping("/hot-prefix/{prefix}/migration")
+    public CommonResult<HotPrefixMigrationResult> migrateHotPrefix(
+            @Parameter(description = "号码前缀") @PathVariable @NotBlank(message = "Prefix cannot be blank") String prefix,
+            @Parameter(description = "每个分块搬迁的号码数") @RequestParam(required = false) Integer chunkSize) {
+        
+        return CommonResult.success(hotPrefixMigrationService.submit(prefix, chunkSize));
+    }
+    
+    /**
+     * 查询热点前缀子表迁移进度
+     */
+    @Operation(summary = "查询热点前缀子表迁移进度")
+    @GetMapping("/hot-prefix/{prefix}/migration")
+    public CommonResult<HotPrefixMigrationResult> hotPrefixMigrationProgress(
+            @Parameter(description = "号码前缀") @PathVariable @NotBlank(message = "Prefix cannot be blank") String prefix) {
+        
+        HotPrefixMigrationResult result = hotPrefixMigrationService.getProgress(prefix);
+        if (result == null) {
+            throw new BusinessException("404", "Hot prefix migration job does not exist");
+        }
+        return CommonResult.success(result);
+    }
+    
     /**
      * 获取号码详情
      */
@@ -342,6 +430,41 @@ public class NumberResourceController extends BaseExcelController<NumberResource
         return CommonResult.success(statistics);
     }
 
+    /**
+     * 号段空闲号码数
+     */
+    @Operation(summary = "号段空闲号码数")
+    @GetMapping("/segment/{segmentId}/idle-count")
+    public CommonResult<Long> countIdleNumbers(
+            @Parameter(description = "号段ID") @PathVariable @NotNull(message = "Segment ID cannot be null") Long segmentId) {
+        
+        return CommonResult.success(numberResourceService.countIdleNumbers(segmentId));
+    }
+    
+    /**
+     * 从号段中选取空闲号码
+     */
+    @Operation(summary = "从号段中选取空闲号码")
+    @GetMapping("/segment/{segmentId}/idle")
+    public CommonResult<List<String>> selectIdleNumbers(
+            @Parameter(description = "号段ID") @PathVariable @NotNull(message = "Segment ID cannot be null") Long segmentId,
+            @Parameter(description = "数量") @RequestParam(defaultValue = "30") Integer count,
+            @Parameter(description = "是否随机选取") @RequestParam(defaultValue = "true") Boolean random) {
+        
+        return CommonResult.success(numberResourceService.selectIdleNumbers(segmentId, count, random));
+    }
+    
+    /**
+     * 号码是否可用（空闲）
+     */
+    @Operation(summary = "号码是否可用")
+    @GetMapping("/{number}/available")
+    public CommonResult<Boolean> isAvailable(
+            @Parameter(description = "号码") @PathVariable @NotBlank(message = "Number cannot be blank") String number) {
+        
+        return CommonResult.success(numberResourceService.isIdle(number));
+    }
+
     // ========== BaseExcelController抽象方法实现 ==========
 
     @Override
@@ -360,11 +483,32 @@ public class NumberResourceController extends BaseExcelController<NumberResource
         }
     }
 
+    @Override
+    protected void processImportChunk(List<NumberResource> chunk) {
+        // batchImport为独立事务，失败时抛出BusinessException并整体回滚该分块
+        if (!numberResourceService.batchImport(chunk)) {
+            throw new BusinessException("Import chunk failed");
+        }
+    }
+
+    @Override
+    protected String validateImportRow(NumberResource row) {
+        if (StringUtils.isBlank(row.getNumber())) {
+            return "Number cannot be empty";
+        }
+        return super.validateImportRow(row);
+    }
+
     @Override
     protected List<NumberResource> queryDataForExport(NumberResourceDTO queryParams) {
         return numberResourceService.queryForExport(queryParams);
     }
 
+    @Override
+    protected void streamDataForExport(NumberResourceDTO queryParams, Consumer<NumberResource> consumer) {
+        numberResourceService.streamForExport(queryParams, consumer);
+    }
+
     @Override
     protected String getExportTitle() {
         return "NumberResourceExport";
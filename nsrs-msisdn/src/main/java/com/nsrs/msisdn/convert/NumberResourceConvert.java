@@ -0,0 +1,34 @@
+package com.nsrs.msisdn.convert;
+
+import com.nsrs.msisdn.dto.NumberResourceDTO;
+import com.nsrs.msisdn.entity.NumberResource;
+import com.nsrs.msisdn.vo.NumberResourceVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * 号码资源对象转换（编译期生成，替代BeanUtils.copyProperties的反射拷贝）
+ * 按同名属性映射，关联名称（号段、等级、HLR等）由调用方补充
+ */
+@Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface NumberResourceConvert {
+
+    NumberResourceConvert INSTANCE = Mappers.getMapper(NumberResourceConvert.class);
+
+    NumberResourceVO toVO(NumberResource resource);
+
+    NumberResource toEntity(NumberResourceDTO dto);
+
+    NumberResourceDTO toDTO(NumberResource resource);
+
+    /**
+     * 用DTO更新实体，保留ID、号码和创建时间
+     */
+    @Mapping(target = "numberId", ignore = true)
+    @Mapping(target = "number", ignore = true)
+    @Mapping(target = "createTime", ignore = true)
+    void updateEntity(NumberResourceDTO dto, @MappingTarget NumberResource resource);
+}
@@ -0,0 +1,69 @@
+package com.nsrs.msisdn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 热点前缀子表迁移进度
+ */
+@Data
+@Schema(description = "热点前缀子表迁移进度")
+public class HotPrefixMigrationResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 迁移状态
+     */
+    public enum State {
+        /**
+         * 等待执行
+         */
+        PENDING,
+        /**
+         * 执行中，原前缀表与子表双读
+         */
+        RUNNING,
+        /**
+         * 已完成，本节点只路由子表
+         */
+        COMPLETED,
+        /**
+         * 执行失败，已搬迁的分块不回滚，重新提交即可继续
+         */
+        FAILED
+    }
+
+    @Schema(description = "号码前缀")
+    private String prefix;
+
+    @Schema(description = "子表数量")
+    private int subTableCount;
+
+    @Schema(description = "每个分块搬迁的号码数")
+    private int chunkSize;
+
+    @Schema(description = "迁移状态")
+    private volatile State state = State.PENDING;
+
+    @Schema(description = "开始时原前缀表中的号码数")
+    private long totalCount;
+
+    @Schema(description = "已搬迁号码数")
+    private volatile long migratedCount;
+
+    @Schema(description = "已处理分块数")
+    private volatile int processedChunks;
+
+    @Schema(description = "结果消息")
+    private String message;
+
+    @Schema(description = "开始时间")
+    private Date startTime;
+
+    @Schema(description = "结束时间")
+    private Date endTime;
+}
@@ -0,0 +1,47 @@
+package com.nsrs.msisdn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import java.io.Serializable;
+
+/**
+ * 号码区间批量操作请求
+ * 指定操作类型时对区间内可流转的号码执行状态流转，否则修改区间内全部号码的级别、HLR或归属机构
+ */
+@Data
+@Schema(description = "号码区间批量操作请求")
+public class NumberRangeOperationRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "起始号码（包含）")
+    @NotBlank(message = "Start number cannot be blank")
+    private String startNumber;
+
+    @Schema(description = "结束号码（包含）")
+    @NotBlank(message = "End number cannot be blank")
+    private String endNumber;
+
+    @Schema(description = "操作类型：2-预留，3-分配，4-激活，5-冻结，6-解冻，7-释放，8-回收；为空时修改号码属性")
+    private Integer operationType;
+
+    @Schema(description = "号码级别ID")
+    private Long levelId;
+
+    @Schema(description = "HLR/交换机ID")
+    private Long hlrId;
+
+    @Schema(description = "归属机构，分配或修改属性时使用")
+    private String attributiveOrg;
+
+    @Schema(description = "备注")
+    private String remark;
+
+    @Schema(description = "是否只统计受影响的号码数而不执行")
+    private boolean dryRun;
+
+    @Schema(description = "每个分块的号码区间大小，默认2000")
+    private Integer chunkSize;
+}
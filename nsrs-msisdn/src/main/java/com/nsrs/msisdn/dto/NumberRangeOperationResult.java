@@ -0,0 +1,78 @@
+package com.nsrs.msisdn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 号码区间批量操作结果与进度
+ */
+@Data
+@Schema(description = "号码区间批量操作结果与进度")
+public class NumberRangeOperationResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 任务状态
+     */
+    public enum State {
+        /**
+         * 等待执行
+         */
+        PENDING,
+        /**
+         * 执行中
+         */
+        RUNNING,
+        /**
+         * 已完成
+         */
+        COMPLETED,
+        /**
+         * 执行失败，已完成的分块不回滚
+         */
+        FAILED
+    }
+
+    @Schema(description = "任务ID，试运行时为空")
+    private String jobId;
+
+    @Schema(description = "起始号码")
+    private String startNumber;
+
+    @Schema(description = "结束号码")
+    private String endNumber;
+
+    @Schema(description = "操作类型，为空表示修改号码属性")
+    private Integer operationType;
+
+    @Schema(description = "是否试运行")
+    private boolean dryRun;
+
+    @Schema(description = "任务状态")
+    private volatile State state = State.PENDING;
+
+    @Schema(description = "区间内受影响的号码数（执行前统计）")
+    private long matchedCount;
+
+    @Schema(description = "分块总数")
+    private int totalChunks;
+
+    @Schema(description = "已处理分块数")
+    private volatile int processedChunks;
+
+    @Schema(description = "已更新号码数")
+    private volatile long updatedCount;
+
+    @Schema(description = "结果消息")
+    private String message;
+
+    @Schema(description = "开始时间")
+    private Date startTime;
+
+    @Schema(description = "结束时间")
+    private Date endTime;
+}
@@ -0,0 +1,90 @@
+package com.nsrs.msisdn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 号码批量状态流转结果
+ */
+@Data
+@Schema(description = "号码批量状态流转结果")
+public class NumberTransitionResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 单个号码的处理结果
+     */
+    public enum Outcome {
+        /**
+         * 流转成功
+         */
+        SUCCESS,
+        /**
+         * 当前状态不允许该操作
+         */
+        REJECTED,
+        /**
+         * 更新时状态已被并发修改
+         */
+        CONFLICT,
+        /**
+         * 号码不存在
+         */
+        NOT_FOUND,
+        /**
+         * 号码格式无效或前缀不受支持
+         */
+        INVALID
+    }
+
+    @Schema(description = "操作类型")
+    private Integer operationType;
+
+    @Schema(description = "目标状态")
+    private Integer targetStatus;
+
+    @Schema(description = "请求号码数（去重后）")
+    private int total;
+
+    @Schema(description = "成功数")
+    private int successCount;
+
+    @Schema(description = "失败数")
+    private int failedCount;
+
+    /**
+     * 每个号码的处理结果，按请求顺序
+     */
+    @Schema(description = "每个号码的处理结果")
+    private Map<String, Outcome> outcomes = new LinkedHashMap<>();
+
+    /**
+     * 被拒绝或冲突号码的当前状态，便于调用方重试或提示
+     */
+    @Schema(description = "失败号码的当前状态")
+    private Map<String, Integer> currentStatuses = new LinkedHashMap<>();
+
+    /**
+     * 记录单个号码的结果
+     *
+     * @param number 号码
+     * @param outcome 结果
+     * @param currentStatus 当前状态，成功时为空
+     */
+    public void record(String number, Outcome outcome, Integer currentStatus) {
+        outcomes.put(number, outcome);
+        if (outcome == Outcome.SUCCESS) {
+            successCount++;
+        } else {
+            failedCount++;
+            if (currentStatus != null) {
+                currentStatuses.put(number, currentStatus);
+            }
+        }
+    }
+}
@@ -119,6 +119,13 @@ public class NumberResource implements Serializable {
     @Excel(name = "备注", orderNum = "8", width = 20)
     private String remark;
     
+    /**
+     * 状态到期时间：预留/冻结到期或回收隔离结束时间，为空表示不过期
+     */
+    @TableField(value = "expire_time")
+    @Schema(description = "状态到期时间")
+    private Date expireTime;
+    
     /**
      * 创建时间
      */
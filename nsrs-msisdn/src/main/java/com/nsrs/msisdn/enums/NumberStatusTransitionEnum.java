@@ -0,0 +1,130 @@
+package com.nsrs.msisdn.enums;
+
+import com.nsrs.common.enums.NumberStatusEnum;
+import com.nsrs.common.enums.OperationTypeEnum;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 号码状态流转枚举
+ * 定义每种操作允许的源状态和目标状态，状态更新时以源状态作为条件，保证并发请求只有一个能成功
+ */
+@Getter
+public enum NumberStatusTransitionEnum {
+
+    RESERVE(OperationTypeEnum.RESERVE, NumberStatusEnum.RESERVED, false, false,
+            "Only idle numbers can be reserved",
+            NumberStatusEnum.IDLE),
+
+    ASSIGN(OperationTypeEnum.ASSIGN, NumberStatusEnum.ASSIGNED, false, false,
+            "Only idle or reserved numbers can be assigned",
+            NumberStatusEnum.IDLE, NumberStatusEnum.RESERVED),
+
+    ACTIVATE(OperationTypeEnum.ACTIVATE, NumberStatusEnum.ACTIVATED, false, false,
+            "Only assigned numbers can be activated",
+            NumberStatusEnum.ASSIGNED),
+
+    FREEZE(OperationTypeEnum.FREEZE, NumberStatusEnum.FROZEN, false, false,
+            "Only activated or in-use numbers can be frozen",
+            NumberStatusEnum.ACTIVATED, NumberStatusEnum.IN_USE),
+
+    UNFREEZE(OperationTypeEnum.UNFREEZE, NumberStatusEnum.ACTIVATED, false, false,
+            "Only frozen numbers can be unfrozen",
+            NumberStatusEnum.FROZEN),
+
+    RELEASE(OperationTypeEnum.RELEASE, NumberStatusEnum.IDLE, true, false,
+            "Only assigned, activated, in-use or frozen numbers can be released",
+            NumberStatusEnum.ASSIGNED, NumberStatusEnum.ACTIVATED, NumberStatusEnum.IN_USE, NumberStatusEnum.FROZEN),
+
+    RECYCLE(OperationTypeEnum.RECYCLE, NumberStatusEnum.IDLE, true, false,
+            "Number cannot be recycled in current status",
+            NumberStatusEnum.values()),
+
+    /**
+     * 回收进入隔离期（锁定），隔离期结束后由到期引擎释放为空闲
+     */
+    RECYCLE_QUARANTINE(OperationTypeEnum.RECYCLE, NumberStatusEnum.LOCKED, true, true,
+            "Number cannot be recycled in current status",
+            NumberStatusEnum.values()),
+
+    /**
+     * 预留到期，恢复为空闲
+     */
+    EXPIRE_RESERVATION(OperationTypeEnum.RELEASE, NumberStatusEnum.IDLE, true, true,
+            "Only reserved numbers can expire",
+            NumberStatusEnum.RESERVED),
+
+    /**
+     * 冻结到期，恢复为已激活
+     */
+    EXPIRE_FREEZE(OperationTypeEnum.UNFREEZE, NumberStatusEnum.ACTIVATED, false, true,
+            "Only frozen numbers can expire",
+            NumberStatusEnum.FROZEN),
+
+    /**
+     * 回收隔离期结束，释放为空闲
+     */
+    END_QUARANTINE(OperationTypeEnum.RELEASE, NumberStatusEnum.IDLE, true, true,
+            "Only quarantined numbers can be released",
+            NumberStatusEnum.LOCKED);
+
+    private final OperationTypeEnum operationType;
+    private final NumberStatusEnum targetStatus;
+
+    /**
+     * 是否清空归属机构和ICCID
+     */
+    private final boolean clearAssignment;
+
+    /**
+     * 是否为系统内部流转（隔离、到期），不能通过操作类型直接调用
+     */
+    private final boolean system;
+
+    private final String rejectMessage;
+    private final List<Integer> allowedStatuses;
+
+    NumberStatusTransitionEnum(OperationTypeEnum operationType, NumberStatusEnum targetStatus, boolean clearAssignment,
+                               boolean system, String rejectMessage, NumberStatusEnum... allowedStatuses) {
+        this.operationType = operationType;
+        this.targetStatus = targetStatus;
+        this.clearAssignment = clearAssignment;
+        this.system = system;
+        this.rejectMessage = rejectMessage;
+        this.allowedStatuses = Collections.unmodifiableList(Arrays.stream(allowedStatuses)
+                .map(NumberStatusEnum::getCode)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * 当前状态是否允许执行该流转
+     *
+     * @param status 当前状态
+     * @return 是否允许
+     */
+    public boolean isAllowedFrom(Integer status) {
+        return status != null && allowedStatuses.contains(status);
+    }
+
+    /**
+     * 根据操作类型获取流转定义
+     *
+     * @param operationType 操作类型，见 {@link OperationTypeEnum}
+     * @return 流转定义（不含系统内部流转），不支持状态流转的操作返回null
+     */
+    public static NumberStatusTransitionEnum getByOperationType(Integer operationType) {
+        if (operationType == null) {
+            return null;
+        }
+        for (NumberStatusTransitionEnum transition : values()) {
+            if (!transition.isSystem() && transition.getOperationType().getCode().equals(operationType)) {
+                return transition;
+            }
+        }
+        return null;
+    }
+}
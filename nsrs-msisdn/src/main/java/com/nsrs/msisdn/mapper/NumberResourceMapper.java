@@ -1,12 +1,16 @@
 package com.nsrs.msisdn.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.nsrs.msisdn.entity.NumberResource;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -85,6 +89,44 @@ public interface NumberResourceMapper extends BaseMapper<NumberResource> {
      */
     int batchUpdateStatusByNumbers(@Param("numbers") List<String> numbers, @Param("statuses") List<Integer> statuses);
     
+    /**
+     * 条件状态流转，只更新当前状态仍为fromStatus的号码
+     * 号码应属于同一分表，以便路由为单条语句
+     *
+     * @param numbers 号码列表
+     * @param fromStatus 源状态
+     * @param toStatus 目标状态
+     * @param clearAssignment 是否清空归属机构和ICCID
+     * @param attributiveOrg 归属机构，为空时不修改
+     * @param remark 备注
+     * @param expireTime 新状态的到期时间，为空表示不过期
+     * @param expiredBefore 不为空时只更新到期时间不晚于该时间的号码，用于到期流转
+     * @return 影响行数
+     */
+    int transitionStatusByNumbers(@Param("numbers") List<String> numbers, @Param("fromStatus") Integer fromStatus,
+                                  @Param("toStatus") Integer toStatus, @Param("clearAssignment") boolean clearAssignment,
+                                  @Param("attributiveOrg") String attributiveOrg, @Param("remark") String remark,
+                                  @Param("expireTime") Date expireTime, @Param("expiredBefore") Date expiredBefore);
+
+    /**
+     * 号码区间条件状态流转，只更新当前状态属于fromStatuses的号码
+     * 区间应位于同一前缀内，以便路由到单个分表
+     *
+     * @param startNumber 起始号码（包含）
+     * @param endNumber 结束号码（包含）
+     * @param fromStatuses 允许的源状态
+     * @param toStatus 目标状态
+     * @param clearAssignment 是否清空归属机构和ICCID
+     * @param attributiveOrg 归属机构，为空时不修改
+     * @param remark 备注
+     * @param expireTime 新状态的到期时间，为空表示不过期
+     * @return 影响行数
+     */
+    int transitionStatusByRange(@Param("startNumber") String startNumber, @Param("endNumber") String endNumber,
+                                @Param("fromStatuses") List<Integer> fromStatuses, @Param("toStatus") Integer toStatus,
+                                @Param("clearAssignment") boolean clearAssignment, @Param("attributiveOrg") String attributiveOrg,
+                                @Param("remark") String remark, @Param("expireTime") Date expireTime);
+
     /**
      * 批量查询号码资源（按号码）
      *
@@ -92,4 +134,12 @@ public interface NumberResourceMapper extends BaseMapper<NumberResource> {
      * @return 号码资源列表
      */
     List<NumberResource> selectByNumbers(@Param("numbers") List<String> numbers);
-}
\ No newline at end of file
+    
+    /**
+     * 游标流式查询，需在事务内使用，查询条件应包含分表路由条件以逐个分表读取
+     *
+     * @param wrapper 查询条件
+     * @return 号码资源游标
+     */
+    Cursor<NumberResource> selectCursor(@Param(Constants.WRAPPER) Wrapper<NumberResource> wrapper);
+}
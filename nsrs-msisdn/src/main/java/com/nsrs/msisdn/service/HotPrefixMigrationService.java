@@ -0,0 +1,26 @@
+package com.nsrs.msisdn.service;
+
+import com.nsrs.msisdn.dto.HotPrefixMigrationResult;
+
+/**
+ * 热点前缀子表在线迁移服务接口
+ */
+public interface HotPrefixMigrationService {
+
+    /**
+     * 提交迁移任务：将原前缀表中的号码分块搬迁到按尾号哈希拆分的子表，迁移期间原前缀表与子表双读
+     *
+     * @param prefix 已配置为热点的号码前缀
+     * @param chunkSize 每个分块搬迁的号码数，为空时使用默认值
+     * @return 已提交任务的初始进度
+     */
+    HotPrefixMigrationResult submit(String prefix, Integer chunkSize);
+
+    /**
+     * 查询前缀最近一次迁移任务的进度
+     *
+     * @param prefix 号码前缀
+     * @return 迁移进度，不存在时返回null
+     */
+    HotPrefixMigrationResult getProgress(String prefix);
+}
@@ -0,0 +1,27 @@
+package com.nsrs.msisdn.service;
+
+import com.nsrs.msisdn.dto.NumberRangeOperationRequest;
+import com.nsrs.msisdn.dto.NumberRangeOperationResult;
+
+/**
+ * 号码区间批量操作服务接口
+ */
+public interface NumberRangeOperationService {
+
+    /**
+     * 提交号码区间批量操作
+     * 区间按前缀分表及分块大小切分，每个分块一个事务、一条UPDATE和一条汇总日志；试运行时只统计受影响的号码数
+     *
+     * @param request 操作请求
+     * @return 试运行时为统计结果，否则为已提交任务的初始进度
+     */
+    NumberRangeOperationResult submit(NumberRangeOperationRequest request);
+
+    /**
+     * 查询任务进度
+     *
+     * @param jobId 任务ID
+     * @return 任务进度，不存在时返回null
+     */
+    NumberRangeOperationResult getProgress(String jobId);
+}
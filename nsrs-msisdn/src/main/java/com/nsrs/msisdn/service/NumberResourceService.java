@@ -1,13 +1,19 @@
 package com.nsrs.msisdn.service;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.nsrs.common.core.domain.PageResult;
+import com.nsrs.common.enums.CountModeEnum;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.nsrs.msisdn.dto.NumberResourceDTO;
+import com.nsrs.msisdn.dto.NumberTransitionResult;
 import com.nsrs.msisdn.entity.NumberResource;
+import com.nsrs.msisdn.enums.NumberStatusTransitionEnum;
 import com.nsrs.msisdn.vo.NumberResourceVO;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 号码资源服务接口
@@ -91,6 +97,28 @@ public interface NumberResourceService extends IService<NumberResource> {
      * @return 分页结果
      */
     IPage<NumberResourceVO> prefixQuery(IPage<NumberResource> page, NumberResourceDTO dto);
+
+    /**
+     * 按统计模式分页查询号码资源
+     *
+     * @param dto 查询条件
+     * @param prefixQuery 是否使用前缀范围条件路由分表
+     * @param current 当前页码
+     * @param size 每页大小
+     * @param countMode 统计模式，近似统计无法估算时降级为不统计
+     * @return 分页结果
+     */
+    PageResult<NumberResourceVO> pageQuery(NumberResourceDTO dto, boolean prefixQuery, long current, long size, CountModeEnum countMode);
+
+    /**
+     * 游标分页查询号码资源（按分表seek后k路归并，避免深分页OFFSET）
+     *
+     * @param dto 查询条件
+     * @param cursor 上一页返回的游标，空表示首页
+     * @param size 每页大小
+     * @return 分页结果，total为-1
+     */
+    PageResult<NumberResourceVO> cursorQuery(NumberResourceDTO dto, String cursor, long size);
     
     /**
      * 创建号码分表
@@ -191,6 +219,39 @@ public interface NumberResourceService extends IService<NumberResource> {
      */
     int batchOperation(List<String> numbers, Integer operationType, String remark);
     
+    /**
+     * 批量状态流转
+     * 号码按前缀分表分组，每个分表按源状态分组后以一条条件UPDATE完成流转，返回每个号码的处理结果
+     *
+     * @param numbers 号码列表
+     * @param operationType 操作类型，仅支持预留、分配、激活、冻结、解冻、释放、回收
+     * @param attributiveOrg 归属组织，仅分配时使用
+     * @param remark 备注
+     * @return 流转结果
+     */
+    NumberTransitionResult batchTransition(List<String> numbers, Integer operationType, String attributiveOrg, String remark);
+    
+    /**
+     * 到期流转，只处理状态允许且到期时间不晚于expiredBefore的号码，多个节点同时执行时每个号码只会流转一次
+     *
+     * @param numbers 号码列表
+     * @param transition 到期流转类型
+     * @param expiredBefore 到期判定时间
+     * @return 流转结果
+     */
+    NumberTransitionResult expireNumbers(List<String> numbers, NumberStatusTransitionEnum transition, Date expiredBefore);
+    
+    /**
+     * 扫描单个分表中在指定时间前到期的号码（按到期时间升序）
+     *
+     * @param prefix 号码前缀（分表）
+     * @param transition 到期流转类型
+     * @param before 到期时间上限
+     * @param limit 最大返回数
+     * @return 号码（仅包含ID、号码、状态和到期时间）
+     */
+    List<NumberResource> listExpiring(String prefix, NumberStatusTransitionEnum transition, Date before, int limit);
+    
     /**
      * 根据号码获取号码详情
      *
@@ -199,6 +260,43 @@ public interface NumberResourceService extends IService<NumberResource> {
      */
     NumberResource getBasicInfo(String number);
     
+    /**
+     * 统计号码区间内的号码数，区间应位于同一前缀分表内
+     *
+     * @param startNumber 起始号码（包含）
+     * @param endNumber 结束号码（包含）
+     * @param operationType 操作类型，不为空时只统计当前状态允许该流转的号码
+     * @return 号码数
+     */
+    long countRange(String startNumber, String endNumber, Integer operationType);
+    
+    /**
+     * 号码区间状态流转，以一条条件UPDATE完成并记录一条汇总操作日志
+     * 区间应位于同一前缀分表内，由调用方控制区间大小
+     *
+     * @param startNumber 起始号码（包含）
+     * @param endNumber 结束号码（包含）
+     * @param operationType 操作类型，仅支持预留、分配、激活、冻结、解冻、释放、回收
+     * @param attributiveOrg 归属组织，仅分配时使用
+     * @param remark 备注
+     * @return 流转的号码数
+     */
+    int transitionRange(String startNumber, String endNumber, Integer operationType, String attributiveOrg, String remark);
+    
+    /**
+     * 修改号码区间内全部号码的级别、HLR或归属机构，记录一条汇总操作日志
+     * 区间应位于同一前缀分表内，由调用方控制区间大小
+     *
+     * @param startNumber 起始号码（包含）
+     * @param endNumber 结束号码（包含）
+     * @param levelId 号码级别ID，为空时不修改
+     * @param hlrId HLR/交换机ID，为空时不修改
+     * @param attributiveOrg 归属机构，为空时不修改
+     * @param remark 备注
+     * @return 修改的号码数
+     */
+    int updateRangeAttributes(String startNumber, String endNumber, Long levelId, Long hlrId, String attributiveOrg, String remark);
+    
     /**
      * 获取号码统计信息
      *
@@ -206,6 +304,32 @@ public interface NumberResourceService extends IService<NumberResource> {
      */
     Map<String, Object> getStatistics();
     
+    /**
+     * 统计号段空闲号码数，优先使用内存位图
+     *
+     * @param segmentId 号段ID
+     * @return 空闲号码数
+     */
+    long countIdleNumbers(Long segmentId);
+    
+    /**
+     * 从号段中选取空闲号码，优先使用内存位图，选出的号码经数据库确认仍为空闲
+     *
+     * @param segmentId 号段ID
+     * @param count 数量
+     * @param random true-随机选取，false-按号码升序选取
+     * @return 空闲号码列表
+     */
+    List<String> selectIdleNumbers(Long segmentId, int count, boolean random);
+    
+    /**
+     * 判断号码是否空闲，位图判定为空闲时经数据库确认
+     *
+     * @param number 号码
+     * @return 是否空闲
+     */
+    boolean isIdle(String number);
+    
     /**
      * 查询导出数据
      *
@@ -214,6 +338,15 @@ public interface NumberResourceService extends IService<NumberResource> {
      */
     List<NumberResource> queryForExport(NumberResourceDTO queryDTO);
 
+    /**
+     * 流式读取导出数据（逐个分表游标读取，不在内存中累积结果）
+     *
+     * @param queryDTO 查询条件
+     * @param consumer 数据消费者
+     * @return 读取的记录数
+     */
+    long streamForExport(NumberResourceDTO queryDTO, Consumer<NumberResource> consumer);
+
     /**
      * 批量导入号码资源
      *
@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.nsrs.msisdn.entity.NumberSegment;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -180,4 +181,29 @@ public interface NumberSegmentService extends IService<NumberSegment> {
      * @return 是否成功
      */
     boolean resetStatistics(Long segmentId);
-}
\ No newline at end of file
+    
+    /**
+     * 根据号码查询所属号码段（内存区间索引）
+     *
+     * @param number 号码
+     * @return 号码段，不存在时返回null
+     */
+    NumberSegment getByNumber(String number);
+    
+    /**
+     * 批量解析号码所属号码段ID（内存区间索引）
+     *
+     * @param numbers 号码集合
+     * @return 号码 -> 号码段ID，未匹配的号码不在结果中
+     */
+    Map<String, Long> resolveSegmentIds(Collection<String> numbers);
+    
+    /**
+     * 查询与指定号码区间重叠的号码段
+     *
+     * @param startNumber 起始号码
+     * @param endNumber 结束号码
+     * @return 重叠的号码段列表
+     */
+    List<NumberSegment> listOverlapping(String startNumber, String endNumber);
+}
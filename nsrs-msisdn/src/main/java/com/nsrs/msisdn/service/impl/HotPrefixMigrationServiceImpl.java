@@ -0,0 +1,191 @@
+package com.nsrs.msisdn.service.impl;
+
+import com.nsrs.common.exception.BusinessException;
+import com.nsrs.common.utils.HotPrefixShardingRule;
+import com.nsrs.msisdn.dto.HotPrefixMigrationResult;
+import com.nsrs.msisdn.service.HotPrefixMigrationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * 热点前缀子表在线迁移服务实现类
+ * 直接操作物理表：每个分块在一个事务内锁定原前缀表中ID最小的一批号码，按尾号哈希写入对应子表后从原表删除。
+ * 迁移期间分片算法对该前缀双读（原前缀表在前、子表在后），并发更新会等待分块事务提交后落到子表，号码不会丢失或重复。
+ * 原前缀表清空后本节点切换为只路由子表，其他节点需将前缀加入 nsrs.sharding.hot-prefix.migrated-prefixes 后重启生效
+ */
+@Slf4j
+@Service
+public class HotPrefixMigrationServiceImpl implements HotPrefixMigrationService {
+
+    private static final String LOGIC_TABLE = "number_resource";
+
+    private static final int DEFAULT_CHUNK_SIZE = 2000;
+
+    private static final int MAX_CHUNK_SIZE = 10000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate chunkTransaction;
+
+    private final Map<String, HotPrefixMigrationResult> jobs = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-prefix-migration");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public synchronized HotPrefixMigrationResult submit(String prefix, Integer chunkSize) {
+        int subTableCount = HotPrefixShardingRule.getSubTableCount(prefix);
+        if (subTableCount == 0) {
+            throw new BusinessException("400", "Prefix " + prefix + " is not configured as hot prefix");
+        }
+        if (!HotPrefixShardingRule.isDualRead(prefix)) {
+            throw new BusinessException("400", "Prefix " + prefix + " has already been migrated");
+        }
+        int size = chunkSize != null ? chunkSize : DEFAULT_CHUNK_SIZE;
+        if (size <= 0 || size > MAX_CHUNK_SIZE) {
+            throw new BusinessException("400", "Chunk size must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+        HotPrefixMigrationResult running = jobs.get(prefix);
+        if (running != null && (running.getState() == HotPrefixMigrationResult.State.PENDING
+                || running.getState() == HotPrefixMigrationResult.State.RUNNING)) {
+            throw new BusinessException("400", "Migration of prefix " + prefix + " is already running");
+        }
+
+        String prefixTable = LOGIC_TABLE + "_" + prefix;
+        for (String subTable : HotPrefixShardingRule.subTableNames(LOGIC_TABLE, prefix)) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + subTable + " LIKE " + prefixTable);
+        }
+
+        HotPrefixMigrationResult result = new HotPrefixMigrationResult();
+        result.setPrefix(prefix);
+        result.setSubTableCount(subTableCount);
+        result.setChunkSize(size);
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + prefixTable, Long.class);
+        result.setTotalCount(total != null ? total : 0L);
+        jobs.put(prefix, result);
+        executor.execute(() -> execute(result));
+        log.info("Hot prefix migration submitted: {} numbers of table [{}] into {} sub tables, chunk size {}",
+                result.getTotalCount(), prefixTable, subTableCount, size);
+        return result;
+    }
+
+    @Override
+    public HotPrefixMigrationResult getProgress(String prefix) {
+        return jobs.get(prefix);
+    }
+
+    /**
+     * 逐块搬迁直到原前缀表为空，失败时停止，已提交的分块保留
+     */
+    private void execute(HotPrefixMigrationResult result) {
+        result.setState(HotPrefixMigrationResult.State.RUNNING);
+        result.setStartTime(new Date());
+        String prefix = result.getPrefix();
+        try {
+            int moved;
+            do {
+                Integer count = chunkTransaction.execute(status -> migrateChunk(prefix, result.getChunkSize()));
+                moved = count != null ? count : 0;
+                if (moved > 0) {
+                    result.setMigratedCount(result.getMigratedCount() + moved);
+                    result.setProcessedChunks(result.getProcessedChunks() + 1);
+                    if (result.getProcessedChunks() % 50 == 0) {
+                        log.info("Hot prefix {} migration progress: {}/{} numbers", prefix,
+                                result.getMigratedCount(), result.getTotalCount());
+                    }
+                }
+            } while (moved > 0 && !Thread.currentThread().isInterrupted());
+
+            if (moved > 0) {
+                throw new IllegalStateException("Migration interrupted");
+            }
+            HotPrefixShardingRule.markMigrated(prefix);
+            result.setMessage(String.format("Migrated %d numbers in %d chunks; add %s to nsrs.sharding.hot-prefix.migrated-prefixes",
+                    result.getMigratedCount(), result.getProcessedChunks(), prefix));
+            result.setState(HotPrefixMigrationResult.State.COMPLETED);
+            log.info("Hot prefix {} migration completed, {} numbers migrated, routing to sub tables only", prefix,
+                    result.getMigratedCount());
+        } catch (Exception e) {
+            log.error("Hot prefix {} migration failed after {} chunks", prefix, result.getProcessedChunks(), e);
+            result.setMessage("Failed after " + result.getProcessedChunks() + " chunks: " + e.getMessage());
+            result.setState(HotPrefixMigrationResult.State.FAILED);
+        } finally {
+            result.setEndTime(new Date());
+        }
+    }
+
+    /**
+     * 搬迁一个分块，需在事务内执行
+     *
+     * @return 搬迁的号码数，0表示原前缀表已清空
+     */
+    private int migrateChunk(String prefix, int chunkSize) {
+        String prefixTable = LOGIC_TABLE + "_" + prefix;
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT * FROM " + prefixTable + " ORDER BY number_id LIMIT ? FOR UPDATE", chunkSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<Map<String, Object>>> rowsBySubTable = new LinkedHashMap<>();
+        List<Object> numberIds = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            String subTable = HotPrefixShardingRule.subTableName(LOGIC_TABLE, String.valueOf(row.get("number")));
+            rowsBySubTable.computeIfAbsent(subTable, key -> new ArrayList<>()).add(row);
+            numberIds.add(row.get("number_id"));
+        }
+
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String columnList = String.join(", ", columns);
+        String placeholders = String.join(", ", Collections.nCopies(columns.size(), "?"));
+        for (Map.Entry<String, List<Map<String, Object>>> entry : rowsBySubTable.entrySet()) {
+            List<Object[]> args = entry.getValue().stream()
+                    .map(row -> columns.stream().map(row::get).toArray())
+                    .collect(Collectors.toList());
+            jdbcTemplate.batchUpdate("INSERT INTO " + entry.getKey() + " (" + columnList + ") VALUES (" + placeholders + ")", args);
+        }
+
+        String idPlaceholders = String.join(", ", Collections.nCopies(numberIds.size(), "?"));
+        int deleted = jdbcTemplate.update("DELETE FROM " + prefixTable + " WHERE number_id IN (" + idPlaceholders + ")",
+                numberIds.toArray());
+        if (deleted != rows.size()) {
+            throw new IllegalStateException("Expected to delete " + rows.size() + " rows from " + prefixTable + " but deleted " + deleted);
+        }
+        return rows.size();
+    }
+}
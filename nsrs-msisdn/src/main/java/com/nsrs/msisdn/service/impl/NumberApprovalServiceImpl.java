@@ -1,9 +1,13 @@
 package com.nsrs.msisdn.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.nsrs.common.exception.BusinessException;
+import com.nsrs.framework.cache.EntityCacheManager;
+import com.nsrs.framework.cache.EntityCacheNames;
+import com.nsrs.msisdn.cache.IdleNumberBitmapIndex;
 import com.nsrs.msisdn.entity.NumberApproval;
 import com.nsrs.msisdn.entity.NumberResource;
 import com.nsrs.msisdn.mapper.NumberApprovalMapper;
@@ -28,6 +32,12 @@ public class NumberApprovalServiceImpl extends ServiceImpl<NumberApprovalMapper,
     @Autowired
     private NumberResourceMapper numberResourceMapper;
 
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
+    @Autowired
+    private IdleNumberBitmapIndex idleNumberIndex;
+
     @Override
     public Page<NumberApproval> pageList(Page<NumberApproval> page, String number, String approvalNo, 
                                        String applicantName, Long levelId, Integer status) {
@@ -110,7 +120,8 @@ public class NumberApprovalServiceImpl extends ServiceImpl<NumberApprovalMapper,
             // 更新号码状态为已锁定
             resource.setStatus(7); // 已锁定
             resource.setUpdateTime(new Date());
-            numberResourceMapper.updateById(resource);
+            updateNumberResource(resource);
+            entityCacheManager.getCache(EntityCacheNames.NUMBER_RESOURCE, NumberResource.class).evict(resource.getNumber());
             
             return approval.getApprovalId();
         } else {
@@ -155,7 +166,8 @@ public class NumberApprovalServiceImpl extends ServiceImpl<NumberApprovalMapper,
             if (resource != null) {
                 resource.setStatus(3); // 已分配
                 resource.setUpdateTime(new Date());
-                numberResourceMapper.updateById(resource);
+                updateNumberResource(resource);
+                entityCacheManager.getCache(EntityCacheNames.NUMBER_RESOURCE, NumberResource.class).evict(resource.getNumber());
             }
             
             return true;
@@ -202,7 +214,8 @@ public class NumberApprovalServiceImpl extends ServiceImpl<NumberApprovalMapper,
             if (resource != null) {
                 resource.setStatus(1); // 空闲
                 resource.setUpdateTime(new Date());
-                numberResourceMapper.updateById(resource);
+                updateNumberResource(resource);
+                entityCacheManager.getCache(EntityCacheNames.NUMBER_RESOURCE, NumberResource.class).evict(resource.getNumber());
             }
             
             return true;
@@ -245,7 +258,8 @@ public class NumberApprovalServiceImpl extends ServiceImpl<NumberApprovalMapper,
             if (resource != null) {
                 resource.setStatus(1); // 空闲
                 resource.setUpdateTime(new Date());
-                numberResourceMapper.updateById(resource);
+                updateNumberResource(resource);
+                entityCacheManager.getCache(EntityCacheNames.NUMBER_RESOURCE, NumberResource.class).evict(resource.getNumber());
             }
             
             return true;
@@ -287,4 +301,15 @@ public class NumberApprovalServiceImpl extends ServiceImpl<NumberApprovalMapper,
         
         return prefix + date + random;
     }
-}
\ No newline at end of file
+
+    /**
+     * 按ID更新号码，审批流程改变号码状态时同时清除原状态的到期时间，并同步空闲号码位图
+     */
+    private void updateNumberResource(NumberResource resource) {
+        resource.setExpireTime(null);
+        numberResourceMapper.update(resource, new LambdaUpdateWrapper<NumberResource>()
+                .eq(NumberResource::getNumberId, resource.getNumberId())
+                .set(NumberResource::getExpireTime, null));
+        idleNumberIndex.record(resource.getSegmentId(), resource.getNumber(), resource.getStatus());
+    }
+}
@@ -0,0 +1,197 @@
+package com.nsrs.msisdn.service.impl;
+
+import com.nsrs.common.exception.BusinessException;
+import com.nsrs.common.utils.ShardingBatchUpdateUtils;
+import com.nsrs.msisdn.dto.NumberRangeOperationRequest;
+import com.nsrs.msisdn.dto.NumberRangeOperationResult;
+import com.nsrs.msisdn.service.NumberRangeOperationService;
+import com.nsrs.msisdn.service.NumberResourceService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 号码区间批量操作服务实现类
+ * 任务在本节点单线程顺序执行，进度保存在内存中，只保留最近的任务
+ */
+@Slf4j
+@Service
+public class NumberRangeOperationServiceImpl implements NumberRangeOperationService {
+
+    private static final int DEFAULT_CHUNK_SIZE = 2000;
+
+    private static final int MAX_CHUNK_SIZE = 10000;
+
+    /**
+     * 单个任务最大号码区间
+     */
+    private static final long MAX_RANGE_SIZE = 10_000_000L;
+
+    private static final int MAX_NUMBER_LENGTH = 18;
+
+    private static final int MAX_RETAINED_JOBS = 100;
+
+    @Autowired
+    private NumberResourceService numberResourceService;
+
+    private final Map<String, NumberRangeOperationResult> jobs = Collections.synchronizedMap(
+            new LinkedHashMap<String, NumberRangeOperationResult>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, NumberRangeOperationResult> eldest) {
+                    return size() > MAX_RETAINED_JOBS;
+                }
+            });
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "number-range-operation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public NumberRangeOperationResult submit(NumberRangeOperationRequest request) {
+        String startNumber = request.getStartNumber();
+        String endNumber = request.getEndNumber();
+        if (!StringUtils.isNumeric(startNumber) || !StringUtils.isNumeric(endNumber)
+                || startNumber.length() != endNumber.length() || startNumber.length() > MAX_NUMBER_LENGTH) {
+            throw new BusinessException("400", "Start and end number must be numeric with the same length");
+        }
+        long start = Long.parseLong(startNumber);
+        long end = Long.parseLong(endNumber);
+        if (start > end) {
+            throw new BusinessException("400", "Start number cannot be greater than end number");
+        }
+        if (end - start + 1 > MAX_RANGE_SIZE) {
+            throw new BusinessException("400", "Range is too large, maximum is " + MAX_RANGE_SIZE + " numbers");
+        }
+        if (request.getOperationType() == null && request.getLevelId() == null && request.getHlrId() == null
+                && StringUtils.isBlank(request.getAttributiveOrg())) {
+            throw new BusinessException("400", "Operation type or at least one attribute must be specified");
+        }
+        int chunkSize = request.getChunkSize() != null ? request.getChunkSize() : DEFAULT_CHUNK_SIZE;
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new BusinessException("400", "Chunk size must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+
+        List<long[]> shardRanges = splitByPrefix(start, end, startNumber.length());
+        if (shardRanges.isEmpty()) {
+            throw new BusinessException("400", "Range does not contain any supported number prefix");
+        }
+
+        NumberRangeOperationResult result = new NumberRangeOperationResult();
+        result.setStartNumber(startNumber);
+        result.setEndNumber(endNumber);
+        result.setOperationType(request.getOperationType());
+        result.setDryRun(request.isDryRun());
+        int length = startNumber.length();
+        long matched = 0;
+        int totalChunks = 0;
+        for (long[] range : shardRanges) {
+            matched += numberResourceService.countRange(format(range[0], length), format(range[1], length),
+                    request.getOperationType());
+            totalChunks += (int) ((range[1] - range[0]) / chunkSize + 1);
+        }
+        result.setMatchedCount(matched);
+        result.setTotalChunks(totalChunks);
+
+        if (request.isDryRun()) {
+            result.setState(NumberRangeOperationResult.State.COMPLETED);
+            result.setMessage(String.format("Dry run: %d numbers would be affected in %d chunks", matched, totalChunks));
+            return result;
+        }
+
+        result.setJobId(UUID.randomUUID().toString().replace("-", ""));
+        jobs.put(result.getJobId(), result);
+        executor.execute(() -> execute(result, request, shardRanges, chunkSize));
+        log.info("Range operation {} submitted: [{}, {}], operationType={}, {} matched numbers in {} chunks",
+                result.getJobId(), startNumber, endNumber, request.getOperationType(), matched, totalChunks);
+        return result;
+    }
+
+    @Override
+    public NumberRangeOperationResult getProgress(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * 逐个分块执行，每个分块独立提交，失败时停止后续分块
+     */
+    private void execute(NumberRangeOperationResult result, NumberRangeOperationRequest request,
+                         List<long[]> shardRanges, int chunkSize) {
+        result.setState(NumberRangeOperationResult.State.RUNNING);
+        result.setStartTime(new Date());
+        int length = request.getStartNumber().length();
+        try {
+            for (long[] range : shardRanges) {
+                for (long chunkStart = range[0]; chunkStart <= range[1]; chunkStart += chunkSize) {
+                    String from = format(chunkStart, length);
+                    String to = format(Math.min(chunkStart + chunkSize - 1, range[1]), length);
+                    int updated = request.getOperationType() != null
+                            ? numberResourceService.transitionRange(from, to, request.getOperationType(),
+                                    request.getAttributiveOrg(), request.getRemark())
+                            : numberResourceService.updateRangeAttributes(from, to, request.getLevelId(),
+                                    request.getHlrId(), request.getAttributiveOrg(), request.getRemark());
+                    result.setUpdatedCount(result.getUpdatedCount() + updated);
+                    result.setProcessedChunks(result.getProcessedChunks() + 1);
+                }
+                log.info("Range operation {} progress: {}/{} chunks, {} numbers updated", result.getJobId(),
+                        result.getProcessedChunks(), result.getTotalChunks(), result.getUpdatedCount());
+            }
+            result.setMessage(String.format("Updated %d numbers in %d chunks", result.getUpdatedCount(), result.getProcessedChunks()));
+            result.setState(NumberRangeOperationResult.State.COMPLETED);
+        } catch (Exception e) {
+            log.error("Range operation {} failed after {} chunks", result.getJobId(), result.getProcessedChunks(), e);
+            result.setMessage("Failed after " + result.getProcessedChunks() + " chunks: " + e.getMessage());
+            result.setState(NumberRangeOperationResult.State.FAILED);
+        } finally {
+            result.setEndTime(new Date());
+        }
+    }
+
+    /**
+     * 按前缀切分号码区间，跳过不受支持的前缀
+     *
+     * @return 每个元素为同一前缀内的 [起始, 结束]
+     */
+    private static List<long[]> splitByPrefix(long start, long end, int length) {
+        List<long[]> ranges = new ArrayList<>();
+        long prefixBlock = (long) Math.pow(10, Math.max(length - 3, 0));
+        long current = start;
+        while (current <= end) {
+            long blockEnd = Math.min((current / prefixBlock + 1) * prefixBlock - 1, end);
+            String prefix = format(current, length).substring(0, Math.min(3, length));
+            if (ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES.contains(prefix)) {
+                ranges.add(new long[]{current, blockEnd});
+            }
+            current = blockEnd + 1;
+        }
+        return ranges;
+    }
+
+    private static String format(long number, int length) {
+        return StringUtils.leftPad(Long.toString(number), length, '0');
+    }
+}
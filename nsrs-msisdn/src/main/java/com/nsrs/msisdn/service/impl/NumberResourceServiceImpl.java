@@ -5,13 +5,20 @@ import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.nsrs.common.core.domain.PageResult;
 import com.nsrs.common.exception.BusinessException;
+import com.nsrs.msisdn.convert.NumberResourceConvert;
+import com.nsrs.msisdn.cache.IdleNumberBitmapIndex;
+import com.nsrs.msisdn.config.NumberExpiryProperties;
 import com.nsrs.msisdn.dto.NumberResourceDTO;
+import com.nsrs.msisdn.dto.NumberTransitionResult;
 import com.nsrs.msisdn.entity.HlrSwitch;
 import com.nsrs.msisdn.entity.NumberLevel;
+import com.nsrs.msisdn.entity.NumberOperationLog;
 import com.nsrs.msisdn.entity.NumberPattern;
 import com.nsrs.msisdn.entity.NumberResource;
 import com.nsrs.msisdn.entity.NumberSegment;
+import com.nsrs.msisdn.enums.NumberStatusTransitionEnum;
 import com.nsrs.msisdn.mapper.HlrSwitchMapper;
 import com.nsrs.msisdn.mapper.NumberLevelMapper;
 import com.nsrs.msisdn.mapper.NumberPatternMapper;
@@ -24,13 +31,16 @@ import com.nsrs.msisdn.service.NumberSegmentService;
 import com.nsrs.msisdn.vo.NumberResourceVO;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.BeanUtils;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -38,7 +48,17 @@ import com.nsrs.common.enums.NumberStatusEnum;
 import com.nsrs.common.enums.OperationTypeEnum;
 import com.nsrs.common.enums.ResultStatusEnum;
 import com.nsrs.common.enums.BatchOperationTypeEnum;
+import com.nsrs.common.enums.CountModeEnum;
+import com.nsrs.common.utils.HotPrefixShardingRule;
+import com.nsrs.common.utils.KeysetPageHelper;
 import com.nsrs.common.utils.SequenceService;
+import com.nsrs.common.utils.ShardedBatchUpdateExecutor;
+import com.nsrs.common.utils.ShardedBatchUpdateResult;
+import com.nsrs.common.utils.ShardingIdUtils;
+import com.nsrs.common.utils.ShardingBatchUpdateUtils;
+import com.nsrs.framework.cache.EntityCache;
+import com.nsrs.framework.cache.EntityCacheManager;
+import com.nsrs.framework.cache.EntityCacheNames;
 
 /**
  * 号码资源服务实现类
@@ -47,7 +67,30 @@ import com.nsrs.common.utils.SequenceService;
 @Service
 public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper, NumberResource> implements NumberResourceService {
 
+    /**
+     * 批量状态流转单次最大号码数
+     */
+    private static final int MAX_TRANSITION_BATCH_SIZE = 50000;
+
+    /**
+     * 批量状态流转每条UPDATE语句的号码数
+     */
+    private static final int TRANSITION_CHUNK_SIZE = 2000;
+
+    /**
+     * 批量状态流转成功数超过该值时整体清空号码缓存
+     */
+    private static final int TRANSITION_EVICT_THRESHOLD = 1000;
+
+    /**
+     * 单次选取空闲号码的最大数量
+     */
+    private static final int MAX_IDLE_SELECT_COUNT = 1000;
 
+    /**
+     * 位图选号时与数据库核对并补足的最大轮数
+     */
+    private static final int IDLE_SELECT_MAX_ROUNDS = 3;
     
     @Autowired
     private SequenceService sequenceService;
@@ -70,6 +113,18 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
     @Autowired
     private NumberSegmentService segmentService;
 
+    @Autowired
+    private IdleNumberBitmapIndex idleNumberIndex;
+
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
+    @Autowired
+    private ShardedBatchUpdateExecutor shardedBatchUpdateExecutor;
+
+    @Autowired
+    private NumberExpiryProperties expiryProperties;
+
     @Override
     public IPage<NumberResourceVO> pageQuery(IPage<NumberResource> page, NumberResourceDTO dto) {
         // 构建查询条件，ShardingSphere会自动处理分表路由
@@ -88,12 +143,8 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             throw new BusinessException("400", "Number cannot be empty");
         }
         
-        // 构建查询条件
-        LambdaQueryWrapper<NumberResource> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(NumberResource::getNumber, number);
-        
-        // 查询号码
-        NumberResource resource = this.getOne(queryWrapper);
+        // 查询号码（两级缓存，未命中时查库）
+        NumberResource resource = numberCache().get(number, this::getBasicNumberResource);
         if (resource == null) {
             return null;
         }
@@ -102,6 +153,20 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         return convertToVO(resource);
     }
     
+    /**
+     * 号码资源缓存（按号码）
+     */
+    private EntityCache<NumberResource> numberCache() {
+        return entityCacheManager.getCache(EntityCacheNames.NUMBER_RESOURCE, NumberResource.class);
+    }
+
+    /**
+     * 号码写入后失效缓存，事务中会在提交后再次失效
+     */
+    private void evictNumberCache(String number) {
+        numberCache().evict(number);
+    }
+    
     /**
      * 判断号码是否存在
      * @param number 号码
@@ -116,7 +181,8 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         queryWrapper.eq(NumberResource::getNumber, number);
         queryWrapper.select(NumberResource::getNumberId); // 只查询ID字段，提高性能
         
-        return this.getOne(queryWrapper) != null;
+        // 热点前缀迁移期间双读，搬迁提交瞬间可能读到两行
+        return this.getOne(queryWrapper, false) != null;
     }
 
     /**
@@ -132,7 +198,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         LambdaQueryWrapper<NumberResource> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(NumberResource::getNumber, number);
         
-        return this.getOne(queryWrapper);
+        return this.getOne(queryWrapper, false);
     }
 
     @Override
@@ -148,10 +214,9 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         }
         
         // 转换DTO为实体
-        NumberResource resource = new NumberResource();
-        BeanUtils.copyProperties(dto, resource);
+        NumberResource resource = NumberResourceConvert.INSTANCE.toEntity(dto);
         // 设置全局序列ID
-        resource.setNumberId(sequenceService.getNextNumberResourceId());
+        resource.setNumberId(sequenceService.getNextNumberResourceId(resource.getNumber()));
         resource.setCreateTime(new Date());
         resource.setUpdateTime(new Date());
         
@@ -160,9 +225,19 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             resource.setStatus(NumberStatusEnum.IDLE.getCode());
         }
         
-        boolean result = this.save(resource);
+        // 未指定号段时按号码区间归属
+        if (resource.getSegmentId() == null) {
+            NumberSegment segment = segmentService.getByNumber(resource.getNumber());
+            if (segment != null) {
+                resource.setSegmentId(segment.getSegmentId());
+            }
+        }
+        
+        // 热点前缀迁移期间新号码只写入子表
+        boolean result = HotPrefixShardingRule.routeWritesToSubTables(() -> this.save(resource));
         
         if (result) {
+            evictNumberCache(resource.getNumber());
             // 记录操作日志
             operationLogService.recordLog(
                 resource.getNumberId(),
@@ -181,6 +256,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             // 更新号段库存统计
             if (resource.getSegmentId() != null) {
                 segmentService.incrementalUpdateStatistics(resource.getSegmentId(), null, resource.getStatus());
+                idleNumberIndex.record(resource.getSegmentId(), resource.getNumber(), resource.getStatus());
             }
         }
         
@@ -194,24 +270,27 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             throw new BusinessException("400", "Number cannot be empty");
         }
         
-        // 根据号码查询现有资源
-        NumberResourceVO existingVO = getByNumber(number);
+        // 根据号码查询现有资源（写路径直接查库，不使用缓存）
+        NumberResource existingVO = getBasicNumberResource(number);
         if (existingVO == null) {
             throw new BusinessException("404", "Number does not exist");
         }
         
-        // 构建查询条件
-        LambdaQueryWrapper<NumberResource> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(NumberResource::getNumber, number);
+        // 构建更新条件，状态变化时清除原状态的到期时间
+        boolean statusChanged = dto.getStatus() != null && !dto.getStatus().equals(existingVO.getStatus());
+        LambdaUpdateWrapper<NumberResource> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(NumberResource::getNumber, number)
+                    .set(statusChanged, NumberResource::getExpireTime, null);
         
         // 创建更新实体
         NumberResource updateResource = new NumberResource();
-        BeanUtils.copyProperties(dto, updateResource, "numberId", "number", "createTime");
+        NumberResourceConvert.INSTANCE.updateEntity(dto, updateResource);
         updateResource.setUpdateTime(new Date());
         
-        boolean result = this.update(updateResource, queryWrapper);
+        boolean result = this.update(updateResource, updateWrapper);
         
         if (result) {
+            evictNumberCache(number);
             // 记录操作日志
             operationLogService.recordLog(
                 existingVO.getNumberId(),
@@ -230,6 +309,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             // 如果状态发生变化，更新号段库存统计
             if (dto.getStatus() != null && !dto.getStatus().equals(existingVO.getStatus()) && existingVO.getSegmentId() != null) {
                 segmentService.incrementalUpdateStatistics(existingVO.getSegmentId(), existingVO.getStatus(), dto.getStatus());
+                idleNumberIndex.record(existingVO.getSegmentId(), existingVO.getNumber(), dto.getStatus());
             }
         }
         
@@ -261,6 +341,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         boolean result = this.remove(queryWrapper);
         
         if (result) {
+            evictNumberCache(number);
             // 记录操作日志
             operationLogService.recordLog(
                 resource.getNumberId(),
@@ -279,6 +360,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             // 更新号段库存统计
             if (resource.getSegmentId() != null) {
                 segmentService.incrementalUpdateStatistics(resource.getSegmentId(), resource.getStatus(), null);
+                idleNumberIndex.record(resource.getSegmentId(), resource.getNumber(), null);
             }
         }
         return result;
@@ -298,7 +380,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         // 先获取原有状态
         LambdaQueryWrapper<NumberResource> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(NumberResource::getNumber, number);
-        NumberResource existingResource = this.getOne(queryWrapper);
+        NumberResource existingResource = this.getOne(queryWrapper, false);
         
         if (existingResource == null) {
             throw new BusinessException("404", "Number does not exist");
@@ -306,14 +388,17 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         
         Integer oldStatus = existingResource.getStatus();
         
-        // 更新状态
-        NumberResource resource = new NumberResource();
-        resource.setStatus(status);
-        resource.setUpdateTime(new Date());
+        // 更新状态，同时清除原状态的到期时间
+        LambdaUpdateWrapper<NumberResource> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(NumberResource::getNumber, number)
+                    .set(NumberResource::getStatus, status)
+                    .set(NumberResource::getExpireTime, null)
+                    .set(NumberResource::getUpdateTime, new Date());
         
-        boolean result = this.update(resource, queryWrapper);
+        boolean result = this.update(updateWrapper);
         
         if (result) {
+            evictNumberCache(number);
             // Record operation log
             operationLogService.recordLog(existingResource.getNumberId(), existingResource.getNumber(), 
                 existingResource.getNumberType(), BatchOperationTypeEnum.MODIFY.getCode(), oldStatus, status, null, null, existingResource.getAttributiveOrg(), ResultStatusEnum.SUCCESS.getCode(), 
@@ -321,6 +406,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             
             // Update segment statistics incrementally
             segmentService.incrementalUpdateStatistics(existingResource.getSegmentId(), oldStatus, status);
+            idleNumberIndex.record(existingResource.getSegmentId(), existingResource.getNumber(), status);
         }
         
         return result;
@@ -347,26 +433,36 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             return false;
         }
         
+        // 执行批量更新（按号码所在分表分组，每个分表一条多行UPDATE），同时清除原状态的到期时间
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("status", status);
+        values.put("expire_time", null);
+        values.put("update_time", new Date());
+        ShardedBatchUpdateResult batchResult = shardedBatchUpdateExecutor.execute("number_resource", "number",
+                existingResources, NumberResource::getNumber, existing -> values);
+        existingResources.forEach(existing -> evictNumberCache(existing.getNumber()));
+        if (!batchResult.isAllUpdated()) {
+            // 部分号码未更新时整批回滚，日志、位图与号段统计均不记录
+            log.warn("Batch status update incomplete, not found: {}, failed: {}",
+                    batchResult.getKeys(ShardedBatchUpdateResult.RowStatus.NOT_FOUND),
+                    batchResult.getKeys(ShardedBatchUpdateResult.RowStatus.FAILED));
+            throw new BusinessException("Batch status update incomplete, "
+                    + (batchResult.getNotFoundCount() + batchResult.getFailedCount()) + " numbers not updated");
+        }
+        
         // 收集号段统计变更信息
         Map<Long, Map<Integer, Integer>> segmentStatusChanges = new HashMap<>();
         
-        // 批量更新状态
-        List<NumberResource> updateList = new ArrayList<>();
         for (NumberResource existingResource : existingResources) {
             Integer oldStatus = existingResource.getStatus();
             
-            // 创建更新对象
-            NumberResource updateResource = new NumberResource();
-            updateResource.setNumberId(existingResource.getNumberId());
-            updateResource.setStatus(status);
-            updateResource.setUpdateTime(new Date());
-            updateList.add(updateResource);
-            
             // 记录操作日志
             operationLogService.recordLog(existingResource.getNumberId(), existingResource.getNumber(), 
                 existingResource.getNumberType(), BatchOperationTypeEnum.MODIFY.getCode(), oldStatus, status, null, null, existingResource.getAttributiveOrg(), ResultStatusEnum.SUCCESS.getCode(), 
                 "Batch status updated from " + oldStatus + " to " + status);
             
+            idleNumberIndex.record(existingResource.getSegmentId(), existingResource.getNumber(), status);
+            
             // 收集号段统计变更
             if (existingResource.getSegmentId() != null && !oldStatus.equals(status)) {
                 segmentStatusChanges.computeIfAbsent(existingResource.getSegmentId(), k -> new HashMap<>());
@@ -379,17 +475,12 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             }
         }
         
-        // 执行批量更新
-        boolean result = this.updateBatchById(updateList);
-        
-        if (result) {
-            // 批量更新号段统计
-            for (Map.Entry<Long, Map<Integer, Integer>> entry : segmentStatusChanges.entrySet()) {
-                segmentService.batchIncrementalUpdateStatistics(entry.getKey(), entry.getValue());
-            }
+        // 批量更新号段统计
+        for (Map.Entry<Long, Map<Integer, Integer>> entry : segmentStatusChanges.entrySet()) {
+            segmentService.batchIncrementalUpdateStatistics(entry.getKey(), entry.getValue());
         }
         
-        return result;
+        return true;
     }
 
     @Override
@@ -416,6 +507,118 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         return convertToVOPage(result);
     }
 
+    @Override
+    public PageResult<NumberResourceVO> pageQuery(NumberResourceDTO dto, boolean prefixQuery, long current, long size, CountModeEnum countMode) {
+        LambdaQueryWrapper<NumberResource> queryWrapper = prefixQuery ? buildPrefixQueryWrapper(dto) : buildQueryWrapper(dto);
+
+        if (countMode == CountModeEnum.EXACT) {
+            IPage<NumberResource> page = this.page(new Page<>(current, size), queryWrapper);
+            return PageResult.of(toVOList(page.getRecords()), page.getTotal(), current, size, CountModeEnum.EXACT);
+        }
+
+        if (countMode == CountModeEnum.APPROXIMATE) {
+            Long estimatedTotal = estimateTotal(dto);
+            if (estimatedTotal != null) {
+                IPage<NumberResource> page = this.page(new Page<>(current, size, false), queryWrapper);
+                return PageResult.of(toVOList(page.getRecords()), estimatedTotal, current, size, CountModeEnum.APPROXIMATE);
+            }
+        }
+
+        // 不统计总数，多取一条判断是否有下一页
+        queryWrapper.last(PageResult.lookaheadLimit(current, size));
+        PageResult<NumberResource> lookahead = PageResult.ofHasNext(this.list(queryWrapper), current, size);
+        return lookahead.withList(toVOList(lookahead.getList()));
+    }
+
+    /**
+     * 基于号段计数器估算总数，存在号段计数器无法覆盖的条件时返回null
+     */
+    private Long estimateTotal(NumberResourceDTO dto) {
+        if (dto.getNumberType() != null || dto.getLevelId() != null || dto.getPatternId() != null
+                || dto.getHlrId() != null || StringUtils.isNotBlank(dto.getAttributiveOrg())) {
+            return null;
+        }
+        if (StringUtils.isNotBlank(dto.getNumber()) && dto.getNumber().length() >= 11) {
+            return null;
+        }
+        Function<NumberSegment, Long> counter = segmentCounter(dto.getStatus());
+        if (counter == null) {
+            return null;
+        }
+
+        LambdaQueryWrapper<NumberSegment> segmentWrapper = new LambdaQueryWrapper<>();
+        if (dto.getSegmentId() != null) {
+            segmentWrapper.eq(NumberSegment::getSegmentId, dto.getSegmentId());
+        }
+        if (StringUtils.isNotBlank(dto.getNumber())) {
+            segmentWrapper.likeRight(NumberSegment::getStartNumber, dto.getNumber());
+        }
+        return segmentMapper.selectList(segmentWrapper).stream()
+                .map(counter)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    /**
+     * 状态对应的号段计数字段，号段未单独统计的状态返回null
+     */
+    private Function<NumberSegment, Long> segmentCounter(Integer status) {
+        if (status == null) {
+            return NumberSegment::getTotalQty;
+        } else if (NumberStatusEnum.IDLE.getCode().equals(status)) {
+            return NumberSegment::getIdleQty;
+        } else if (NumberStatusEnum.RESERVED.getCode().equals(status)) {
+            return NumberSegment::getReservedQty;
+        } else if (NumberStatusEnum.ACTIVATED.getCode().equals(status)) {
+            return NumberSegment::getActivatedQty;
+        } else if (NumberStatusEnum.FROZEN.getCode().equals(status)) {
+            return NumberSegment::getFrozenQty;
+        } else if (NumberStatusEnum.LOCKED.getCode().equals(status)) {
+            return NumberSegment::getBlockedQty;
+        }
+        return null;
+    }
+
+    @Override
+    public PageResult<NumberResourceVO> cursorQuery(NumberResourceDTO dto, String cursor, long size) {
+        PageResult<NumberResource> merged = KeysetPageHelper.query(resolveQueryShards(dto), cursor, size,
+                (shard, after, limit) -> {
+                    // 通过前缀范围条件将查询路由到单个分表
+                    LambdaQueryWrapper<NumberResource> queryWrapper = buildQueryWrapper(dto);
+                    queryWrapper.between(NumberResource::getNumber, shard + "00000000", shard + "99999999");
+                    if (after != null) {
+                        Date afterTime = new Date(after.getCreateTime());
+                        queryWrapper.and(w -> w.lt(NumberResource::getCreateTime, afterTime)
+                                .or(o -> o.eq(NumberResource::getCreateTime, afterTime)
+                                        .lt(NumberResource::getNumberId, after.getId())));
+                    }
+                    queryWrapper.orderByDesc(NumberResource::getNumberId);
+                    return this.page(new Page<>(1, limit, false), queryWrapper).getRecords();
+                },
+                NumberResource::getCreateTime, NumberResource::getNumberId);
+
+        return merged.withList(toVOList(merged.getList()));
+    }
+
+    /**
+     * 根据号码条件确定需要查询的分表前缀
+     */
+    private List<String> resolveQueryShards(NumberResourceDTO dto) {
+        String number = dto != null ? dto.getNumber() : null;
+        if (StringUtils.isBlank(number)) {
+            return ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES;
+        }
+        if (number.length() >= 3) {
+            String prefix = number.substring(0, 3);
+            return ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES.contains(prefix)
+                    ? Collections.singletonList(prefix) : Collections.emptyList();
+        }
+        return ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES.stream()
+                .filter(prefix -> prefix.startsWith(number))
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean createTable(String prefix) {
@@ -441,13 +644,19 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             throw new BusinessException("404", "Number does not exist");
         }
         
-        // 检查号码段是否存在
+        // 检查号码段是否存在，未关联时按号码区间归属
+        NumberSegment segment;
+        boolean segmentAttached = false;
         if (resource.getSegmentId() == null) {
-            throw new BusinessException("400", "Number is not associated with a segment");
+            segment = segmentService.getByNumber(number);
+            if (segment == null) {
+                throw new BusinessException("400", "Number is not associated with a segment");
+            }
+            resource.setSegmentId(segment.getSegmentId());
+            segmentAttached = true;
+        } else {
+            segment = segmentMapper.selectById(resource.getSegmentId());
         }
-        
-        // 获取号码段信息
-        NumberSegment segment = segmentMapper.selectById(resource.getSegmentId());
         if (segment == null) {
             throw new BusinessException("404", "Number segment does not exist");
         }
@@ -464,7 +673,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         }
         
         // 自动关联号码级别和模式
-        boolean updated = false;
+        boolean updated = segmentAttached;
         
         // 如果号码模式为空，根据号码特征查找匹配的模式
         if (resource.getPatternId() == null) {
@@ -492,7 +701,15 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         // 更新号码资源
         if (updated) {
             resource.setUpdateTime(new Date());
-            return this.updateById(resource);
+            boolean result = this.updateById(resource);
+            if (result) {
+                evictNumberCache(number);
+                if (segmentAttached) {
+                    segmentService.incrementalUpdateStatistics(segment.getSegmentId(), null, resource.getStatus());
+                    idleNumberIndex.record(segment.getSegmentId(), resource.getNumber(), resource.getStatus());
+                }
+            }
+            return result;
         }
         
         return true;
@@ -542,6 +759,11 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             throw new BusinessException("400", "Operation type cannot be empty");
         }
         
+        // 状态流转类操作按分表批量执行
+        if (NumberStatusTransitionEnum.getByOperationType(operationType) != null) {
+            return batchTransition(numbers, operationType, "Batch Assignment", remark).getSuccessCount();
+        }
+        
         int successCount = 0;
         Set<Long> affectedSegmentIds = new HashSet<>();
         
@@ -601,6 +823,371 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         return successCount;
     }
 
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public NumberTransitionResult batchTransition(List<String> numbers, Integer operationType, String attributiveOrg, String remark) {
+        if (numbers == null || numbers.isEmpty()) {
+            throw new BusinessException("400", "Number list cannot be empty");
+        }
+        if (numbers.size() > MAX_TRANSITION_BATCH_SIZE) {
+            throw new BusinessException("400", "Too many numbers in one batch, maximum is " + MAX_TRANSITION_BATCH_SIZE);
+        }
+        NumberStatusTransitionEnum transition = resolveTransition(operationType);
+        String targetOrg = transition == NumberStatusTransitionEnum.ASSIGN ? attributiveOrg : null;
+        return doBatchTransition(numbers, transition, targetOrg, remark, null);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public NumberTransitionResult expireNumbers(List<String> numbers, NumberStatusTransitionEnum transition, Date expiredBefore) {
+        if (numbers == null || numbers.isEmpty()) {
+            return new NumberTransitionResult();
+        }
+        if (transition == null || expiredBefore == null) {
+            throw new BusinessException("400", "Expiry transition and time cannot be empty");
+        }
+        return doBatchTransition(numbers, transition, null, "Status expired", expiredBefore);
+    }
+
+    @Override
+    public List<NumberResource> listExpiring(String prefix, NumberStatusTransitionEnum transition, Date before, int limit) {
+        if (!ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES.contains(prefix)) {
+            throw new BusinessException("400", "Unsupported number prefix: " + prefix);
+        }
+        // 前缀范围条件将查询路由到单个分表，按 (status, expire_time) 索引扫描
+        LambdaQueryWrapper<NumberResource> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(NumberResource::getNumberId, NumberResource::getNumber, NumberResource::getStatus,
+                        NumberResource::getExpireTime)
+                .between(NumberResource::getNumber, prefix + "00000000", prefix + "99999999")
+                .in(NumberResource::getStatus, transition.getAllowedStatuses())
+                .isNotNull(NumberResource::getExpireTime)
+                .le(NumberResource::getExpireTime, before)
+                .orderByAsc(NumberResource::getExpireTime)
+                // 不经过分页插件，避免被其单页上限截断
+                .last("LIMIT " + Math.max(limit, 1));
+        return this.list(queryWrapper);
+    }
+
+    /**
+     * 批量状态流转
+     *
+     * @param expiredBefore 不为空时为到期流转，只处理到期时间不晚于该时间的号码
+     */
+    private NumberTransitionResult doBatchTransition(List<String> numbers, NumberStatusTransitionEnum transition,
+                                                     String attributiveOrg, String remark, Date expiredBefore) {
+        NumberTransitionResult result = new NumberTransitionResult();
+        result.setOperationType(transition.getOperationType().getCode());
+        result.setTargetStatus(transition.getTargetStatus().getCode());
+        Date expireTime = resolveExpireTime(transition);
+
+        // 去重后按前缀分表分组，保持请求顺序
+        Map<String, List<String>> shardGroups = new LinkedHashMap<>();
+        for (String number : new LinkedHashSet<>(numbers)) {
+            String prefix = number != null && number.length() >= 3 ? number.substring(0, 3) : null;
+            if (prefix == null || !ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES.contains(prefix)) {
+                result.record(number, NumberTransitionResult.Outcome.INVALID, null);
+                continue;
+            }
+            result.getOutcomes().put(number, null);
+            shardGroups.computeIfAbsent(prefix, k -> new ArrayList<>()).add(number);
+        }
+
+        long startTime = System.currentTimeMillis();
+        Map<Long, Map<Integer, Integer>> segmentStatusChanges = new HashMap<>();
+        List<NumberOperationLog> operationLogs = new ArrayList<>();
+        List<String> succeeded = new ArrayList<>();
+        for (Map.Entry<String, List<String>> group : shardGroups.entrySet()) {
+            List<String> shardNumbers = group.getValue();
+            for (int from = 0; from < shardNumbers.size(); from += TRANSITION_CHUNK_SIZE) {
+                List<String> chunk = shardNumbers.subList(from, Math.min(from + TRANSITION_CHUNK_SIZE, shardNumbers.size()));
+                transitionChunk(chunk, transition, attributiveOrg, remark, expireTime, expiredBefore,
+                        result, segmentStatusChanges, operationLogs, succeeded);
+            }
+        }
+
+        if (!operationLogs.isEmpty()) {
+            operationLogService.saveBatch(operationLogs);
+        }
+        for (Map.Entry<Long, Map<Integer, Integer>> entry : segmentStatusChanges.entrySet()) {
+            segmentService.batchIncrementalUpdateStatistics(entry.getKey(), entry.getValue());
+        }
+        if (succeeded.size() > TRANSITION_EVICT_THRESHOLD) {
+            // 大批量时整体清空缓存，避免逐个广播失效消息
+            numberCache().clear();
+        } else {
+            succeeded.forEach(this::evictNumberCache);
+        }
+
+        result.setTotal(result.getOutcomes().size());
+        log.info("Batch number transition {} completed: {} succeeded, {} failed across {} tables in {}ms",
+                transition, result.getSuccessCount(), result.getFailedCount(), shardGroups.size(),
+                System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * 在单个分表内执行一个分块的状态流转
+     * 先读取当前状态，按源状态分组后各执行一条条件UPDATE；影响行数与预期一致时分组内全部成功，
+     * 否则重新读取确认每个号码的结果
+     */
+    private void transitionChunk(List<String> chunk, NumberStatusTransitionEnum transition, String attributiveOrg, String remark,
+                                 Date expireTime, Date expiredBefore, NumberTransitionResult result, Map<Long, Map<Integer, Integer>> segmentStatusChanges,
+                                 List<NumberOperationLog> operationLogs, List<String> succeeded) {
+        Map<String, NumberResource> existing = baseMapper.selectByNumbers(chunk).stream()
+                .collect(Collectors.toMap(NumberResource::getNumber, Function.identity(), (a, b) -> a));
+        Integer targetStatus = transition.getTargetStatus().getCode();
+
+        Map<Integer, List<NumberResource>> byStatus = new LinkedHashMap<>();
+        for (String number : chunk) {
+            NumberResource resource = existing.get(number);
+            if (resource == null) {
+                result.record(number, NumberTransitionResult.Outcome.NOT_FOUND, null);
+            } else if (!transition.isAllowedFrom(resource.getStatus()) || (expiredBefore != null
+                    && (resource.getExpireTime() == null || resource.getExpireTime().after(expiredBefore)))) {
+                // 到期流转时，到期时间已被延长或清除的号码不处理
+                result.record(number, NumberTransitionResult.Outcome.REJECTED, resource.getStatus());
+            } else {
+                byStatus.computeIfAbsent(resource.getStatus(), k -> new ArrayList<>()).add(resource);
+            }
+        }
+
+        for (Map.Entry<Integer, List<NumberResource>> entry : byStatus.entrySet()) {
+            Integer fromStatus = entry.getKey();
+            List<NumberResource> candidates = entry.getValue();
+            List<String> candidateNumbers = candidates.stream().map(NumberResource::getNumber).collect(Collectors.toList());
+            int affected = baseMapper.transitionStatusByNumbers(candidateNumbers, fromStatus, targetStatus,
+                    transition.isClearAssignment(), attributiveOrg, remark, expireTime, expiredBefore);
+
+            List<NumberResource> transitioned = candidates;
+            if (affected != candidates.size()) {
+                // 部分号码在读取后被并发修改，重新读取确认实际流转的号码
+                log.warn("Number transition {} affected {} of {} rows with status {}, re-checking outcomes",
+                        transition, affected, candidates.size(), fromStatus);
+                Map<String, Integer> currentStatus = baseMapper.selectByNumbers(candidateNumbers).stream()
+                        .collect(Collectors.toMap(NumberResource::getNumber, NumberResource::getStatus, (a, b) -> a));
+                transitioned = new ArrayList<>();
+                for (NumberResource candidate : candidates) {
+                    Integer status = currentStatus.get(candidate.getNumber());
+                    if (targetStatus.equals(status) && transitioned.size() < affected) {
+                        transitioned.add(candidate);
+                    } else {
+                        result.record(candidate.getNumber(), NumberTransitionResult.Outcome.CONFLICT, status);
+                    }
+                }
+            }
+
+            Date operationTime = new Date();
+            for (NumberResource resource : transitioned) {
+                result.record(resource.getNumber(), NumberTransitionResult.Outcome.SUCCESS, null);
+                succeeded.add(resource.getNumber());
+                operationLogs.add(new NumberOperationLog()
+                        .setNumberId(resource.getNumberId())
+                        .setNumber(resource.getNumber())
+                        .setNumberType(resource.getNumberType())
+                        .setOperationType(transition.getOperationType().getCode())
+                        .setOldStatus(fromStatus)
+                        .setNewStatus(targetStatus)
+                        .setOperationTime(operationTime)
+                        .setOrgName(attributiveOrg != null ? attributiveOrg : resource.getAttributiveOrg())
+                        .setResultStatus(ResultStatusEnum.SUCCESS.getCode())
+                        .setRemark((transition.isSystem() ? "System " : "Batch ") + transition.name().toLowerCase()
+                                + ", reason: " + (remark != null ? remark : "N/A")));
+                idleNumberIndex.record(resource.getSegmentId(), resource.getNumber(), targetStatus);
+                if (resource.getSegmentId() != null && !fromStatus.equals(targetStatus)) {
+                    Map<Integer, Integer> statusChanges = segmentStatusChanges.computeIfAbsent(resource.getSegmentId(), k -> new HashMap<>());
+                    statusChanges.merge(fromStatus, -1, Integer::sum);
+                    statusChanges.merge(targetStatus, 1, Integer::sum);
+                }
+            }
+        }
+    }
+
+    @Override
+    public long countRange(String startNumber, String endNumber, Integer operationType) {
+        checkShardRange(startNumber, endNumber);
+        LambdaQueryWrapper<NumberResource> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.between(NumberResource::getNumber, startNumber, endNumber);
+        if (operationType != null) {
+            queryWrapper.in(NumberResource::getStatus, resolveTransition(operationType).getAllowedStatuses());
+        }
+        return this.count(queryWrapper);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int transitionRange(String startNumber, String endNumber, Integer operationType, String attributiveOrg, String remark) {
+        checkShardRange(startNumber, endNumber);
+        NumberStatusTransitionEnum transition = resolveTransition(operationType);
+        String targetOrg = transition == NumberStatusTransitionEnum.ASSIGN ? attributiveOrg : null;
+        Integer targetStatus = transition.getTargetStatus().getCode();
+
+        // 锁定区间内可流转的号码，保证统计、位图与实际更新一致
+        List<NumberResource> locked = lockRange(startNumber, endNumber, transition.getAllowedStatuses());
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        int affected = baseMapper.transitionStatusByRange(startNumber, endNumber, transition.getAllowedStatuses(),
+                targetStatus, transition.isClearAssignment(), targetOrg, remark, resolveExpireTime(transition));
+
+        Map<Long, Map<Integer, Integer>> segmentStatusChanges = new HashMap<>();
+        for (NumberResource resource : locked) {
+            idleNumberIndex.record(resource.getSegmentId(), resource.getNumber(), targetStatus);
+            if (resource.getSegmentId() != null && !resource.getStatus().equals(targetStatus)) {
+                Map<Integer, Integer> statusChanges = segmentStatusChanges.computeIfAbsent(resource.getSegmentId(), k -> new HashMap<>());
+                statusChanges.merge(resource.getStatus(), -1, Integer::sum);
+                statusChanges.merge(targetStatus, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<Long, Map<Integer, Integer>> entry : segmentStatusChanges.entrySet()) {
+            segmentService.batchIncrementalUpdateStatistics(entry.getKey(), entry.getValue());
+        }
+        recordRangeLog(startNumber, endNumber, transition.getOperationType().getCode(), targetStatus, targetOrg,
+                "Range " + transition.name().toLowerCase() + " " + affected + " numbers, reason: " + (remark != null ? remark : "N/A"));
+        evictRangeCache(locked);
+        log.info("Range transition {} [{}, {}] updated {} numbers", transition, startNumber, endNumber, affected);
+        return affected;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int updateRangeAttributes(String startNumber, String endNumber, Long levelId, Long hlrId, String attributiveOrg, String remark) {
+        checkShardRange(startNumber, endNumber);
+        if (levelId == null && hlrId == null && StringUtils.isBlank(attributiveOrg)) {
+            throw new BusinessException("400", "At least one of level, HLR or organization must be specified");
+        }
+        List<NumberResource> locked = lockRange(startNumber, endNumber, null);
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        LambdaUpdateWrapper<NumberResource> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.between(NumberResource::getNumber, startNumber, endNumber)
+                .set(levelId != null, NumberResource::getLevelId, levelId)
+                .set(hlrId != null, NumberResource::getHlrId, hlrId)
+                .set(StringUtils.isNotBlank(attributiveOrg), NumberResource::getAttributiveOrg, attributiveOrg)
+                .set(NumberResource::getUpdateTime, new Date());
+        int affected = baseMapper.update(null, updateWrapper);
+
+        StringBuilder changes = new StringBuilder();
+        if (levelId != null) {
+            changes.append(" levelId=").append(levelId);
+        }
+        if (hlrId != null) {
+            changes.append(" hlrId=").append(hlrId);
+        }
+        if (StringUtils.isNotBlank(attributiveOrg)) {
+            changes.append(" org=").append(attributiveOrg);
+        }
+        recordRangeLog(startNumber, endNumber, BatchOperationTypeEnum.MODIFY.getCode(), null, attributiveOrg,
+                "Range modify " + affected + " numbers," + changes + ", reason: " + (remark != null ? remark : "N/A"));
+        evictRangeCache(locked);
+        log.info("Range modify [{}, {}] updated {} numbers:{}", startNumber, endNumber, affected, changes);
+        return affected;
+    }
+
+    /**
+     * 校验区间位于同一受支持的前缀分表内
+     */
+    private void checkShardRange(String startNumber, String endNumber) {
+        if (!StringUtils.isNumeric(startNumber) || !StringUtils.isNumeric(endNumber)
+                || startNumber.length() != endNumber.length() || startNumber.length() < 3) {
+            throw new BusinessException("400", "Start and end number must be numeric with the same length");
+        }
+        if (startNumber.compareTo(endNumber) > 0) {
+            throw new BusinessException("400", "Start number cannot be greater than end number");
+        }
+        String prefix = startNumber.substring(0, 3);
+        if (!prefix.equals(endNumber.substring(0, 3)) || !ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES.contains(prefix)) {
+            throw new BusinessException("400", "Range must be within one supported number prefix");
+        }
+    }
+
+    /**
+     * 根据操作类型获取流转定义，回收按隔离期配置区分
+     */
+    private NumberStatusTransitionEnum resolveTransition(Integer operationType) {
+        NumberStatusTransitionEnum transition = NumberStatusTransitionEnum.getByOperationType(operationType);
+        if (transition == null) {
+            throw new BusinessException("400", "Unsupported operation type: " + operationType);
+        }
+        return transition == NumberStatusTransitionEnum.RECYCLE ? recycleTransition() : transition;
+    }
+
+    /**
+     * 加锁读取区间内的号码（SELECT ... FOR UPDATE），需在事务内调用
+     *
+     * @param statuses 状态过滤，为空时不过滤
+     */
+    private List<NumberResource> lockRange(String startNumber, String endNumber, List<Integer> statuses) {
+        LambdaQueryWrapper<NumberResource> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(NumberResource::getNumberId, NumberResource::getNumber, NumberResource::getSegmentId,
+                        NumberResource::getStatus)
+                .between(NumberResource::getNumber, startNumber, endNumber)
+                .in(statuses != null, NumberResource::getStatus, statuses)
+                .last("FOR UPDATE");
+        return this.list(queryWrapper);
+    }
+
+    /**
+     * 记录区间操作的汇总日志，号码字段为区间
+     */
+    private void recordRangeLog(String startNumber, String endNumber, Integer operationType, Integer newStatus,
+                                String orgName, String remark) {
+        operationLogService.save(new NumberOperationLog()
+                .setNumberId(0L)
+                .setNumber(startNumber + "-" + endNumber)
+                .setOperationType(operationType)
+                .setNewStatus(newStatus)
+                .setOperationTime(new Date())
+                .setOrgName(orgName)
+                .setResultStatus(ResultStatusEnum.SUCCESS.getCode())
+                .setRemark(StringUtils.abbreviate(remark, 256)));
+    }
+
+    private void evictRangeCache(List<NumberResource> resources) {
+        if (resources.size() > TRANSITION_EVICT_THRESHOLD) {
+            numberCache().clear();
+        } else {
+            resources.forEach(resource -> evictNumberCache(resource.getNumber()));
+        }
+    }
+
+    /**
+     * 回收流转，启用隔离期时回收为锁定状态
+     */
+    private NumberStatusTransitionEnum recycleTransition() {
+        return expiryProperties.isQuarantineEnabled()
+                ? NumberStatusTransitionEnum.RECYCLE_QUARANTINE : NumberStatusTransitionEnum.RECYCLE;
+    }
+
+    /**
+     * 流转后新状态的到期时间，不过期的状态返回null（同时清除原到期时间）
+     */
+    private Date resolveExpireTime(NumberStatusTransitionEnum transition) {
+        long hours;
+        if (transition == NumberStatusTransitionEnum.RESERVE) {
+            hours = expiryProperties.getReservationHours();
+        } else if (transition == NumberStatusTransitionEnum.FREEZE) {
+            hours = expiryProperties.getFreezeHours();
+        } else if (transition == NumberStatusTransitionEnum.RECYCLE_QUARANTINE) {
+            hours = expiryProperties.getRecycleQuarantineHours();
+        } else {
+            return null;
+        }
+        return hours > 0 ? new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(hours)) : null;
+    }
+
+    /**
+     * 校验号码当前状态是否允许执行该流转
+     *
+     * @return 当前状态，作为条件更新的预期状态
+     */
+    private Integer checkTransition(NumberResource resource, NumberStatusTransitionEnum transition) {
+        if (!transition.isAllowedFrom(resource.getStatus())) {
+            throw new BusinessException("400", transition.getRejectMessage());
+        }
+        return resource.getStatus();
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean reserve(String number, String remark) {
@@ -615,24 +1202,29 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         }
         
         // 检查号码状态是否为空闲
-        if (!NumberStatusEnum.IDLE.getCode().equals(resource.getStatus())) {
-            throw new BusinessException("400", "Only idle numbers can be reserved");
-        }
+        Integer oldStatus = checkTransition(resource, NumberStatusTransitionEnum.RESERVE);
         
         // 更新号码状态
         resource.setStatus(NumberStatusEnum.RESERVED.getCode()); // 预留
         resource.setRemark(remark);
         resource.setUpdateTime(new Date());
+        resource.setExpireTime(resolveExpireTime(NumberStatusTransitionEnum.RESERVE));
         
-        // 使用号码作为分表键进行更新，避免分表键更新错误
+        // 使用号码作为分表键进行更新，避免分表键更新错误；以读取到的状态作为条件，并发修改时影响行数为0
         LambdaUpdateWrapper<NumberResource> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(NumberResource::getNumber, resource.getNumber())
+                    .eq(NumberResource::getStatus, oldStatus)
                     .set(NumberResource::getStatus, resource.getStatus())
+                    .set(NumberResource::getExpireTime, resource.getExpireTime())
                     .set(NumberResource::getRemark, resource.getRemark())
                     .set(NumberResource::getUpdateTime, resource.getUpdateTime());
         boolean result = this.update(updateWrapper);
+        if (!result) {
+            log.warn("Number {} status changed concurrently, expected status {}", number, oldStatus);
+        }
         
         if (result) {
+            evictNumberCache(number);
             // Record operation log
             operationLogService.recordLog(resource.getNumberId(), resource.getNumber(), 
                 resource.getNumberType(), OperationTypeEnum.RESERVE.getCode(), NumberStatusEnum.IDLE.getCode(), NumberStatusEnum.RESERVED.getCode(), null, null, null, 1, 
@@ -640,6 +1232,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             
             // Update segment statistics incrementally
             segmentService.incrementalUpdateStatistics(resource.getSegmentId(), NumberStatusEnum.IDLE.getCode(), NumberStatusEnum.RESERVED.getCode());
+            idleNumberIndex.record(resource.getSegmentId(), resource.getNumber(), NumberStatusEnum.RESERVED.getCode());
         }
         
         return result;
@@ -659,28 +1252,31 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         }
         
         // 检查号码状态是否为空闲或预留
-        if (!NumberStatusEnum.IDLE.getCode().equals(resource.getStatus()) && !NumberStatusEnum.RESERVED.getCode().equals(resource.getStatus())) {
-            throw new BusinessException("400", "Only idle or reserved numbers can be assigned");
-        }
-        
-        Integer oldStatus = resource.getStatus();
+        Integer oldStatus = checkTransition(resource, NumberStatusTransitionEnum.ASSIGN);
         
         // 更新号码状态
         resource.setStatus(NumberStatusEnum.ASSIGNED.getCode()); // 已分配
         resource.setAttributiveOrg(attributiveOrg);
         resource.setRemark(remark);
         resource.setUpdateTime(new Date());
+        resource.setExpireTime(resolveExpireTime(NumberStatusTransitionEnum.ASSIGN));
         
-        // 使用号码作为分表键进行更新，避免分表键更新错误
+        // 使用号码作为分表键进行更新，避免分表键更新错误；以读取到的状态作为条件，并发修改时影响行数为0
         LambdaUpdateWrapper<NumberResource> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(NumberResource::getNumber, resource.getNumber())
+                    .eq(NumberResource::getStatus, oldStatus)
                     .set(NumberResource::getStatus, resource.getStatus())
+                    .set(NumberResource::getExpireTime, resource.getExpireTime())
                     .set(NumberResource::getAttributiveOrg, resource.getAttributiveOrg())
                     .set(NumberResource::getRemark, resource.getRemark())
                     .set(NumberResource::getUpdateTime, resource.getUpdateTime());
         boolean result = this.update(updateWrapper);
+        if (!result) {
+            log.warn("Number {} status changed concurrently, expected status {}", number, oldStatus);
+        }
         
         if (result) {
+            evictNumberCache(number);
             // Record operation log
             operationLogService.recordLog(resource.getNumberId(), resource.getNumber(), 
                 resource.getNumberType(), OperationTypeEnum.ASSIGN.getCode(), oldStatus, NumberStatusEnum.ASSIGNED.getCode(), null, null, attributiveOrg, 1, 
@@ -688,6 +1284,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             
             // Update segment statistics incrementally
             segmentService.incrementalUpdateStatistics(resource.getSegmentId(), oldStatus, NumberStatusEnum.ASSIGNED.getCode());
+            idleNumberIndex.record(resource.getSegmentId(), resource.getNumber(), NumberStatusEnum.ASSIGNED.getCode());
         }
         
         return result;
@@ -707,26 +1304,31 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         }
         
         // 检查号码状态是否为已分配
-        if (!NumberStatusEnum.ASSIGNED.getCode().equals(resource.getStatus())) {
-            throw new BusinessException("400", "Only assigned numbers can be activated");
-        }
+        Integer oldStatus = checkTransition(resource, NumberStatusTransitionEnum.ACTIVATE);
         
         // 更新号码状态
         resource.setStatus(NumberStatusEnum.ACTIVATED.getCode()); // 已激活
         resource.setIccid(iccid);
         resource.setRemark(remark);
         resource.setUpdateTime(new Date());
+        resource.setExpireTime(resolveExpireTime(NumberStatusTransitionEnum.ACTIVATE));
         
-        // 使用号码作为分表键进行更新，避免分表键更新错误
+        // 使用号码作为分表键进行更新，避免分表键更新错误；以读取到的状态作为条件，并发修改时影响行数为0
         LambdaUpdateWrapper<NumberResource> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(NumberResource::getNumber, resource.getNumber())
+                    .eq(NumberResource::getStatus, oldStatus)
                     .set(NumberResource::getStatus, resource.getStatus())
+                    .set(NumberResource::getExpireTime, resource.getExpireTime())
                     .set(NumberResource::getIccid, resource.getIccid())
                     .set(NumberResource::getRemark, resource.getRemark())
                     .set(NumberResource::getUpdateTime, resource.getUpdateTime());
         boolean result = this.update(updateWrapper);
+        if (!result) {
+            log.warn("Number {} status changed concurrently, expected status {}", number, oldStatus);
+        }
         
         if (result) {
+            evictNumberCache(number);
             // Record operation log
             operationLogService.recordLog(resource.getNumberId(), resource.getNumber(), 
                 resource.getNumberType(), OperationTypeEnum.ACTIVATE.getCode(), NumberStatusEnum.ASSIGNED.getCode(), NumberStatusEnum.ACTIVATED.getCode(), null, null, resource.getAttributiveOrg(), 1, 
@@ -734,6 +1336,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             
             // Update segment statistics incrementally
             segmentService.incrementalUpdateStatistics(resource.getSegmentId(), NumberStatusEnum.ASSIGNED.getCode(), NumberStatusEnum.ACTIVATED.getCode());
+            idleNumberIndex.record(resource.getSegmentId(), resource.getNumber(), NumberStatusEnum.ACTIVATED.getCode());
         }
         
         return result;
@@ -753,26 +1356,29 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         }
         
         // 检查号码状态是否为已激活或已使用
-        if (!NumberStatusEnum.ACTIVATED.getCode().equals(resource.getStatus()) && !NumberStatusEnum.IN_USE.getCode().equals(resource.getStatus())) {
-            throw new BusinessException("400", "Only activated or in-use numbers can be frozen");
-        }
-        
-        Integer oldStatus = resource.getStatus();
+        Integer oldStatus = checkTransition(resource, NumberStatusTransitionEnum.FREEZE);
         
         // 更新号码状态
         resource.setStatus(NumberStatusEnum.FROZEN.getCode()); // 已冻结
         resource.setRemark(remark);
         resource.setUpdateTime(new Date());
+        resource.setExpireTime(resolveExpireTime(NumberStatusTransitionEnum.FREEZE));
         
-        // 使用号码作为分表键进行更新，避免分表键更新错误
+        // 使用号码作为分表键进行更新，避免分表键更新错误；以读取到的状态作为条件，并发修改时影响行数为0
         LambdaUpdateWrapper<NumberResource> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(NumberResource::getNumber, resource.getNumber())
+                    .eq(NumberResource::getStatus, oldStatus)
                     .set(NumberResource::getStatus, resource.getStatus())
+                    .set(NumberResource::getExpireTime, resource.getExpireTime())
                     .set(NumberResource::getRemark, resource.getRemark())
                     .set(NumberResource::getUpdateTime, resource.getUpdateTime());
         boolean result = this.update(updateWrapper);
+        if (!result) {
+            log.warn("Number {} status changed concurrently, expected status {}", number, oldStatus);
+        }
 
         if (result) {
+            evictNumberCache(number);
             // Record operation log
             operationLogService.recordLog(resource.getNumberId(), resource.getNumber(), 
                 resource.getNumberType(), OperationTypeEnum.FREEZE.getCode(), oldStatus, NumberStatusEnum.FROZEN.getCode(), null, null, resource.getAttributiveOrg(), 1, 
@@ -780,6 +1386,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             
             // Update segment statistics incrementally
             segmentService.incrementalUpdateStatistics(resource.getSegmentId(), oldStatus, NumberStatusEnum.FROZEN.getCode());
+            idleNumberIndex.record(resource.getSegmentId(), resource.getNumber(), NumberStatusEnum.FROZEN.getCode());
         }
         
         return result;
@@ -799,24 +1406,29 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         }
         
         // 检查号码状态是否为已冻结
-        if (!NumberStatusEnum.FROZEN.getCode().equals(resource.getStatus())) {
-            throw new BusinessException("400", "Only frozen numbers can be unfrozen");
-        }
+        Integer oldStatus = checkTransition(resource, NumberStatusTransitionEnum.UNFREEZE);
         
         // 更新号码状态，恢复为原来的状态（默认为已激活）
         resource.setStatus(NumberStatusEnum.ACTIVATED.getCode()); // 已激活
         resource.setRemark(remark);
         resource.setUpdateTime(new Date());
+        resource.setExpireTime(resolveExpireTime(NumberStatusTransitionEnum.UNFREEZE));
         
-        // 使用号码作为分表键进行更新，避免分表键更新错误
+        // 使用号码作为分表键进行更新，避免分表键更新错误；以读取到的状态作为条件，并发修改时影响行数为0
         LambdaUpdateWrapper<NumberResource> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(NumberResource::getNumber, resource.getNumber())
+                    .eq(NumberResource::getStatus, oldStatus)
                     .set(NumberResource::getStatus, resource.getStatus())
+                    .set(NumberResource::getExpireTime, resource.getExpireTime())
                     .set(NumberResource::getRemark, resource.getRemark())
                     .set(NumberResource::getUpdateTime, resource.getUpdateTime());
         boolean result = this.update(updateWrapper);
+        if (!result) {
+            log.warn("Number {} status changed concurrently, expected status {}", number, oldStatus);
+        }
 
         if (result) {
+            evictNumberCache(number);
             // Record operation log
             operationLogService.recordLog(resource.getNumberId(), resource.getNumber(), 
                 resource.getNumberType(), OperationTypeEnum.UNFREEZE.getCode(), NumberStatusEnum.FROZEN.getCode(), NumberStatusEnum.ACTIVATED.getCode(), null, null, resource.getAttributiveOrg(), 1, 
@@ -824,6 +1436,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             
             // Update segment statistics incrementally
             segmentService.incrementalUpdateStatistics(resource.getSegmentId(), NumberStatusEnum.FROZEN.getCode(), NumberStatusEnum.ACTIVATED.getCode());
+            idleNumberIndex.record(resource.getSegmentId(), resource.getNumber(), NumberStatusEnum.ACTIVATED.getCode());
         }
         
         return result;
@@ -843,14 +1456,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         }
         
         // 检查号码状态是否为已分配、已激活、已使用或已冻结
-        if (!NumberStatusEnum.ASSIGNED.getCode().equals(resource.getStatus()) && 
-            !NumberStatusEnum.ACTIVATED.getCode().equals(resource.getStatus()) &&
-            !NumberStatusEnum.IN_USE.getCode().equals(resource.getStatus()) &&
-            !NumberStatusEnum.FROZEN.getCode().equals(resource.getStatus())) {
-            throw new BusinessException("400", "Only assigned, activated, in-use or frozen numbers can be released");
-        }
-        
-        Integer oldStatus = resource.getStatus();
+        Integer oldStatus = checkTransition(resource, NumberStatusTransitionEnum.RELEASE);
         String oldAttributiveOrg = resource.getAttributiveOrg();
         
         // 更新号码状态
@@ -859,18 +1465,25 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         resource.setIccid(null);
         resource.setRemark(remark);
         resource.setUpdateTime(new Date());
+        resource.setExpireTime(resolveExpireTime(NumberStatusTransitionEnum.RELEASE));
         
-        // 使用号码作为分表键进行更新，避免分表键更新错误
+        // 使用号码作为分表键进行更新，避免分表键更新错误；以读取到的状态作为条件，并发修改时影响行数为0
         LambdaUpdateWrapper<NumberResource> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(NumberResource::getNumber, resource.getNumber())
+                    .eq(NumberResource::getStatus, oldStatus)
                     .set(NumberResource::getStatus, resource.getStatus())
+                    .set(NumberResource::getExpireTime, resource.getExpireTime())
                     .set(NumberResource::getAttributiveOrg, resource.getAttributiveOrg())
                     .set(NumberResource::getIccid, resource.getIccid())
                     .set(NumberResource::getRemark, resource.getRemark())
                     .set(NumberResource::getUpdateTime, resource.getUpdateTime());
         boolean result = this.update(updateWrapper);
+        if (!result) {
+            log.warn("Number {} status changed concurrently, expected status {}", number, oldStatus);
+        }
 
         if (result) {
+            evictNumberCache(number);
             // Record operation log
             operationLogService.recordLog(resource.getNumberId(), resource.getNumber(), 
                 resource.getNumberType(), OperationTypeEnum.RELEASE.getCode(), oldStatus, NumberStatusEnum.IDLE.getCode(), null, null, oldAttributiveOrg, 1, 
@@ -878,6 +1491,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             
             // Update segment statistics incrementally
             segmentService.incrementalUpdateStatistics(resource.getSegmentId(), oldStatus, NumberStatusEnum.IDLE.getCode());
+            idleNumberIndex.record(resource.getSegmentId(), resource.getNumber(), NumberStatusEnum.IDLE.getCode());
         }
         
         return result;
@@ -896,34 +1510,44 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             throw new BusinessException("404", "Number does not exist");
         }
         
-        Integer oldStatus = resource.getStatus();
+        // 启用隔离期时回收为锁定状态，隔离期结束后由到期引擎释放为空闲
+        NumberStatusTransitionEnum transition = recycleTransition();
+        Integer oldStatus = checkTransition(resource, transition);
         String oldAttributiveOrg = resource.getAttributiveOrg();
         
         // 更新号码状态
-        resource.setStatus(NumberStatusEnum.IDLE.getCode()); // 空闲
+        resource.setStatus(transition.getTargetStatus().getCode());
         resource.setAttributiveOrg(null);
         resource.setIccid(null);
         resource.setRemark(remark);
         resource.setUpdateTime(new Date());
+        resource.setExpireTime(resolveExpireTime(transition));
         
-        // 使用号码作为分表键进行更新，避免分表键更新错误
+        // 使用号码作为分表键进行更新，避免分表键更新错误；以读取到的状态作为条件，并发修改时影响行数为0
         LambdaUpdateWrapper<NumberResource> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(NumberResource::getNumber, resource.getNumber())
+                    .eq(NumberResource::getStatus, oldStatus)
                     .set(NumberResource::getStatus, resource.getStatus())
+                    .set(NumberResource::getExpireTime, resource.getExpireTime())
                     .set(NumberResource::getAttributiveOrg, resource.getAttributiveOrg())
                     .set(NumberResource::getIccid, resource.getIccid())
                     .set(NumberResource::getRemark, resource.getRemark())
                     .set(NumberResource::getUpdateTime, resource.getUpdateTime());
         boolean result = this.update(updateWrapper);
+        if (!result) {
+            log.warn("Number {} status changed concurrently, expected status {}", number, oldStatus);
+        }
 
         if (result) {
+            evictNumberCache(number);
             // Record operation log
             operationLogService.recordLog(resource.getNumberId(), resource.getNumber(), 
-                resource.getNumberType(), OperationTypeEnum.RECYCLE.getCode(), oldStatus, NumberStatusEnum.IDLE.getCode(), null, null, oldAttributiveOrg, 1, 
+                resource.getNumberType(), OperationTypeEnum.RECYCLE.getCode(), oldStatus, resource.getStatus(), null, null, oldAttributiveOrg, 1, 
                 "Recycle number, reason: " + (remark != null ? remark : "N/A"));
             
             // Update segment statistics incrementally
-            segmentService.incrementalUpdateStatistics(resource.getSegmentId(), oldStatus, NumberStatusEnum.IDLE.getCode());
+            segmentService.incrementalUpdateStatistics(resource.getSegmentId(), oldStatus, resource.getStatus());
+            idleNumberIndex.record(resource.getSegmentId(), resource.getNumber(), resource.getStatus());
         }
         
         return result;
@@ -964,7 +1588,121 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             return null;
         }
         
-        return getBasicNumberResource(number);
+        return numberCache().get(number, this::getBasicNumberResource);
+    }
+
+    @Override
+    public long countIdleNumbers(Long segmentId) {
+        if (segmentId == null) {
+            throw new BusinessException("400", "Segment ID cannot be empty");
+        }
+        Long count = idleNumberIndex.countIdle(segmentId);
+        if (count != null) {
+            return count;
+        }
+        LambdaQueryWrapper<NumberResource> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(NumberResource::getSegmentId, segmentId)
+                .eq(NumberResource::getStatus, NumberStatusEnum.IDLE.getCode());
+        return this.count(queryWrapper);
+    }
+
+    @Override
+    public List<String> selectIdleNumbers(Long segmentId, int count, boolean random) {
+        if (segmentId == null) {
+            throw new BusinessException("400", "Segment ID cannot be empty");
+        }
+        if (count <= 0 || count > MAX_IDLE_SELECT_COUNT) {
+            throw new BusinessException("400", "Count must be between 1 and " + MAX_IDLE_SELECT_COUNT);
+        }
+        List<String> numbers = selectIdleNumbersByBitmap(segmentId, count, random);
+        if (numbers != null) {
+            return numbers;
+        }
+        // 位图未就绪时回退到数据库，随机选取时在前若干个空闲号码中打乱
+        LambdaQueryWrapper<NumberResource> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(NumberResource::getNumber)
+                .eq(NumberResource::getSegmentId, segmentId)
+                .eq(NumberResource::getStatus, NumberStatusEnum.IDLE.getCode())
+                .orderByAsc(NumberResource::getNumber)
+                .last("LIMIT " + (random ? MAX_IDLE_SELECT_COUNT : count));
+        numbers = this.list(queryWrapper).stream().map(NumberResource::getNumber).collect(Collectors.toList());
+        if (random) {
+            Collections.shuffle(numbers);
+        }
+        return numbers.size() > count ? new ArrayList<>(numbers.subList(0, count)) : numbers;
+    }
+
+    @Override
+    public boolean isIdle(String number) {
+        if (StringUtils.isBlank(number)) {
+            throw new BusinessException("400", "Number cannot be empty");
+        }
+        // 位图判定为非空闲时直接返回；判定为空闲时可能是其他节点的变更尚未同步，以数据库为准
+        Boolean idle = idleNumberIndex.isIdle(number);
+        if (Boolean.FALSE.equals(idle)) {
+            return false;
+        }
+        NumberResource resource = getBasicNumberResource(number);
+        boolean idleInDb = resource != null && NumberStatusEnum.IDLE.getCode().equals(resource.getStatus());
+        if (idle != null && !idleInDb) {
+            idleNumberIndex.evict(Collections.singletonList(number));
+        }
+        return idleInDb;
+    }
+
+    /**
+     * 由位图选取空闲号码，并按号码前缀分表各一次 status = IDLE AND number IN (...) 查询确认；
+     * 已被其他节点占用的号码从位图中清除后重新选取补足
+     *
+     * @return 位图未就绪时返回null
+     */
+    private List<String> selectIdleNumbersByBitmap(Long segmentId, int count, boolean random) {
+        Set<String> confirmed = new LinkedHashSet<>();
+        for (int round = 0; round < IDLE_SELECT_MAX_ROUNDS && confirmed.size() < count; round++) {
+            List<String> candidates = idleNumberIndex.selectIdle(segmentId, random ? count - confirmed.size() : count, random);
+            if (candidates == null) {
+                return null;
+            }
+            List<String> unchecked = candidates.stream().filter(number -> !confirmed.contains(number)).collect(Collectors.toList());
+            if (unchecked.isEmpty()) {
+                break;
+            }
+            Set<String> idle = filterIdleInDb(unchecked);
+            List<String> stale = new ArrayList<>();
+            for (String number : unchecked) {
+                if (idle.contains(number)) {
+                    confirmed.add(number);
+                } else {
+                    stale.add(number);
+                }
+            }
+            if (!stale.isEmpty()) {
+                log.debug("{} numbers of segment {} are no longer idle, evicted from idle bitmap", stale.size(), segmentId);
+                idleNumberIndex.evict(stale);
+            }
+        }
+        List<String> numbers = new ArrayList<>(confirmed);
+        if (!random) {
+            Collections.sort(numbers);
+        }
+        return numbers.size() > count ? new ArrayList<>(numbers.subList(0, count)) : numbers;
+    }
+
+    /**
+     * 按号码前缀分表各一次IN查询，返回仍为空闲状态的号码
+     */
+    private Set<String> filterIdleInDb(Collection<String> numbers) {
+        Map<String, List<String>> numbersByPrefix = numbers.stream()
+                .collect(Collectors.groupingBy(number -> number.substring(0, Math.min(3, number.length()))));
+        Set<String> idle = new HashSet<>();
+        for (List<String> prefixNumbers : numbersByPrefix.values()) {
+            LambdaQueryWrapper<NumberResource> queryWrapper = new LambdaQueryWrapper<>();
+            queryWrapper.select(NumberResource::getNumber)
+                    .eq(NumberResource::getStatus, NumberStatusEnum.IDLE.getCode())
+                    .in(NumberResource::getNumber, prefixNumbers);
+            this.list(queryWrapper).forEach(resource -> idle.add(resource.getNumber()));
+        }
+        return idle;
     }
 
     @Override
@@ -1133,8 +1871,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
             return null;
         }
         
-        NumberResourceVO vo = new NumberResourceVO();
-        BeanUtils.copyProperties(resource, vo);
+        NumberResourceVO vo = NumberResourceConvert.INSTANCE.toVO(resource);
         
         // 获取关联信息
         setRelatedInfo(vo);
@@ -1163,8 +1900,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         
         // 转换为VO并设置关联信息
         for (NumberResource resource : records) {
-            NumberResourceVO vo = new NumberResourceVO();
-            BeanUtils.copyProperties(resource, vo);
+            NumberResourceVO vo = NumberResourceConvert.INSTANCE.toVO(resource);
             
             // 设置关联信息（使用批量查询结果）
             setRelatedInfoBatch(vo, segmentMap, levelMap, patternMap, hlrMap);
@@ -1178,6 +1914,15 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         return voPage;
     }
 
+    /**
+     * 批量转换为VO列表
+     */
+    private List<NumberResourceVO> toVOList(List<NumberResource> records) {
+        IPage<NumberResource> page = new Page<>(1, records.size(), false);
+        page.setRecords(records);
+        return convertToVOPage(page).getRecords();
+    }
+
     /**
      * 批量获取号码段信息
      */
@@ -1465,6 +2210,28 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
         }
     }
     
+    @Override
+    @Transactional(readOnly = true, rollbackFor = Exception.class)
+    public long streamForExport(NumberResourceDTO queryDTO, Consumer<NumberResource> consumer) {
+        NumberResourceDTO dto = queryDTO != null ? queryDTO : new NumberResourceDTO();
+        long total = 0;
+        for (String prefix : resolveQueryShards(dto)) {
+            // 通过前缀范围条件将游标限定在单个分表，逐表流式读取
+            LambdaQueryWrapper<NumberResource> queryWrapper = buildQueryWrapper(dto);
+            queryWrapper.between(NumberResource::getNumber, prefix + "00000000", prefix + "99999999");
+            try (Cursor<NumberResource> cursor = baseMapper.selectCursor(queryWrapper)) {
+                for (NumberResource resource : cursor) {
+                    consumer.accept(resource);
+                    total++;
+                }
+            } catch (IOException e) {
+                throw new BusinessException("Stream export failed: " + e.getMessage());
+            }
+        }
+        log.info("Stream export completed, read {} records", total);
+        return total;
+    }
+    
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean batchImport(List<NumberResource> dataList) {
@@ -1480,9 +2247,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
                     throw new BusinessException("Number cannot be empty");
                 }
                 
-                NumberResourceDTO dto = new NumberResourceDTO();
-                BeanUtils.copyProperties(resource, dto);
-                dtoList.add(dto);
+                dtoList.add(NumberResourceConvert.INSTANCE.toDTO(resource));
             }
             
             // 调用现有的批量导入方法（DTO版本）
@@ -1526,9 +2291,20 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
                 
                 // 转换为实体并保存
                 List<NumberResource> entityList = new ArrayList<>();
-                for (NumberResourceDTO dto : batchList) {
-                    NumberResource entity = new NumberResource();
-                    BeanUtils.copyProperties(dto, entity);
+                List<Long> globalIds = sequenceService.getBatchSequenceValues(SequenceService.NUMBER_RESOURCE_ID_SEQ, batchList.size());
+                // 批量解析未指定号段的号码归属
+                List<String> unassignedNumbers = batchList.stream()
+                        .filter(dto -> dto.getSegmentId() == null)
+                        .map(NumberResourceDTO::getNumber)
+                        .collect(Collectors.toList());
+                Map<String, Long> resolvedSegmentIds = segmentService.resolveSegmentIds(unassignedNumbers);
+                for (int j = 0; j < batchList.size(); j++) {
+                    NumberResourceDTO dto = batchList.get(j);
+                    NumberResource entity = NumberResourceConvert.INSTANCE.toEntity(dto);
+                    entity.setNumberId(sequenceService.toShardingId(globalIds.get(j), ShardingIdUtils.numberShardCode(entity.getNumber())));
+                    if (entity.getSegmentId() == null) {
+                        entity.setSegmentId(resolvedSegmentIds.get(entity.getNumber()));
+                    }
                     
                     // 设置默认值
                     if (entity.getStatus() == null) {
@@ -1546,6 +2322,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
                     // 统计号段状态变化
                     Long segmentId = entity.getSegmentId();
                     Integer status = entity.getStatus();
+                    idleNumberIndex.record(segmentId, entity.getNumber(), status);
                     if (segmentId != null && status != null) {
                         segmentStatusChanges.computeIfAbsent(segmentId, k -> new HashMap<>())
                                 .merge(status, NumberStatusEnum.IDLE.getCode(), Integer::sum);
@@ -1553,7 +2330,7 @@ public class NumberResourceServiceImpl extends ServiceImpl<NumberResourceMapper,
                 }
                 
                 // 批量保存
-                this.saveBatch(entityList);
+                HotPrefixShardingRule.routeWritesToSubTables(() -> this.saveBatch(entityList));
                 
                 // 为每个号码资源记录操作日志
                 for (NumberResource entity : entityList) {
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.nsrs.msisdn.cache.NumberSegmentIndex;
 import com.nsrs.msisdn.entity.NumberResource;
 import com.nsrs.msisdn.entity.NumberSegment;
 import com.nsrs.msisdn.mapper.NumberResourceMapper;
@@ -16,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +33,9 @@ public class NumberSegmentServiceImpl extends ServiceImpl<NumberSegmentMapper, N
     @Autowired
     private NumberResourceMapper numberResourceMapper;
 
+    @Autowired
+    private NumberSegmentIndex numberSegmentIndex;
+
     @Override
     public IPage<NumberSegment> pageList(Page<NumberSegment> page, String segmentCode, Integer segmentType, 
                                   Long regionId, Long hlrSwitchId, Integer status) {
@@ -85,6 +90,9 @@ public class NumberSegmentServiceImpl extends ServiceImpl<NumberSegmentMapper, N
             throw new RuntimeException("Start number cannot be greater than end number");
         }
         
+        // Check overlap with existing segments
+        checkOverlap(startNumber, endNumber, null);
+        
         // Calculate total quantity
         // Simplified calculation, specific implementation may need adjustment based on number format
         long start = Long.parseLong(startNumber);
@@ -101,7 +109,9 @@ public class NumberSegmentServiceImpl extends ServiceImpl<NumberSegmentMapper, N
         
         numberSegment.setCreateTime(new Date());
         numberSegment.setUpdateTime(new Date());
-        return save(numberSegment);
+        boolean result = save(numberSegment);
+        numberSegmentIndex.refreshAfterCommit();
+        return result;
     }
 
     @Override
@@ -132,8 +142,38 @@ public class NumberSegmentServiceImpl extends ServiceImpl<NumberSegmentMapper, N
 
         numberSegment.setReservedQty(oldSegment.getReservedQty());
         
+        // Check overlap with other segments (exclude self)
+        checkOverlap(numberSegment.getStartNumber(), numberSegment.getEndNumber(), numberSegment.getSegmentId());
+        
         numberSegment.setUpdateTime(new Date());
-        return updateById(numberSegment);
+        boolean result = updateById(numberSegment);
+        numberSegmentIndex.refreshAfterCommit();
+        return result;
+    }
+
+    /**
+     * 号码区间重叠校验：先查内存区间索引，再在数据库中锁定查询，
+     * 避免其他节点刚写入、本节点索引尚未刷新的号码段漏检
+     *
+     * @param excludeSegmentId 排除的号码段（修改时为自身），新增时为null
+     */
+    private void checkOverlap(String startNumber, String endNumber, Long excludeSegmentId) {
+        for (NumberSegment segment : numberSegmentIndex.findOverlapping(startNumber, endNumber)) {
+            if (!segment.getSegmentId().equals(excludeSegmentId)) {
+                throw new RuntimeException("Number range overlaps with existing segment: " + segment.getSegmentCode());
+            }
+        }
+        LambdaQueryWrapper<NumberSegment> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.le(NumberSegment::getStartNumber, endNumber)
+                .ge(NumberSegment::getEndNumber, startNumber)
+                .ne(excludeSegmentId != null, NumberSegment::getSegmentId, excludeSegmentId)
+                // 号码按字符串比较，仅与同长度的号码段比较
+                .apply("CHAR_LENGTH(start_number) = {0}", startNumber.length())
+                .last("LIMIT 1 FOR UPDATE");
+        NumberSegment overlapping = getOne(queryWrapper, false);
+        if (overlapping != null) {
+            throw new RuntimeException("Number range overlaps with existing segment: " + overlapping.getSegmentCode());
+        }
     }
 
     @Override
@@ -147,7 +187,9 @@ public class NumberSegmentServiceImpl extends ServiceImpl<NumberSegmentMapper, N
             throw new RuntimeException("Cannot delete segment with existing number resources");
         }
         
-        return removeById(segmentId);
+        boolean result = removeById(segmentId);
+        numberSegmentIndex.refreshAfterCommit();
+        return result;
     }
 
     @Override
@@ -159,7 +201,9 @@ public class NumberSegmentServiceImpl extends ServiceImpl<NumberSegmentMapper, N
         }
         numberSegment.setStatus(1); // Enable
         numberSegment.setUpdateTime(new Date());
-        return updateById(numberSegment);
+        boolean result = updateById(numberSegment);
+        numberSegmentIndex.refreshAfterCommit();
+        return result;
     }
 
     @Override
@@ -171,7 +215,24 @@ public class NumberSegmentServiceImpl extends ServiceImpl<NumberSegmentMapper, N
         }
         numberSegment.setStatus(0); // Disable
         numberSegment.setUpdateTime(new Date());
-        return updateById(numberSegment);
+        boolean result = updateById(numberSegment);
+        numberSegmentIndex.refreshAfterCommit();
+        return result;
+    }
+
+    @Override
+    public NumberSegment getByNumber(String number) {
+        return numberSegmentIndex.find(number);
+    }
+
+    @Override
+    public Map<String, Long> resolveSegmentIds(Collection<String> numbers) {
+        return numberSegmentIndex.resolveSegmentIds(numbers);
+    }
+
+    @Override
+    public List<NumberSegment> listOverlapping(String startNumber, String endNumber) {
+        return numberSegmentIndex.findOverlapping(startNumber, endNumber);
     }
 
     @Override
@@ -0,0 +1,61 @@
+package com.nsrs.msisdn.snapshot;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.nsrs.common.enums.NumberStatusEnum;
+import com.nsrs.framework.snapshot.InventorySnapshotPoint;
+import com.nsrs.framework.snapshot.InventorySnapshotSource;
+import com.nsrs.msisdn.entity.NumberSegment;
+import com.nsrs.msisdn.service.NumberSegmentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 号码库存快照数据源
+ * 按号码段采集各状态数量（取号码段上维护的数量字段），维度键为号码段ID
+ */
+@Component
+public class NumberSegmentSnapshotSource implements InventorySnapshotSource {
+
+    public static final String RESOURCE_TYPE = "NUMBER";
+
+    private static final Set<Integer> AVAILABLE_STATUSES = Collections.singleton(NumberStatusEnum.IDLE.getCode());
+
+    @Autowired
+    private NumberSegmentService numberSegmentService;
+
+    @Override
+    public String getResourceType() {
+        return RESOURCE_TYPE;
+    }
+
+    @Override
+    public Set<Integer> getAvailableStatuses() {
+        return AVAILABLE_STATUSES;
+    }
+
+    @Override
+    public List<InventorySnapshotPoint> collect() {
+        List<NumberSegment> segments = numberSegmentService.list(new LambdaQueryWrapper<NumberSegment>()
+                .select(NumberSegment::getSegmentId, NumberSegment::getIdleQty, NumberSegment::getReservedQty,
+                        NumberSegment::getActivatedQty, NumberSegment::getFrozenQty, NumberSegment::getBlockedQty));
+        List<InventorySnapshotPoint> points = new ArrayList<>(segments.size() * 5);
+        for (NumberSegment segment : segments) {
+            String dimensionKey = String.valueOf(segment.getSegmentId());
+            add(points, dimensionKey, NumberStatusEnum.IDLE, segment.getIdleQty());
+            add(points, dimensionKey, NumberStatusEnum.RESERVED, segment.getReservedQty());
+            add(points, dimensionKey, NumberStatusEnum.ACTIVATED, segment.getActivatedQty());
+            add(points, dimensionKey, NumberStatusEnum.FROZEN, segment.getFrozenQty());
+            add(points, dimensionKey, NumberStatusEnum.LOCKED, segment.getBlockedQty());
+        }
+        return points;
+    }
+
+    private static void add(List<InventorySnapshotPoint> points, String dimensionKey, NumberStatusEnum status, Long count) {
+        points.add(new InventorySnapshotPoint(dimensionKey, status.getCode(), count != null ? count : 0L));
+    }
+}
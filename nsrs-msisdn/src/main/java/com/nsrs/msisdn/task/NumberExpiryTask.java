@@ -0,0 +1,165 @@
+package com.nsrs.msisdn.task;
+
+import com.nsrs.common.utils.ShardingBatchUpdateUtils;
+import com.nsrs.common.utils.TimingWheel;
+import com.nsrs.msisdn.config.NumberExpiryProperties;
+import com.nsrs.msisdn.dto.NumberTransitionResult;
+import com.nsrs.msisdn.entity.NumberResource;
+import com.nsrs.msisdn.enums.NumberStatusTransitionEnum;
+import com.nsrs.msisdn.service.NumberResourceService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 号码状态到期任务
+ * 定时按分表扫描即将到期的预留、冻结和回收隔离号码（走 status + expire_time 索引），放入时间轮；
+ * 时间轮到期后按流转类型批量执行条件更新。多个节点同时运行时，条件更新保证每个号码只流转一次
+ */
+@Slf4j
+@Component
+public class NumberExpiryTask {
+
+    private static final List<NumberStatusTransitionEnum> EXPIRY_TRANSITIONS = Arrays.asList(
+            NumberStatusTransitionEnum.EXPIRE_RESERVATION,
+            NumberStatusTransitionEnum.EXPIRE_FREEZE,
+            NumberStatusTransitionEnum.END_QUARANTINE);
+
+    @Autowired
+    private NumberResourceService numberResourceService;
+
+    @Autowired
+    private NumberExpiryProperties properties;
+
+    private TimingWheel<ExpiryItem> wheel;
+
+    private ScheduledExecutorService ticker;
+
+    /**
+     * 已放入时间轮的号码，避免重复扫描时重复添加
+     */
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        if (!properties.isEnabled()) {
+            log.info("Number expiry engine disabled");
+            return;
+        }
+        // 时间轮覆盖两个扫描间隔，保证每次扫描加载的号码都能放入
+        int wheelSize = (int) (properties.getScanIntervalMs() * 2 / properties.getTickMs()) + 1;
+        wheel = new TimingWheel<>(properties.getTickMs(), wheelSize, System.currentTimeMillis());
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "number-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::fireExpired, properties.getTickMs(), properties.getTickMs(), TimeUnit.MILLISECONDS);
+        log.info("Number expiry engine started, tick={}ms, wheelSize={}", properties.getTickMs(), wheelSize);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * 扫描下一个间隔内到期的号码并放入时间轮
+     */
+    @Scheduled(fixedDelayString = "${nsrs.number-expiry.scan-interval-ms:60000}")
+    public void scanExpiring() {
+        if (wheel == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Date horizon = new Date(now + properties.getScanIntervalMs() + properties.getTickMs());
+        int added = 0;
+        for (NumberStatusTransitionEnum transition : EXPIRY_TRANSITIONS) {
+            for (String prefix : ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES) {
+                try {
+                    List<NumberResource> expiring = numberResourceService.listExpiring(prefix, transition, horizon,
+                            properties.getScanBatchSize());
+                    for (NumberResource resource : expiring) {
+                        if (!scheduled.add(resource.getNumber())) {
+                            continue;
+                        }
+                        if (wheel.add(new ExpiryItem(resource.getNumber(), transition), resource.getExpireTime().getTime())) {
+                            added++;
+                        } else {
+                            scheduled.remove(resource.getNumber());
+                        }
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to scan expiring numbers, prefix={}, transition={}: {}", prefix, transition, e.getMessage());
+                }
+            }
+        }
+        if (added > 0) {
+            log.info("Scheduled {} expiring numbers, pending={}", added, wheel.size());
+        }
+    }
+
+    /**
+     * 时间轮推进，批量流转已到期的号码
+     */
+    private void fireExpired() {
+        try {
+            long now = System.currentTimeMillis();
+            List<ExpiryItem> expired = wheel.advance(now);
+            if (expired.isEmpty()) {
+                return;
+            }
+            Map<NumberStatusTransitionEnum, List<String>> groups = new EnumMap<>(NumberStatusTransitionEnum.class);
+            for (ExpiryItem item : expired) {
+                groups.computeIfAbsent(item.transition, k -> new ArrayList<>()).add(item.number);
+            }
+            Date expiredBefore = new Date(now);
+            groups.forEach((transition, numbers) -> expire(transition, numbers, expiredBefore));
+        } catch (Exception e) {
+            log.error("Number expiry wheel tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void expire(NumberStatusTransitionEnum transition, List<String> numbers, Date expiredBefore) {
+        int batchSize = properties.getScanBatchSize();
+        for (int from = 0; from < numbers.size(); from += batchSize) {
+            List<String> batch = numbers.subList(from, Math.min(from + batchSize, numbers.size()));
+            try {
+                NumberTransitionResult result = numberResourceService.expireNumbers(batch, transition, expiredBefore);
+                log.info("Number expiry {} processed {} numbers, {} transitioned", transition, batch.size(), result.getSuccessCount());
+            } catch (Exception e) {
+                // 失败的号码在下次扫描时重新加载
+                log.error("Number expiry {} failed for {} numbers: {}", transition, batch.size(), e.getMessage(), e);
+            } finally {
+                scheduled.removeAll(batch);
+            }
+        }
+    }
+
+    private static final class ExpiryItem {
+        private final String number;
+        private final NumberStatusTransitionEnum transition;
+
+        private ExpiryItem(String number, NumberStatusTransitionEnum transition) {
+            this.number = number;
+            this.transition = transition;
+        }
+    }
+}
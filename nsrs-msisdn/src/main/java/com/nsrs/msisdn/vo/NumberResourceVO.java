@@ -104,6 +104,11 @@ public class NumberResourceVO implements Serializable {
      */
     private String remark;
     
+    /**
+     * 状态到期时间（预留/冻结到期或回收隔离结束）
+     */
+    private Date expireTime;
+    
     /**
      * 创建时间
      */
@@ -12,6 +12,7 @@ CREATE TABLE IF NOT EXISTS `number_resource` (
   `charge` decimal(10,2) DEFAULT NULL COMMENT '费用',
   `attributive_org` varchar(50) DEFAULT NULL COMMENT '归属组织',
   `remark` varchar(255) DEFAULT NULL COMMENT '备注',
+  `expire_time` datetime DEFAULT NULL COMMENT '状态到期时间：预留/冻结到期或回收隔离结束时间',
   `create_time` datetime DEFAULT NULL COMMENT '创建时间',
   `update_time` datetime DEFAULT NULL COMMENT '更新时间',
   `create_user_id` bigint(20) DEFAULT NULL COMMENT '创建用户ID',
@@ -20,6 +21,7 @@ CREATE TABLE IF NOT EXISTS `number_resource` (
   UNIQUE KEY `idx_number` (`number`),
   KEY `idx_segment_id` (`segment_id`),
   KEY `idx_status` (`status`),
+  KEY `idx_status_expire` (`status`, `expire_time`),
   KEY `idx_number_type` (`number_type`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='号码资源表';
 
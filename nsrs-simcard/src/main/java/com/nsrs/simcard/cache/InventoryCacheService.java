@@ -1,5 +1,6 @@
 package com.nsrs.simcard.cache;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -22,12 +23,31 @@ public interface InventoryCacheService {
      */
     void put(String key, Map<String, Object> data);
     
+    /**
+     * Get cached inventory data for several keys in one round trip
+     * @param keys cache keys
+     * @return cached data by key, missing or expired keys are absent
+     */
+    Map<String, Map<String, Object>> getAll(Collection<String> keys);
+    
+    /**
+     * Put several inventory data entries in one round trip
+     * @param entries inventory data by cache key
+     */
+    void putAll(Map<String, Map<String, Object>> entries);
+    
     /**
      * Remove specific cache entry
      * @param key cache key
      */
     void remove(String key);
     
+    /**
+     * Remove several cache entries
+     * @param keys cache keys
+     */
+    void removeAll(Collection<String> keys);
+    
     /**
      * Clear all cache entries
      */
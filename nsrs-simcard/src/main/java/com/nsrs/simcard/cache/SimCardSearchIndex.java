@@ -0,0 +1,73 @@
+package com.nsrs.simcard.cache;
+
+import com.nsrs.common.utils.ShardingBatchUpdateUtils;
+import com.nsrs.common.utils.ShardingIdUtils;
+import com.nsrs.framework.search.LocalSearchIndex;
+import com.nsrs.simcard.entity.SimCard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SIM卡ICCID/IMSI子串搜索索引
+ * 记录主键为card_id，分片下标为ICCID尾号分表下标；重建时按物理分表以card_id游标分批读取
+ */
+@Component
+@RequiredArgsConstructor
+public class SimCardSearchIndex extends LocalSearchIndex {
+
+    public static final String FIELD_ICCID = "iccid";
+
+    public static final String FIELD_IMSI = "imsi";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    protected String getName() {
+        return "sim-card";
+    }
+
+    @Override
+    protected List<String> getFields() {
+        return Arrays.asList(FIELD_ICCID, FIELD_IMSI);
+    }
+
+    @Override
+    protected void loadAll(Loader loader, int batchSize) {
+        for (int shard = 0; shard < ShardingBatchUpdateUtils.SIM_CARD_SHARD_COUNT; shard++) {
+            String sql = "SELECT card_id, iccid, imsi FROM sim_card_" + shard + " WHERE card_id > ? ORDER BY card_id LIMIT ?";
+            long lastId = Long.MIN_VALUE;
+            while (true) {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, lastId, batchSize);
+                for (Map<String, Object> row : rows) {
+                    lastId = ((Number) row.get("card_id")).longValue();
+                    Map<String, String> values = new HashMap<>();
+                    values.put(FIELD_ICCID, (String) row.get("iccid"));
+                    values.put(FIELD_IMSI, (String) row.get("imsi"));
+                    loader.accept(lastId, shard, values);
+                }
+                if (rows.size() < batchSize) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 记录SIM卡写入，存在事务时在提交后生效
+     */
+    public void index(SimCard simCard) {
+        if (simCard == null || simCard.getId() == null || simCard.getIccid() == null) {
+            return;
+        }
+        Map<String, String> values = new HashMap<>();
+        values.put(FIELD_ICCID, simCard.getIccid());
+        values.put(FIELD_IMSI, simCard.getImsi());
+        index(simCard.getId(), ShardingIdUtils.iccidShardCode(simCard.getIccid()), values);
+    }
+}
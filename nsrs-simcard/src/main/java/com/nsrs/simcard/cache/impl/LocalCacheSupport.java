@@ -0,0 +1,31 @@
+package com.nsrs.simcard.cache.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.nsrs.simcard.config.CacheProperties;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the bounded local tier shared by the inventory cache implementations
+ * Entries are evicted in LRU order once the size (or weight) limit is reached and expire after write;
+ * expired entries are swept by the periodic clearExpired call
+ */
+final class LocalCacheSupport {
+
+    private LocalCacheSupport() {
+    }
+
+    static Cache<String, Map<String, Object>> build(CacheProperties properties, long expireMillis) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .expireAfterWrite(Math.max(expireMillis, 1L), TimeUnit.MILLISECONDS)
+                .recordStats();
+        if (properties.getLocalMaxWeight() > 0) {
+            return builder.maximumWeight(properties.getLocalMaxWeight())
+                    .<String, Map<String, Object>>weigher((key, data) -> data.size() + 1)
+                    .build();
+        }
+        return builder.maximumSize(properties.getLocalMaxSize()).build();
+    }
+}
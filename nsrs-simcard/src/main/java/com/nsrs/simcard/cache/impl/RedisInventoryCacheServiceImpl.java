@@ -2,126 +2,296 @@ package com.nsrs.simcard.cache.impl;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
 import com.nsrs.simcard.cache.InventoryCacheService;
 import com.nsrs.simcard.config.CacheProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Redis-based Inventory Cache Service Implementation
  * Used when cache.type=redis and Redis is available
+ * A bounded local cache sits in front of Redis; bulk reads use MGET and bulk writes are pipelined.
+ * Writes and removals are broadcast over Redis pub/sub so other nodes drop their local copies immediately
  */
 @Slf4j
 @Service
 @ConditionalOnProperty(name = "nsrs.inventory.cache.type", havingValue = "redis")
 public class RedisInventoryCacheServiceImpl implements InventoryCacheService {
-    
+
     private static final String CACHE_KEY_PREFIX = "inventory:cache:";
-    
+
+    private static final String OP_EVICT = "evict";
+    private static final String OP_CLEAR = "clear";
+
+    /**
+     * Node id, messages published by this node are ignored
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
     @Autowired(required = false)
     private RedisTemplate<String, Object> redisTemplate;
-    
+
+    @Autowired(required = false)
+    private RedisConnectionFactory connectionFactory;
+
     @Autowired
     private ObjectMapper objectMapper;
-    
+
     @Autowired
     private CacheProperties cacheProperties;
-    
+
+    private Cache<String, Map<String, Object>> localCache;
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    public void init() {
+        long expireMillis = Math.min(cacheProperties.getLocalExpireSeconds() * 1000L,
+                cacheProperties.getExpireTime() * 60 * 1000L);
+        localCache = LocalCacheSupport.build(cacheProperties, expireMillis);
+        if (!isEnabled() || connectionFactory == null) {
+            return;
+        }
+        try {
+            listenerContainer = new RedisMessageListenerContainer();
+            listenerContainer.setConnectionFactory(connectionFactory);
+            listenerContainer.addMessageListener(this::onMessage, new ChannelTopic(cacheProperties.getInvalidationChannel()));
+            listenerContainer.afterPropertiesSet();
+            listenerContainer.start();
+            log.info("Inventory cache invalidation listener started on channel {}", cacheProperties.getInvalidationChannel());
+        } catch (Exception e) {
+            log.warn("Failed to start inventory cache invalidation listener, local cache limited to {}s staleness: {}",
+                    cacheProperties.getLocalExpireSeconds(), e.getMessage());
+            listenerContainer = null;
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
     @Override
-    @SuppressWarnings("unchecked")
     public Map<String, Object> get(String key) {
         if (!isEnabled()) {
             return null;
         }
-        
+
+        Map<String, Object> local = localCache.getIfPresent(key);
+        if (local != null) {
+            return local;
+        }
         try {
-            String redisKey = CACHE_KEY_PREFIX + key;
-            Object cachedData = redisTemplate.opsForValue().get(redisKey);
-            
-            if (cachedData == null) {
+            Map<String, Object> data = toMap(key, redisTemplate.opsForValue().get(CACHE_KEY_PREFIX + key));
+            if (data == null) {
                 log.debug("Cache miss for key: {}", key);
                 return null;
             }
-            
-            // Convert cached data back to Map
-            if (cachedData instanceof String) {
-                return objectMapper.readValue((String) cachedData, new TypeReference<Map<String, Object>>() {});
-            } else if (cachedData instanceof Map) {
-                log.debug("Cache hit for key: {}", key);
-                return (Map<String, Object>) cachedData;
-            }
-            
-            log.warn("Unexpected cached data type for key: {}, type: {}", key, cachedData.getClass().getSimpleName());
-            return null;
-            
+            localCache.put(key, data);
+            return data;
+
         } catch (Exception e) {
             log.error("Failed to get cache for key: {}", key, e);
             return null;
         }
     }
-    
+
+    @Override
+    public Map<String, Map<String, Object>> getAll(Collection<String> keys) {
+        if (!isEnabled() || keys == null || keys.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Map<String, Map<String, Object>> result = new HashMap<>(localCache.getAllPresent(keys));
+        List<String> missing = keys.stream().distinct().filter(key -> !result.containsKey(key)).collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        try {
+            List<Object> values = redisTemplate.opsForValue().multiGet(
+                    missing.stream().map(key -> CACHE_KEY_PREFIX + key).collect(Collectors.toList()));
+            for (int i = 0; values != null && i < missing.size(); i++) {
+                Map<String, Object> data = toMap(missing.get(i), values.get(i));
+                if (data != null) {
+                    localCache.put(missing.get(i), data);
+                    result.put(missing.get(i), data);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to get cache for {} keys", missing.size(), e);
+        }
+        return result;
+    }
+
     @Override
     public void put(String key, Map<String, Object> data) {
         if (!isEnabled()) {
             return;
         }
-        
+
         try {
             String redisKey = CACHE_KEY_PREFIX + key;
             redisTemplate.opsForValue().set(redisKey, data, cacheProperties.getExpireTime(), TimeUnit.MINUTES);
+            localCache.put(key, data);
+            publish(OP_EVICT, Arrays.asList(key));
             log.debug("Cache entry added for key: {}", key);
         } catch (Exception e) {
             log.error("Failed to put cache for key: {}, error: {}", key, e.getMessage());
         }
     }
-    
+
+    @Override
+    public void putAll(Map<String, Map<String, Object>> entries) {
+        if (!isEnabled() || entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Object> redis = (RedisOperations<String, Object>) operations;
+                    entries.forEach((key, data) -> redis.opsForValue().set(CACHE_KEY_PREFIX + key, data,
+                            cacheProperties.getExpireTime(), TimeUnit.MINUTES));
+                    return null;
+                }
+            });
+            localCache.putAll(entries);
+            publish(OP_EVICT, entries.keySet());
+            log.debug("Cache entries added for {} keys", entries.size());
+        } catch (Exception e) {
+            log.error("Failed to put cache for {} keys, error: {}", entries.size(), e.getMessage());
+        }
+    }
+
     @Override
     public void remove(String key) {
-        if (!isEnabled()) {
+        removeAll(Arrays.asList(key));
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) {
+        if (!isEnabled() || keys == null || keys.isEmpty()) {
             return;
         }
-        
+
+        localCache.invalidateAll(keys);
         try {
-            String redisKey = CACHE_KEY_PREFIX + key;
-            redisTemplate.delete(redisKey);
-            log.debug("Cache entry removed for key: {}", key);
+            redisTemplate.delete(keys.stream().map(key -> CACHE_KEY_PREFIX + key).collect(Collectors.toList()));
+            publish(OP_EVICT, keys);
+            log.debug("Cache entries removed for keys: {}", keys);
         } catch (Exception e) {
-            log.error("Failed to remove cache for key: {}, error: {}", key, e.getMessage());
+            log.error("Failed to remove cache for keys: {}, error: {}", keys, e.getMessage());
         }
     }
-    
+
     @Override
     public void clearAll() {
         if (!isEnabled()) {
             return;
         }
-        
+
+        localCache.invalidateAll();
         try {
             Set<String> keys = redisTemplate.keys(CACHE_KEY_PREFIX + "*");
             if (keys != null && !keys.isEmpty()) {
                 redisTemplate.delete(keys);
                 log.info("Cleared all cache entries, total: {}", keys.size());
             }
+            publish(OP_CLEAR, new ArrayList<>());
         } catch (Exception e) {
             log.error("Failed to clear all cache, error: {}", e.getMessage());
         }
     }
-    
+
+    /**
+     * Redis expires its own entries; only the local tier needs sweeping
+     */
     @Override
+    @Scheduled(fixedDelayString = "${nsrs.inventory.cache.cleanup-interval-ms:60000}")
     public void clearExpired() {
-        // Redis automatically handles expiration, no manual cleanup needed
-        log.debug("Redis automatically handles expired entries");
+        localCache.cleanUp();
+        log.debug("Swept expired local cache entries, remaining: {}, stats: {}", localCache.size(), localCache.stats());
     }
-    
+
     @Override
     public boolean isEnabled() {
         return cacheProperties.isEnabled() && redisTemplate != null;
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> toMap(String key, Object cachedData) throws Exception {
+        if (cachedData == null) {
+            return null;
+        }
+        // Convert cached data back to Map
+        if (cachedData instanceof String) {
+            return objectMapper.readValue((String) cachedData, new TypeReference<Map<String, Object>>() {});
+        } else if (cachedData instanceof Map) {
+            log.debug("Cache hit for key: {}", key);
+            return (Map<String, Object>) cachedData;
+        }
+
+        log.warn("Unexpected cached data type for key: {}, type: {}", key, cachedData.getClass().getSimpleName());
+        return null;
+    }
+
+    /**
+     * Message format: nodeId|op|key1\nkey2...
+     */
+    private void publish(String op, Collection<String> keys) {
+        if (listenerContainer == null) {
+            return;
+        }
+        try {
+            byte[] channel = cacheProperties.getInvalidationChannel().getBytes(StandardCharsets.UTF_8);
+            byte[] body = String.join("|", nodeId, op, String.join("\n", keys)).getBytes(StandardCharsets.UTF_8);
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, body));
+        } catch (Exception e) {
+            log.warn("Failed to broadcast inventory cache invalidation [{} {}]: {}", op, keys, e.getMessage());
+        }
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        if (OP_CLEAR.equals(parts[1])) {
+            localCache.invalidateAll();
+        } else if (!parts[2].isEmpty()) {
+            localCache.invalidateAll(Arrays.asList(parts[2].split("\n")));
+        }
+    }
+}
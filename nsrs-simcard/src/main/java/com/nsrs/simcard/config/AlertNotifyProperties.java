@@ -0,0 +1,75 @@
+package com.nsrs.simcard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Alert Notification Dispatcher Configuration Properties
+ * Pending alert logs are queued to per-channel worker pools and delivered asynchronously
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nsrs.alert-notify")
+public class AlertNotifyProperties {
+
+    /**
+     * Maximum number of notifications queued or in delivery, further submissions stay pending until the next run
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * Number of pending/failed logs fetched per scheduled run
+     */
+    private int fetchSize = 100;
+
+    /**
+     * Worker threads per channel
+     */
+    private int workersPerChannel = 2;
+
+    /**
+     * Maximum recipients handed to a channel in one send
+     */
+    private int recipientBatchSize = 50;
+
+    /**
+     * Delivery attempts per recipient batch before the notification is marked failed
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Backoff before the first retry in milliseconds, doubled on every further attempt
+     */
+    private long initialBackoffMs = 1000;
+
+    /**
+     * Upper bound of the retry backoff in milliseconds
+     */
+    private long maxBackoffMs = 30000;
+
+    /**
+     * Repeated alerts for the same dimension within this window are not notified again; 0 disables suppression
+     */
+    private long dedupWindowMs = 1800000;
+
+    /**
+     * Channel used for recipients whose channel is disabled or not configured
+     */
+    private String defaultChannel = "log";
+
+    /**
+     * Directory of the log file sink
+     */
+    private String logDir = "./data/alert-notify";
+
+    /**
+     * Whether the email channel is enabled, otherwise email recipients go to the default channel
+     */
+    private boolean emailEnabled = false;
+
+    /**
+     * Whether the SMS channel is enabled, otherwise SMS recipients go to the default channel
+     */
+    private boolean smsEnabled = false;
+}
@@ -26,6 +26,31 @@ public class CacheProperties {
      */
     private boolean enabled = true;
     
+    /**
+     * Maximum number of entries in the local cache (used when localMaxWeight is 0)
+     */
+    private long localMaxSize = 10000;
+    
+    /**
+     * Maximum total weight of the local cache, weight of an entry is its number of fields; 0 means bounded by size
+     */
+    private long localMaxWeight = 0;
+    
+    /**
+     * Local cache expiration time in seconds when backed by Redis (never longer than expireTime)
+     */
+    private long localExpireSeconds = 30;
+    
+    /**
+     * Interval of the background expiry sweep in milliseconds
+     */
+    private long cleanupIntervalMs = 60000;
+    
+    /**
+     * Redis pub/sub channel used to broadcast invalidations to other nodes
+     */
+    private String invalidationChannel = "nsrs:inventory:cache:invalidation";
+    
     public String getType() {
         return type;
     }
@@ -50,6 +75,46 @@ public class CacheProperties {
         this.enabled = enabled;
     }
     
+    public long getLocalMaxSize() {
+        return localMaxSize;
+    }
+    
+    public void setLocalMaxSize(long localMaxSize) {
+        this.localMaxSize = localMaxSize;
+    }
+    
+    public long getLocalMaxWeight() {
+        return localMaxWeight;
+    }
+    
+    public void setLocalMaxWeight(long localMaxWeight) {
+        this.localMaxWeight = localMaxWeight;
+    }
+    
+    public long getLocalExpireSeconds() {
+        return localExpireSeconds;
+    }
+    
+    public void setLocalExpireSeconds(long localExpireSeconds) {
+        this.localExpireSeconds = localExpireSeconds;
+    }
+    
+    public long getCleanupIntervalMs() {
+        return cleanupIntervalMs;
+    }
+    
+    public void setCleanupIntervalMs(long cleanupIntervalMs) {
+        this.cleanupIntervalMs = cleanupIntervalMs;
+    }
+    
+    public String getInvalidationChannel() {
+        return invalidationChannel;
+    }
+    
+    public void setInvalidationChannel(String invalidationChannel) {
+        this.invalidationChannel = invalidationChannel;
+    }
+    
     /**
      * Check if memory cache is enabled
      */
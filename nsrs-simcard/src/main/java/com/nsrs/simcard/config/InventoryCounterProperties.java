@@ -0,0 +1,31 @@
+package com.nsrs.simcard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 库存计数配置
+ * SIM卡与IMSI的状态流转在同一事务内增量更新计数表，批次库存、状态统计和库存预警直接读取计数，
+ * 不再跨分表执行COUNT；定时对账任务按批次/IMSI组重新统计并校正偏差，定时压缩任务清理零计数行
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nsrs.inventory-counter")
+public class InventoryCounterProperties {
+
+    /**
+     * 是否启用库存计数，关闭后统计直接查询SIM卡/IMSI分表
+     */
+    private boolean enabled = true;
+
+    /**
+     * 对账间隔（毫秒）
+     */
+    private long reconcileIntervalMs = 21600000;
+
+    /**
+     * 清理零计数行的间隔（毫秒）
+     */
+    private long compactIntervalMs = 3600000;
+}
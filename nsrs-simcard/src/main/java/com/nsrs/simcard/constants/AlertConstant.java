@@ -11,6 +11,7 @@ public class AlertConstant {
      */
     public static final int ALERT_TYPE_LOW_INVENTORY = 1;
     public static final int ALERT_TYPE_HIGH_INVENTORY = 2;
+    public static final int ALERT_TYPE_DEPLETION_FORECAST = 3;
     
     /**
      * Alert Status
@@ -24,6 +25,10 @@ public class AlertConstant {
     public static final int NOTIFY_STATUS_PENDING = 0;
     public static final int NOTIFY_STATUS_SENT = 1;
     public static final int NOTIFY_STATUS_FAILED = 2;
+    /**
+     * Not sent because the same dimension was notified within the dedup window
+     */
+    public static final int NOTIFY_STATUS_SUPPRESSED = 3;
     
     /**
      * Alert Level
@@ -59,6 +64,9 @@ public class AlertConstant {
     public static final String HIGH_INVENTORY_MESSAGE_TEMPLATE = 
         "High inventory alert: %s current count is %d, above threshold %d";
     
+    public static final String DEPLETION_FORECAST_MESSAGE_TEMPLATE = 
+        "Depletion forecast: %s current count is %d, expected to run out in %d days";
+    
     /**
      * Log Messages
      */
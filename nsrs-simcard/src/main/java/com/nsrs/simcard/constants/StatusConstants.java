@@ -35,6 +35,7 @@ public class StatusConstants {
     public static final int NOTIFY_STATUS_PENDING = 0;
     public static final int NOTIFY_STATUS_SENT = 1;
     public static final int NOTIFY_STATUS_FAILED = 2;
+    public static final int NOTIFY_STATUS_SUPPRESSED = 3;
     
     // Approval Status
     public static final int APPROVAL_STATUS_PENDING = 0;
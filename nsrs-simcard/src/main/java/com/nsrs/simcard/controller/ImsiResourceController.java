@@ -20,6 +20,8 @@ import javax.validation.Valid;
 
 import javax.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * IMSI Resource Controller
@@ -156,6 +158,20 @@ public class ImsiResourceController extends BaseExcelController<ImsiResource, Im
         }
     }
 
+    @Override
+    protected void processImportChunk(List<ImsiResource> chunk) {
+        // 分块已在validateImportChunk中校验，importValidatedImsiResource为独立事务，不再重复校验
+        if (!imsiResourceService.importValidatedImsiResource(chunk)) {
+            throw new BusinessException("No valid IMSI resources in chunk");
+        }
+    }
+
+    @Override
+    protected Map<Integer, String> validateImportChunk(List<ImsiResource> chunk) {
+        // 已存在的IMSI、不存在的组或供应商在此整批拒绝并写入错误报告，不在分块导入时静默跳过
+        return imsiResourceService.validateImportChunk(chunk);
+    }
+
     /**
      * 导出Excel
      *
@@ -182,6 +198,11 @@ public class ImsiResourceController extends BaseExcelController<ImsiResource, Im
         return imsiResourceService.queryImsiResourceForExport(queryParams);
     }
 
+    @Override
+    protected void streamDataForExport(ImsiResourceQuery queryParams, Consumer<ImsiResource> consumer) {
+        imsiResourceService.streamImsiResourceForExport(queryParams, consumer);
+    }
+
     @Override
     protected String getExportTitle() {
         return "IMSI资源导出";
@@ -0,0 +1,70 @@
+package com.nsrs.simcard.controller;
+
+import com.nsrs.common.model.CommonResult;
+import com.nsrs.simcard.entity.SimCardStockCounter;
+import com.nsrs.simcard.model.dto.InventoryCubeVerifyResult;
+import com.nsrs.simcard.model.query.InventoryCubeQuery;
+import com.nsrs.simcard.service.InventoryCounterService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * SIM Card Inventory Cube Controller
+ * 库存立方切片/上卷查询、与sim_card实际统计的比对校验以及零计数行清理
+ */
+@Slf4j
+@RestController
+@RequestMapping("/simcard/inventory-cube")
+@Tag(name = "SIM Card Inventory Cube")
+public class InventoryCubeController {
+
+    @Autowired
+    private InventoryCounterService inventoryCounterService;
+
+    /**
+     * Slice and Roll Up Inventory Cube
+     */
+    @PostMapping("/query")
+    @Operation(summary = "Slice and Roll Up Inventory Cube")
+    public CommonResult<List<SimCardStockCounter>> query(@RequestBody InventoryCubeQuery query) {
+        if (!inventoryCounterService.isEnabled()) {
+            return CommonResult.failed("Inventory counter is disabled");
+        }
+        return CommonResult.success(inventoryCounterService.queryCube(query));
+    }
+
+    /**
+     * Verify Inventory Cube Against Raw Counts
+     */
+    @GetMapping("/verify")
+    @Operation(summary = "Verify Inventory Cube Against Raw Counts")
+    public CommonResult<InventoryCubeVerifyResult> verify(
+            @Parameter(description = "Batch ID, all batches when absent") @RequestParam(required = false) Long batchId) {
+        if (!inventoryCounterService.isEnabled()) {
+            return CommonResult.failed("Inventory counter is disabled");
+        }
+        InventoryCubeVerifyResult result = batchId != null
+                ? inventoryCounterService.verifySimCardBatch(batchId) : inventoryCounterService.verifySimCards();
+        log.info("Inventory cube verified: batches={}, cubeTotal={}, actualTotal={}, mismatches={}",
+                result.getBatchCount(), result.getCubeTotal(), result.getActualTotal(), result.getMismatches().size());
+        return CommonResult.success(result);
+    }
+
+    /**
+     * Compact Inventory Cube
+     */
+    @PostMapping("/compact")
+    @Operation(summary = "Compact Inventory Cube")
+    public CommonResult<Integer> compact() {
+        if (!inventoryCounterService.isEnabled()) {
+            return CommonResult.failed("Inventory counter is disabled");
+        }
+        return CommonResult.success(inventoryCounterService.compactSimCardCounters());
+    }
+}
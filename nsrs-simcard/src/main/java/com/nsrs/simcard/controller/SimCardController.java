@@ -3,13 +3,22 @@ package com.nsrs.simcard.controller;
 
 import com.nsrs.common.core.domain.PageRequest;
 import com.nsrs.common.core.domain.PageResult;
+import com.nsrs.common.enums.ExportFormatEnum;
+import com.nsrs.common.exception.BusinessException;
 import com.nsrs.common.model.CommonResult;
 import com.nsrs.common.utils.ExcelUtils;
+import com.nsrs.common.utils.StreamingExportWriter;
 import com.nsrs.simcard.dto.BatchAllocateRequest;
 import com.nsrs.simcard.dto.BatchRecycleRequest;
 import com.nsrs.simcard.entity.SimCard;
+import com.nsrs.simcard.model.dto.PersonalizationLoadResult;
+import com.nsrs.simcard.model.dto.SimCardBulkImportResult;
+import com.nsrs.simcard.model.dto.SimCardTransitionResult;
+import com.nsrs.simcard.model.request.PersonalizationLoadRequest;
+import com.nsrs.simcard.model.request.SimCardTransitionRequest;
 import com.nsrs.simcard.model.dto.SimCardDTO;
 import com.nsrs.simcard.model.query.SimCardQuery;
+import com.nsrs.simcard.service.PersonalizationLoadService;
 import com.nsrs.simcard.service.SimCardService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,6 +30,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -37,6 +48,9 @@ public class SimCardController {
     @Autowired
     private SimCardService simCardService;
 
+    @Autowired
+    private PersonalizationLoadService personalizationLoadService;
+
     /**
      * Paginated Query SIM Card List
      */
@@ -244,6 +258,18 @@ public class SimCardController {
         }
     }
 
+    /**
+     * Set-based SIM Card State Transition by ICCID list or ICCID range
+     *
+     * @param request Transition request
+     * @return Per-card outcomes
+     */
+    @PostMapping("/transition")
+    @Operation(summary = "Batch SIM Card State Transition")
+    public CommonResult<SimCardTransitionResult> transitionCards(@RequestBody @Valid SimCardTransitionRequest request) {
+        return CommonResult.success(simCardService.transitionCards(request));
+    }
+
     /**
      * Activate SIM Card
      * 【分表兼容性警告】建议提供ICCID参数以确保分表环境下的数据准确性
@@ -368,6 +394,31 @@ public class SimCardController {
         }
     }
 
+    /**
+     * Streaming export, reads every shard table through a database cursor without the export row limit
+     *
+     * @param format Export format: xlsx, csv, csv.gz
+     * @param queryParams Query parameters
+     * @param response HTTP response
+     */
+    @Operation(summary = "Streaming Export SIM Cards")
+    @PostMapping("/export-stream")
+    public void exportStream(@RequestParam(value = "format", defaultValue = "xlsx") String format,
+                             @RequestBody(required = false) SimCardQuery queryParams,
+                             HttpServletResponse response) {
+        ExportFormatEnum exportFormat = ExportFormatEnum.getByCode(format);
+        if (exportFormat == null) {
+            throw new BusinessException("400", "Unsupported export format: " + format);
+        }
+        SimCardQuery query = queryParams != null ? queryParams : new SimCardQuery();
+        try (StreamingExportWriter<SimCard> writer = StreamingExportWriter.open(exportFormat, "SIM Card Export", "SIM Cards", SimCard.class, response)) {
+            simCardService.streamForExport(query, writer);
+        } catch (IOException e) {
+            log.error("Failed to stream export SIM cards", e);
+            throw new RuntimeException("Export failed: " + e.getMessage());
+        }
+    }
+
     /**
      * Excel Batch Import SIM Cards
      *
@@ -390,7 +441,7 @@ public class SimCardController {
             Long operatorUserId = 1L;
             
             Map<String, Object> result = simCardService.batchImportFromExcel(dataList, batchId, operatorUserId);
-            String message = result != null ? "Import successful, processed " + dataList.size() + " records" : "Import failed";
+            String message = result != null ? String.valueOf(result.get("message")) : "Import failed";
             return CommonResult.success(message);
         } catch (Exception e) {
             log.error("Failed to import SIM cards from Excel", e);
@@ -398,6 +449,58 @@ public class SimCardController {
         }
     }
 
+    /**
+     * Excel Bulk Import SIM Cards with throughput and row-level rejects
+     *
+     * @param file Excel file
+     * @param batchId Batch ID
+     * @return Import result
+     */
+    @PostMapping("/bulk-import")
+    @Operation(summary = "Excel Bulk Import SIM Cards")
+    public CommonResult<SimCardBulkImportResult> bulkImport(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("batchId") Long batchId) {
+        List<SimCard> dataList = ExcelUtils.importExcel(file, SimCard.class);
+        if (dataList == null || dataList.isEmpty()) {
+            return CommonResult.failed("No data found in Excel file");
+        }
+        
+        // Get current operator ID (simplified handling, should be obtained from security context in practice)
+        Long operatorUserId = 1L;
+        
+        return CommonResult.success(simCardService.bulkImport(dataList, batchId, operatorUserId));
+    }
+
+    /**
+     * Load Vendor Personalization File: SIM cards, IMSIs and IMSI-ICCID mappings in one pass
+     * The upload is buffered to a temp file and its declared quantity and checksum are verified first; a file that
+     * fails verification loads nothing. A verified file is then loaded in separately committed chunks
+     *
+     * @param file Vendor personalization output file
+     * @param request Load parameters, resumeFromRow continues a stopped load
+     * @return Load result
+     */
+    @PostMapping("/personalization-load")
+    @Operation(summary = "Load Vendor Personalization File")
+    public CommonResult<PersonalizationLoadResult> personalizationLoad(
+            @RequestParam("file") MultipartFile file,
+            @Valid PersonalizationLoadRequest request) {
+        if (file.isEmpty()) {
+            return CommonResult.failed("Personalization file is empty");
+        }
+        
+        // Get current operator ID (simplified handling, should be obtained from security context in practice)
+        request.setOperatorUserId(1L);
+        
+        try (InputStream in = file.getInputStream()) {
+            return CommonResult.success(personalizationLoadService.load(in, request));
+        } catch (IOException e) {
+            log.error("Failed to read personalization file", e);
+            return CommonResult.failed("Failed to read personalization file: " + e.getMessage());
+        }
+    }
+
     /**
      * Download Import Template
      *
@@ -200,9 +200,9 @@ public class SimCardInventoryAlertController {
     @Operation(summary = "Process Pending Notifications")
     public CommonResult<String> processPendingNotifications() {
         try {
-            notificationService.processPendingNotifications();
-            log.info("Pending notifications processed successfully");
-            return CommonResult.success("Pending notifications processed successfully");
+            int queuedCount = notificationService.processPendingNotifications();
+            log.info("Pending notifications queued successfully, count: {}", queuedCount);
+            return CommonResult.success("Pending notifications queued successfully, count: " + queuedCount);
         } catch (Exception e) {
             log.error("Failed to process pending notifications", e);
             return CommonResult.failed("Failed to process pending notifications: " + e.getMessage());
@@ -245,6 +245,9 @@ public class SimCardInventoryAlertController {
         List<SimCardInventoryAlertLogDTO> recentLogs = alertLogService.getRecentLogs(5);
         status.put("recentLogs", recentLogs);
         
+        // 通知分发统计
+        status.put("notificationDispatch", notificationService.getDispatchStatistics());
+        
         return CommonResult.success(status);
     }
 }
\ No newline at end of file
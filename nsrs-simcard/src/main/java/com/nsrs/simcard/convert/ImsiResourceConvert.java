@@ -0,0 +1,31 @@
+package com.nsrs.simcard.convert;
+
+import com.nsrs.simcard.entity.ImsiResource;
+import com.nsrs.simcard.model.dto.ImsiResourceDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * IMSI资源对象转换（编译期生成，替代BeanUtils.copyProperties的反射拷贝）
+ * 按同名属性映射，类型/状态描述、分组和供应商名称由调用方补充
+ */
+@Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface ImsiResourceConvert {
+
+    ImsiResourceConvert INSTANCE = Mappers.getMapper(ImsiResourceConvert.class);
+
+    ImsiResourceDTO toDTO(ImsiResource imsiResource);
+
+    ImsiResource toEntity(ImsiResourceDTO dto);
+
+    /**
+     * 用DTO更新实体，保留ID、创建时间和创建人
+     */
+    @Mapping(target = "imsiId", ignore = true)
+    @Mapping(target = "createTime", ignore = true)
+    @Mapping(target = "createUserId", ignore = true)
+    void updateEntity(ImsiResourceDTO dto, @MappingTarget ImsiResource imsiResource);
+}
@@ -0,0 +1,32 @@
+package com.nsrs.simcard.convert;
+
+import com.nsrs.simcard.dto.SimCardDetailDTO;
+import com.nsrs.simcard.entity.SimCard;
+import com.nsrs.simcard.model.dto.SimCardDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * SIM卡对象转换（编译期生成，替代BeanUtils.copyProperties的反射拷贝）
+ * 按同名属性映射（organizationId与orgId互转），批次名称、状态描述等由调用方补充
+ */
+@Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface SimCardConvert {
+
+    SimCardConvert INSTANCE = Mappers.getMapper(SimCardConvert.class);
+
+    @Mapping(source = "organizationId", target = "orgId")
+    SimCardDTO toDTO(SimCard simCard);
+
+    @Mapping(source = "organizationId", target = "orgId")
+    SimCardDetailDTO toDetailDTO(SimCard simCard);
+
+    @Mapping(source = "orgId", target = "organizationId")
+    SimCard toEntity(SimCardDTO dto);
+
+    @Mapping(source = "orgId", target = "organizationId")
+    void updateEntity(SimCardDTO dto, @MappingTarget SimCard simCard);
+}
@@ -1,6 +1,8 @@
 package com.nsrs.simcard.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -41,6 +43,13 @@ public class ImsiGroup {
     @Schema(description = "已使用数量")
     private Integer usedCount;
     
+    /**
+     * 只通过 {@link com.nsrs.simcard.service.ImsiGroupService#reserveImsiBlock} 和 {@link com.nsrs.simcard.service.ImsiGroupService#advanceNextImsi} 推进，updateById不会覆盖
+     */
+    @TableField(value = "next_imsi", updateStrategy = FieldStrategy.NEVER)
+    @Schema(description = "下一个待分配的IMSI数值（不含前缀），为空表示尚未预留过")
+    private Long nextImsi;
+    
     @Schema(description = "创建时间")
     private Date createTime;
     
@@ -0,0 +1,35 @@
+package com.nsrs.simcard.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * IMSI库存计数实体类
+ * 主键为 IMSI组 + 状态，无组时记为0
+ */
+@Data
+@TableName("imsi_stock_counter")
+public class ImsiStockCounter {
+
+    /**
+     * IMSI组ID，0表示无组
+     */
+    private Long groupId;
+
+    /**
+     * 状态
+     */
+    private Integer status;
+
+    /**
+     * IMSI数量；增量写入时为变化量
+     */
+    private Long imsiCount;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+}
@@ -76,7 +76,7 @@ public class SimCardInventoryAlertLog {
     private Integer alertType;
     
     /**
-     * 通知状态：0-未通知，1-已通知
+     * 通知状态：0-未通知，1-已通知，2-通知失败，3-已抑制（同一维度在抑制窗口内已通知）
      */
     @TableField("notify_status")
     private Integer notifyStatus;
@@ -0,0 +1,61 @@
+package com.nsrs.simcard.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * SIM卡库存计数实体类
+ * 主键为 批次 + 卡类型 + 规格 + 供应商 + 组织 + 数据类型 + 状态，维度为空时记为0
+ * 即SIM卡库存立方，统计接口按任意维度切片、上卷都直接汇总该表
+ */
+@Data
+@TableName("sim_card_stock_counter")
+public class SimCardStockCounter {
+
+    /**
+     * 批次ID，0表示无批次
+     */
+    private Long batchId;
+
+    /**
+     * 卡类型ID，0表示未设置
+     */
+    private Long cardTypeId;
+
+    /**
+     * 规格ID，0表示未设置
+     */
+    private Long specId;
+
+    /**
+     * 供应商ID，0表示未设置
+     */
+    private Long supplierId;
+
+    /**
+     * 组织ID，0表示未分配
+     */
+    private Long orgId;
+
+    /**
+     * 数据类型，0表示未设置
+     */
+    private Integer dataType;
+
+    /**
+     * 状态
+     */
+    private Integer status;
+
+    /**
+     * 卡数量；增量写入时为变化量
+     */
+    private Long cardCount;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+}
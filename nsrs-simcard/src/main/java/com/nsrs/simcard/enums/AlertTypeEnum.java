@@ -13,7 +13,12 @@ public enum AlertTypeEnum {
     /**
      * High Inventory Alert
      */
-    HIGH(2, "High Inventory Alert");
+    HIGH(2, "High Inventory Alert"),
+    
+    /**
+     * Depletion Forecast Alert, threshold holds the estimated days to depletion
+     */
+    FORECAST(3, "Depletion Forecast Alert");
     
     private final Integer code;
     private final String description;
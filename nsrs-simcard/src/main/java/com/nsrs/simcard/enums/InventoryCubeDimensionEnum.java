@@ -0,0 +1,32 @@
+package com.nsrs.simcard.enums;
+
+/**
+ * SIM Card Inventory Cube Dimension Enumeration
+ * Each dimension maps to a key column of sim_card_stock_counter; 0 in a dimension column means not set
+ */
+public enum InventoryCubeDimensionEnum {
+
+    BATCH("batch_id"),
+
+    CARD_TYPE("card_type_id"),
+
+    SPEC("spec_id"),
+
+    SUPPLIER("supplier_id"),
+
+    ORG("org_id"),
+
+    DATA_TYPE("data_type"),
+
+    STATUS("status");
+
+    private final String column;
+
+    InventoryCubeDimensionEnum(String column) {
+        this.column = column;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+}
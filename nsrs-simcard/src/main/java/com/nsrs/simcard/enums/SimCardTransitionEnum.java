@@ -0,0 +1,73 @@
+package com.nsrs.simcard.enums;
+
+import com.nsrs.simcard.utils.SimCardConstant;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SIM Card State Transition Enumeration
+ * Each transition moves cards from one of the allowed source statuses to the target status
+ */
+public enum SimCardTransitionEnum {
+
+    /**
+     * Allocate to organization
+     */
+    ALLOCATE("Allocate", SimCardConstant.STATUS_ASSIGNED, SimCardConstant.OPERATION_ASSIGN,
+            SimCardConstant.STATUS_PUBLISHED, SimCardConstant.STATUS_ASSIGNED, SimCardConstant.STATUS_RECYCLED),
+
+    /**
+     * Recycle from organization
+     */
+    RECYCLE("Recycle", SimCardConstant.STATUS_RECYCLED, SimCardConstant.OPERATION_RECYCLE,
+            SimCardConstant.STATUS_ASSIGNED, SimCardConstant.STATUS_ACTIVATED, SimCardConstant.STATUS_DEACTIVATED),
+
+    /**
+     * Activate
+     */
+    ACTIVATE("Activate", SimCardConstant.STATUS_ACTIVATED, SimCardConstant.OPERATION_ACTIVATE,
+            SimCardConstant.STATUS_PUBLISHED, SimCardConstant.STATUS_ASSIGNED, SimCardConstant.STATUS_DEACTIVATED),
+
+    /**
+     * Deactivate
+     */
+    DEACTIVATE("Deactivate", SimCardConstant.STATUS_DEACTIVATED, SimCardConstant.OPERATION_DEACTIVATE,
+            SimCardConstant.STATUS_ACTIVATED);
+
+    private final String description;
+    private final Integer targetStatus;
+    private final Integer operationType;
+    private final List<Integer> sourceStatuses;
+
+    SimCardTransitionEnum(String description, Integer targetStatus, Integer operationType, Integer... sourceStatuses) {
+        this.description = description;
+        this.targetStatus = targetStatus;
+        this.operationType = operationType;
+        this.sourceStatuses = Collections.unmodifiableList(Arrays.asList(sourceStatuses));
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Integer getTargetStatus() {
+        return targetStatus;
+    }
+
+    public Integer getOperationType() {
+        return operationType;
+    }
+
+    public List<Integer> getSourceStatuses() {
+        return sourceStatuses;
+    }
+
+    /**
+     * Check if a card in the given status can take this transition
+     */
+    public boolean isAllowedFrom(Integer status) {
+        return status != null && sourceStatuses.contains(status);
+    }
+}
@@ -1,9 +1,12 @@
 package com.nsrs.simcard.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.nsrs.simcard.entity.ImsiResource;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.annotations.Select;
 
 import java.util.List;
@@ -47,4 +50,14 @@ public interface ImsiResourceMapper extends BaseMapper<ImsiResource> {
      * @return 受影响的行数
      */
     int batchInsert(@Param("list") List<ImsiResource> resources);
-}
\ No newline at end of file
+    
+    /**
+     * 按物理分表游标流式查询，需在事务内使用
+     * 物理分表名不属于ShardingSphere逻辑表，查询直接路由到默认数据源对应的单表
+     * 
+     * @param tableName 物理分表名
+     * @param wrapper 查询条件
+     * @return 游标
+     */
+    Cursor<ImsiResource> selectCursorByTable(@Param("tableName") String tableName, @Param(Constants.WRAPPER) Wrapper<ImsiResource> wrapper);
+}
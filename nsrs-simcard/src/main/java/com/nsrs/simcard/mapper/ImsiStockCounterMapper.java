@@ -0,0 +1,39 @@
+package com.nsrs.simcard.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.nsrs.simcard.entity.ImsiStockCounter;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * IMSI库存计数数据访问层
+ */
+@Mapper
+public interface ImsiStockCounterMapper extends BaseMapper<ImsiStockCounter> {
+
+    /**
+     * 按变化量累加计数，计数行不存在时插入
+     *
+     * @param deltas 计数变化量，imsiCount为变化量
+     * @return 影响行数
+     */
+    int upsertDeltas(@Param("list") List<ImsiStockCounter> deltas);
+
+    /**
+     * 锁定IMSI组的全部计数行（含间隙），对账期间阻塞该组的计数写入
+     *
+     * @param groupId IMSI组ID，0表示无组
+     * @return 计数行
+     */
+    List<ImsiStockCounter> selectByGroupForUpdate(@Param("groupId") Long groupId);
+
+    /**
+     * 从imsi_resource统计IMSI组的实际数量
+     *
+     * @param groupId IMSI组ID，为空时统计无组的IMSI
+     * @return 按状态分组的数量
+     */
+    List<ImsiStockCounter> countActualByGroup(@Param("groupId") Long groupId);
+}
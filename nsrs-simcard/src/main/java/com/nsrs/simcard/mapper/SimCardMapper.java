@@ -1,11 +1,14 @@
 package com.nsrs.simcard.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.nsrs.simcard.entity.SimCard;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
 import java.util.Map;
@@ -98,4 +101,14 @@ public interface SimCardMapper extends BaseMapper<SimCard> {
      * @return 库存统计结果
      */
     List<Map<String, Object>> batchCountInventoryForAlerts(@Param("alertConfigs") List<Map<String, Object>> alertConfigs);
-}
\ No newline at end of file
+    
+    /**
+     * 按物理分表游标流式查询，需在事务内使用
+     * 物理分表名不属于ShardingSphere逻辑表，查询直接路由到默认数据源对应的单表
+     * 
+     * @param tableName 物理分表名
+     * @param wrapper 查询条件
+     * @return 游标
+     */
+    Cursor<SimCard> selectCursorByTable(@Param("tableName") String tableName, @Param(Constants.WRAPPER) Wrapper<SimCard> wrapper);
+}
@@ -0,0 +1,75 @@
+package com.nsrs.simcard.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.nsrs.simcard.entity.SimCardStockCounter;
+import com.nsrs.simcard.model.query.InventoryCubeQuery;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SIM卡库存计数数据访问层
+ */
+@Mapper
+public interface SimCardStockCounterMapper extends BaseMapper<SimCardStockCounter> {
+
+    /**
+     * 按变化量累加计数，计数行不存在时插入
+     *
+     * @param deltas 计数变化量，cardCount为变化量
+     * @return 影响行数
+     */
+    int upsertDeltas(@Param("list") List<SimCardStockCounter> deltas);
+
+    /**
+     * 锁定批次的全部计数行（含间隙），对账期间阻塞该批次的计数写入
+     *
+     * @param batchId 批次ID，0表示无批次
+     * @return 计数行
+     */
+    List<SimCardStockCounter> selectByBatchForUpdate(@Param("batchId") Long batchId);
+
+    /**
+     * 从sim_card统计批次的实际数量，维度为空的列返回null
+     *
+     * @param batchId 批次ID，为空时统计无批次的卡
+     * @return 按维度与状态分组的数量
+     */
+    List<SimCardStockCounter> countActualByBatch(@Param("batchId") Long batchId);
+
+    /**
+     * 按 卡类型 + 规格 + 供应商 + 组织 + 状态 汇总全部批次的计数
+     *
+     * @return 汇总计数，batchId为空
+     */
+    List<SimCardStockCounter> sumByDimension();
+
+    /**
+     * 按任意维度切片、上卷库存立方
+     *
+     * @param query 过滤条件
+     * @param columns 分组列，取自 {@link com.nsrs.simcard.enums.InventoryCubeDimensionEnum}，为空时返回总数
+     * @return 分组汇总，未分组的维度为空
+     */
+    List<SimCardStockCounter> selectCube(@Param("query") InventoryCubeQuery query, @Param("columns") List<String> columns);
+
+    /**
+     * 按卡类型汇总库存立方，关联卡类型名称
+     *
+     * @param status 状态，为空时不限
+     * @param batchId 批次ID，为空时不限
+     * @param orgId 组织ID，为空时不限
+     * @return cardType, cardTypeCode, count
+     */
+    List<Map<String, Object>> countByCardType(@Param("status") Integer status, @Param("batchId") Long batchId,
+                                              @Param("orgId") Long orgId);
+
+    /**
+     * 删除全部零计数行
+     *
+     * @return 删除行数
+     */
+    int deleteZeroCounters();
+}
@@ -0,0 +1,57 @@
+package com.nsrs.simcard.model.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SIM卡库存立方校验结果
+ * 逐批次比较计数表与sim_card实际统计，不加锁、不校正；进行中的流转可能造成短暂偏差
+ */
+@Data
+public class InventoryCubeVerifyResult {
+
+    @Data
+    public static class Mismatch {
+
+        private Long batchId;
+
+        private Long cardTypeId;
+
+        private Long specId;
+
+        private Long supplierId;
+
+        private Long orgId;
+
+        private Integer dataType;
+
+        private Integer status;
+
+        /**
+         * 计数表中的数量
+         */
+        private Long cubeCount;
+
+        /**
+         * sim_card实际统计的数量
+         */
+        private Long actualCount;
+    }
+
+    /**
+     * 校验的批次数（含无批次）
+     */
+    private int batchCount;
+
+    private long cubeTotal;
+
+    private long actualTotal;
+
+    private List<Mismatch> mismatches = new ArrayList<>();
+
+    public boolean isConsistent() {
+        return mismatches.isEmpty();
+    }
+}
@@ -0,0 +1,120 @@
+package com.nsrs.simcard.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 卡商个人化文件入库结果
+ * 每个分块单独提交，失败时 committedRow 之前的行已入库，可从 committedRow 续传
+ */
+@Data
+public class PersonalizationLoadResult {
+
+    /**
+     * 读取的数据行数
+     */
+    private long totalRows;
+
+    /**
+     * 续传跳过的行数
+     */
+    private long skippedRows;
+
+    /**
+     * 入库的卡数（同时写入SIM卡、IMSI与映射）
+     */
+    private long loadedCount;
+
+    /**
+     * 拒绝行数
+     */
+    private long rejectCount;
+
+    /**
+     * 已提交的最后一个数据行号，续传时作为 resumeFromRow
+     */
+    private long committedRow;
+
+    /**
+     * 提交的分块数
+     */
+    private int chunkCount;
+
+    /**
+     * 是否读完整个文件且数量与校验和一致；校验失败时为false且未入库任何数据
+     */
+    private boolean completed;
+
+    /**
+     * 文件头声明的数量
+     */
+    private Long declaredQuantity;
+
+    /**
+     * 文件尾声明的校验和
+     */
+    private String declaredChecksum;
+
+    /**
+     * 数据行实际校验和
+     */
+    private String actualChecksum;
+
+    /**
+     * 数量与校验和是否一致（未声明的项不参与比对）
+     */
+    private boolean checksumValid;
+
+    /**
+     * 失败原因，成功时为空
+     */
+    private String message;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 吞吐量（行/秒）
+     */
+    private long rowsPerSecond;
+
+    /**
+     * 被拒绝的行，最多保留 {@link #MAX_REJECTS} 条
+     */
+    private List<Reject> rejects = new ArrayList<>();
+
+    public static final int MAX_REJECTS = 1000;
+
+    /**
+     * 记录一条拒绝，超出上限只计数
+     */
+    public void reject(long rowNumber, String iccid, String imsi, String reason) {
+        rejectCount++;
+        if (rejects.size() < MAX_REJECTS) {
+            rejects.add(new Reject(rowNumber, iccid, imsi, reason));
+        }
+    }
+
+    /**
+     * 被拒绝的行及原因
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Reject {
+
+        private long rowNumber;
+
+        private String iccid;
+
+        private String imsi;
+
+        private String reason;
+    }
+}
@@ -0,0 +1,74 @@
+package com.nsrs.simcard.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SIM卡批量导入结果
+ */
+@Data
+public class SimCardBulkImportResult {
+
+    /**
+     * 导入总行数
+     */
+    private int totalCount;
+
+    /**
+     * 成功导入数
+     */
+    private int successCount;
+
+    /**
+     * 拒绝行数
+     */
+    private int rejectCount;
+
+    /**
+     * 处理的分块数
+     */
+    private int chunkCount;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 吞吐量（行/秒）
+     */
+    private long rowsPerSecond;
+
+    /**
+     * 被拒绝的行
+     */
+    private List<Reject> rejects = new ArrayList<>();
+
+    /**
+     * 被拒绝的行及原因
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Reject {
+
+        /**
+         * 行号（从1开始，对应导入数据中的顺序）
+         */
+        private int rowNumber;
+
+        /**
+         * ICCID
+         */
+        private String iccid;
+
+        /**
+         * 拒绝原因
+         */
+        private String reason;
+    }
+}
@@ -0,0 +1,112 @@
+package com.nsrs.simcard.model.dto;
+
+import com.nsrs.simcard.entity.SimCard;
+import com.nsrs.simcard.utils.SimCardConstant;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Comparator;
+
+/**
+ * SIM卡库存计数维度：批次 + 卡类型 + 规格 + 供应商 + 组织 + 数据类型 + 状态，维度为空时记为0
+ * 不可变，可作为汇总变化量的键；按主键顺序比较，用于保证计数行的加锁顺序一致
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class SimCardCounterKey implements Comparable<SimCardCounterKey> {
+
+    private static final Comparator<SimCardCounterKey> ORDER = Comparator
+            .comparingLong(SimCardCounterKey::getBatchId)
+            .thenComparingLong(SimCardCounterKey::getCardTypeId)
+            .thenComparingLong(SimCardCounterKey::getSpecId)
+            .thenComparingLong(SimCardCounterKey::getSupplierId)
+            .thenComparingLong(SimCardCounterKey::getOrgId)
+            .thenComparingInt(SimCardCounterKey::getDataType)
+            .thenComparingInt(SimCardCounterKey::getStatus);
+
+    private final long batchId;
+
+    private final long cardTypeId;
+
+    private final long specId;
+
+    private final long supplierId;
+
+    private final long orgId;
+
+    private final int dataType;
+
+    private final int status;
+
+    public SimCardCounterKey(Long batchId, Long cardTypeId, Long specId, Long supplierId, Long orgId,
+                             Integer dataType, int status) {
+        this.batchId = valueOf(batchId);
+        this.cardTypeId = valueOf(cardTypeId);
+        this.specId = valueOf(specId);
+        this.supplierId = valueOf(supplierId);
+        this.orgId = valueOf(orgId);
+        this.dataType = dataType != null ? dataType : 0;
+        this.status = status;
+    }
+
+    /**
+     * 按SIM卡当前字段取计数维度，状态为空时按status列默认值（已发布）计
+     *
+     * @return 计数维度，卡为空时返回null
+     */
+    public static SimCardCounterKey of(SimCard card) {
+        if (card == null) {
+            return null;
+        }
+        int status = card.getStatus() != null ? card.getStatus() : SimCardConstant.STATUS_PUBLISHED;
+        return new SimCardCounterKey(card.getBatchId(), card.getCardTypeId(), card.getSpecId(),
+                card.getSupplierId(), card.getOrganizationId(), card.getDataType(), status);
+    }
+
+    public SimCardCounterKey withStatus(int status) {
+        return new SimCardCounterKey(batchId, cardTypeId, specId, supplierId, orgId, dataType, status);
+    }
+
+    /**
+     * @param orgId 组织ID，为空表示清空组织
+     */
+    public SimCardCounterKey withOrgId(Long orgId) {
+        return new SimCardCounterKey(batchId, cardTypeId, specId, supplierId, orgId, dataType, status);
+    }
+
+    /**
+     * 合并部分字段更新，参数为空的维度保持不变
+     */
+    public SimCardCounterKey merge(Long batchId, Long cardTypeId, Long supplierId, Long orgId, Integer status) {
+        return new SimCardCounterKey(batchId != null ? batchId : this.batchId,
+                cardTypeId != null ? cardTypeId : this.cardTypeId,
+                specId,
+                supplierId != null ? supplierId : this.supplierId,
+                orgId != null ? orgId : this.orgId,
+                dataType,
+                status != null ? status : this.status);
+    }
+
+    /**
+     * 对应的库存预警配置键：卡类型_规格_供应商_组织，未设置的维度记为null
+     */
+    public String toAlertConfigKey() {
+        return String.format("%s_%s_%s_%s", dimension(cardTypeId), dimension(specId),
+                dimension(supplierId), dimension(orgId));
+    }
+
+    @Override
+    public int compareTo(SimCardCounterKey other) {
+        return ORDER.compare(this, other);
+    }
+
+    private static long valueOf(Long id) {
+        return id != null ? id : 0L;
+    }
+
+    private static String dimension(long id) {
+        return id != 0L ? String.valueOf(id) : "null";
+    }
+}
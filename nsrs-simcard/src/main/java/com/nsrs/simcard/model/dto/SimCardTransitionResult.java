@@ -0,0 +1,79 @@
+package com.nsrs.simcard.model.dto;
+
+import com.nsrs.simcard.enums.SimCardTransitionEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SIM卡批量状态流转结果
+ */
+@Data
+public class SimCardTransitionResult {
+
+    /**
+     * 单卡流转结果
+     */
+    public enum Result {
+        /**
+         * 已流转
+         */
+        TRANSITIONED,
+        /**
+         * ICCID不存在或无效
+         */
+        NOT_FOUND,
+        /**
+         * 当前状态不允许该流转
+         */
+        STATUS_NOT_ALLOWED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+
+        private String iccid;
+
+        private Result result;
+
+        /**
+         * 流转前状态，卡不存在时为空
+         */
+        private Integer oldStatus;
+    }
+
+    private SimCardTransitionEnum transition;
+
+    /**
+     * 请求的卡数（区间流转为区间内存在的卡数）
+     */
+    private int totalCount;
+
+    private int transitionedCount;
+
+    private int notFoundCount;
+
+    private int notAllowedCount;
+
+    /**
+     * 涉及的分表数
+     */
+    private int shardCount;
+
+    /**
+     * 执行的查询与更新语句数
+     */
+    private int statementCount;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+    private List<Outcome> outcomes = new ArrayList<>();
+}
@@ -0,0 +1,40 @@
+package com.nsrs.simcard.model.query;
+
+import com.nsrs.simcard.enums.InventoryCubeDimensionEnum;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * SIM卡库存立方查询条件
+ * 过滤条件为空表示不限，0表示维度未设置；分组维度为空时返回总数
+ */
+@Data
+@Schema(description = "SIM卡库存立方查询条件")
+public class InventoryCubeQuery {
+
+    @Schema(description = "批次ID列表")
+    private List<Long> batchIds;
+
+    @Schema(description = "卡类型ID列表")
+    private List<Long> cardTypeIds;
+
+    @Schema(description = "规格ID列表")
+    private List<Long> specIds;
+
+    @Schema(description = "供应商ID列表")
+    private List<Long> supplierIds;
+
+    @Schema(description = "组织ID列表")
+    private List<Long> orgIds;
+
+    @Schema(description = "数据类型列表")
+    private List<Integer> dataTypes;
+
+    @Schema(description = "状态列表")
+    private List<Integer> statuses;
+
+    @Schema(description = "分组维度：BATCH, CARD_TYPE, SPEC, SUPPLIER, ORG, DATA_TYPE, STATUS")
+    private List<InventoryCubeDimensionEnum> groupBy;
+}
@@ -0,0 +1,44 @@
+package com.nsrs.simcard.model.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * 卡商个人化文件入库请求
+ * 卡片维度统一取请求参数，供应商为空时取批次的供应商
+ */
+@Data
+@Schema(description = "卡商个人化文件入库请求")
+public class PersonalizationLoadRequest {
+
+    @Schema(description = "SIM卡批次ID", required = true)
+    @NotNull(message = "Batch ID cannot be null")
+    private Long batchId;
+
+    @Schema(description = "IMSI组ID，文件中的IMSI须以组的IMSI前缀开头", required = true)
+    @NotNull(message = "IMSI group ID cannot be null")
+    private Long imsiGroupId;
+
+    @Schema(description = "卡类型ID")
+    private Long cardTypeId;
+
+    @Schema(description = "规格ID")
+    private Long specId;
+
+    @Schema(description = "数据类型")
+    private Integer dataType;
+
+    @Schema(description = "供应商ID")
+    private Long supplierId;
+
+    @Schema(description = "组织ID")
+    private Long orgId;
+
+    @Schema(description = "从该数据行之后继续入库（续传时取上次结果的 committedRow），默认0")
+    private long resumeFromRow;
+
+    @Schema(description = "操作人ID")
+    private Long operatorUserId;
+}
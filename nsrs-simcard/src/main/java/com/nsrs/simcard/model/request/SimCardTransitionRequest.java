@@ -0,0 +1,46 @@
+package com.nsrs.simcard.model.request;
+
+import com.nsrs.simcard.enums.SimCardTransitionEnum;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * SIM卡批量状态流转请求，ICCID列表与ICCID区间二选一
+ */
+@Data
+@Schema(description = "SIM卡批量状态流转请求")
+public class SimCardTransitionRequest {
+
+    @Schema(description = "流转类型：ALLOCATE/RECYCLE/ACTIVATE/DEACTIVATE", required = true)
+    @NotNull(message = "Transition cannot be null")
+    private SimCardTransitionEnum transition;
+
+    @Schema(description = "ICCID列表")
+    private List<String> iccids;
+
+    @Schema(description = "起始ICCID（含）")
+    private String startIccid;
+
+    @Schema(description = "结束ICCID（含）")
+    private String endIccid;
+
+    @Schema(description = "目标组织ID，分配时必填")
+    private Long orgId;
+
+    @Schema(description = "操作用户ID", required = true)
+    @NotNull(message = "Operator user ID cannot be null")
+    private Long operatorUserId;
+
+    @Schema(description = "备注")
+    private String remark;
+
+    /**
+     * 是否按ICCID区间流转
+     */
+    public boolean useRange() {
+        return iccids == null || iccids.isEmpty();
+    }
+}
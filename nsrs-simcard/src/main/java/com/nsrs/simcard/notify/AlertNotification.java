@@ -0,0 +1,47 @@
+package com.nsrs.simcard.notify;
+
+import lombok.Data;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alert notification submitted to the dispatcher
+ * One notification per alert log, recipients are grouped by channel name
+ */
+@Data
+public class AlertNotification {
+
+    /**
+     * Alert log ID, notifications for a log already in delivery are dropped
+     */
+    private Long logId;
+
+    private Long alertId;
+
+    /**
+     * Alert dimension (card type/spec/supplier/org and alert type), used to suppress repeated alerts
+     */
+    private String dimensionKey;
+
+    private Date alertTime;
+
+    private String subject;
+
+    /**
+     * Full message body (email)
+     */
+    private String content;
+
+    /**
+     * Single line message body (SMS, log sink)
+     */
+    private String shortContent;
+
+    /**
+     * Channel name to recipients
+     */
+    private Map<String, List<String>> recipients = new LinkedHashMap<>();
+}
@@ -0,0 +1,30 @@
+package com.nsrs.simcard.notify;
+
+import java.util.List;
+
+/**
+ * Alert notification delivery channel
+ * Each channel gets its own worker pool in the dispatcher
+ */
+public interface AlertNotificationChannel {
+
+    /**
+     * Channel name, e.g. email, sms, log
+     */
+    String getName();
+
+    /**
+     * Whether the channel is enabled, recipients of a disabled channel go to the default channel
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Deliver the notification to a batch of recipients
+     * @param recipients Recipients of this batch, empty when the alert has no recipients configured
+     * @param notification Notification to deliver
+     * @throws Exception when delivery failed, the batch is retried with backoff
+     */
+    void send(List<String> recipients, AlertNotification notification) throws Exception;
+}
@@ -0,0 +1,429 @@
+package com.nsrs.simcard.notify;
+
+import com.nsrs.simcard.config.AlertNotifyProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Alert Notification Dispatcher
+ * Delivers notifications asynchronously on per-channel worker pools so the caller never waits on email/SMS gateways.
+ * Admission is bounded by queueCapacity; recipients are sent in batches of recipientBatchSize;
+ * a failed batch is rescheduled with exponential backoff up to maxAttempts;
+ * when a log finally fails, the recipients already reached are remembered so that a later retry of the same log
+ * only resends to the failed batches;
+ * notifications for a log already in delivery are dropped and repeated alerts for the same dimension within
+ * dedupWindowMs are suppressed
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AlertNotificationDispatcher {
+
+    /**
+     * Maximum number of partially delivered logs remembered, the oldest is forgotten and fully resent on retry
+     */
+    private static final int MAX_PARTIAL_DELIVERIES = 10000;
+
+    /**
+     * Result of a submission
+     */
+    public enum Submission {
+        /** Queued for delivery, the completion callback will be invoked */
+        ACCEPTED,
+        /** The same alert log is already in delivery */
+        DUPLICATE,
+        /** The same dimension was notified within the dedup window */
+        SUPPRESSED,
+        /** Queue is full, retry on the next run */
+        REJECTED
+    }
+
+    private final AlertNotifyProperties properties;
+
+    private final List<AlertNotificationChannel> channels;
+
+    private final Map<String, AlertNotificationChannel> channelMap = new HashMap<>();
+
+    private final Map<String, ThreadPoolExecutor> executors = new HashMap<>();
+
+    private final Map<String, ChannelStats> channelStats = new LinkedHashMap<>();
+
+    /**
+     * Alert log IDs in delivery
+     */
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Dimension key to the time of its last accepted notification
+     */
+    private final Map<String, Long> lastDispatchTime = new ConcurrentHashMap<>();
+
+    /**
+     * Alert log ID to the recipients already delivered by a failed delivery of that log
+     */
+    private final Map<Long, Set<String>> partialDeliveries = Collections.synchronizedMap(
+            new LinkedHashMap<Long, Set<String>>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Set<String>> eldest) {
+                    return size() > MAX_PARTIAL_DELIVERIES;
+                }
+            });
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder duplicated = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private Semaphore permits;
+
+    private ScheduledExecutorService retryScheduler;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(Math.max(1, properties.getQueueCapacity()));
+        int workers = Math.max(1, properties.getWorkersPerChannel());
+        for (AlertNotificationChannel channel : channels) {
+            String name = channel.getName();
+            AtomicInteger threadIndex = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "alert-notify-" + name + "-" + threadIndex.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            channelMap.put(name, channel);
+            executors.put(name, executor);
+            channelStats.put(name, new ChannelStats());
+        }
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "alert-notify-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Alert notification dispatcher started, channels: {}, default channel: {}",
+                channelMap.keySet(), properties.getDefaultChannel());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    /**
+     * Submit a notification for asynchronous delivery
+     * @param notification Notification to deliver
+     * @param onComplete Invoked once on a worker thread with true when every recipient batch was delivered
+     *                   (immediately when an earlier delivery of the log already reached every recipient);
+     *                   only invoked for ACCEPTED submissions
+     * @return Submission result
+     */
+    public Submission dispatch(AlertNotification notification, Consumer<Boolean> onComplete) {
+        Long logId = notification.getLogId();
+        if (logId != null && !inFlight.add(logId)) {
+            duplicated.increment();
+            return Submission.DUPLICATE;
+        }
+
+        long now = System.currentTimeMillis();
+        String dimensionKey = notification.getDimensionKey();
+        if (!reserveDimension(dimensionKey, now)) {
+            release(logId);
+            suppressed.increment();
+            log.info("Alert notification suppressed, dimension {} already notified within {} ms, log ID: {}",
+                    dimensionKey, properties.getDedupWindowMs(), logId);
+            return Submission.SUPPRESSED;
+        }
+
+        if (!permits.tryAcquire()) {
+            lastDispatchTime.remove(dimensionKey, now);
+            release(logId);
+            rejected.increment();
+            log.warn("Alert notification queue is full ({}), log ID {} stays pending", properties.getQueueCapacity(), logId);
+            return Submission.REJECTED;
+        }
+
+        Set<String> delivered = logId != null ? partialDeliveries.remove(logId) : null;
+        Map<String, List<List<String>>> batches = route(notification,
+                delivered != null ? delivered : Collections.emptySet());
+        int batchCount = batches.values().stream().mapToInt(List::size).sum();
+        Delivery delivery = new Delivery(notification, onComplete, now, batchCount, delivered);
+        accepted.increment();
+        if (batchCount == 0) {
+            // Every recipient was reached by an earlier delivery of this log
+            delivery.complete();
+            return Submission.ACCEPTED;
+        }
+        batches.forEach((channelName, channelBatches) ->
+                channelBatches.forEach(recipients -> submit(delivery, channelName, recipients, 1)));
+        return Submission.ACCEPTED;
+    }
+
+    /**
+     * Delivery statistics: submission counters and per-channel throughput, queue and latency
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("accepted", accepted.sum());
+        statistics.put("duplicated", duplicated.sum());
+        statistics.put("suppressed", suppressed.sum());
+        statistics.put("rejected", rejected.sum());
+        statistics.put("inFlight", inFlight.size());
+        statistics.put("queueCapacity", properties.getQueueCapacity());
+        Map<String, Object> channelStatistics = new LinkedHashMap<>();
+        channelStats.forEach((name, stats) -> channelStatistics.put(name, stats.toMap(executors.get(name))));
+        statistics.put("channels", channelStatistics);
+        return statistics;
+    }
+
+    private boolean reserveDimension(String dimensionKey, long now) {
+        long window = properties.getDedupWindowMs();
+        if (dimensionKey == null || window <= 0) {
+            return true;
+        }
+        AtomicBoolean reserved = new AtomicBoolean();
+        lastDispatchTime.compute(dimensionKey, (key, last) -> {
+            if (last == null || now - last >= window) {
+                reserved.set(true);
+                return now;
+            }
+            return last;
+        });
+        return reserved.get();
+    }
+
+    private void release(Long logId) {
+        if (logId != null) {
+            inFlight.remove(logId);
+        }
+    }
+
+    /**
+     * Resolve each recipient group to an enabled channel (falling back to the default channel) and split it into batches,
+     * leaving out recipients already delivered
+     */
+    private Map<String, List<List<String>>> route(AlertNotification notification, Set<String> delivered) {
+        Map<String, List<String>> byChannel = new LinkedHashMap<>();
+        notification.getRecipients().forEach((channelName, recipients) -> {
+            AlertNotificationChannel channel = channelMap.get(channelName);
+            String target = channel != null && channel.isEnabled() ? channelName : properties.getDefaultChannel();
+            byChannel.computeIfAbsent(target, key -> new ArrayList<>()).addAll(recipients);
+        });
+        if (byChannel.isEmpty()) {
+            byChannel.put(properties.getDefaultChannel(), new ArrayList<>());
+        }
+
+        int batchSize = Math.max(1, properties.getRecipientBatchSize());
+        Map<String, List<List<String>>> batches = new LinkedHashMap<>();
+        byChannel.forEach((channelName, routed) -> {
+            List<String> recipients = routed.stream()
+                    .filter(recipient -> !delivered.contains(deliveryKey(channelName, recipient)))
+                    .collect(Collectors.toList());
+            List<List<String>> channelBatches = new ArrayList<>();
+            if (routed.isEmpty() && !delivered.contains(deliveryKey(channelName, ""))) {
+                channelBatches.add(Collections.emptyList());
+            }
+            for (int i = 0; i < recipients.size(); i += batchSize) {
+                channelBatches.add(new ArrayList<>(recipients.subList(i, Math.min(i + batchSize, recipients.size()))));
+            }
+            if (!channelBatches.isEmpty()) {
+                batches.put(channelName, channelBatches);
+            }
+        });
+        return batches;
+    }
+
+    /**
+     * Key of a delivered recipient; a batch without recipients is keyed by the channel alone
+     */
+    private static String deliveryKey(String channelName, String recipient) {
+        return channelName + '\n' + recipient;
+    }
+
+    private void submit(Delivery delivery, String channelName, List<String> recipients, int attempt) {
+        AlertNotificationChannel channel = channelMap.get(channelName);
+        ThreadPoolExecutor executor = executors.get(channelName);
+        if (channel == null || executor == null) {
+            log.error("Alert notification channel {} not found, log ID: {}", channelName, delivery.notification.getLogId());
+            delivery.batchDone(channelName, recipients, false);
+            return;
+        }
+        try {
+            executor.execute(() -> send(delivery, channel, recipients, attempt));
+        } catch (RejectedExecutionException e) {
+            log.error("Alert notification channel {} is shut down, log ID: {}", channelName, delivery.notification.getLogId());
+            delivery.batchDone(channelName, recipients, false);
+        }
+    }
+
+    private void send(Delivery delivery, AlertNotificationChannel channel, List<String> recipients, int attempt) {
+        ChannelStats stats = channelStats.get(channel.getName());
+        AlertNotification notification = delivery.notification;
+        try {
+            channel.send(recipients, notification);
+            long now = System.currentTimeMillis();
+            long alertLatency = notification.getAlertTime() != null ? now - notification.getAlertTime().getTime() : -1;
+            stats.recordSent(recipients.size(), now - delivery.enqueueTime, alertLatency);
+            delivery.batchDone(channel.getName(), recipients, true);
+        } catch (Exception e) {
+            if (attempt < properties.getMaxAttempts()) {
+                long backoff = backoff(attempt);
+                stats.retried.increment();
+                log.warn("Alert notification via {} failed (attempt {}), retrying in {} ms, log ID: {}, error: {}",
+                        channel.getName(), attempt, backoff, notification.getLogId(), e.getMessage());
+                try {
+                    retryScheduler.schedule(() -> submit(delivery, channel.getName(), recipients, attempt + 1),
+                            backoff, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException rejected) {
+                    stats.failed.increment();
+                    delivery.batchDone(channel.getName(), recipients, false);
+                }
+            } else {
+                stats.failed.increment();
+                log.error("Alert notification via {} failed after {} attempts, log ID: {}, error: {}",
+                        channel.getName(), attempt, notification.getLogId(), e.getMessage(), e);
+                delivery.batchDone(channel.getName(), recipients, false);
+            }
+        }
+    }
+
+    private long backoff(int attempt) {
+        long backoff = properties.getInitialBackoffMs() << Math.min(attempt - 1, 30);
+        return Math.max(0, Math.min(backoff, properties.getMaxBackoffMs()));
+    }
+
+    /**
+     * Tracks the recipient batches of one accepted notification
+     */
+    private class Delivery {
+
+        private final AlertNotification notification;
+        private final Consumer<Boolean> onComplete;
+        private final long enqueueTime;
+        private final AtomicInteger remaining;
+        private final AtomicBoolean failed = new AtomicBoolean();
+
+        /**
+         * Recipients delivered by this and earlier deliveries of the same log
+         */
+        private final Set<String> delivered = ConcurrentHashMap.newKeySet();
+
+        Delivery(AlertNotification notification, Consumer<Boolean> onComplete, long enqueueTime, int batches,
+                 Set<String> previouslyDelivered) {
+            this.notification = notification;
+            this.onComplete = onComplete;
+            this.enqueueTime = enqueueTime;
+            this.remaining = new AtomicInteger(batches);
+            if (previouslyDelivered != null) {
+                delivered.addAll(previouslyDelivered);
+            }
+        }
+
+        void batchDone(String channelName, List<String> recipients, boolean success) {
+            if (success) {
+                if (recipients.isEmpty()) {
+                    delivered.add(deliveryKey(channelName, ""));
+                }
+                recipients.forEach(recipient -> delivered.add(deliveryKey(channelName, recipient)));
+            } else {
+                failed.set(true);
+            }
+            if (remaining.decrementAndGet() > 0) {
+                return;
+            }
+            complete();
+        }
+
+        void complete() {
+            boolean succeeded = !failed.get();
+            Long logId = notification.getLogId();
+            if (!succeeded) {
+                if (notification.getDimensionKey() != null) {
+                    // Allow the next alert of this dimension to be notified
+                    lastDispatchTime.remove(notification.getDimensionKey(), enqueueTime);
+                }
+                if (logId != null && !delivered.isEmpty()) {
+                    // A retry of this log only resends to the failed batches
+                    partialDeliveries.put(logId, delivered);
+                }
+            }
+            release(logId);
+            permits.release();
+            try {
+                onComplete.accept(succeeded);
+            } catch (Exception e) {
+                log.error("Alert notification completion callback failed, log ID: {}", notification.getLogId(), e);
+            }
+        }
+    }
+
+    /**
+     * Per-channel counters, latencies are measured from enqueue and from alert time to delivery of each batch
+     */
+    private static class ChannelStats {
+
+        private final LongAdder sentBatches = new LongAdder();
+        private final LongAdder sentRecipients = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder retried = new LongAdder();
+        private final LongAdder latencyTotal = new LongAdder();
+        private final AtomicLong latencyMax = new AtomicLong();
+        private final LongAdder alertLatencyTotal = new LongAdder();
+        private final LongAdder alertLatencyCount = new LongAdder();
+
+        void recordSent(int recipients, long latency, long alertLatency) {
+            sentBatches.increment();
+            sentRecipients.add(recipients);
+            latencyTotal.add(latency);
+            latencyMax.accumulateAndGet(latency, Math::max);
+            if (alertLatency >= 0) {
+                alertLatencyTotal.add(alertLatency);
+                alertLatencyCount.increment();
+            }
+        }
+
+        Map<String, Object> toMap(ThreadPoolExecutor executor) {
+            long batches = sentBatches.sum();
+            long alertCount = alertLatencyCount.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("sentBatches", batches);
+            map.put("sentRecipients", sentRecipients.sum());
+            map.put("failed", failed.sum());
+            map.put("retried", retried.sum());
+            map.put("queueSize", executor.getQueue().size());
+            map.put("activeWorkers", executor.getActiveCount());
+            map.put("avgLatencyMs", batches == 0 ? 0 : latencyTotal.sum() / batches);
+            map.put("maxLatencyMs", latencyMax.get());
+            map.put("avgAlertToDeliveryMs", alertCount == 0 ? 0 : alertLatencyTotal.sum() / alertCount);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.nsrs.simcard.notify.channel;
+
+import com.nsrs.simcard.config.AlertNotifyProperties;
+import com.nsrs.simcard.notify.AlertNotification;
+import com.nsrs.simcard.notify.AlertNotificationChannel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Email channel
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailAlertChannel implements AlertNotificationChannel {
+
+    public static final String NAME = "email";
+
+    private final AlertNotifyProperties properties;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return properties.isEmailEnabled();
+    }
+
+    @Override
+    public void send(List<String> recipients, AlertNotification notification) {
+        log.info("Sending email notification to: {}", recipients);
+
+        // TODO: Implement actual email sending logic
+        // This is a placeholder for email service integration
+        // Example: emailService.sendEmail(recipients, notification.getSubject(), notification.getContent());
+
+        log.info("Email notification sent successfully to: {}", recipients);
+    }
+}
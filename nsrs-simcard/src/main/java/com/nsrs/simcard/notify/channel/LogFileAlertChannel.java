@@ -0,0 +1,56 @@
+package com.nsrs.simcard.notify.channel;
+
+import com.nsrs.simcard.config.AlertNotifyProperties;
+import com.nsrs.simcard.notify.AlertNotification;
+import com.nsrs.simcard.notify.AlertNotificationChannel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Log file sink, the default channel
+ * Appends one line per recipient batch to a daily file under logDir
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LogFileAlertChannel implements AlertNotificationChannel {
+
+    public static final String NAME = "log";
+
+    private final AlertNotifyProperties properties;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void send(List<String> recipients, AlertNotification notification) throws IOException {
+        Date now = new Date();
+        String line = String.format("%s\tlog=%s\talert=%s\trecipients=%s\t%s\t%s%n",
+                new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(now), notification.getLogId(),
+                notification.getAlertId(), String.join(",", recipients), notification.getSubject(),
+                notification.getShortContent());
+        Path file = Paths.get(properties.getLogDir(), "alert-notify-" + new SimpleDateFormat("yyyyMMdd").format(now) + ".log");
+        synchronized (this) {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(line);
+            }
+        }
+        log.info("Alert notification written to {}: log ID {}, recipients {}", file, notification.getLogId(), recipients);
+    }
+}
@@ -0,0 +1,44 @@
+package com.nsrs.simcard.notify.channel;
+
+import com.nsrs.simcard.config.AlertNotifyProperties;
+import com.nsrs.simcard.notify.AlertNotification;
+import com.nsrs.simcard.notify.AlertNotificationChannel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * SMS channel
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SmsAlertChannel implements AlertNotificationChannel {
+
+    public static final String NAME = "sms";
+
+    private final AlertNotifyProperties properties;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return properties.isSmsEnabled();
+    }
+
+    @Override
+    public void send(List<String> recipients, AlertNotification notification) {
+        log.info("Sending SMS notification to: {}", recipients);
+
+        // TODO: Implement actual SMS sending logic
+        // This is a placeholder for SMS service integration
+        // Example: smsService.sendSms(recipients, notification.getShortContent());
+
+        log.info("SMS notification sent successfully to: {}", recipients);
+    }
+}
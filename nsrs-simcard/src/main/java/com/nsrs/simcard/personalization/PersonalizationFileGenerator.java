@@ -0,0 +1,139 @@
+package com.nsrs.simcard.personalization;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+/**
+ * 合成个人化文件生成器，用于测试与压测
+ * 按 {@link PersonalizationFileReader} 的格式输出：ICCID 连续递增并带Luhn校验位，IMSI 连续递增，
+ * PIN/PUK/KI/OPc 为随机占位值；文件尾写入数据行CRC32
+ */
+public class PersonalizationFileGenerator {
+
+    private static final String COLUMNS = "ICCID/IMSI/PIN1/PUK1/PIN2/PUK2/KI/OPC/ADM1";
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * 不含校验位的ICCID起始值（18位）
+     */
+    private String iccidStart = "898600000000000000";
+
+    /**
+     * 起始IMSI（15位）
+     */
+    private String imsiStart = "460000000000000";
+
+    /**
+     * 数据行分隔：true为逗号（CSV），false为空格（定长对齐）
+     */
+    private boolean csv;
+
+    private long seed = 1L;
+
+    public PersonalizationFileGenerator iccidStart(String iccidStart) {
+        this.iccidStart = iccidStart;
+        return this;
+    }
+
+    public PersonalizationFileGenerator imsiStart(String imsiStart) {
+        this.imsiStart = imsiStart;
+        return this;
+    }
+
+    public PersonalizationFileGenerator csv(boolean csv) {
+        this.csv = csv;
+        return this;
+    }
+
+    public PersonalizationFileGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * 第 index 张卡（从0开始）的ICCID
+     */
+    public String iccid(long index) {
+        String body = add(iccidStart, index);
+        return body + PersonalizationFileReader.luhnCheckDigit(body);
+    }
+
+    /**
+     * 第 index 张卡（从0开始）的IMSI
+     */
+    public String imsi(long index) {
+        return add(imsiStart, index);
+    }
+
+    /**
+     * 生成文件
+     *
+     * @param out 输出流，不关闭
+     * @param quantity 卡数量
+     */
+    public void write(OutputStream out, long quantity) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII));
+        writer.write("* SYNTHETIC PERSONALIZATION OUTPUT FILE\n");
+        writer.write("Customer: NSRS\n");
+        writer.write(PersonalizationFileReader.HEADER_QUANTITY + ": " + quantity + "\n");
+        writer.write("Type: USIM\n");
+        writer.write(PersonalizationFileReader.HEADER_VAR_OUT + ": " + COLUMNS + "\n");
+
+        Random random = new Random(seed);
+        CRC32 crc = new CRC32();
+        String separator = csv ? "," : " ";
+        StringBuilder line = new StringBuilder(160);
+        for (long i = 0; i < quantity; i++) {
+            line.setLength(0);
+            line.append(iccid(i)).append(separator)
+                    .append(imsi(i)).append(separator)
+                    .append(digits(random, 4)).append(separator)
+                    .append(digits(random, 8)).append(separator)
+                    .append(digits(random, 4)).append(separator)
+                    .append(digits(random, 8)).append(separator)
+                    .append(hex(random, 32)).append(separator)
+                    .append(hex(random, 32)).append(separator)
+                    .append(hex(random, 16)).append('\n');
+            String text = line.toString();
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            crc.update(bytes, 0, bytes.length);
+            writer.write(text);
+        }
+        writer.write(PersonalizationFileReader.TRAILER_CHECKSUM + ": " + String.format("%08X", crc.getValue()) + "\n");
+        writer.flush();
+    }
+
+    private static String add(String start, long offset) {
+        String value = String.valueOf(Long.parseLong(start) + offset);
+        if (value.length() > start.length()) {
+            throw new IllegalArgumentException("Sequence overflows " + start.length() + " digits");
+        }
+        StringBuilder padded = new StringBuilder(start.length());
+        for (int i = value.length(); i < start.length(); i++) {
+            padded.append('0');
+        }
+        return padded.append(value).toString();
+    }
+
+    private static String digits(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(chars);
+    }
+
+    private static String hex(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = HEX[random.nextInt(16)];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,259 @@
+package com.nsrs.simcard.personalization;
+
+import com.nsrs.common.exception.BusinessException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * 卡商个人化输出文件流式读取器
+ * <p>
+ * 文件格式：
+ * <pre>
+ * * 以星号开头的行为注释
+ * Quantity: 1000              文件头，Key: Value，Quantity 为卡数量
+ * Var_Out: ICCID/IMSI/PIN1/PUK1/KI/OPC
+ * 8986001234567890123 460001234567890 1234 12345678 &lt;KI&gt; &lt;OPC&gt;
+ * ...
+ * Checksum: 1A2B3C4D          可选的文件尾，数据行CRC32（每行去除首尾空白后以换行结尾）
+ * </pre>
+ * 数据行按 Var_Out 声明的列顺序排列，列之间为逗号（CSV）或空白（定长对齐），ICCID、IMSI列必须存在。
+ * 逐行读取，内存占用与文件大小无关；数量与校验和在读到文件尾后由 {@link #getQuantity()}、{@link #getChecksum()} 与
+ * {@link #getActualChecksum()} 比对
+ */
+public class PersonalizationFileReader implements Closeable {
+
+    public static final String HEADER_QUANTITY = "Quantity";
+
+    public static final String HEADER_VAR_OUT = "Var_Out";
+
+    public static final String TRAILER_CHECKSUM = "Checksum";
+
+    public static final String COLUMN_ICCID = "ICCID";
+
+    public static final String COLUMN_IMSI = "IMSI";
+
+    private static final Pattern CSV_SEPARATOR = Pattern.compile("\\s*,\\s*");
+
+    private static final Pattern BLANK_SEPARATOR = Pattern.compile("\\s+");
+
+    private final BufferedReader reader;
+
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    private final CRC32 crc = new CRC32();
+
+    private List<String> columns = Collections.emptyList();
+
+    private int iccidColumn = -1;
+
+    private int imsiColumn = -1;
+
+    private long rowNumber;
+
+    private long lineNumber;
+
+    private String checksum;
+
+    private boolean finished;
+
+    public PersonalizationFileReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+        readHeader();
+    }
+
+    /**
+     * 读取文件头直到 Var_Out 行
+     */
+    private void readHeader() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("*")) {
+                continue;
+            }
+            int colon = trimmed.indexOf(':');
+            if (colon <= 0) {
+                throw new BusinessException("Invalid personalization file header at line " + lineNumber);
+            }
+            String key = trimmed.substring(0, colon).trim();
+            String value = trimmed.substring(colon + 1).trim();
+            if (HEADER_VAR_OUT.equalsIgnoreCase(key)) {
+                columns = Arrays.asList(value.toUpperCase(Locale.ROOT).split("\\s*/\\s*"));
+                iccidColumn = columns.indexOf(COLUMN_ICCID);
+                imsiColumn = columns.indexOf(COLUMN_IMSI);
+                if (iccidColumn < 0 || imsiColumn < 0) {
+                    throw new BusinessException("Var_Out must declare ICCID and IMSI columns: " + value);
+                }
+                return;
+            }
+            headers.put(key, value);
+        }
+        throw new BusinessException("Personalization file has no Var_Out line");
+    }
+
+    /**
+     * 读取下一张卡
+     *
+     * @return 下一张卡，文件结束时返回null
+     */
+    public PersonalizationRecord next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("*")) {
+                continue;
+            }
+            if (trimmed.regionMatches(true, 0, TRAILER_CHECKSUM + ":", 0, TRAILER_CHECKSUM.length() + 1)) {
+                checksum = trimmed.substring(TRAILER_CHECKSUM.length() + 1).trim().toUpperCase(Locale.ROOT);
+                continue;
+            }
+            if (checksum != null) {
+                throw new BusinessException("Data line after checksum trailer at line " + lineNumber);
+            }
+            byte[] bytes = (trimmed + "\n").getBytes(StandardCharsets.US_ASCII);
+            crc.update(bytes, 0, bytes.length);
+            rowNumber++;
+            String[] values = (trimmed.indexOf(',') >= 0 ? CSV_SEPARATOR : BLANK_SEPARATOR).split(trimmed);
+            String iccid = iccidColumn < values.length ? values[iccidColumn] : null;
+            String imsi = imsiColumn < values.length ? values[imsiColumn] : null;
+            return new PersonalizationRecord(rowNumber, iccid, imsi);
+        }
+        finished = true;
+        return null;
+    }
+
+    /**
+     * 文件头（不含 Var_Out）
+     */
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 文件头声明的卡数量，未声明时为空
+     */
+    public Long getQuantity() {
+        String quantity = headers.get(HEADER_QUANTITY);
+        if (quantity == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(quantity);
+        } catch (NumberFormatException e) {
+            throw new BusinessException("Invalid Quantity header: " + quantity);
+        }
+    }
+
+    /**
+     * 文件尾声明的校验和，未声明时为空
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * 已读取数据行的CRC32
+     */
+    public String getActualChecksum() {
+        return String.format("%08X", crc.getValue());
+    }
+
+    /**
+     * 已读取的数据行数
+     */
+    public long getRowCount() {
+        return rowNumber;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * ICCID校验：18到20位数字，末位为Luhn校验位
+     */
+    public static boolean isValidIccid(String iccid) {
+        if (iccid == null || iccid.length() < 18 || iccid.length() > 20) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = iccid.length() - 1, position = 0; i >= 0; i--, position++) {
+            char c = iccid.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            int digit = c - '0';
+            if (position % 2 == 1) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+        }
+        return sum % 10 == 0;
+    }
+
+    /**
+     * 计算ICCID的Luhn校验位
+     *
+     * @param iccidWithoutCheckDigit 不含校验位的ICCID
+     */
+    public static char luhnCheckDigit(String iccidWithoutCheckDigit) {
+        int sum = 0;
+        for (int i = iccidWithoutCheckDigit.length() - 1, position = 1; i >= 0; i--, position++) {
+            int digit = iccidWithoutCheckDigit.charAt(i) - '0';
+            if (position % 2 == 1) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+
+    /**
+     * IMSI校验：15位数字
+     */
+    public static boolean isValidImsi(String imsi) {
+        if (imsi == null || imsi.length() != 15) {
+            return false;
+        }
+        for (int i = 0; i < imsi.length(); i++) {
+            char c = imsi.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
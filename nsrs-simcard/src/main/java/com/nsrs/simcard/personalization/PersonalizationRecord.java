@@ -0,0 +1,24 @@
+package com.nsrs.simcard.personalization;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 个人化文件中的一张卡
+ * 只保留入库需要的ICCID和IMSI，KI/OPc等密钥列读取后即丢弃，不进入内存对象
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonalizationRecord {
+
+    /**
+     * 数据行号（从1开始，不含文件头）
+     */
+    private long rowNumber;
+
+    private String iccid;
+
+    private String imsi;
+}
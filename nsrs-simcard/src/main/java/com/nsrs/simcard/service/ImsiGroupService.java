@@ -7,6 +7,7 @@ import com.nsrs.simcard.entity.ImsiGroup;
 import com.nsrs.simcard.model.dto.ImsiGroupDTO;
 import com.nsrs.simcard.model.query.ImsiGroupQuery;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -78,6 +79,34 @@ public interface ImsiGroupService extends IService<ImsiGroup> {
      */
     boolean updateUsedCount(Long groupId, int increment);
     
+    /**
+     * 原子预留IMSI组内一段连续的IMSI
+     * 在独立事务中锁定IMSI组记录，从组上记录的下一个待分配值开始预留并推进，同时增加已使用数量；
+     * 组上尚无记录时按已有IMSI的最大值初始化（仅首次需要跨分表查询）
+     *
+     * @param groupId 组ID
+     * @param count 预留数量
+     * @return 预留区间的起始值（不含前缀）
+     */
+    long reserveImsiBlock(Long groupId, int count);
+    
+    /**
+     * 生成失败时归还预留占用的使用数量，预留的区间不再复用
+     *
+     * @param groupId 组ID
+     * @param count 预留数量
+     */
+    void releaseImsiBlock(Long groupId, int count);
+    
+    /**
+     * 生成以外的途径（新增、导入、个人化数据加载）写入组内IMSI后推进下一个待分配值，
+     * 避免之后预留的区间包含已存在的IMSI；组上尚未记录待分配值时无需处理，首次预留会按已有IMSI的最大值初始化
+     *
+     * @param groupId 组ID
+     * @param imsis 写入的IMSI
+     */
+    void advanceNextImsi(Long groupId, Collection<String> imsis);
+    
     /**
      * 更新IMSI组可用数量
      *
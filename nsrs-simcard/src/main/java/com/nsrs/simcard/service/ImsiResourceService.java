@@ -9,6 +9,8 @@ import com.nsrs.simcard.model.query.ImsiResourceQuery;
 import com.nsrs.simcard.model.request.ImsiGenerateRequest;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * IMSI资源服务接口
@@ -152,13 +154,30 @@ public interface ImsiResourceService extends IService<ImsiResource> {
     int countAvailableImsiByGroupId(Long groupId);
 
     /**
-     * 批量导入IMSI资源
+     * 批量导入IMSI资源，先按 {@link #validateImportChunk} 整批校验，未通过的记录跳过
      *
      * @param dataList IMSI资源列表
      * @return 导入结果
      */
     boolean batchImportImsiResource(List<ImsiResource> dataList);
 
+    /**
+     * 导入已通过 {@link #validateImportChunk} 校验的IMSI资源，不再重复校验；IMSI已被并发写入时由唯一键约束拒绝
+     *
+     * @param validatedList 已校验的IMSI资源列表
+     * @return 导入结果
+     */
+    boolean importValidatedImsiResource(List<ImsiResource> validatedList);
+
+    /**
+     * 整批校验待导入的IMSI资源：IMSI非空、批内不重复且不存在，IMSI组与供应商存在；
+     * 已存在的IMSI按分表各一次IN查询，组与供应商各一次批量查询
+     *
+     * @param dataList IMSI资源列表
+     * @return 列表下标 -> 错误信息，全部通过时返回空Map
+     */
+    Map<Integer, String> validateImportChunk(List<ImsiResource> dataList);
+
     /**
      * 查询需要导出的IMSI资源数据
      *
@@ -166,4 +185,13 @@ public interface ImsiResourceService extends IService<ImsiResource> {
      * @return IMSI资源列表
      */
     List<ImsiResource> queryImsiResourceForExport(ImsiResourceQuery queryParams);
-}
\ No newline at end of file
+
+    /**
+     * 流式读取需要导出的IMSI资源数据（逐个分表游标读取）
+     *
+     * @param queryParams 查询参数
+     * @param consumer 数据消费者
+     * @return 读取的记录数
+     */
+    long streamImsiResourceForExport(ImsiResourceQuery queryParams, Consumer<ImsiResource> consumer);
+}
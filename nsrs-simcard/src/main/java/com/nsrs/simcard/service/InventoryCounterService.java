@@ -0,0 +1,118 @@
+package com.nsrs.simcard.service;
+
+import com.nsrs.simcard.entity.ImsiStockCounter;
+import com.nsrs.simcard.entity.SimCardStockCounter;
+import com.nsrs.simcard.model.dto.InventoryCubeVerifyResult;
+import com.nsrs.simcard.model.dto.SimCardCounterKey;
+import com.nsrs.simcard.model.query.InventoryCubeQuery;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 库存计数服务接口
+ * 状态流转产生的变化量在当前事务内按维度汇总，提交前一次性写入计数表，与状态变更同时提交或回滚
+ */
+public interface InventoryCounterService {
+
+    /**
+     * 是否启用库存计数
+     */
+    boolean isEnabled();
+
+    /**
+     * 记录SIM卡计数变化：原维度减去数量，新维度加上数量
+     *
+     * @param before 变化前的维度，新增卡时为空
+     * @param after 变化后的维度，删除卡时为空
+     * @param count 卡数量
+     */
+    void recordSimCardChange(SimCardCounterKey before, SimCardCounterKey after, int count);
+
+    /**
+     * 记录IMSI计数变化
+     *
+     * @param groupId IMSI组ID
+     * @param oldStatus 原状态，新增IMSI时为空
+     * @param newStatus 新状态，删除IMSI时为空
+     * @param count IMSI数量
+     */
+    void recordImsiChange(Long groupId, Integer oldStatus, Integer newStatus, int count);
+
+    /**
+     * 按状态统计SIM卡数量
+     *
+     * @param batchId 批次ID，为空时不限
+     * @param orgId 组织ID，为空时不限
+     * @return 状态 -> 数量
+     */
+    Map<Integer, Long> countSimCardsByStatus(Long batchId, Long orgId);
+
+    /**
+     * 按 卡类型 + 规格 + 供应商 + 组织 + 状态 汇总全部批次的SIM卡数量，维度为0表示未设置
+     */
+    List<SimCardStockCounter> sumSimCardsByDimension();
+
+    /**
+     * 按任意维度切片、上卷SIM卡库存立方（已提交的计数）
+     *
+     * @param query 过滤条件与分组维度
+     * @return 分组汇总，未分组的维度为空，数量为0的分组不返回
+     */
+    List<SimCardStockCounter> queryCube(InventoryCubeQuery query);
+
+    /**
+     * 按卡类型汇总SIM卡数量
+     *
+     * @return cardType, cardTypeCode, count，按数量降序
+     */
+    List<Map<String, Object>> countSimCardsByCardType(Integer status, Long batchId, Long orgId);
+
+    /**
+     * 校验单个批次：比较计数与sim_card实际统计，不加锁、不校正
+     *
+     * @param batchId 批次ID，为空时校验无批次的卡
+     */
+    InventoryCubeVerifyResult verifySimCardBatch(Long batchId);
+
+    /**
+     * 校验全部批次（含无批次的卡）
+     */
+    InventoryCubeVerifyResult verifySimCards();
+
+    /**
+     * 压缩库存立方：删除全部零计数行
+     *
+     * @return 删除的行数
+     */
+    int compactSimCardCounters();
+
+    /**
+     * 按状态统计IMSI组的IMSI数量
+     *
+     * @param groupId IMSI组ID
+     * @return 状态 -> 数量
+     */
+    Map<Integer, Long> countImsiByStatus(Long groupId);
+
+    /**
+     * 全部IMSI组的计数行（已提交的计数），不含零计数行，组为0表示无组
+     */
+    List<ImsiStockCounter> listImsiCounters();
+
+    /**
+     * 对账单个批次：锁定批次计数行后重新统计并校正
+     *
+     * @param batchId 批次ID，为空时对账无批次的卡
+     * @return 校正的计数行数
+     */
+    int reconcileSimCardBatch(Long batchId);
+
+    /**
+     * 对账单个IMSI组：锁定组计数行后重新统计并校正
+     *
+     * @param groupId IMSI组ID，为空时对账无组的IMSI
+     * @return 校正的计数行数
+     */
+    int reconcileImsiGroup(Long groupId);
+}
@@ -0,0 +1,23 @@
+package com.nsrs.simcard.service;
+
+import com.nsrs.simcard.model.dto.PersonalizationLoadResult;
+import com.nsrs.simcard.model.request.PersonalizationLoadRequest;
+
+import java.io.InputStream;
+
+/**
+ * 卡商个人化文件入库服务接口
+ * 一次读取卡商输出文件，SIM卡、IMSI与IMSI-ICCID映射在同一分块事务内一起写入
+ */
+public interface PersonalizationLoadService {
+
+    /**
+     * 流式读取个人化文件并入库
+     * 先将文件写入临时文件并校验数量与校验和，校验失败时不入库任何数据；通过后再按分块提交
+     *
+     * @param in 文件输入流，不关闭
+     * @param request 入库参数
+     * @return 入库结果，包含可续传的已提交行号与校验结果
+     */
+    PersonalizationLoadResult load(InputStream in, PersonalizationLoadRequest request);
+}
@@ -2,6 +2,8 @@ package com.nsrs.simcard.service;
 
 import com.nsrs.simcard.model.dto.SimCardInventoryAlertLogDTO;
 
+import java.util.Map;
+
 /**
  * SIM Card Alert Notification Service
  * Handles sending alert notifications via email, SMS, etc.
@@ -10,8 +12,9 @@ public interface SimCardAlertNotificationService {
     
     /**
      * Send alert notification
+     * Queued for asynchronous delivery, the notify status is updated when delivery completes
      * @param alertLog Alert log information
-     * @return true if notification sent successfully, false otherwise
+     * @return true if notification queued successfully, false otherwise
      */
     boolean sendAlertNotification(SimCardInventoryAlertLogDTO alertLog);
     
@@ -33,15 +36,21 @@ public interface SimCardAlertNotificationService {
     
     /**
      * Process pending notifications
-     * Processes all pending alert notifications
-     * @return Number of notifications processed
+     * Queues pending alert notifications for asynchronous delivery
+     * @return Number of notifications queued
      */
     int processPendingNotifications();
     
     /**
      * Retry failed notifications
-     * Retries notifications that failed to send
-     * @return Number of notifications retried
+     * Queues notifications that failed to send for another delivery
+     * @return Number of notifications queued
      */
     int retryFailedNotifications();
+    
+    /**
+     * Get notification dispatch statistics
+     * @return Submission counters and per-channel throughput, queue size and delivery latency
+     */
+    Map<String, Object> getDispatchStatistics();
 }
\ No newline at end of file
@@ -70,6 +70,16 @@ public interface SimCardInventoryAlertService extends IService<SimCardInventoryA
      */
     List<SimCardInventoryAlertDTO> listActiveAlerts();
     
+    /**
+     * 根据库存耗尽预测生成预警日志
+     * 匹配配置键相同的启用低库存预警配置，同一配置一天内只生成一次预测预警
+     * @param configKey 配置键：卡类型_规格_供应商_组织
+     * @param currentCount 当前可用数量
+     * @param daysToDepletion 预计耗尽天数
+     * @return 生成的预警日志数量
+     */
+    int createDepletionForecastAlerts(String configKey, int currentCount, int daysToDepletion);
+    
     /**
      * 清理过期缓存
      */
@@ -7,13 +7,17 @@ import com.nsrs.common.core.domain.PageResult;
 import com.nsrs.simcard.dto.SimCardBatchOperationRequest;
 import com.nsrs.simcard.dto.SimCardDetailDTO;
 import com.nsrs.simcard.entity.SimCard;
+import com.nsrs.simcard.model.dto.SimCardBulkImportResult;
+import com.nsrs.simcard.model.dto.SimCardTransitionResult;
 import com.nsrs.simcard.model.dto.SimCardDTO;
 import com.nsrs.simcard.model.query.SimCardQuery;
+import com.nsrs.simcard.model.request.SimCardTransitionRequest;
 import com.nsrs.simcard.vo.SimCardVO;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.Map;
 
 /**
@@ -324,6 +328,29 @@ public interface SimCardService extends IService<SimCard> {
      */
     Map<String, Object> batchImportFromExcel(List<SimCard> simCards, Long batchId, Long operatorUserId);
 
+    /**
+     * Bulk Import SIM Cards
+     * Rows are processed in chunks: ICCIDs are grouped by shard table, duplicates are detected with one IN query
+     * per shard, cards are written with multi-row inserts and one aggregated operation record is kept per chunk.
+     * Each chunk commits in its own transaction; cards without a status are imported as published
+     *
+     * @param simCards SIM Card List
+     * @param batchId Batch ID
+     * @param operatorUserId Operator User ID
+     * @return Import Result with throughput and row-level rejects
+     */
+    SimCardBulkImportResult bulkImport(List<SimCard> simCards, Long batchId, Long operatorUserId);
+
+    /**
+     * Set-based SIM Card State Transition
+     * Cards given by an ICCID list or an ICCID range are partitioned by shard table; each chunk of a shard is locked
+     * with one query and moved with one conditional UPDATE ... WHERE iccid IN (...) AND status IN (...)
+     *
+     * @param request Transition Request
+     * @return Transition Result with per-card outcomes
+     */
+    SimCardTransitionResult transitionCards(SimCardTransitionRequest request);
+
     /**
      * Query SIM Cards for Export
      *
@@ -339,4 +366,13 @@ public interface SimCardService extends IService<SimCard> {
      * @return SIM Card List for Export
      */
     List<SimCard> queryForExport(SimCardQuery queryParams);
+
+    /**
+     * 流式导出SIM卡，逐个分表通过数据库游标读取，不受导出条数限制
+     *
+     * @param queryParams 查询参数
+     * @param consumer 逐行消费者
+     * @return 导出记录数
+     */
+    long streamForExport(SimCardQuery queryParams, Consumer<SimCard> consumer);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.nsrs.simcard.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
@@ -10,6 +11,7 @@ import com.nsrs.common.exception.BusinessException;
 import com.nsrs.simcard.entity.ImsiGroup;
 import com.nsrs.simcard.enums.ErrorMessageEnum;
 import com.nsrs.simcard.mapper.ImsiGroupMapper;
+import com.nsrs.simcard.mapper.ImsiResourceMapper;
 import com.nsrs.simcard.model.dto.ImsiGroupDTO;
 import com.nsrs.simcard.model.query.ImsiGroupQuery;
 import com.nsrs.simcard.service.ImsiGroupService;
@@ -18,9 +20,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.text.DecimalFormat;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -32,6 +36,8 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class ImsiGroupServiceImpl extends ServiceImpl<ImsiGroupMapper, ImsiGroup> implements ImsiGroupService {
+
+    private final ImsiResourceMapper imsiResourceMapper;
     
     @Override
     public PageResult<ImsiGroupDTO> pageImsiGroup(PageRequest<ImsiGroupQuery> request) {
@@ -215,6 +221,98 @@ public class ImsiGroupServiceImpl extends ServiceImpl<ImsiGroupMapper, ImsiGroup
         return this.updateById(imsiGroup);
     }
     
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public long reserveImsiBlock(Long groupId, int count) {
+        ImsiGroup imsiGroup = this.getOne(new LambdaQueryWrapper<ImsiGroup>()
+                .eq(ImsiGroup::getGroupId, groupId)
+                .last("FOR UPDATE"));
+        if (imsiGroup == null) {
+            throw new BusinessException(ErrorMessageEnum.IMSI_GROUP_NOT_EXISTS.getMessage());
+        }
+        if (StringUtils.isBlank(imsiGroup.getImsiStart()) || StringUtils.isBlank(imsiGroup.getImsiEnd())) {
+            throw new BusinessException(ErrorMessageEnum.IMSI_RANGE_INCOMPLETE.getMessage());
+        }
+        
+        long start = imsiGroup.getNextImsi() != null ? imsiGroup.getNextImsi() : initialNextImsi(imsiGroup);
+        long end = Long.parseLong(extractNumericPart(imsiGroup.getImsiEnd(), imsiGroup.getImsiPrefix()));
+        if (start + count - 1 > end) {
+            throw new BusinessException("Generate count exceeds IMSI range");
+        }
+        
+        this.update(new LambdaUpdateWrapper<ImsiGroup>()
+                .eq(ImsiGroup::getGroupId, groupId)
+                .set(ImsiGroup::getNextImsi, start + count)
+                .set(ImsiGroup::getUpdateTime, new Date())
+                .setSql("used_count = used_count + " + count));
+        log.info("Reserved IMSI block [{}, {}] for group {}", start, start + count - 1, groupId);
+        return start;
+    }
+    
+    @Override
+    public void releaseImsiBlock(Long groupId, int count) {
+        this.update(new LambdaUpdateWrapper<ImsiGroup>()
+                .eq(ImsiGroup::getGroupId, groupId)
+                .set(ImsiGroup::getUpdateTime, new Date())
+                .setSql("used_count = GREATEST(used_count - " + count + ", 0)"));
+        log.warn("Released {} reserved IMSIs of group {}, the reserved block is skipped", count, groupId);
+    }
+    
+    @Override
+    public void advanceNextImsi(Long groupId, Collection<String> imsis) {
+        if (groupId == null || imsis == null || imsis.isEmpty()) {
+            return;
+        }
+        ImsiGroup imsiGroup = this.getById(groupId);
+        if (imsiGroup == null || imsiGroup.getNextImsi() == null) {
+            return;
+        }
+        long maxValue = -1;
+        for (String imsi : imsis) {
+            // 只处理带本组前缀的IMSI，其余不会落入本组的预留区间
+            if (StringUtils.isBlank(imsi) || (StringUtils.isNotBlank(imsiGroup.getImsiPrefix()) && !imsi.startsWith(imsiGroup.getImsiPrefix()))) {
+                continue;
+            }
+            String numericPart = extractNumericPart(imsi, imsiGroup.getImsiPrefix());
+            if (StringUtils.isNumeric(numericPart)) {
+                maxValue = Math.max(maxValue, Long.parseLong(numericPart));
+            }
+        }
+        if (maxValue < imsiGroup.getNextImsi()) {
+            return;
+        }
+        // 与预留并发时取较大值，只前进不后退
+        this.update(new LambdaUpdateWrapper<ImsiGroup>()
+                .eq(ImsiGroup::getGroupId, groupId)
+                .isNotNull(ImsiGroup::getNextImsi)
+                .setSql("next_imsi = GREATEST(next_imsi, " + (maxValue + 1) + ")"));
+    }
+    
+    /**
+     * 首次预留时确定起始值：已有IMSI的最大值加1，没有IMSI时为组的起始值
+     */
+    private long initialNextImsi(ImsiGroup imsiGroup) {
+        String maxImsi = imsiResourceMapper.getMaxImsiByGroupId(imsiGroup.getGroupId());
+        String numericPart = extractNumericPart(maxImsi, imsiGroup.getImsiPrefix());
+        if (StringUtils.isNotBlank(numericPart)) {
+            return Long.parseLong(numericPart) + 1;
+        }
+        return Long.parseLong(extractNumericPart(imsiGroup.getImsiStart(), imsiGroup.getImsiPrefix()));
+    }
+    
+    /**
+     * 去除IMSI前缀，得到数值部分
+     */
+    private static String extractNumericPart(String fullImsi, String prefix) {
+        if (StringUtils.isBlank(fullImsi)) {
+            return null;
+        }
+        if (StringUtils.isNotBlank(prefix) && fullImsi.startsWith(prefix)) {
+            return fullImsi.substring(prefix.length());
+        }
+        return fullImsi;
+    }
+    
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean updateAvailableCount(Long groupId, int increment) {
@@ -6,6 +6,7 @@ import com.nsrs.simcard.entity.ImsiResource;
 import com.nsrs.simcard.service.ImsiGroupService;
 import com.nsrs.simcard.service.ImsiGroupStockService;
 import com.nsrs.simcard.service.ImsiResourceService;
+import com.nsrs.simcard.service.InventoryCounterService;
 import com.nsrs.simcard.utils.ImsiConstant;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
+import java.util.Map;
 
 /**
  * IMSI组库存状态服务实现类
@@ -27,6 +29,9 @@ public class ImsiGroupStockServiceImpl implements ImsiGroupStockService {
     @Autowired
     private ImsiResourceService imsiResourceService;
     
+    @Autowired
+    private InventoryCounterService inventoryCounterService;
+    
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean updateGroupStock(Long groupId) {
@@ -41,19 +46,30 @@ public class ImsiGroupStockServiceImpl implements ImsiGroupStockService {
                 return false;
             }
             
-            // 统计各状态的IMSI数量
-            LambdaQueryWrapper<ImsiResource> queryWrapper = new LambdaQueryWrapper<>();
-            queryWrapper.eq(ImsiResource::getGroupId, groupId);
-            
-            // 统计总数
-            long totalCount = imsiResourceService.count(queryWrapper);
-            
-            // 统计已使用数量（状态为已绑定、已使用、已锁定的都算已使用）
-            LambdaQueryWrapper<ImsiResource> usedWrapper = new LambdaQueryWrapper<>();
-            usedWrapper.eq(ImsiResource::getGroupId, groupId)
-                      .in(ImsiResource::getStatus, ImsiConstant.STATUS_BOUND, 
-                          ImsiConstant.STATUS_USED, ImsiConstant.STATUS_LOCKED);
-            long usedCount = imsiResourceService.count(usedWrapper);
+            long totalCount;
+            long usedCount;
+            if (inventoryCounterService.isEnabled()) {
+                // 直接读取IMSI组计数
+                Map<Integer, Long> counts = inventoryCounterService.countImsiByStatus(groupId);
+                totalCount = counts.values().stream().mapToLong(Long::longValue).sum();
+                usedCount = counts.getOrDefault(ImsiConstant.STATUS_BOUND, 0L)
+                        + counts.getOrDefault(ImsiConstant.STATUS_USED, 0L)
+                        + counts.getOrDefault(ImsiConstant.STATUS_LOCKED, 0L);
+            } else {
+                // 统计各状态的IMSI数量
+                LambdaQueryWrapper<ImsiResource> queryWrapper = new LambdaQueryWrapper<>();
+                queryWrapper.eq(ImsiResource::getGroupId, groupId);
+
+                // 统计总数
+                totalCount = imsiResourceService.count(queryWrapper);
+
+                // 统计已使用数量（状态为已绑定、已使用、已锁定的都算已使用）
+                LambdaQueryWrapper<ImsiResource> usedWrapper = new LambdaQueryWrapper<>();
+                usedWrapper.eq(ImsiResource::getGroupId, groupId)
+                          .in(ImsiResource::getStatus, ImsiConstant.STATUS_BOUND,
+                              ImsiConstant.STATUS_USED, ImsiConstant.STATUS_LOCKED);
+                usedCount = imsiResourceService.count(usedWrapper);
+            }
             
             // 更新IMSI组信息
             imsiGroup.setTotalCount((int) totalCount);
@@ -8,6 +8,7 @@ import com.nsrs.common.core.domain.PageRequest;
 import com.nsrs.common.core.domain.PageResult;
 import com.nsrs.common.exception.BusinessException;
 import com.nsrs.simcard.constant.ImsiConstant;
+import com.nsrs.simcard.convert.ImsiResourceConvert;
 import com.nsrs.simcard.enums.ErrorMessageEnum;
 import com.nsrs.simcard.enums.ImsiStatusEnum;
 import com.nsrs.simcard.enums.ImsiTypeEnum;
@@ -20,22 +21,44 @@ import com.nsrs.simcard.model.query.ImsiResourceQuery;
 import com.nsrs.simcard.model.request.ImsiGenerateRequest;
 import com.nsrs.simcard.service.ImsiGroupService;
 import com.nsrs.simcard.service.ImsiResourceService;
+import com.nsrs.simcard.service.InventoryCounterService;
 import com.nsrs.simcard.service.SupplierService;
+import com.nsrs.simcard.utils.ImsiGenerator;
 import com.nsrs.common.utils.SequenceService;
+import com.nsrs.common.utils.ShardedBatchUpdateExecutor;
+import com.nsrs.common.utils.ShardedBatchUpdateResult;
+import com.nsrs.common.utils.ShardingBatchUpdateUtils;
+import com.nsrs.framework.cache.EntityCache;
+import com.nsrs.framework.cache.EntityCacheManager;
+import com.nsrs.framework.cache.EntityCacheNames;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.BeanUtils;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -49,6 +72,29 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
     private final ImsiGroupService imsiGroupService;
     private final SupplierService supplierService;
     private final SequenceService sequenceService;
+    private final EntityCacheManager entityCacheManager;
+    private final ShardedBatchUpdateExecutor shardedBatchUpdateExecutor;
+    private final InventoryCounterService inventoryCounterService;
+    
+    /**
+     * 生成IMSI时各分表并行写入的线程池
+     */
+    private ExecutorService generateExecutor;
+    
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        generateExecutor = Executors.newFixedThreadPool(ShardingBatchUpdateUtils.IMSI_RESOURCE_SHARD_COUNT, runnable -> {
+            Thread thread = new Thread(runnable, "imsi-generate-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void destroy() {
+        generateExecutor.shutdownNow();
+    }
     
     @Override
     public PageResult<ImsiResourceDTO> pageImsiResource(PageRequest<ImsiResourceQuery> request) {
@@ -137,11 +183,31 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
             return null;
         }
         
+        ImsiResource imsiResource = imsiResourceCache().get(imsi, this::loadByImsi);
+        return imsiResource != null ? convertToDTOSingle(imsiResource) : null;
+    }
+    
+    /**
+     * IMSI资源缓存（按IMSI）
+     */
+    private EntityCache<ImsiResource> imsiResourceCache() {
+        return entityCacheManager.getCache(EntityCacheNames.IMSI_RESOURCE, ImsiResource.class);
+    }
+
+    /**
+     * 按IMSI查库
+     */
+    private ImsiResource loadByImsi(String imsi) {
         LambdaQueryWrapper<ImsiResource> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(ImsiResource::getImsi, imsi);
-        
-        ImsiResource imsiResource = this.getOne(queryWrapper);
-        return imsiResource != null ? convertToDTOSingle(imsiResource) : null;
+        return this.getOne(queryWrapper);
+    }
+
+    /**
+     * IMSI资源写入后失效缓存，事务中会在提交后再次失效
+     */
+    private void evictImsiResourceCache(String imsi) {
+        imsiResourceCache().evict(imsi);
     }
     
     @Override
@@ -168,8 +234,7 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
             }
         }
         
-        ImsiResource imsiResource = new ImsiResource();
-        BeanUtils.copyProperties(resourceDTO, imsiResource);
+        ImsiResource imsiResource = ImsiResourceConvert.INSTANCE.toEntity(resourceDTO);
         
         // Generate ID using global sequence
         Long globalId = sequenceService.getNextSequenceValue("imsi_resource_id_seq");
@@ -183,10 +248,14 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
         imsiResource.setUpdateTime(new Date());
         
         boolean result = this.save(imsiResource);
+        if (result) {
+            inventoryCounterService.recordImsiChange(imsiResource.getGroupId(), null, imsiResource.getStatus(), 1);
+        }
         
         // Update IMSI group used count
         if (result && imsiResource.getGroupId() != null) {
             imsiGroupService.updateUsedCount(imsiResource.getGroupId(), 1);
+            imsiGroupService.advanceNextImsi(imsiResource.getGroupId(), Collections.singletonList(imsiResource.getImsi()));
         }
         
         return result;
@@ -235,13 +304,25 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
         Long oldGroupId = existingResource.getGroupId();
         
         // Update resource information
-        BeanUtils.copyProperties(resourceDTO, existingResource, "imsiId", "createTime", "createUserId");
+        ImsiResourceConvert.INSTANCE.updateEntity(resourceDTO, existingResource);
         existingResource.setUpdateTime(new Date());
         
         // 使用基于IMSI的更新方式，避免分表问题
         LambdaQueryWrapper<ImsiResource> updateWrapper = new LambdaQueryWrapper<>();
         updateWrapper.eq(ImsiResource::getImsi, resourceDTO.getImsi());
         boolean result = this.update(existingResource, updateWrapper);
+        evictImsiResourceCache(resourceDTO.getImsi());
+        if (result) {
+            // 只更新了非空字段
+            Long newGroupId = existingResource.getGroupId() != null ? existingResource.getGroupId() : oldGroupId;
+            Integer newStatus = existingResource.getStatus() != null ? existingResource.getStatus() : oldStatus;
+            if (Objects.equals(oldGroupId, newGroupId)) {
+                inventoryCounterService.recordImsiChange(oldGroupId, oldStatus, newStatus, 1);
+            } else {
+                inventoryCounterService.recordImsiChange(oldGroupId, oldStatus, null, 1);
+                inventoryCounterService.recordImsiChange(newGroupId, null, newStatus, 1);
+            }
+        }
         
         // Update inventory information if status or group changed
         if (result && (oldStatus != resourceDTO.getStatus() || !java.util.Objects.equals(oldGroupId, resourceDTO.getGroupId()))) {
@@ -252,6 +333,7 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
                 }
                 if (resourceDTO.getGroupId() != null) {
                     imsiGroupService.updateUsedCount(resourceDTO.getGroupId(), 1);
+                    imsiGroupService.advanceNextImsi(resourceDTO.getGroupId(), Collections.singletonList(resourceDTO.getImsi()));
                 }
             }
         }
@@ -289,6 +371,10 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
         }
         
         boolean result = this.remove(queryWrapper);
+        evictImsiResourceCache(imsi);
+        if (result) {
+            inventoryCounterService.recordImsiChange(imsiResource.getGroupId(), imsiResource.getStatus(), null, 1);
+        }
         
         // Update IMSI group used count
         if (result && imsiResource.getGroupId() != null) {
@@ -334,9 +420,11 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
         LambdaQueryWrapper<ImsiResource> updateWrapper = new LambdaQueryWrapper<>();
         updateWrapper.eq(ImsiResource::getImsi, imsi);
         boolean result = this.update(imsiResource, updateWrapper);
+        evictImsiResourceCache(imsi);
         
         // Update IMSI group inventory if status changed
         if (result && !java.util.Objects.equals(oldStatus, status)) {
+            inventoryCounterService.recordImsiChange(imsiResource.getGroupId(), oldStatus, status, 1);
             updateGroupInventoryByStatus(oldStatus, status, imsiResource.getGroupId());
         }
         
@@ -361,8 +449,10 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
         }
     }
     
+    /**
+     * 生成IMSI不在单个事务内执行：区间在IMSI组上独立预留，各分表由线程池并行写入，失败时清理已写入的数据
+     */
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public List<ImsiResourceDTO> generateImsi(ImsiGenerateRequest request) {
         // Validate parameters
         if (request.getGroupId() == null) {
@@ -390,96 +480,60 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
             }
         }
         
-        // Get maximum existing IMSI in current group
-        String maxImsi = baseMapper.getMaxImsiByGroupId(request.getGroupId());
-        long nextImsiValue;
-        
-        if (StringUtils.isNotBlank(maxImsi)) {
-            // Extract numeric part from maxImsi (remove prefix if exists)
-            String numericPart = extractNumericPart(maxImsi, imsiGroup.getImsiPrefix());
-            if (StringUtils.isNotBlank(numericPart)) {
-                nextImsiValue = Long.parseLong(numericPart) + 1;
-            } else {
-                // If can't extract numeric part, start from range start value
-                nextImsiValue = Long.parseLong(imsiGroup.getImsiStart());
-            }
-        } else {
-            // If none exists, start from range start value
-            // Extract numeric part from imsiStart (remove prefix if exists)
-            String startNumericPart = extractNumericPart(imsiGroup.getImsiStart(), imsiGroup.getImsiPrefix());
-            if (StringUtils.isNotBlank(startNumericPart)) {
-                nextImsiValue = Long.parseLong(startNumericPart);
-            } else {
-                // If can't extract numeric part, use the original start value
-                nextImsiValue = Long.parseLong(imsiGroup.getImsiStart());
-            }
-        }
-        
-        // Validate if exceeds range
-        // Extract numeric part from imsiEnd (remove prefix if exists)
-        String endNumericPart = extractNumericPart(imsiGroup.getImsiEnd(), imsiGroup.getImsiPrefix());
-        long endImsiValue;
-        if (StringUtils.isNotBlank(endNumericPart)) {
-            endImsiValue = Long.parseLong(endNumericPart);
-        } else {
-            // If can't extract numeric part, use the original end value
-            endImsiValue = Long.parseLong(imsiGroup.getImsiEnd());
-        }
-        
-        if (nextImsiValue + request.getCount() - 1 > endImsiValue) {
-            throw new BusinessException("Generate count exceeds IMSI range");
-        }
+        // 在IMSI组上原子预留连续区间（同时计入已使用数量），并发生成同一组时区间互不重叠
+        long startValue = imsiGroupService.reserveImsiBlock(request.getGroupId(), request.getCount());
+        Map<Integer, List<String>> imsisByShard = ImsiGenerator.generateBlockByShard(imsiGroup.getImsiPrefix(),
+                startValue, request.getCount(), ShardingBatchUpdateUtils.IMSI_RESOURCE_SHARD_COUNT);
         
         // Batch get global sequence IDs
         List<Long> globalIds = sequenceService.getBatchSequenceValues("imsi_resource_id_seq", request.getCount());
         
         // Start generating IMSI
-        List<ImsiResource> imsiResources = new ArrayList<>();
+        List<ImsiResource> imsiResources = new ArrayList<>(request.getCount());
+        Map<Integer, List<ImsiResource>> resourcesByShard = new LinkedHashMap<>();
         Date now = new Date();
-        
-        for (int i = 0; i < request.getCount(); i++) {
-            String imsi = String.valueOf(nextImsiValue + i);
-            
-            /*// Pad with zeros if length is insufficient
-            if (imsi.length() < imsiGroup.getImsiStart().length()) {
-                imsi = StringUtils.leftPad(imsi, imsiGroup.getImsiStart().length(), '0');
-            }*/
-            
-            // Add prefix if IMSI prefix exists
-            if (StringUtils.isNotBlank(imsiGroup.getImsiPrefix())) {
-                imsi = imsiGroup.getImsiPrefix() + imsi;
+        for (Map.Entry<Integer, List<String>> entry : imsisByShard.entrySet()) {
+            List<ImsiResource> shardResources = new ArrayList<>(entry.getValue().size());
+            for (String imsi : entry.getValue()) {
+                ImsiResource imsiResource = new ImsiResource();
+                imsiResource.setImsiId(globalIds.get(imsiResources.size()));  // Set global sequence ID
+                imsiResource.setImsi(imsi);
+                imsiResource.setImsiType(imsiGroup.getImsiType());
+                imsiResource.setGroupId(request.getGroupId());
+                imsiResource.setSupplierId(request.getSupplierId());
+                imsiResource.setStatus(ImsiConstant.STATUS_IDLE);
+                imsiResource.setCreateTime(now);
+                imsiResource.setUpdateTime(now);
+                imsiResource.setCreateUserId(request.getOperatorUserId());
+                imsiResource.setUpdateUserId(request.getOperatorUserId());
+                shardResources.add(imsiResource);
+                imsiResources.add(imsiResource);
             }
-            
-            ImsiResource imsiResource = new ImsiResource();
-            imsiResource.setImsiId(globalIds.get(i));  // Set global sequence ID
-            imsiResource.setImsi(imsi);
-            imsiResource.setImsiType(imsiGroup.getImsiType());
-            imsiResource.setGroupId(request.getGroupId());
-            imsiResource.setSupplierId(request.getSupplierId());
-            imsiResource.setStatus(ImsiConstant.STATUS_IDLE);
-            imsiResource.setCreateTime(now);
-            imsiResource.setUpdateTime(now);
-            imsiResource.setCreateUserId(request.getOperatorUserId());
-            imsiResource.setUpdateUserId(request.getOperatorUserId());
-            
-            imsiResources.add(imsiResource);
+            resourcesByShard.put(entry.getKey(), shardResources);
         }
         
-        // Batch save
-        if (imsiResources.isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        // Save in batches, maximum 1000 records per batch
-        int batchSize = 1000;
-        for (int i = 0; i < imsiResources.size(); i += batchSize) {
-            int toIndex = Math.min(i + batchSize, imsiResources.size());
-            List<ImsiResource> batch = imsiResources.subList(i, toIndex);
-            baseMapper.batchInsert(batch);
+        // 各分表并行写入，每个分表内按1000条一批多值插入
+        List<CompletableFuture<Void>> futures = resourcesByShard.values().stream()
+                .map(shardResources -> CompletableFuture.runAsync(() -> insertInBatches(shardResources), generateExecutor))
+                .collect(Collectors.toList());
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Failed to generate IMSI block starting at {} for group {}, cleaning up", startValue, request.getGroupId(), cause);
+            // 只删除本次写入的记录（按本次分配的ID），区间内原已存在的IMSI不受影响
+            for (List<ImsiResource> shardResources : resourcesByShard.values()) {
+                this.remove(new LambdaQueryWrapper<ImsiResource>()
+                        .in(ImsiResource::getImsi, shardResources.stream().map(ImsiResource::getImsi).collect(Collectors.toList()))
+                        .in(ImsiResource::getImsiId, shardResources.stream().map(ImsiResource::getImsiId).collect(Collectors.toList())));
+            }
+            imsiGroupService.releaseImsiBlock(request.getGroupId(), request.getCount());
+            throw new BusinessException("Failed to generate IMSI: " + cause.getMessage());
         }
-        
-        // Update IMSI group usage count
-        imsiGroupService.updateUsedCount(request.getGroupId(), request.getCount());
+        inventoryCounterService.recordImsiChange(request.getGroupId(), null, ImsiConstant.STATUS_IDLE, imsiResources.size());
+        imsiResources.sort((first, second) -> ImsiGenerator.compareImsi(first.getImsi(), second.getImsi()));
+        log.info("Generated {} IMSIs from {} for group {} across {} shards", imsiResources.size(), startValue,
+                request.getGroupId(), resourcesByShard.size());
         
         // Convert to DTO and return，使用批量查询避免N+1问题
         Map<Long, ImsiGroup> groupMap = batchQueryGroups(imsiResources);
@@ -490,6 +544,16 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
                 .collect(Collectors.toList());
     }
     
+    /**
+     * 同一分表的IMSI按1000条一批多值插入
+     */
+    private void insertInBatches(List<ImsiResource> shardResources) {
+        int batchSize = 1000;
+        for (int i = 0; i < shardResources.size(); i += batchSize) {
+            baseMapper.batchInsert(shardResources.subList(i, Math.min(i + batchSize, shardResources.size())));
+        }
+    }
+    
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean batchUpdateImsiStatus(List<Long> imsiIds, Integer status) {
@@ -521,6 +585,7 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
         
         // Group by groupId and track status changes for inventory update
         Map<Long, Integer> groupInventoryChanges = new HashMap<>();
+        Map<String, Integer> oldStatuses = new HashMap<>();
         Date now = new Date();
         List<ImsiResource> resourcesToUpdate = new ArrayList<>();
         
@@ -529,6 +594,7 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
             
             // Only update if status actually changed
             if (!Objects.equals(oldStatus, status)) {
+                oldStatuses.put(resource.getImsi(), oldStatus);
                 resource.setStatus(status);
                 resource.setUpdateTime(now);
                 resourcesToUpdate.add(resource);
@@ -558,20 +624,27 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
             return false;
         }
         
-        // Batch update resources using IMSI-based approach to avoid sharding issues
-        boolean updateResult = true;
+        // Batch update by IMSI, grouped by physical shard (one multi-row statement per shard)
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("status", status);
+        values.put("update_time", now);
+        ShardedBatchUpdateResult batchResult = shardedBatchUpdateExecutor.execute("imsi_resource", "imsi",
+                resourcesToUpdate, ImsiResource::getImsi, resource -> values);
+        resourcesToUpdate.forEach(resource -> evictImsiResourceCache(resource.getImsi()));
+        if (!batchResult.isAllUpdated()) {
+            // Roll back the whole batch so counters and group inventory stay consistent
+            log.error("Failed to update IMSI resources, not found: {}, failed: {}",
+                    batchResult.getKeys(ShardedBatchUpdateResult.RowStatus.NOT_FOUND),
+                    batchResult.getKeys(ShardedBatchUpdateResult.RowStatus.FAILED));
+            throw new BusinessException("Batch update of IMSI resources incomplete, "
+                    + (batchResult.getNotFoundCount() + batchResult.getFailedCount()) + " IMSIs not updated");
+        }
         for (ImsiResource resource : resourcesToUpdate) {
-            LambdaQueryWrapper<ImsiResource> updateWrapper = new LambdaQueryWrapper<>();
-            updateWrapper.eq(ImsiResource::getImsi, resource.getImsi());
-            if (!this.update(resource, updateWrapper)) {
-                updateResult = false;
-                log.error("Failed to update IMSI resource: {}", resource.getImsi());
-                break;
-            }
+            inventoryCounterService.recordImsiChange(resource.getGroupId(), oldStatuses.get(resource.getImsi()), status, 1);
         }
         
-        // Update group inventory if batch update successful
-        if (updateResult && !groupInventoryChanges.isEmpty()) {
+        // Update group inventory
+        if (!groupInventoryChanges.isEmpty()) {
             for (Map.Entry<Long, Integer> entry : groupInventoryChanges.entrySet()) {
                 try {
                     imsiGroupService.updateAvailableCount(entry.getKey(), entry.getValue());
@@ -583,7 +656,7 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
         }
         
         log.info("Batch updated {} IMSI resources status to {}", resourcesToUpdate.size(), status);
-        return updateResult;
+        return true;
     }
     
     @Override
@@ -633,26 +706,6 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
         return this.count(queryWrapper) > 0;
     }
     
-    /**
-     * 从完整IMSI中提取数字部分（去除前缀）
-     * 
-     * @param fullImsi 完整的IMSI号码
-     * @param prefix IMSI前缀
-     * @return 数字部分
-     */
-    private String extractNumericPart(String fullImsi, String prefix) {
-        if (StringUtils.isBlank(fullImsi)) {
-            return null;
-        }
-        
-        // 如果有前缀，去除前缀
-        if (StringUtils.isNotBlank(prefix) && fullImsi.startsWith(prefix)) {
-            return fullImsi.substring(prefix.length());
-        }
-        
-        // 如果没有前缀或者不以前缀开头，直接返回原字符串
-        return fullImsi;
-    }
     
 
     
@@ -702,8 +755,7 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
             return null;
         }
         
-        ImsiResourceDTO dto = new ImsiResourceDTO();
-        BeanUtils.copyProperties(imsiResource, dto);
+        ImsiResourceDTO dto = ImsiResourceConvert.INSTANCE.toDTO(imsiResource);
         
         // Set IMSI type description
         ImsiTypeEnum imsiTypeEnum = ImsiTypeEnum.getByCode(imsiResource.getImsiType());
@@ -740,8 +792,7 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
             return null;
         }
         
-        ImsiResourceDTO dto = new ImsiResourceDTO();
-        BeanUtils.copyProperties(imsiResource, dto);
+        ImsiResourceDTO dto = ImsiResourceConvert.INSTANCE.toDTO(imsiResource);
         
         // Set IMSI type description
         ImsiTypeEnum imsiTypeEnum = ImsiTypeEnum.getByCode(imsiResource.getImsiType());
@@ -779,50 +830,89 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
         return convertToDTOSingle(imsiResource);
     }
 
+    @Override
+    public Map<Integer, String> validateImportChunk(List<ImsiResource> dataList) {
+        Map<Integer, String> errors = new HashMap<>();
+        if (dataList == null || dataList.isEmpty()) {
+            return errors;
+        }
+        Set<String> existingImsis = findExistingImsis(dataList.stream()
+                .map(ImsiResource::getImsi)
+                .filter(StringUtils::isNotBlank)
+                .collect(Collectors.toSet()));
+        // 组与供应商在本批内各查询一次
+        Map<Long, ImsiGroup> groupMap = batchQueryGroups(dataList);
+        Map<Long, Supplier> supplierMap = batchQuerySuppliers(dataList);
+        Set<String> seenImsis = new HashSet<>();
+        for (int i = 0; i < dataList.size(); i++) {
+            ImsiResource imsiResource = dataList.get(i);
+            if (StringUtils.isBlank(imsiResource.getImsi())) {
+                errors.put(i, "IMSI number cannot be empty");
+            } else if (existingImsis.contains(imsiResource.getImsi())) {
+                errors.put(i, "IMSI number already exists");
+            } else if (!seenImsis.add(imsiResource.getImsi())) {
+                errors.put(i, "Duplicate IMSI number in import");
+            } else if (imsiResource.getGroupId() != null && !groupMap.containsKey(imsiResource.getGroupId())) {
+                errors.put(i, "IMSI group not found: " + imsiResource.getGroupId());
+            } else if (imsiResource.getSupplierId() != null && !supplierMap.containsKey(imsiResource.getSupplierId())) {
+                errors.put(i, "Supplier not found: " + imsiResource.getSupplierId());
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * 按IMSI分表分组后每个分表一次IN查询，返回已存在的IMSI
+     */
+    private Set<String> findExistingImsis(Collection<String> imsis) {
+        Map<Integer, List<String>> imsisByShard = imsis.stream().collect(Collectors.groupingBy(
+                imsi -> ImsiGenerator.getTableShardingIndex(imsi, ShardingBatchUpdateUtils.IMSI_RESOURCE_SHARD_COUNT)));
+        Set<String> existing = new HashSet<>();
+        for (List<String> shardImsis : imsisByShard.values()) {
+            this.list(new LambdaQueryWrapper<ImsiResource>()
+                            .select(ImsiResource::getImsi)
+                            .in(ImsiResource::getImsi, shardImsis))
+                    .forEach(resource -> existing.add(resource.getImsi()));
+        }
+        return existing;
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean batchImportImsiResource(List<ImsiResource> dataList) {
+        if (dataList == null || dataList.isEmpty()) {
+            return false;
+        }
+        Map<Integer, String> errors = validateImportChunk(dataList);
+        List<ImsiResource> validDataList = new ArrayList<>(dataList.size() - errors.size());
+        for (int i = 0; i < dataList.size(); i++) {
+            String error = errors.get(i);
+            if (error != null) {
+                log.warn("{}, skip IMSI record: {}", error, dataList.get(i).getImsi());
+            } else {
+                validDataList.add(dataList.get(i));
+            }
+        }
+        if (validDataList.isEmpty()) {
+            log.warn("No valid data to import");
+            return false;
+        }
+        return importValidatedImsiResource(validDataList);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean importValidatedImsiResource(List<ImsiResource> validatedList) {
         try {
-            if (dataList == null || dataList.isEmpty()) {
+            if (validatedList == null || validatedList.isEmpty()) {
                 return false;
             }
 
-            // 数据校验和预处理
-            List<ImsiResource> validDataList = new ArrayList<>(); 
-            Map<Long, Integer> groupCountMap = new HashMap<>(); // 统计每个组导入的数量
+            // 预处理
+            Map<Long, List<String>> groupImsiMap = new HashMap<>(); // 按组归集导入的IMSI
             Date now = new Date();
             
-            for (ImsiResource imsiResource : dataList) {
-                // 校验必填字段
-                if (StringUtils.isBlank(imsiResource.getImsi())) {
-                    log.warn("IMSI number cannot be empty, skip this record");
-                    continue;
-                }
-                
-                // 检查IMSI是否已存在
-                if (isImsiExists(imsiResource.getImsi())) {
-                    log.warn("IMSI number already exists: {}", imsiResource.getImsi());
-                    continue;
-                }
-                
-                // 验证group ID
-                if (imsiResource.getGroupId() != null) {
-                    ImsiGroup imsiGroup = imsiGroupService.getById(imsiResource.getGroupId());
-                    if (imsiGroup == null) {
-                        log.warn("IMSI group not found for groupId: {}, skip this record", imsiResource.getGroupId());
-                        continue;
-                    }
-                }
-                
-                // 验证supplier ID
-                if (imsiResource.getSupplierId() != null) {
-                    Supplier supplier = supplierService.getById(imsiResource.getSupplierId());
-                    if (supplier == null) {
-                        log.warn("Supplier not found for supplierId: {}, skip this record", imsiResource.getSupplierId());
-                        continue;
-                    }
-                }
-                
+            for (ImsiResource imsiResource : validatedList) {
                 // 设置默认值
                 if (imsiResource.getImsiId() == null) {
                     imsiResource.setImsiId(sequenceService.getNextSequenceValue("imsi_resource_id_seq"));
@@ -837,27 +927,24 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
                     imsiResource.setUpdateTime(now);
                 }
                 
-                // 统计每个组的导入数量
+                // 按组归集导入的IMSI
                 if (imsiResource.getGroupId() != null) {
-                    groupCountMap.put(imsiResource.getGroupId(), 
-                        groupCountMap.getOrDefault(imsiResource.getGroupId(), 0) + 1);
+                    groupImsiMap.computeIfAbsent(imsiResource.getGroupId(), key -> new ArrayList<>()).add(imsiResource.getImsi());
                 }
-                
-                validDataList.add(imsiResource);
-            }
-            
-            if (validDataList.isEmpty()) {
-                log.warn("No valid data to import");
-                return false;
             }
             
             // 批量插入
-            boolean result = this.saveBatch(validDataList);
+            boolean result = this.saveBatch(validatedList);
+            if (result) {
+                validatedList.forEach(imsiResource ->
+                        inventoryCounterService.recordImsiChange(imsiResource.getGroupId(), null, imsiResource.getStatus(), 1));
+            }
             
-            // 更新IMSI组使用计数
-            if (result && !groupCountMap.isEmpty()) {
-                for (Map.Entry<Long, Integer> entry : groupCountMap.entrySet()) {
-                    imsiGroupService.updateUsedCount(entry.getKey(), entry.getValue());
+            // 更新IMSI组使用计数，并推进组的下一个待分配值
+            if (result && !groupImsiMap.isEmpty()) {
+                for (Map.Entry<Long, List<String>> entry : groupImsiMap.entrySet()) {
+                    imsiGroupService.updateUsedCount(entry.getKey(), entry.getValue().size());
+                    imsiGroupService.advanceNextImsi(entry.getKey(), entry.getValue());
                 }
             }
             
@@ -872,33 +959,7 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
     @Override
     public List<ImsiResource> queryImsiResourceForExport(ImsiResourceQuery queryParams) {
         try {
-            LambdaQueryWrapper<ImsiResource> queryWrapper = new LambdaQueryWrapper<>();
-            
-            // 构建查询条件
-            if (queryParams != null) {
-                if (StringUtils.isNotBlank(queryParams.getImsi())) {
-                    queryWrapper.like(ImsiResource::getImsi, queryParams.getImsi());
-                }
-                if (queryParams.getImsiType() != null) {
-                    queryWrapper.eq(ImsiResource::getImsiType, queryParams.getImsiType());
-                }
-                if (queryParams.getGroupId() != null) {
-                    queryWrapper.eq(ImsiResource::getGroupId, queryParams.getGroupId());
-                }
-                if (queryParams.getSupplierId() != null) {
-                    queryWrapper.eq(ImsiResource::getSupplierId, queryParams.getSupplierId());
-                }
-                if (queryParams.getStatus() != null) {
-                    queryWrapper.eq(ImsiResource::getStatus, queryParams.getStatus());
-                }
-                // 时间查询条件暂时注释，ImsiResourceQuery中没有时间字段
-                // if (queryParams.getCreateTimeStart() != null) {
-                //     queryWrapper.ge(ImsiResource::getCreateTime, queryParams.getCreateTimeStart());
-                // }
-                // if (queryParams.getCreateTimeEnd() != null) {
-                //     queryWrapper.le(ImsiResource::getCreateTime, queryParams.getCreateTimeEnd());
-                // }
-            }
+            LambdaQueryWrapper<ImsiResource> queryWrapper = buildExportQueryWrapper(queryParams);
             
             // 按创建时间倒序排列
             queryWrapper.orderByDesc(ImsiResource::getCreateTime);
@@ -910,5 +971,59 @@ public class ImsiResourceServiceImpl extends ServiceImpl<ImsiResourceMapper, Ims
             throw new BusinessException("Query export data failed: " + e.getMessage());
         }
     }
+
+    @Override
+    @Transactional(readOnly = true, rollbackFor = Exception.class)
+    public long streamImsiResourceForExport(ImsiResourceQuery queryParams, Consumer<ImsiResource> consumer) {
+        long total = 0;
+        // 逐个物理分表游标读取，避免ShardingSphere在内存中归并全部分表结果
+        for (String tableName : ShardingBatchUpdateUtils.getAllImsiResourceTableNames()) {
+            try (Cursor<ImsiResource> cursor = baseMapper.selectCursorByTable(tableName, buildExportQueryWrapper(queryParams))) {
+                for (ImsiResource resource : cursor) {
+                    consumer.accept(resource);
+                    total++;
+                }
+            } catch (IOException e) {
+                throw new BusinessException("Stream export failed: " + e.getMessage());
+            }
+        }
+        log.info("Stream export completed, read {} IMSI resources", total);
+        return total;
+    }
+    
+    /**
+     * 构建导出查询条件
+     */
+    private LambdaQueryWrapper<ImsiResource> buildExportQueryWrapper(ImsiResourceQuery queryParams) {
+        LambdaQueryWrapper<ImsiResource> queryWrapper = new LambdaQueryWrapper<>();
+        
+        // 构建查询条件
+        if (queryParams != null) {
+            if (StringUtils.isNotBlank(queryParams.getImsi())) {
+                queryWrapper.like(ImsiResource::getImsi, queryParams.getImsi());
+            }
+            if (queryParams.getImsiType() != null) {
+                queryWrapper.eq(ImsiResource::getImsiType, queryParams.getImsiType());
+            }
+            if (queryParams.getGroupId() != null) {
+                queryWrapper.eq(ImsiResource::getGroupId, queryParams.getGroupId());
+            }
+            if (queryParams.getSupplierId() != null) {
+                queryWrapper.eq(ImsiResource::getSupplierId, queryParams.getSupplierId());
+            }
+            if (queryParams.getStatus() != null) {
+                queryWrapper.eq(ImsiResource::getStatus, queryParams.getStatus());
+            }
+            // 时间查询条件暂时注释，ImsiResourceQuery中没有时间字段
+            // if (queryParams.getCreateTimeStart() != null) {
+            //     queryWrapper.ge(ImsiResource::getCreateTime, queryParams.getCreateTimeStart());
+            // }
+            // if (queryParams.getCreateTimeEnd() != null) {
+            //     queryWrapper.le(ImsiResource::getCreateTime, queryParams.getCreateTimeEnd());
+            // }
+        }
+        
+        return queryWrapper;
+    }
     
-}
\ No newline at end of file
+}
@@ -0,0 +1,461 @@
+package com.nsrs.simcard.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.nsrs.simcard.cache.InventoryCacheService;
+import com.nsrs.simcard.config.InventoryCounterProperties;
+import com.nsrs.simcard.entity.ImsiStockCounter;
+import com.nsrs.simcard.entity.SimCardBatch;
+import com.nsrs.simcard.entity.SimCardStockCounter;
+import com.nsrs.simcard.enums.InventoryCubeDimensionEnum;
+import com.nsrs.simcard.mapper.ImsiStockCounterMapper;
+import com.nsrs.simcard.mapper.SimCardBatchMapper;
+import com.nsrs.simcard.mapper.SimCardStockCounterMapper;
+import com.nsrs.simcard.model.dto.InventoryCubeVerifyResult;
+import com.nsrs.simcard.model.dto.SimCardCounterKey;
+import com.nsrs.simcard.model.query.InventoryCubeQuery;
+import com.nsrs.simcard.service.InventoryCounterService;
+import com.nsrs.simcard.utils.SimCardConstant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 库存计数服务实现类
+ * 同一事务内的变化量按维度合并，在提交前按主键顺序批量累加（INSERT ... ON DUPLICATE KEY UPDATE），
+ * 并发事务对计数行的加锁顺序一致，且计数与状态变更同时提交或回滚。无事务时立即写入
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryCounterServiceImpl implements InventoryCounterService {
+
+    /**
+     * 单条累加语句的最大行数
+     */
+    private static final int UPSERT_CHUNK_SIZE = 500;
+
+    private final SimCardStockCounterMapper simCardStockCounterMapper;
+    private final ImsiStockCounterMapper imsiStockCounterMapper;
+    private final SimCardBatchMapper simCardBatchMapper;
+    private final InventoryCounterProperties properties;
+    private final InventoryCacheService inventoryCacheService;
+
+    @Override
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public void recordSimCardChange(SimCardCounterKey before, SimCardCounterKey after, int count) {
+        if (count <= 0 || (before == null && after == null) || (before != null && before.equals(after))) {
+            return;
+        }
+        record(deltas -> {
+            if (before != null) {
+                deltas.simCards.merge(before, (long) -count, Long::sum);
+            }
+            if (after != null) {
+                deltas.simCards.merge(after, (long) count, Long::sum);
+            }
+        });
+    }
+
+    @Override
+    public void recordImsiChange(Long groupId, Integer oldStatus, Integer newStatus, int count) {
+        if (count <= 0 || (oldStatus == null && newStatus == null) || (oldStatus != null && oldStatus.equals(newStatus))) {
+            return;
+        }
+        long group = groupId != null ? groupId : 0L;
+        record(deltas -> {
+            if (oldStatus != null) {
+                deltas.imsis.merge(new ImsiKey(group, oldStatus), (long) -count, Long::sum);
+            }
+            if (newStatus != null) {
+                deltas.imsis.merge(new ImsiKey(group, newStatus), (long) count, Long::sum);
+            }
+        });
+    }
+
+    @Override
+    public Map<Integer, Long> countSimCardsByStatus(Long batchId, Long orgId) {
+        LambdaQueryWrapper<SimCardStockCounter> queryWrapper = new LambdaQueryWrapper<SimCardStockCounter>()
+                .select(SimCardStockCounter::getStatus, SimCardStockCounter::getCardCount)
+                .eq(batchId != null, SimCardStockCounter::getBatchId, batchId)
+                .eq(orgId != null, SimCardStockCounter::getOrgId, orgId)
+                .ne(SimCardStockCounter::getCardCount, 0);
+        Map<Integer, Long> counts = new TreeMap<>();
+        for (SimCardStockCounter counter : simCardStockCounterMapper.selectList(queryWrapper)) {
+            counts.merge(counter.getStatus(), counter.getCardCount(), Long::sum);
+        }
+        // 计入当前事务尚未写入的变化量
+        PendingDeltas pending = currentDeltas();
+        if (pending != null) {
+            pending.simCards.forEach((key, delta) -> {
+                if ((batchId == null || key.getBatchId() == batchId) && (orgId == null || key.getOrgId() == orgId)) {
+                    counts.merge(key.getStatus(), delta, Long::sum);
+                }
+            });
+        }
+        return counts;
+    }
+
+    @Override
+    public List<SimCardStockCounter> sumSimCardsByDimension() {
+        return simCardStockCounterMapper.sumByDimension();
+    }
+
+    @Override
+    public List<SimCardStockCounter> queryCube(InventoryCubeQuery query) {
+        List<String> columns = query.getGroupBy() == null ? Collections.emptyList()
+                : query.getGroupBy().stream().distinct().map(InventoryCubeDimensionEnum::getColumn).collect(Collectors.toList());
+        List<SimCardStockCounter> rows = simCardStockCounterMapper.selectCube(query, columns);
+        rows.removeIf(row -> row == null || row.getCardCount() == null || row.getCardCount() == 0);
+        return rows;
+    }
+
+    @Override
+    public List<Map<String, Object>> countSimCardsByCardType(Integer status, Long batchId, Long orgId) {
+        return simCardStockCounterMapper.countByCardType(status, batchId, orgId);
+    }
+
+    @Override
+    public InventoryCubeVerifyResult verifySimCardBatch(Long batchId) {
+        InventoryCubeVerifyResult result = new InventoryCubeVerifyResult();
+        verifyInto(result, batchId);
+        return result;
+    }
+
+    @Override
+    public InventoryCubeVerifyResult verifySimCards() {
+        List<Long> batchIds = simCardBatchMapper.selectList(new LambdaQueryWrapper<SimCardBatch>()
+                        .select(SimCardBatch::getBatchId))
+                .stream().map(SimCardBatch::getBatchId).collect(Collectors.toCollection(ArrayList::new));
+        // 无批次的卡
+        batchIds.add(null);
+
+        InventoryCubeVerifyResult result = new InventoryCubeVerifyResult();
+        for (Long batchId : batchIds) {
+            verifyInto(result, batchId);
+        }
+        if (!result.isConsistent()) {
+            log.warn("SIM card inventory cube verification found {} mismatches in {} batches",
+                    result.getMismatches().size(), result.getBatchCount());
+        }
+        return result;
+    }
+
+    @Override
+    public int compactSimCardCounters() {
+        return simCardStockCounterMapper.deleteZeroCounters();
+    }
+
+    @Override
+    public Map<Integer, Long> countImsiByStatus(Long groupId) {
+        LambdaQueryWrapper<ImsiStockCounter> queryWrapper = new LambdaQueryWrapper<ImsiStockCounter>()
+                .eq(ImsiStockCounter::getGroupId, groupId != null ? groupId : 0L)
+                .ne(ImsiStockCounter::getImsiCount, 0);
+        Map<Integer, Long> counts = new TreeMap<>();
+        for (ImsiStockCounter counter : imsiStockCounterMapper.selectList(queryWrapper)) {
+            counts.merge(counter.getStatus(), counter.getImsiCount(), Long::sum);
+        }
+        PendingDeltas pending = currentDeltas();
+        if (pending != null) {
+            long group = groupId != null ? groupId : 0L;
+            pending.imsis.forEach((key, delta) -> {
+                if (key.groupId == group) {
+                    counts.merge(key.status, delta, Long::sum);
+                }
+            });
+        }
+        return counts;
+    }
+
+    @Override
+    public List<ImsiStockCounter> listImsiCounters() {
+        return imsiStockCounterMapper.selectList(new LambdaQueryWrapper<ImsiStockCounter>()
+                .ne(ImsiStockCounter::getImsiCount, 0));
+    }
+
+    /**
+     * 先锁定批次计数行再统计：统计前已提交的流转同时计入两边；尚未提交的流转写计数时被阻塞，
+     * 对账提交后再累加，不会被重复计入或遗漏
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int reconcileSimCardBatch(Long batchId) {
+        Map<SimCardCounterKey, Long> recorded = new HashMap<>();
+        for (SimCardStockCounter counter : simCardStockCounterMapper.selectByBatchForUpdate(batchId != null ? batchId : 0L)) {
+            recorded.put(keyOf(counter), counter.getCardCount());
+        }
+        Map<SimCardCounterKey, Long> actual = new HashMap<>();
+        for (SimCardStockCounter counter : simCardStockCounterMapper.countActualByBatch(batchId)) {
+            actual.merge(keyOf(counter), counter.getCardCount(), Long::sum);
+        }
+
+        Map<SimCardCounterKey, Long> corrections = new TreeMap<>();
+        Set<SimCardCounterKey> keys = new HashSet<>(recorded.keySet());
+        keys.addAll(actual.keySet());
+        for (SimCardCounterKey key : keys) {
+            long drift = actual.getOrDefault(key, 0L) - recorded.getOrDefault(key, 0L);
+            if (drift != 0) {
+                corrections.put(key, drift);
+            }
+        }
+        if (!corrections.isEmpty()) {
+            upsertSimCardDeltas(corrections);
+            log.warn("Corrected {} SIM card stock counters of batch {}: {}", corrections.size(), batchId, corrections);
+        }
+        simCardStockCounterMapper.delete(new LambdaQueryWrapper<SimCardStockCounter>()
+                .eq(SimCardStockCounter::getBatchId, batchId != null ? batchId : 0L)
+                .eq(SimCardStockCounter::getCardCount, 0));
+        return corrections.size();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int reconcileImsiGroup(Long groupId) {
+        long group = groupId != null ? groupId : 0L;
+        Map<Integer, Long> recorded = new HashMap<>();
+        for (ImsiStockCounter counter : imsiStockCounterMapper.selectByGroupForUpdate(group)) {
+            recorded.put(counter.getStatus(), counter.getImsiCount());
+        }
+        Map<Integer, Long> actual = new HashMap<>();
+        for (ImsiStockCounter counter : imsiStockCounterMapper.countActualByGroup(groupId)) {
+            actual.merge(counter.getStatus(), counter.getImsiCount(), Long::sum);
+        }
+
+        Map<ImsiKey, Long> corrections = new TreeMap<>();
+        Set<Integer> statuses = new HashSet<>(recorded.keySet());
+        statuses.addAll(actual.keySet());
+        for (Integer status : statuses) {
+            long drift = actual.getOrDefault(status, 0L) - recorded.getOrDefault(status, 0L);
+            if (drift != 0) {
+                corrections.put(new ImsiKey(group, status), drift);
+            }
+        }
+        if (!corrections.isEmpty()) {
+            upsertImsiDeltas(corrections);
+            log.warn("Corrected {} IMSI stock counters of group {}: {}", corrections.size(), groupId, corrections);
+        }
+        imsiStockCounterMapper.delete(new LambdaQueryWrapper<ImsiStockCounter>()
+                .eq(ImsiStockCounter::getGroupId, group)
+                .eq(ImsiStockCounter::getImsiCount, 0));
+        return corrections.size();
+    }
+
+    private void verifyInto(InventoryCubeVerifyResult result, Long batchId) {
+        Map<SimCardCounterKey, Long> recorded = new HashMap<>();
+        for (SimCardStockCounter counter : simCardStockCounterMapper.selectList(new LambdaQueryWrapper<SimCardStockCounter>()
+                .eq(SimCardStockCounter::getBatchId, batchId != null ? batchId : 0L))) {
+            recorded.merge(keyOf(counter), counter.getCardCount(), Long::sum);
+        }
+        Map<SimCardCounterKey, Long> actual = new HashMap<>();
+        for (SimCardStockCounter counter : simCardStockCounterMapper.countActualByBatch(batchId)) {
+            actual.merge(keyOf(counter), counter.getCardCount(), Long::sum);
+        }
+
+        Set<SimCardCounterKey> keys = new TreeSet<>(recorded.keySet());
+        keys.addAll(actual.keySet());
+        for (SimCardCounterKey key : keys) {
+            long cubeCount = recorded.getOrDefault(key, 0L);
+            long actualCount = actual.getOrDefault(key, 0L);
+            if (cubeCount != actualCount) {
+                InventoryCubeVerifyResult.Mismatch mismatch = new InventoryCubeVerifyResult.Mismatch();
+                mismatch.setBatchId(key.getBatchId());
+                mismatch.setCardTypeId(key.getCardTypeId());
+                mismatch.setSpecId(key.getSpecId());
+                mismatch.setSupplierId(key.getSupplierId());
+                mismatch.setOrgId(key.getOrgId());
+                mismatch.setDataType(key.getDataType());
+                mismatch.setStatus(key.getStatus());
+                mismatch.setCubeCount(cubeCount);
+                mismatch.setActualCount(actualCount);
+                result.getMismatches().add(mismatch);
+            }
+        }
+        result.setBatchCount(result.getBatchCount() + 1);
+        result.setCubeTotal(result.getCubeTotal() + recorded.values().stream().mapToLong(Long::longValue).sum());
+        result.setActualTotal(result.getActualTotal() + actual.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    private void record(Consumer<PendingDeltas> change) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingDeltas deltas = new PendingDeltas();
+            change.accept(deltas);
+            deltas.write();
+            deltas.evictAlertCache();
+            return;
+        }
+        // 同一事务内的变化量合并到一个同步回调中
+        PendingDeltas deltas = currentDeltas();
+        if (deltas == null) {
+            deltas = new PendingDeltas();
+            TransactionSynchronizationManager.registerSynchronization(deltas);
+        }
+        change.accept(deltas);
+    }
+
+    private PendingDeltas currentDeltas() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingDeltas && ((PendingDeltas) synchronization).owner() == this) {
+                return (PendingDeltas) synchronization;
+            }
+        }
+        return null;
+    }
+
+    private void upsertSimCardDeltas(Map<SimCardCounterKey, Long> deltas) {
+        List<SimCardStockCounter> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                SimCardStockCounter row = new SimCardStockCounter();
+                row.setBatchId(key.getBatchId());
+                row.setCardTypeId(key.getCardTypeId());
+                row.setSpecId(key.getSpecId());
+                row.setSupplierId(key.getSupplierId());
+                row.setOrgId(key.getOrgId());
+                row.setDataType(key.getDataType());
+                row.setStatus(key.getStatus());
+                row.setCardCount(delta);
+                rows.add(row);
+            }
+        });
+        for (int from = 0; from < rows.size(); from += UPSERT_CHUNK_SIZE) {
+            simCardStockCounterMapper.upsertDeltas(rows.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, rows.size())));
+        }
+    }
+
+    private void upsertImsiDeltas(Map<ImsiKey, Long> deltas) {
+        List<ImsiStockCounter> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                ImsiStockCounter row = new ImsiStockCounter();
+                row.setGroupId(key.groupId);
+                row.setStatus(key.status);
+                row.setImsiCount(delta);
+                rows.add(row);
+            }
+        });
+        for (int from = 0; from < rows.size(); from += UPSERT_CHUNK_SIZE) {
+            imsiStockCounterMapper.upsertDeltas(rows.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, rows.size())));
+        }
+    }
+
+    /**
+     * 状态为空的卡按已发布计，与 {@link SimCardCounterKey#of} 一致
+     */
+    private static SimCardCounterKey keyOf(SimCardStockCounter counter) {
+        int status = counter.getStatus() != null ? counter.getStatus() : SimCardConstant.STATUS_PUBLISHED;
+        return new SimCardCounterKey(counter.getBatchId(), counter.getCardTypeId(), counter.getSpecId(),
+                counter.getSupplierId(), counter.getOrgId(), counter.getDataType(), status);
+    }
+
+    /**
+     * 事务内累积的变化量，提交前一次性写入；写入失败时事务回滚
+     */
+    private class PendingDeltas implements TransactionSynchronization {
+
+        /**
+         * 按主键排序，保证加锁顺序一致
+         */
+        private final Map<SimCardCounterKey, Long> simCards = new TreeMap<>();
+
+        private final Map<ImsiKey, Long> imsis = new TreeMap<>();
+
+        private InventoryCounterServiceImpl owner() {
+            return InventoryCounterServiceImpl.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write();
+        }
+
+        @Override
+        public void afterCommit() {
+            evictAlertCache();
+        }
+
+        /**
+         * 失效受影响维度的库存预警缓存，其他节点通过缓存的失效广播同步
+         */
+        private void evictAlertCache() {
+            if (simCards.isEmpty() || !inventoryCacheService.isEnabled()) {
+                return;
+            }
+            Set<String> configKeys = new HashSet<>();
+            simCards.forEach((key, delta) -> {
+                if (delta != 0) {
+                    configKeys.add(key.toAlertConfigKey());
+                }
+            });
+            try {
+                inventoryCacheService.removeAll(configKeys);
+            } catch (Exception e) {
+                log.warn("Failed to evict inventory alert cache for {}: {}", configKeys, e.getMessage());
+            }
+        }
+
+        private void write() {
+            if (!simCards.isEmpty()) {
+                upsertSimCardDeltas(simCards);
+            }
+            if (!imsis.isEmpty()) {
+                upsertImsiDeltas(imsis);
+            }
+        }
+    }
+
+    private static final class ImsiKey implements Comparable<ImsiKey> {
+
+        private final long groupId;
+        private final int status;
+
+        private ImsiKey(long groupId, int status) {
+            this.groupId = groupId;
+            this.status = status;
+        }
+
+        @Override
+        public int compareTo(ImsiKey other) {
+            int result = Long.compare(groupId, other.groupId);
+            return result != 0 ? result : Integer.compare(status, other.status);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ImsiKey && ((ImsiKey) o).groupId == groupId && ((ImsiKey) o).status == status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(groupId) * 31 + status;
+        }
+
+        @Override
+        public String toString() {
+            return groupId + ":" + status;
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package com.nsrs.simcard.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.nsrs.common.exception.BusinessException;
+import com.nsrs.common.utils.SequenceService;
+import com.nsrs.common.utils.ShardingBatchUpdateUtils;
+import com.nsrs.common.utils.ShardingIdUtils;
+import com.nsrs.simcard.cache.SimCardSearchIndex;
+import com.nsrs.simcard.constant.ImsiConstant;
+import com.nsrs.simcard.entity.ImsiGroup;
+import com.nsrs.simcard.entity.ImsiIccidMapping;
+import com.nsrs.simcard.entity.ImsiResource;
+import com.nsrs.simcard.entity.SimCard;
+import com.nsrs.simcard.entity.SimCardBatch;
+import com.nsrs.simcard.entity.SimCardOperation;
+import com.nsrs.simcard.mapper.ImsiIccidMappingMapper;
+import com.nsrs.simcard.mapper.ImsiResourceMapper;
+import com.nsrs.simcard.mapper.SimCardMapper;
+import com.nsrs.simcard.model.dto.PersonalizationLoadResult;
+import com.nsrs.simcard.model.dto.SimCardCounterKey;
+import com.nsrs.simcard.model.request.PersonalizationLoadRequest;
+import com.nsrs.simcard.personalization.PersonalizationFileReader;
+import com.nsrs.simcard.personalization.PersonalizationRecord;
+import com.nsrs.simcard.service.ImsiGroupService;
+import com.nsrs.simcard.service.ImsiGroupStockService;
+import com.nsrs.simcard.service.InventoryCounterService;
+import com.nsrs.simcard.service.PersonalizationLoadService;
+import com.nsrs.simcard.service.SimCardBatchService;
+import com.nsrs.simcard.service.SimCardBatchStockService;
+import com.nsrs.simcard.service.SimCardOperationService;
+import com.nsrs.simcard.utils.ImsiGenerator;
+import com.nsrs.simcard.utils.SimCardConstant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 卡商个人化文件入库服务实现类
+ * 先将文件写入临时文件并核对数量与校验和，通过后逐行读取，行校验与文件内去重后每满一个分块在一个事务内：按分表一次IN查询检测已存在的ICCID、IMSI，
+ * 再按分表多值插入SIM卡与IMSI、一次多值插入映射，并记录库存计数与一条汇总操作记录。
+ * 分块单独提交，失败时已提交的分块保留，结果中的 committedRow 可作为续传起点
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PersonalizationLoadServiceImpl implements PersonalizationLoadService {
+
+    /**
+     * 每个分块的行数
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    private final SimCardMapper simCardMapper;
+    private final ImsiResourceMapper imsiResourceMapper;
+    private final ImsiIccidMappingMapper imsiIccidMappingMapper;
+    private final SimCardBatchService simCardBatchService;
+    private final SimCardBatchStockService simCardBatchStockService;
+    private final ImsiGroupService imsiGroupService;
+    private final ImsiGroupStockService imsiGroupStockService;
+    private final SimCardOperationService simCardOperationService;
+    private final SequenceService sequenceService;
+    private final InventoryCounterService inventoryCounterService;
+    private final SimCardSearchIndex simCardSearchIndex;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    public void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public PersonalizationLoadResult load(InputStream in, PersonalizationLoadRequest request) {
+        long startMillis = System.currentTimeMillis();
+        SimCardBatch batch = simCardBatchService.getById(request.getBatchId());
+        if (batch == null) {
+            throw new BusinessException("Batch not found: " + request.getBatchId());
+        }
+        ImsiGroup group = imsiGroupService.getById(request.getImsiGroupId());
+        if (group == null) {
+            throw new BusinessException("IMSI group not found: " + request.getImsiGroupId());
+        }
+        if (request.getSupplierId() == null) {
+            request.setSupplierId(batch.getSupplierId());
+        }
+
+        PersonalizationLoadResult result = new PersonalizationLoadResult();
+        result.setCommittedRow(request.getResumeFromRow());
+        Path file = null;
+        try {
+            // 先落盘并核对数量与校验和，通过后再从临时文件入库，损坏或截断的文件不会提交任何分块
+            file = Files.createTempFile("personalization-", ".dat");
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            if (!verify(file, result)) {
+                result.setMessage(String.format("File verification failed, nothing was loaded: quantity %s/%d, checksum %s/%s",
+                        result.getDeclaredQuantity(), result.getTotalRows(), result.getDeclaredChecksum(), result.getActualChecksum()));
+                log.warn("Personalization file verification failed for batch {}: {}", request.getBatchId(), result.getMessage());
+            } else {
+                loadVerified(file, request, group, result);
+            }
+        } catch (Exception e) {
+            log.error("Personalization load failed for batch {} after row {}", request.getBatchId(), result.getCommittedRow(), e);
+            result.setMessage("Load stopped, resume from row " + result.getCommittedRow() + ": " + e.getMessage());
+        } finally {
+            deleteQuietly(file);
+        }
+
+        // 批次与IMSI组库存统计在全部分块完成后更新一次
+        if (result.getLoadedCount() > 0) {
+            try {
+                simCardBatchStockService.updateStockAfterImport(request.getBatchId(), (int) result.getLoadedCount());
+                imsiGroupStockService.updateGroupStock(request.getImsiGroupId());
+            } catch (Exception e) {
+                log.error("Failed to update stock after personalization load for batch {}", request.getBatchId(), e);
+            }
+        }
+        result.setElapsedMillis(System.currentTimeMillis() - startMillis);
+        result.setRowsPerSecond(result.getTotalRows() * 1000L / Math.max(result.getElapsedMillis(), 1L));
+        log.info("Personalization load for batch {} finished. Loaded: {}, Rejected: {}, Skipped: {}, {} chunks in {} ms ({} rows/s)",
+                request.getBatchId(), result.getLoadedCount(), result.getRejectCount(), result.getSkippedRows(),
+                result.getChunkCount(), result.getElapsedMillis(), result.getRowsPerSecond());
+        return result;
+    }
+
+    /**
+     * 读完整个文件，比对文件头声明的数量与文件尾声明的校验和（未声明的项不参与比对）
+     *
+     * @return 是否一致
+     */
+    private boolean verify(Path file, PersonalizationLoadResult result) throws IOException {
+        try (PersonalizationFileReader reader = new PersonalizationFileReader(Files.newInputStream(file))) {
+            while (reader.next() != null) {
+                // 仅计数与累计校验和
+            }
+            result.setTotalRows(reader.getRowCount());
+            result.setDeclaredQuantity(reader.getQuantity());
+            result.setDeclaredChecksum(reader.getChecksum());
+            result.setActualChecksum(reader.getActualChecksum());
+            boolean quantityMatched = result.getDeclaredQuantity() == null
+                    || result.getDeclaredQuantity() == reader.getRowCount();
+            boolean checksumMatched = reader.getChecksum() == null
+                    || reader.getChecksum().equals(reader.getActualChecksum());
+            result.setChecksumValid(quantityMatched && checksumMatched);
+            return result.isChecksumValid();
+        }
+    }
+
+    /**
+     * 从已核对的临时文件逐行入库，每满一个分块提交一次
+     */
+    private void loadVerified(Path file, PersonalizationLoadRequest request, ImsiGroup group,
+                              PersonalizationLoadResult result) throws IOException {
+        Set<String> seenIccids = new HashSet<>();
+        Set<String> seenImsis = new HashSet<>();
+        List<PersonalizationRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (PersonalizationFileReader reader = new PersonalizationFileReader(Files.newInputStream(file))) {
+            log.info("Starting personalization load for batch {} and IMSI group {}, declared quantity {}, resume from row {}",
+                    request.getBatchId(), request.getImsiGroupId(), result.getDeclaredQuantity(), request.getResumeFromRow());
+            PersonalizationRecord record;
+            while ((record = reader.next()) != null) {
+                result.setTotalRows(record.getRowNumber());
+                String iccid = StringUtils.trimToNull(record.getIccid());
+                String imsi = StringUtils.trimToNull(record.getImsi());
+                if (record.getRowNumber() <= request.getResumeFromRow()) {
+                    // 已提交的行只参与文件内去重与校验和
+                    result.setSkippedRows(result.getSkippedRows() + 1);
+                    seenIccids.add(iccid);
+                    seenImsis.add(imsi);
+                    continue;
+                }
+                String reason = validate(iccid, imsi, group, seenIccids, seenImsis);
+                if (reason != null) {
+                    result.reject(record.getRowNumber(), iccid, imsi, reason);
+                } else {
+                    record.setIccid(iccid);
+                    record.setImsi(imsi);
+                    chunk.add(record);
+                }
+                if (chunk.size() >= CHUNK_SIZE) {
+                    commitChunk(chunk, request, group, result);
+                    result.setCommittedRow(record.getRowNumber());
+                    chunk.clear();
+                }
+            }
+            commitChunk(chunk, request, group, result);
+            result.setCommittedRow(reader.getRowCount());
+            result.setCompleted(true);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete personalization temp file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * 行校验与文件内去重
+     *
+     * @return 拒绝原因，通过时返回null
+     */
+    private String validate(String iccid, String imsi, ImsiGroup group, Set<String> seenIccids, Set<String> seenImsis) {
+        if (!PersonalizationFileReader.isValidIccid(iccid)) {
+            return "Invalid ICCID or check digit";
+        }
+        if (!PersonalizationFileReader.isValidImsi(imsi)) {
+            return "Invalid IMSI";
+        }
+        if (StringUtils.isNotEmpty(group.getImsiPrefix()) && !imsi.startsWith(group.getImsiPrefix())) {
+            return "IMSI does not match group prefix " + group.getImsiPrefix();
+        }
+        if (!seenIccids.add(iccid)) {
+            return "Duplicate ICCID in file";
+        }
+        if (!seenImsis.add(imsi)) {
+            return "Duplicate IMSI in file";
+        }
+        return null;
+    }
+
+    /**
+     * 在一个事务内写入一个分块，提交后再加入搜索索引
+     */
+    private void commitChunk(List<PersonalizationRecord> chunk, PersonalizationLoadRequest request, ImsiGroup group,
+                             PersonalizationLoadResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<SimCard> loaded = chunkTransaction.execute(status -> writeChunk(chunk, request, group, result));
+        result.setChunkCount(result.getChunkCount() + 1);
+        if (loaded != null) {
+            loaded.forEach(simCardSearchIndex::index);
+            result.setLoadedCount(result.getLoadedCount() + loaded.size());
+        }
+    }
+
+    private List<SimCard> writeChunk(List<PersonalizationRecord> chunk, PersonalizationLoadRequest request, ImsiGroup group,
+                                     PersonalizationLoadResult result) {
+        // 按ICCID分表检测已存在的卡，再按IMSI分表检测已存在的IMSI，最后检测已存在的映射
+        Set<String> existingIccids = existing(chunk, PersonalizationRecord::getIccid,
+                record -> ShardingIdUtils.iccidShardCode(record.getIccid()),
+                iccids -> simCardMapper.selectList(new LambdaQueryWrapper<SimCard>()
+                                .select(SimCard::getIccid).in(SimCard::getIccid, iccids))
+                        .stream().map(SimCard::getIccid).collect(Collectors.toSet()));
+        Set<String> existingImsis = existing(chunk, PersonalizationRecord::getImsi,
+                record -> ImsiGenerator.getTableShardingIndex(record.getImsi(), ShardingBatchUpdateUtils.IMSI_RESOURCE_SHARD_COUNT),
+                imsis -> imsiResourceMapper.selectList(new LambdaQueryWrapper<ImsiResource>()
+                                .select(ImsiResource::getImsi).in(ImsiResource::getImsi, imsis))
+                        .stream().map(ImsiResource::getImsi).collect(Collectors.toSet()));
+        Set<String> mappedImsis = existing(chunk, PersonalizationRecord::getImsi, record -> 0,
+                imsis -> imsiIccidMappingMapper.selectList(new LambdaQueryWrapper<ImsiIccidMapping>()
+                                .select(ImsiIccidMapping::getImsi).in(ImsiIccidMapping::getImsi, imsis))
+                        .stream().map(ImsiIccidMapping::getImsi).collect(Collectors.toSet()));
+
+        List<PersonalizationRecord> accepted = new ArrayList<>(chunk.size());
+        for (PersonalizationRecord record : chunk) {
+            if (existingIccids.contains(record.getIccid())) {
+                result.reject(record.getRowNumber(), record.getIccid(), record.getImsi(), "ICCID already exists");
+            } else if (existingImsis.contains(record.getImsi())) {
+                result.reject(record.getRowNumber(), record.getIccid(), record.getImsi(), "IMSI already exists");
+            } else if (mappedImsis.contains(record.getImsi())) {
+                result.reject(record.getRowNumber(), record.getIccid(), record.getImsi(), "IMSI already mapped");
+            } else {
+                accepted.add(record);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> cardIds = sequenceService.getBatchSequenceValues(SequenceService.SIM_CARD_ID_SEQ, accepted.size());
+        List<Long> imsiIds = sequenceService.getBatchSequenceValues(SequenceService.IMSI_RESOURCE_ID_SEQ, accepted.size());
+        Date now = new Date();
+        Map<Integer, List<SimCard>> cardsByShard = new TreeMap<>();
+        Map<Integer, List<ImsiResource>> imsisByShard = new TreeMap<>();
+        List<ImsiIccidMapping> mappings = new ArrayList<>(accepted.size());
+        List<SimCard> cards = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            PersonalizationRecord record = accepted.get(i);
+            int cardShard = ShardingIdUtils.iccidShardCode(record.getIccid());
+            SimCard card = new SimCard();
+            card.setId(sequenceService.toShardingId(cardIds.get(i), cardShard));
+            card.setIccid(record.getIccid());
+            card.setImsi(record.getImsi());
+            card.setBatchId(request.getBatchId());
+            card.setCardTypeId(request.getCardTypeId());
+            card.setSpecId(request.getSpecId());
+            card.setDataType(request.getDataType());
+            card.setSupplierId(request.getSupplierId());
+            card.setOrganizationId(request.getOrgId());
+            card.setStatus(SimCardConstant.STATUS_PUBLISHED);
+            card.setCreateTime(now);
+            card.setUpdateTime(now);
+            card.setCreateUserId(request.getOperatorUserId());
+            card.setUpdateUserId(request.getOperatorUserId());
+            cardsByShard.computeIfAbsent(cardShard, k -> new ArrayList<>()).add(card);
+            cards.add(card);
+
+            ImsiResource imsi = new ImsiResource();
+            imsi.setImsiId(imsiIds.get(i));
+            imsi.setImsi(record.getImsi());
+            imsi.setImsiType(group.getImsiType());
+            imsi.setGroupId(group.getGroupId());
+            imsi.setSupplierId(request.getSupplierId());
+            imsi.setStatus(ImsiConstant.STATUS_IDLE);
+            imsi.setCreateTime(now);
+            imsi.setUpdateTime(now);
+            imsi.setCreateUserId(request.getOperatorUserId());
+            imsi.setUpdateUserId(request.getOperatorUserId());
+            imsisByShard.computeIfAbsent(ImsiGenerator.getTableShardingIndex(record.getImsi(),
+                    ShardingBatchUpdateUtils.IMSI_RESOURCE_SHARD_COUNT), k -> new ArrayList<>()).add(imsi);
+
+            ImsiIccidMapping mapping = new ImsiIccidMapping();
+            mapping.setImsi(record.getImsi());
+            mapping.setIccid(record.getIccid());
+            mappings.add(mapping);
+        }
+
+        // 同一分表的数据一条多值INSERT写入
+        cardsByShard.values().forEach(simCardMapper::batchInsert);
+        imsisByShard.values().forEach(imsiResourceMapper::batchInsert);
+        imsiIccidMappingMapper.batchInsert(mappings);
+        imsiGroupService.advanceNextImsi(group.getGroupId(), accepted.stream().map(PersonalizationRecord::getImsi).collect(Collectors.toList()));
+        cards.forEach(card -> inventoryCounterService.recordSimCardChange(null, SimCardCounterKey.of(card), 1));
+        inventoryCounterService.recordImsiChange(group.getGroupId(), null, ImsiConstant.STATUS_IDLE, cards.size());
+
+        // 每个分块一条汇总操作记录，卡ID为0，ICCID记录为分块内首尾ICCID
+        SimCardOperation operation = new SimCardOperation();
+        operation.setCardId(0L);
+        operation.setIccid(cards.get(0).getIccid() + "-" + cards.get(cards.size() - 1).getIccid());
+        operation.setOperationType(SimCardConstant.OPERATION_TYPE_IMPORT);
+        operation.setOperationTime(now);
+        operation.setOperatorUserId(request.getOperatorUserId());
+        operation.setNewStatus(SimCardConstant.STATUS_PUBLISHED);
+        operation.setStockInOrgId(request.getOrgId());
+        operation.setRemark(String.format("Personalization load of %d SIM cards into batch %d with IMSI group %d",
+                cards.size(), request.getBatchId(), group.getGroupId()));
+        operation.setResultStatus(SimCardConstant.RESULT_SUCCESS);
+        operation.setCreateTime(now);
+        operation.setUpdateTime(now);
+        operation.setCreateUserId(request.getOperatorUserId());
+        operation.setUpdateUserId(request.getOperatorUserId());
+        simCardOperationService.save(operation);
+        return cards;
+    }
+
+    /**
+     * 按分表分组后每个分表一次IN查询，返回已存在的值
+     */
+    private static Set<String> existing(List<PersonalizationRecord> chunk, Function<PersonalizationRecord, String> value,
+                                        Function<PersonalizationRecord, Integer> shard,
+                                        Function<List<String>, Set<String>> query) {
+        Map<Integer, List<String>> valuesByShard = chunk.stream().collect(Collectors.groupingBy(shard, TreeMap::new,
+                Collectors.mapping(value, Collectors.toList())));
+        Set<String> existing = new HashSet<>();
+        valuesByShard.values().forEach(values -> existing.addAll(query.apply(values)));
+        return existing;
+    }
+}
@@ -1,23 +1,34 @@
 package com.nsrs.simcard.service.impl;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.nsrs.simcard.config.AlertNotifyProperties;
 import com.nsrs.simcard.constants.AlertConstant;
-import com.nsrs.simcard.entity.SimCardInventoryAlertLog;
+import com.nsrs.simcard.entity.SimCardInventoryAlert;
 import com.nsrs.simcard.model.dto.SimCardInventoryAlertLogDTO;
+import com.nsrs.simcard.notify.AlertNotification;
+import com.nsrs.simcard.notify.AlertNotificationChannel;
+import com.nsrs.simcard.notify.AlertNotificationDispatcher;
+import com.nsrs.simcard.notify.channel.EmailAlertChannel;
+import com.nsrs.simcard.notify.channel.SmsAlertChannel;
 import com.nsrs.simcard.service.SimCardAlertNotificationService;
 import com.nsrs.simcard.service.SimCardInventoryAlertLogService;
 import com.nsrs.simcard.service.SimCardInventoryAlertService;
-import com.nsrs.simcard.model.dto.SimCardInventoryAlertDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * SIM Card Alert Notification Service Implementation
+ * Pending logs are handed to the AlertNotificationDispatcher and delivered asynchronously;
+ * the notify status of each log is updated when its delivery completes
  */
 @Slf4j
 @Service
@@ -29,97 +40,31 @@ public class SimCardAlertNotificationServiceImpl implements SimCardAlertNotifica
     @Autowired
     private SimCardInventoryAlertService alertService;
     
+    @Autowired
+    private AlertNotificationDispatcher dispatcher;
+    
+    @Autowired
+    private AlertNotifyProperties notifyProperties;
+    
+    @Autowired
+    private EmailAlertChannel emailChannel;
+    
+    @Autowired
+    private SmsAlertChannel smsChannel;
+    
     @Override
     public boolean sendAlertNotification(SimCardInventoryAlertLogDTO alertLog) {
-        try {
-            log.info("Sending alert notification for alert ID: {}", alertLog.getAlertId());
-            
-            boolean emailSent = true;
-            boolean smsSent = true;
-            
-            // Get alert configuration to retrieve notification settings
-            SimCardInventoryAlertDTO alertConfig = alertService.getAlertDetail(alertLog.getAlertId());
-            if (alertConfig != null) {
-                // Send email notification if email addresses are configured
-                if (StringUtils.hasText(alertConfig.getNotifyEmails())) {
-                    emailSent = sendEmailNotification(alertLog, alertConfig.getNotifyEmails());
-                }
-                
-                // Send SMS notification if phone numbers are configured
-                if (StringUtils.hasText(alertConfig.getNotifyPhones())) {
-                    smsSent = sendSmsNotification(alertLog, alertConfig.getNotifyPhones());
-                }
-            }
-            
-            boolean success = emailSent && smsSent;
-            
-            // Update notification status
-            int notifyStatus = success ? AlertConstant.NOTIFY_STATUS_SENT : AlertConstant.NOTIFY_STATUS_FAILED;
-            alertLogService.updateNotifyStatus(alertLog.getId(), notifyStatus);
-            
-            if (success) {
-                log.info(AlertConstant.LOG_ALERT_NOTIFICATION_SENT, alertLog.getId());
-            } else {
-                log.error(AlertConstant.LOG_ALERT_NOTIFICATION_FAILED, alertLog.getId(), "Email or SMS sending failed");
-            }
-            
-            return success;
-            
-        } catch (Exception e) {
-            log.error(AlertConstant.LOG_ALERT_NOTIFICATION_FAILED, alertLog.getId(), e.getMessage(), e);
-            
-            // Update notification status to failed
-            try {
-                alertLogService.updateNotifyStatus(alertLog.getId(), AlertConstant.NOTIFY_STATUS_FAILED);
-            } catch (Exception updateException) {
-                log.error("Failed to update notification status for alert ID: {}", alertLog.getId(), updateException);
-            }
-            
-            return false;
-        }
+        return dispatchAll(Collections.singletonList(alertLog)) > 0;
     }
     
     @Override
     public boolean sendEmailNotification(SimCardInventoryAlertLogDTO alertLog, String emails) {
-        try {
-            log.info("Sending email notification to: {}", emails);
-            
-            String[] emailArray = emails.split(",");
-            String subject = generateEmailSubject(alertLog);
-            String content = generateEmailContent(alertLog);
-            
-            // TODO: Implement actual email sending logic
-            // This is a placeholder for email service integration
-            // Example: emailService.sendEmail(emailArray, subject, content);
-            
-            log.info("Email notification sent successfully to: {}", emails);
-            return true;
-            
-        } catch (Exception e) {
-            log.error("Failed to send email notification to: {}, error: {}", emails, e.getMessage(), e);
-            return false;
-        }
+        return sendDirect(emailChannel, alertLog, emails);
     }
     
     @Override
     public boolean sendSmsNotification(SimCardInventoryAlertLogDTO alertLog, String phones) {
-        try {
-            log.info("Sending SMS notification to: {}", phones);
-            
-            String[] phoneArray = phones.split(",");
-            String content = generateSmsContent(alertLog);
-            
-            // TODO: Implement actual SMS sending logic
-            // This is a placeholder for SMS service integration
-            // Example: smsService.sendSms(phoneArray, content);
-            
-            log.info("SMS notification sent successfully to: {}", phones);
-            return true;
-            
-        } catch (Exception e) {
-            log.error("Failed to send SMS notification to: {}, error: {}", phones, e.getMessage(), e);
-            return false;
-        }
+        return sendDirect(smsChannel, alertLog, phones);
     }
     
     @Override
@@ -128,17 +73,10 @@ public class SimCardAlertNotificationServiceImpl implements SimCardAlertNotifica
         
         try {
             // Get pending notifications directly by status
-            List<SimCardInventoryAlertLogDTO> pendingLogs = alertLogService.getPendingNotificationLogs(100);
-            
-            int processedCount = 0;
+            List<SimCardInventoryAlertLogDTO> pendingLogs = alertLogService.getPendingNotificationLogs(notifyProperties.getFetchSize());
+            int processedCount = dispatchAll(pendingLogs);
             
-            for (SimCardInventoryAlertLogDTO alertLog : pendingLogs) {
-                if (sendAlertNotification(alertLog)) {
-                    processedCount++;
-                }
-            }
-            
-            log.info("Processed {} pending notifications", processedCount);
+            log.info("Queued {} pending notifications", processedCount);
             return processedCount;
             
         } catch (Exception e) {
@@ -153,17 +91,10 @@ public class SimCardAlertNotificationServiceImpl implements SimCardAlertNotifica
         
         try {
             // Get failed notifications directly by status
-            List<SimCardInventoryAlertLogDTO> failedLogs = alertLogService.getFailedNotificationLogs(100);
-            
-            int retriedCount = 0;
+            List<SimCardInventoryAlertLogDTO> failedLogs = alertLogService.getFailedNotificationLogs(notifyProperties.getFetchSize());
+            int retriedCount = dispatchAll(failedLogs);
             
-            for (SimCardInventoryAlertLogDTO alertLog : failedLogs) {
-                if (sendAlertNotification(alertLog)) {
-                    retriedCount++;
-                }
-            }
-            
-            log.info("Retried {} failed notifications", retriedCount);
+            log.info("Queued {} failed notifications for retry", retriedCount);
             return retriedCount;
             
         } catch (Exception e) {
@@ -172,11 +103,119 @@ public class SimCardAlertNotificationServiceImpl implements SimCardAlertNotifica
         }
     }
     
+    @Override
+    public Map<String, Object> getDispatchStatistics() {
+        return dispatcher.getStatistics();
+    }
+    
+    /**
+     * Submit alert logs to the dispatcher, alert configurations are loaded in one query
+     * @return Number of notifications queued for delivery
+     */
+    private int dispatchAll(List<SimCardInventoryAlertLogDTO> alertLogs) {
+        if (alertLogs == null || alertLogs.isEmpty()) {
+            return 0;
+        }
+        
+        List<Long> alertIds = alertLogs.stream().map(SimCardInventoryAlertLogDTO::getAlertId)
+                .filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        Map<Long, SimCardInventoryAlert> alertConfigs = alertIds.isEmpty() ? Collections.emptyMap()
+                : alertService.listByIds(alertIds).stream()
+                        .collect(Collectors.toMap(SimCardInventoryAlert::getId, Function.identity()));
+        
+        int queuedCount = 0;
+        for (SimCardInventoryAlertLogDTO alertLog : alertLogs) {
+            AlertNotification notification = buildNotification(alertLog, alertConfigs.get(alertLog.getAlertId()));
+            AlertNotificationDispatcher.Submission submission = dispatcher.dispatch(notification,
+                    delivered -> completeNotification(alertLog.getId(), delivered));
+            switch (submission) {
+                case ACCEPTED:
+                    queuedCount++;
+                    break;
+                case SUPPRESSED:
+                    // The same dimension was notified within the dedup window, nothing was sent for this log
+                    suppressNotification(alertLog.getId());
+                    break;
+                case REJECTED:
+                    log.warn("Alert notification queue is full, remaining logs stay pending until the next run");
+                    return queuedCount;
+                default:
+                    break;
+            }
+        }
+        return queuedCount;
+    }
+    
+    private void completeNotification(Long logId, boolean delivered) {
+        try {
+            alertLogService.updateNotifyStatus(logId, delivered ? AlertConstant.NOTIFY_STATUS_SENT : AlertConstant.NOTIFY_STATUS_FAILED);
+            if (delivered) {
+                log.info(AlertConstant.LOG_ALERT_NOTIFICATION_SENT, logId);
+            } else {
+                log.error(AlertConstant.LOG_ALERT_NOTIFICATION_FAILED, logId, "Delivery failed after retries");
+            }
+        } catch (Exception e) {
+            log.error("Failed to update notification status for alert log ID: {}", logId, e);
+        }
+    }
+    
+    private void suppressNotification(Long logId) {
+        try {
+            alertLogService.updateNotifyStatus(logId, AlertConstant.NOTIFY_STATUS_SUPPRESSED);
+        } catch (Exception e) {
+            log.error("Failed to update notification status for alert log ID: {}", logId, e);
+        }
+    }
+    
+    private AlertNotification buildNotification(SimCardInventoryAlertLogDTO alertLog, SimCardInventoryAlert alertConfig) {
+        AlertNotification notification = new AlertNotification();
+        notification.setLogId(alertLog.getId());
+        notification.setAlertId(alertLog.getAlertId());
+        notification.setAlertTime(alertLog.getAlertTime());
+        notification.setDimensionKey(String.format("%s_%s_%s_%s_%s_%s", alertLog.getAlertId(), alertLog.getCardTypeId(),
+                alertLog.getSpecId(), alertLog.getSupplierId(), alertLog.getOrgId(), alertLog.getAlertType()));
+        notification.setSubject(generateEmailSubject(alertLog));
+        notification.setContent(generateEmailContent(alertLog));
+        notification.setShortContent(generateSmsContent(alertLog));
+        if (alertConfig != null) {
+            if (StringUtils.hasText(alertConfig.getNotifyEmails())) {
+                notification.getRecipients().put(EmailAlertChannel.NAME, splitRecipients(alertConfig.getNotifyEmails()));
+            }
+            if (StringUtils.hasText(alertConfig.getNotifyPhones())) {
+                notification.getRecipients().put(SmsAlertChannel.NAME, splitRecipients(alertConfig.getNotifyPhones()));
+            }
+        }
+        return notification;
+    }
+    
+    private List<String> splitRecipients(String recipients) {
+        return Arrays.stream(recipients.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Synchronous send through a single channel, bypassing the dispatcher queue
+     */
+    private boolean sendDirect(AlertNotificationChannel channel, SimCardInventoryAlertLogDTO alertLog, String recipients) {
+        try {
+            AlertNotification notification = buildNotification(alertLog, null);
+            channel.send(splitRecipients(recipients), notification);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to send {} notification to: {}, error: {}", channel.getName(), recipients, e.getMessage(), e);
+            return false;
+        }
+    }
+    
     /**
      * Generate email subject for alert notification
      */
     private String generateEmailSubject(SimCardInventoryAlertLogDTO alertLog) {
-        String alertType = alertLog.getAlertType() == AlertConstant.ALERT_TYPE_LOW_INVENTORY ? "Low Inventory" : "High Inventory";
+        String alertType = alertLog.getAlertType() == AlertConstant.ALERT_TYPE_LOW_INVENTORY ? "Low Inventory"
+                : alertLog.getAlertType() == AlertConstant.ALERT_TYPE_DEPLETION_FORECAST ? "Depletion Forecast" : "High Inventory";
         return String.format("[NSRS Alert] %s - %s", alertType, alertLog.getAlertName());
     }
     
@@ -190,12 +229,19 @@ public class SimCardAlertNotificationServiceImpl implements SimCardAlertNotifica
         content.append("Alert Name: ").append(alertLog.getAlertName()).append("\n");
         content.append("Alert Type: ").append(alertLog.getAlertTypeName()).append("\n");
         content.append("Current Count: ").append(alertLog.getCurrentCount()).append("\n");
-        content.append("Threshold: ").append(alertLog.getThreshold()).append("\n");
+        if (alertLog.getAlertType() == AlertConstant.ALERT_TYPE_DEPLETION_FORECAST) {
+            content.append("Days To Depletion: ").append(alertLog.getThreshold()).append("\n");
+        } else {
+            content.append("Threshold: ").append(alertLog.getThreshold()).append("\n");
+        }
         content.append("Alert Time: ").append(alertLog.getAlertTime()).append("\n\n");
         
         if (alertLog.getAlertType() == AlertConstant.ALERT_TYPE_LOW_INVENTORY) {
             content.append(String.format(AlertConstant.LOW_INVENTORY_MESSAGE_TEMPLATE, 
                     alertLog.getAlertName(), alertLog.getCurrentCount(), alertLog.getThreshold()));
+        } else if (alertLog.getAlertType() == AlertConstant.ALERT_TYPE_DEPLETION_FORECAST) {
+            content.append(String.format(AlertConstant.DEPLETION_FORECAST_MESSAGE_TEMPLATE, 
+                    alertLog.getAlertName(), alertLog.getCurrentCount(), alertLog.getThreshold()));
         } else {
             content.append(String.format(AlertConstant.HIGH_INVENTORY_MESSAGE_TEMPLATE, 
                     alertLog.getAlertName(), alertLog.getCurrentCount(), alertLog.getThreshold()));
@@ -214,6 +260,9 @@ public class SimCardAlertNotificationServiceImpl implements SimCardAlertNotifica
         if (alertLog.getAlertType() == AlertConstant.ALERT_TYPE_LOW_INVENTORY) {
             return String.format("[NSRS] " + AlertConstant.LOW_INVENTORY_MESSAGE_TEMPLATE, 
                     alertLog.getAlertName(), alertLog.getCurrentCount(), alertLog.getThreshold());
+        } else if (alertLog.getAlertType() == AlertConstant.ALERT_TYPE_DEPLETION_FORECAST) {
+            return String.format("[NSRS] " + AlertConstant.DEPLETION_FORECAST_MESSAGE_TEMPLATE, 
+                    alertLog.getAlertName(), alertLog.getCurrentCount(), alertLog.getThreshold());
         } else {
             return String.format("[NSRS] " + AlertConstant.HIGH_INVENTORY_MESSAGE_TEMPLATE, 
                     alertLog.getAlertName(), alertLog.getCurrentCount(), alertLog.getThreshold());
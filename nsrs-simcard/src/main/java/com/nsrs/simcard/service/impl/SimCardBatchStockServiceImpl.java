@@ -6,6 +6,7 @@ import com.nsrs.simcard.entity.SimCard;
 import com.nsrs.simcard.entity.SimCardBatch;
 import com.nsrs.simcard.service.SimCardBatchService;
 import com.nsrs.simcard.service.SimCardBatchStockService;
+import com.nsrs.simcard.service.InventoryCounterService;
 import com.nsrs.simcard.service.SimCardService;
 import lombok.extern.slf4j.Slf4j;
 
@@ -15,6 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
+import java.util.Map;
 
 /**
  * SIM卡批次库存状态服务实现类
@@ -32,6 +34,9 @@ public class SimCardBatchStockServiceImpl implements SimCardBatchStockService {
     @Autowired
     private SimCardService simCardService;
 
+    @Autowired
+    private InventoryCounterService inventoryCounterService;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void updateBatchStock(Long batchId) {
@@ -46,36 +51,52 @@ public class SimCardBatchStockServiceImpl implements SimCardBatchStockService {
                 return;
             }
 
-            // 统计各状态的SIM卡数量
-            LambdaQueryWrapper<SimCard> queryWrapper = new LambdaQueryWrapper<>();
-            queryWrapper.eq(SimCard::getBatchId, batchId);
-
-            // 总数量
-            long totalCount = simCardService.count(queryWrapper);
-
-            // 已激活数量
-            LambdaQueryWrapper<SimCard> activatedWrapper = new LambdaQueryWrapper<>();
-            activatedWrapper.eq(SimCard::getBatchId, batchId)
-                           .eq(SimCard::getStatus, SimCardConstant.STATUS_ACTIVATED);
-            long activatedCount = simCardService.count(activatedWrapper);
-
-            // 已停用数量
-            LambdaQueryWrapper<SimCard> deactivatedWrapper = new LambdaQueryWrapper<>();
-            deactivatedWrapper.eq(SimCard::getBatchId, batchId)
-                             .eq(SimCard::getStatus, SimCardConstant.STATUS_DEACTIVATED);
-            long deactivatedCount = simCardService.count(deactivatedWrapper);
-
-            // 已回收数量
-            LambdaQueryWrapper<SimCard> recycledWrapper = new LambdaQueryWrapper<>();
-            recycledWrapper.eq(SimCard::getBatchId, batchId)
-                          .eq(SimCard::getStatus, SimCardConstant.STATUS_RECYCLED);
-            long recycledCount = simCardService.count(recycledWrapper);
-
-            // 可用数量（已发布 + 已分配）
-            LambdaQueryWrapper<SimCard> availableWrapper = new LambdaQueryWrapper<>();
-            availableWrapper.eq(SimCard::getBatchId, batchId)
-                           .in(SimCard::getStatus, SimCardConstant.STATUS_PUBLISHED, SimCardConstant.STATUS_ASSIGNED);
-            long availableCount = simCardService.count(availableWrapper);
+            long totalCount;
+            long activatedCount;
+            long deactivatedCount;
+            long recycledCount;
+            long availableCount;
+            if (inventoryCounterService.isEnabled()) {
+                // 直接读取批次计数，一次查询
+                Map<Integer, Long> counts = inventoryCounterService.countSimCardsByStatus(batchId, null);
+                totalCount = counts.values().stream().mapToLong(Long::longValue).sum();
+                activatedCount = counts.getOrDefault(SimCardConstant.STATUS_ACTIVATED, 0L);
+                deactivatedCount = counts.getOrDefault(SimCardConstant.STATUS_DEACTIVATED, 0L);
+                recycledCount = counts.getOrDefault(SimCardConstant.STATUS_RECYCLED, 0L);
+                availableCount = counts.getOrDefault(SimCardConstant.STATUS_PUBLISHED, 0L)
+                        + counts.getOrDefault(SimCardConstant.STATUS_ASSIGNED, 0L);
+            } else {
+                // 统计各状态的SIM卡数量
+                LambdaQueryWrapper<SimCard> queryWrapper = new LambdaQueryWrapper<>();
+                queryWrapper.eq(SimCard::getBatchId, batchId);
+
+                // 总数量
+                totalCount = simCardService.count(queryWrapper);
+
+                // 已激活数量
+                LambdaQueryWrapper<SimCard> activatedWrapper = new LambdaQueryWrapper<>();
+                activatedWrapper.eq(SimCard::getBatchId, batchId)
+                               .eq(SimCard::getStatus, SimCardConstant.STATUS_ACTIVATED);
+                activatedCount = simCardService.count(activatedWrapper);
+
+                // 已停用数量
+                LambdaQueryWrapper<SimCard> deactivatedWrapper = new LambdaQueryWrapper<>();
+                deactivatedWrapper.eq(SimCard::getBatchId, batchId)
+                                 .eq(SimCard::getStatus, SimCardConstant.STATUS_DEACTIVATED);
+                deactivatedCount = simCardService.count(deactivatedWrapper);
+
+                // 已回收数量
+                LambdaQueryWrapper<SimCard> recycledWrapper = new LambdaQueryWrapper<>();
+                recycledWrapper.eq(SimCard::getBatchId, batchId)
+                              .eq(SimCard::getStatus, SimCardConstant.STATUS_RECYCLED);
+                recycledCount = simCardService.count(recycledWrapper);
+
+                // 可用数量（已发布 + 已分配）
+                LambdaQueryWrapper<SimCard> availableWrapper = new LambdaQueryWrapper<>();
+                availableWrapper.eq(SimCard::getBatchId, batchId)
+                               .in(SimCard::getStatus, SimCardConstant.STATUS_PUBLISHED, SimCardConstant.STATUS_ASSIGNED);
+                availableCount = simCardService.count(availableWrapper);
+            }
 
             // 更新批次库存信息
             batch.setTotalCount((int) totalCount);
@@ -248,12 +248,14 @@ public class SimCardInventoryAlertLogServiceImpl extends ServiceImpl<SimCardInve
         
         // 设置预警类型名称
         if (log.getAlertType() != null) {
-            dto.setAlertTypeName(log.getAlertType() == AlertConstant.ALERT_TYPE_LOW_INVENTORY ? "Low Stock Alert" : "Overstock Alert");
+            dto.setAlertTypeName(log.getAlertType() == AlertConstant.ALERT_TYPE_LOW_INVENTORY ? "Low Stock Alert"
+                    : log.getAlertType() == AlertConstant.ALERT_TYPE_DEPLETION_FORECAST ? "Depletion Forecast Alert" : "Overstock Alert");
         }
         
         // 设置通知状态名称
         if (log.getNotifyStatus() != null) {
-            dto.setNotifyStatusName(log.getNotifyStatus() == AlertConstant.NOTIFY_STATUS_SENT ? "Notified" : "Not Notified");
+            dto.setNotifyStatusName(log.getNotifyStatus() == AlertConstant.NOTIFY_STATUS_SENT ? "Notified"
+                    : log.getNotifyStatus() == AlertConstant.NOTIFY_STATUS_SUPPRESSED ? "Suppressed" : "Not Notified");
         }
         
         // 这里可以添加关联数据的查询，如卡类型名称、规格名称、供应商名称、组织名称等
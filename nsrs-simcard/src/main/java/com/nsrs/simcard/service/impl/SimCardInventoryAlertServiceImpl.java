@@ -10,6 +10,7 @@ import com.nsrs.simcard.entity.SimCard;
 import com.nsrs.simcard.enums.ErrorMessageEnum;
 import com.nsrs.simcard.entity.SimCardInventoryAlert;
 import com.nsrs.simcard.entity.SimCardInventoryAlertLog;
+import com.nsrs.simcard.entity.SimCardStockCounter;
 import com.nsrs.simcard.utils.SimCardConstant;
 import com.nsrs.simcard.mapper.SimCardInventoryAlertMapper;
 import com.nsrs.simcard.mapper.SimCardMapper;
@@ -17,6 +18,7 @@ import com.nsrs.simcard.model.dto.SimCardInventoryAlertDTO;
 import com.nsrs.simcard.model.query.SimCardInventoryAlertQuery;
 import com.nsrs.simcard.constants.AlertConstant;
 import com.nsrs.simcard.cache.InventoryCacheService;
+import com.nsrs.simcard.service.InventoryCounterService;
 import com.nsrs.simcard.service.SimCardInventoryAlertLogService;
 import com.nsrs.simcard.service.SimCardInventoryAlertService;
 import lombok.extern.slf4j.Slf4j;
@@ -49,6 +51,9 @@ public class SimCardInventoryAlertServiceImpl extends ServiceImpl<SimCardInvento
     @Autowired
     private InventoryCacheService cacheService;
     
+    @Autowired
+    private InventoryCounterService inventoryCounterService;
+    
     @Override
     public PageResult<SimCardInventoryAlertDTO> pageAlert(PageRequest<SimCardInventoryAlertQuery> request) {
         // 参数校验和默认值设置
@@ -334,10 +339,13 @@ public class SimCardInventoryAlertServiceImpl extends ServiceImpl<SimCardInvento
           List<Map<String, Object>> result = new ArrayList<>();
           List<SimCardInventoryAlert> alertsNeedQuery = new ArrayList<>();
           
-          // 检查缓存
+          // 批量检查缓存（本地缓存未命中的键一次MGET）
+          Map<String, Map<String, Object>> cached = cacheService.getAll(alerts.stream()
+              .map(this::buildConfigKey)
+              .collect(Collectors.toSet()));
           for (SimCardInventoryAlert alert : alerts) {
               String configKey = buildConfigKey(alert);
-              Map<String, Object> cachedData = cacheService.get(configKey);
+              Map<String, Object> cachedData = cached.get(configKey);
               
               if (cachedData != null) {
                   // 缓存命中
@@ -352,23 +360,29 @@ public class SimCardInventoryAlertServiceImpl extends ServiceImpl<SimCardInvento
           
           // 批量查询未缓存的数据
           if (!alertsNeedQuery.isEmpty()) {
-              List<Map<String, Object>> paramsList = alertsNeedQuery.stream()
-                  .map(this::buildQueryParams)
-                  .collect(Collectors.toList());
-                  
-              List<Map<String, Object>> queryResult = simCardMapper.batchCountInventoryForAlerts(paramsList);
+              List<Map<String, Object>> queryResult;
+              if (inventoryCounterService.isEnabled()) {
+                  queryResult = countInventoryFromCounters(alertsNeedQuery);
+              } else {
+                  List<Map<String, Object>> paramsList = alertsNeedQuery.stream()
+                      .map(this::buildQueryParams)
+                      .collect(Collectors.toList());
+                  queryResult = simCardMapper.batchCountInventoryForAlerts(paramsList);
+              }
               
               // 更新缓存并添加到结果中
+              Map<String, Map<String, Object>> cacheEntries = new HashMap<>();
               for (Map<String, Object> data : queryResult) {
                   String configKey = (String) data.get("config_key");
                   
                   // 缓存数据（不包含config_key）
                   Map<String, Object> cacheData = new HashMap<>(data);
                   cacheData.remove("config_key");
-                  cacheService.put(configKey, cacheData);
+                  cacheEntries.put(configKey, cacheData);
                   
                   result.add(data);
               }
+              cacheService.putAll(cacheEntries);
               
               log.debug("Queried {} inventory records from database, {} from cache", 
                   queryResult.size(), alerts.size() - alertsNeedQuery.size());
@@ -379,6 +393,58 @@ public class SimCardInventoryAlertServiceImpl extends ServiceImpl<SimCardInvento
           return result;
        }
     
+    /**
+      * 从库存计数汇总预警维度的库存，结果格式与 batchCountInventoryForAlerts 一致
+      * @param alerts 预警配置列表
+      * @return 库存数据列表
+      */
+     private List<Map<String, Object>> countInventoryFromCounters(List<SimCardInventoryAlert> alerts) {
+         Map<String, Map<String, Object>> wanted = new HashMap<>();
+         for (SimCardInventoryAlert alert : alerts) {
+             wanted.put(buildConfigKey(alert), null);
+         }
+         for (SimCardStockCounter counter : inventoryCounterService.sumSimCardsByDimension()) {
+             if (counter.getCardCount() == null || counter.getCardCount() <= 0) {
+                 continue;
+             }
+             String configKey = String.format("%s_%s_%s_%s",
+                 dimensionOf(counter.getCardTypeId()),
+                 dimensionOf(counter.getSpecId()),
+                 dimensionOf(counter.getSupplierId()),
+                 dimensionOf(counter.getOrgId()));
+             if (!wanted.containsKey(configKey)) {
+                 continue;
+             }
+             Map<String, Object> data = wanted.get(configKey);
+             if (data == null) {
+                 data = new HashMap<>();
+                 data.put("config_key", configKey);
+                 data.put("card_type_id", dimensionOf(counter.getCardTypeId()));
+                 data.put("spec_id", dimensionOf(counter.getSpecId()));
+                 data.put("supplier_id", dimensionOf(counter.getSupplierId()));
+                 data.put("org_id", dimensionOf(counter.getOrgId()));
+                 data.put("available_count", 0L);
+                 data.put("total_count", 0L);
+                 wanted.put(configKey, data);
+             }
+             int status = counter.getStatus();
+             if (status == SimCardConstant.STATUS_PUBLISHED || status == SimCardConstant.STATUS_ASSIGNED) {
+                 data.put("available_count", (Long) data.get("available_count") + counter.getCardCount());
+             }
+             data.put("total_count", (Long) data.get("total_count") + counter.getCardCount());
+         }
+         return wanted.values().stream()
+             .filter(data -> data != null)
+             .collect(Collectors.toList());
+     }
+
+     /**
+      * 计数表以0表示未设置的维度
+      */
+     private static Long dimensionOf(Long id) {
+         return id != null && id != 0L ? id : null;
+     }
+
     /**
       * 构建配置键
       * @param alert 预警配置
@@ -439,6 +505,15 @@ public class SimCardInventoryAlertServiceImpl extends ServiceImpl<SimCardInvento
      * @param alertMessage 预警消息
      */
     private void createAlertLog(SimCardInventoryAlert alert, int currentCount, int threshold, Date alertTime, String alertMessage) {
+        createAlertLog(alert, alert.getAlertType(), currentCount, threshold, alertTime, alertMessage);
+    }
+    
+    /**
+     * 创建指定类型的预警日志
+     * @param alertType 预警日志类型，预测预警的阈值为预计耗尽天数
+     */
+    private void createAlertLog(SimCardInventoryAlert alert, Integer alertType, int currentCount, int threshold,
+                                Date alertTime, String alertMessage) {
         SimCardInventoryAlertLog alertLog = new SimCardInventoryAlertLog();
         
         alertLog.setAlertId(alert.getId());
@@ -449,7 +524,7 @@ public class SimCardInventoryAlertServiceImpl extends ServiceImpl<SimCardInvento
         alertLog.setOrgId(alert.getOrgId());
         alertLog.setCurrentCount(currentCount);
         alertLog.setThreshold(threshold);
-        alertLog.setAlertType(alert.getAlertType());
+        alertLog.setAlertType(alertType);
         alertLog.setNotifyStatus(AlertConstant.NOTIFY_STATUS_PENDING);
         alertLog.setRemark(alertMessage);
         
@@ -522,6 +597,37 @@ public class SimCardInventoryAlertServiceImpl extends ServiceImpl<SimCardInvento
         return timeDiff > 3600000; // 1小时 = 3600000毫秒
     }
     
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int createDepletionForecastAlerts(String configKey, int currentCount, int daysToDepletion) {
+        List<SimCardInventoryAlert> alerts = list(new LambdaQueryWrapper<SimCardInventoryAlert>()
+                .eq(SimCardInventoryAlert::getIsActive, AlertConstant.ALERT_STATUS_ACTIVE)
+                .eq(SimCardInventoryAlert::getAlertType, AlertConstant.ALERT_TYPE_LOW_INVENTORY));
+        Date now = new Date();
+        Date since = new Date(now.getTime() - 24 * 3600000L);
+        int created = 0;
+        for (SimCardInventoryAlert alert : alerts) {
+            if (!configKey.equals(buildConfigKey(alert))) {
+                continue;
+            }
+            // 预测每隔数小时执行一次，同一配置一天内不重复生成预测预警
+            long recent = alertLogService.count(new LambdaQueryWrapper<SimCardInventoryAlertLog>()
+                    .eq(SimCardInventoryAlertLog::getAlertId, alert.getId())
+                    .eq(SimCardInventoryAlertLog::getAlertType, AlertConstant.ALERT_TYPE_DEPLETION_FORECAST)
+                    .ge(SimCardInventoryAlertLog::getAlertTime, since));
+            if (recent > 0) {
+                continue;
+            }
+            String alertMessage = String.format(AlertConstant.DEPLETION_FORECAST_MESSAGE_TEMPLATE,
+                    alert.getName(), currentCount, daysToDepletion);
+            createAlertLog(alert, AlertConstant.ALERT_TYPE_DEPLETION_FORECAST, currentCount, daysToDepletion, now, alertMessage);
+            log.info("Depletion forecast alert generated for config: {}, current count: {}, days to depletion: {}",
+                    alert.getName(), currentCount, daysToDepletion);
+            created++;
+        }
+        return created;
+    }
+    
     @Override
     public List<SimCardInventoryAlertDTO> listActiveAlerts() {
         // 查询所有启用的预警配置
@@ -3,47 +3,81 @@ package com.nsrs.simcard.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.nsrs.common.core.domain.PageRequest;
 import com.nsrs.common.core.domain.PageResult;
+import com.nsrs.common.enums.CountModeEnum;
 import com.nsrs.common.exception.BusinessException;
+import com.nsrs.common.utils.KeysetPageHelper;
+import com.nsrs.common.utils.NgramIndex;
 import com.nsrs.common.utils.SequenceService;
+import com.nsrs.common.utils.ShardedBatchUpdateExecutor;
+import com.nsrs.common.utils.ShardedBatchUpdateResult;
+import com.nsrs.common.utils.ShardingIdUtils;
+import com.nsrs.common.utils.ShardingBatchUpdateUtils;
+import com.nsrs.framework.cache.EntityCache;
+import com.nsrs.framework.cache.EntityCacheManager;
+import com.nsrs.framework.cache.EntityCacheNames;
+import com.nsrs.simcard.cache.SimCardSearchIndex;
 import com.nsrs.simcard.constants.StatusConstants;
+import com.nsrs.simcard.convert.SimCardConvert;
 import com.nsrs.simcard.dto.SimCardBatchOperationRequest;
 import com.nsrs.simcard.dto.SimCardDetailDTO;
 import com.nsrs.simcard.entity.SimCard;
 import com.nsrs.simcard.entity.SimCardBatch;
+import com.nsrs.simcard.entity.SimCardOperation;
 import com.nsrs.simcard.entity.ImsiIccidMapping;
 import com.nsrs.simcard.mapper.SimCardMapper;
+import com.nsrs.simcard.model.dto.SimCardBulkImportResult;
+import com.nsrs.simcard.model.dto.SimCardCounterKey;
+import com.nsrs.simcard.model.dto.SimCardTransitionResult;
 import com.nsrs.simcard.model.dto.SimCardDTO;
 import com.nsrs.simcard.model.dto.SimCardOperationDTO;
+import com.nsrs.simcard.model.query.InventoryCubeQuery;
 import com.nsrs.simcard.model.query.SimCardQuery;
+import com.nsrs.simcard.model.request.SimCardTransitionRequest;
+import com.nsrs.simcard.service.InventoryCounterService;
 import com.nsrs.simcard.service.SimCardBatchStockService;
 import com.nsrs.simcard.service.SimCardOperationService;
 import com.nsrs.simcard.service.SimCardService;
 import com.nsrs.simcard.service.SimCardBatchService;
 import com.nsrs.simcard.service.ImsiIccidMappingService;
 import com.nsrs.simcard.utils.SimCardConstant;
+import com.nsrs.simcard.entity.SimCardStockCounter;
 import com.nsrs.simcard.enums.ErrorMessageEnum;
+import com.nsrs.simcard.enums.InventoryCubeDimensionEnum;
 import com.nsrs.simcard.enums.SimCardStatusEnum;
+import com.nsrs.simcard.enums.SimCardTransitionEnum;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.BeanUtils;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.springframework.util.CollectionUtils;
 
@@ -55,11 +89,46 @@ import org.springframework.util.CollectionUtils;
 @RequiredArgsConstructor
 public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> implements SimCardService {
 
+    /**
+     * 游标分页的逻辑分片标识（sim_card各分表由ShardingSphere统一归并）
+     */
+    private static final String CURSOR_SHARD_ALL = "all";
+
+    /**
+     * 批量导入每个分块的行数
+     */
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
+    /**
+     * 批量状态流转每个分块的卡数（同一分表内）
+     */
+    private static final int TRANSITION_CHUNK_SIZE = 2000;
+
+    /**
+     * 单次批量状态流转的最大卡数
+     */
+    private static final int MAX_TRANSITION_SIZE = 100000;
+
     private final SimCardBatchService simCardBatchService;
     private final SimCardBatchStockService simCardBatchStockService;
     private final SimCardOperationService simCardOperationService;
     private final SequenceService sequenceService;
     private final ImsiIccidMappingService imsiIccidMappingService;
+    private final EntityCacheManager entityCacheManager;
+    private final ShardedBatchUpdateExecutor shardedBatchUpdateExecutor;
+    private final SimCardSearchIndex simCardSearchIndex;
+    private final InventoryCounterService inventoryCounterService;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * 批量导入的分块事务，每个分块单独提交
+     */
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    public void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
 
     @Override
     public PageResult<SimCard> getPage(int page, int size, Map<String, Object> params) {
@@ -70,13 +139,13 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             // ICCID查询
             String iccid = MapUtils.getString(params, "iccid");
             if (StringUtils.isNotBlank(iccid)) {
-                queryWrapper.like(SimCard::getIccid, iccid);
+                likeBySearchIndex(queryWrapper, SimCardSearchIndex.FIELD_ICCID, SimCard::getIccid, iccid);
             }
             
             // IMSI查询
             String imsi = MapUtils.getString(params, "imsi");
             if (StringUtils.isNotBlank(imsi)) {
-                queryWrapper.like(SimCard::getImsi, imsi);
+                likeBySearchIndex(queryWrapper, SimCardSearchIndex.FIELD_IMSI, SimCard::getImsi, imsi);
             }
             
             // 批次ID查询
@@ -209,46 +278,55 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
     
     /**
      * 批量更新SimCard（适配分表）
-     * 由于分表环境下批量操作可能跨表，需要逐个更新
-     * 【分表友好更新】使用ICCID进行更新，避免分表键更新问题
+     * 按ICCID所在分表分组后由分表批量更新执行器执行，避免逐行UPDATE；只更新非空字段，不更新分表键
+     *
+     * @param change 对每张卡的修改，修改前后的计数维度差异计入库存计数
      */
-    private boolean updateBatchByIdForSharding(List<SimCard> simCards) {
+    private boolean updateBatchByIdForSharding(List<SimCard> simCards, Consumer<SimCard> change) {
         if (simCards == null || simCards.isEmpty()) {
             return true;
         }
-        
+
+        Map<String, SimCardCounterKey> beforeKeys = new HashMap<>();
         for (SimCard simCard : simCards) {
-            // 使用ICCID进行更新，避免分表键更新问题
-            LambdaUpdateWrapper<SimCard> updateWrapper = new LambdaUpdateWrapper<>();
-            updateWrapper.eq(SimCard::getIccid, simCard.getIccid());
-            
-            // 设置需要更新的字段
-            if (simCard.getImsi() != null) {
-                updateWrapper.set(SimCard::getImsi, simCard.getImsi());
-            }
-            if (simCard.getStatus() != null) {
-                updateWrapper.set(SimCard::getStatus, simCard.getStatus());
-            }
-            if (simCard.getBatchId() != null) {
-                updateWrapper.set(SimCard::getBatchId, simCard.getBatchId());
-            }
-            if (simCard.getOrganizationId() != null) {
-                updateWrapper.set(SimCard::getOrganizationId, simCard.getOrganizationId());
-            }
-            if (simCard.getCardTypeId() != null) {
-                updateWrapper.set(SimCard::getCardTypeId, simCard.getCardTypeId());
-            }
-            if (simCard.getSupplierId() != null) {
-                updateWrapper.set(SimCard::getSupplierId, simCard.getSupplierId());
-            }
-            updateWrapper.set(SimCard::getUpdateTime, new Date());
-            
-            if (!this.update(updateWrapper)) {
-                return false;
-            }
+            beforeKeys.put(simCard.getIccid(), SimCardCounterKey.of(simCard));
+            change.accept(simCard);
         }
+        Date now = new Date();
+        ShardedBatchUpdateResult result = shardedBatchUpdateExecutor.execute("sim_card", "iccid", simCards,
+                SimCard::getIccid, simCard -> {
+                    Map<String, Object> values = new LinkedHashMap<>();
+                    putIfNotNull(values, "imsi", simCard.getImsi());
+                    putIfNotNull(values, "status", simCard.getStatus());
+                    putIfNotNull(values, "batch_id", simCard.getBatchId());
+                    putIfNotNull(values, "org_id", simCard.getOrganizationId());
+                    putIfNotNull(values, "card_type_id", simCard.getCardTypeId());
+                    putIfNotNull(values, "supplier_id", simCard.getSupplierId());
+                    values.put("update_time", now);
+                    return values;
+                });
+        simCards.forEach(simCard -> evictSimCardCache(simCard.getIccid()));
+        if (!result.isAllUpdated()) {
+            // 部分卡未更新时整批回滚，搜索索引与库存计数均不变更
+            log.warn("Batch update of SIM cards incomplete: not found {}, failed {}",
+                    result.getKeys(ShardedBatchUpdateResult.RowStatus.NOT_FOUND),
+                    result.getKeys(ShardedBatchUpdateResult.RowStatus.FAILED));
+            throw new BusinessException("Batch update of SIM cards incomplete, "
+                    + (result.getNotFoundCount() + result.getFailedCount()) + " cards not updated");
+        }
+        simCards.forEach(simCard -> {
+            simCardSearchIndex.index(simCard);
+            inventoryCounterService.recordSimCardChange(beforeKeys.get(simCard.getIccid()),
+                    SimCardCounterKey.of(simCard), 1);
+        });
         return true;
     }
+
+    private static void putIfNotNull(Map<String, Object> values, String column, Object value) {
+        if (value != null) {
+            values.put(column, value);
+        }
+    }
     
     /**
      * 批量删除SimCard（适配分表）
@@ -259,12 +337,24 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             return true;
         }
         
-        for (Long cardId : cardIds) {
-            if (!this.removeById(cardId)) {
-                return false;
+        // 删除前取计数维度
+        Map<Long, SimCard> simCards = inventoryCounterService.isEnabled()
+                ? getSimCardsByIds(cardIds).stream()
+                        .collect(Collectors.toMap(SimCard::getId, Function.identity(), (a, b) -> a))
+                : Collections.emptyMap();
+        try {
+            for (Long cardId : cardIds) {
+                if (!this.removeById(cardId)) {
+                    return false;
+                }
+                simCardSearchIndex.remove(cardId);
+                inventoryCounterService.recordSimCardChange(SimCardCounterKey.of(simCards.get(cardId)), null, 1);
             }
+            return true;
+        } finally {
+            // 按ID删除无法得知ICCID，整体清空SIM卡缓存
+            simCardCache().clear();
         }
-        return true;
     }
 
     @Override
@@ -274,8 +364,7 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             throw new BusinessException(ErrorMessageEnum.SIMCARD_NOT_FOUND.getMessage());
         }
         
-        SimCardDetailDTO detailDTO = new SimCardDetailDTO();
-        BeanUtils.copyProperties(simCard, detailDTO);
+        SimCardDetailDTO detailDTO = SimCardConvert.INSTANCE.toDetailDTO(simCard);
         
         // 获取批次信息
         if (simCard.getBatchId() != null) {
@@ -303,6 +392,44 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         return this.getOne(queryWrapper);
     }
 
+    /**
+     * SIM卡缓存（按ICCID）
+     */
+    private EntityCache<SimCard> simCardCache() {
+        return entityCacheManager.getCache(EntityCacheNames.SIM_CARD, SimCard.class);
+    }
+
+    /**
+     * SIM卡写入后失效缓存，事务中会在提交后再次失效
+     */
+    private void evictSimCardCache(String iccid) {
+        simCardCache().evict(iccid);
+    }
+
+    /**
+     * ICCID/IMSI模糊查询：先由本地搜索索引解析为主键，索引不可用或未命中时回退到 LIKE
+     * （未命中可能是其他节点刚写入、广播尚未到达的记录）
+     */
+    private void likeBySearchIndex(LambdaQueryWrapper<SimCard> wrapper, String field,
+                                   SFunction<SimCard, ?> column, String fragment) {
+        List<NgramIndex.Hit> hits = simCardSearchIndex.search(field, fragment);
+        if (hits == null || hits.isEmpty()) {
+            wrapper.like(column, fragment);
+        } else {
+            wrapper.in(SimCard::getId, hits.stream().map(NgramIndex.Hit::getKey).collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * 更新搜索索引中的IMSI
+     */
+    private void indexImsi(Long cardId, String iccid, String imsi) {
+        if (cardId != null) {
+            simCardSearchIndex.index(cardId, ShardingIdUtils.iccidShardCode(iccid),
+                    Collections.singletonMap(SimCardSearchIndex.FIELD_IMSI, imsi));
+        }
+    }
+
     /**
      * 根据ICCID后缀生成最小ICCID值
      * 用于范围查询的下边界
@@ -394,11 +521,10 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
      */
     private boolean batchActivate(SimCardBatchOperationRequest request, Long userId) {
         List<SimCard> simCards = getSimCardsByIds(request.getSimCardIds());
-        for (SimCard simCard : simCards) {
+        return updateBatchByIdForSharding(simCards, simCard -> {
             simCard.setStatus(SimCardConstant.STATUS_ACTIVATED); // 已激活
             simCard.setUpdateTime(new Date());
-        }
-        return updateBatchByIdForSharding(simCards);
+        });
     }
 
     /**
@@ -406,11 +532,10 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
      */
     private boolean batchDeactivate(SimCardBatchOperationRequest request, Long userId) {
         List<SimCard> simCards = getSimCardsByIds(request.getSimCardIds());
-        for (SimCard simCard : simCards) {
+        return updateBatchByIdForSharding(simCards, simCard -> {
             simCard.setStatus(SimCardConstant.STATUS_DEACTIVATED); // 已停用
             simCard.setUpdateTime(new Date());
-        }
-        return updateBatchByIdForSharding(simCards);
+        });
     }
 
     /**
@@ -435,11 +560,10 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         }
         
         List<SimCard> simCards = getSimCardsByIds(request.getSimCardIds());
-        for (SimCard simCard : simCards) {
+        return updateBatchByIdForSharding(simCards, simCard -> {
             simCard.setBatchId(request.getBatchId());
             simCard.setUpdateTime(new Date());
-        }
-        return updateBatchByIdForSharding(simCards);
+        });
     }
     
     /**
@@ -451,11 +575,10 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         }
         
         List<SimCard> simCards = getSimCardsByIds(request.getSimCardIds());
-        for (SimCard simCard : simCards) {
+        return updateBatchByIdForSharding(simCards, simCard -> {
             simCard.setOrganizationId(request.getOrgId());
             simCard.setUpdateTime(new Date());
-        }
-        return updateBatchByIdForSharding(simCards);
+        });
     }
 
 
@@ -477,6 +600,16 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             queryWrapper.eq(SimCard::getBatchId, batchId);
         }
         
+        if (inventoryCounterService.isEnabled()) {
+            // 直接读取库存计数，一次查询
+            Map<Integer, Long> counts = inventoryCounterService.countSimCardsByStatus(batchId, orgId);
+            statusCountMap.put("total", counts.values().stream().mapToLong(Long::longValue).sum());
+            for (int status = StatusConstants.SIMCARD_STATUS_PUBLISHED; status <= StatusConstants.SIMCARD_STATUS_RECYCLED; status++) {
+                statusCountMap.put("status" + status, counts.getOrDefault(status, 0L));
+            }
+            return statusCountMap;
+        }
+        
         // 查询总数
         long total = this.count(queryWrapper);
         statusCountMap.put("total", total);
@@ -515,11 +648,11 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         LambdaQueryWrapper<SimCard> queryWrapper = new LambdaQueryWrapper<>();
         
         if (StringUtils.isNotBlank(query.getIccid())) {
-            queryWrapper.like(SimCard::getIccid, query.getIccid());
+            likeBySearchIndex(queryWrapper, SimCardSearchIndex.FIELD_ICCID, SimCard::getIccid, query.getIccid());
         }
         
         if (StringUtils.isNotBlank(query.getImsi())) {
-            queryWrapper.like(SimCard::getImsi, query.getImsi());
+            likeBySearchIndex(queryWrapper, SimCardSearchIndex.FIELD_IMSI, SimCard::getImsi, query.getImsi());
         }
         
         if (query.getBatchId() != null) {
@@ -534,31 +667,88 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             queryWrapper.eq(SimCard::getStatus, query.getStatus());
         }
         
-        // 分页查询
-        Page<SimCard> page = new Page<>(request.getCurrent(), request.getSize());
-        IPage<SimCard> pageResult = this.page(page, queryWrapper);
+        // 游标分页：sim_card按ICCID尾号取模分表，无法按范围路由到单表，
+        // 以逻辑表为单一分片做seek，由ShardingSphere在各分表上执行无OFFSET的LIMIT后归并
+        if (request.useCursor()) {
+            PageResult<SimCard> merged = KeysetPageHelper.query(Collections.singletonList(CURSOR_SHARD_ALL),
+                    request.getCursor(), request.getSize(),
+                    (shard, after, limit) -> {
+                        LambdaQueryWrapper<SimCard> seekWrapper = queryWrapper.clone();
+                        if (after != null) {
+                            Date afterTime = new Date(after.getCreateTime());
+                            seekWrapper.and(w -> w.lt(SimCard::getCreateTime, afterTime)
+                                    .or(o -> o.eq(SimCard::getCreateTime, afterTime).lt(SimCard::getId, after.getId())));
+                        }
+                        seekWrapper.orderByDesc(SimCard::getCreateTime).orderByDesc(SimCard::getId);
+                        return this.page(new Page<>(1, limit, false), seekWrapper).getRecords();
+                    },
+                    SimCard::getCreateTime, SimCard::getId);
+            return merged.withList(merged.getList().stream().map(this::convertToDTO).collect(Collectors.toList()));
+        }
+        
+        // 列表页默认使用近似统计，避免每次翻页都跨分表COUNT(*)
+        CountModeEnum countMode = CountModeEnum.getByCode(request.getCountMode(), CountModeEnum.APPROXIMATE);
+        
+        if (countMode == CountModeEnum.EXACT) {
+            Page<SimCard> page = new Page<>(request.getCurrent(), request.getSize());
+            IPage<SimCard> pageResult = this.page(page, queryWrapper);
+            return PageResult.of(pageResult.getRecords().stream().map(this::convertToDTO).collect(Collectors.toList()),
+                    pageResult.getTotal(), request.getCurrent(), request.getSize(), CountModeEnum.EXACT);
+        }
+        
+        if (countMode == CountModeEnum.APPROXIMATE) {
+            Long estimatedTotal = estimateTotalFromBatchStock(query);
+            if (estimatedTotal != null) {
+                Page<SimCard> page = new Page<>(request.getCurrent(), request.getSize(), false);
+                return PageResult.of(this.page(page, queryWrapper).getRecords().stream().map(this::convertToDTO).collect(Collectors.toList()),
+                        estimatedTotal, request.getCurrent(), request.getSize(), CountModeEnum.APPROXIMATE);
+            }
+        }
         
-        // 转换为DTO
-        List<SimCardDTO> dtoList = pageResult.getRecords().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // 不统计总数，多取一条判断是否有下一页
+        queryWrapper.last(PageResult.lookaheadLimit(request.getCurrent(), request.getSize()));
+        PageResult<SimCard> lookahead = PageResult.ofHasNext(this.list(queryWrapper), request.getCurrent(), request.getSize());
+        return lookahead.withList(lookahead.getList().stream().map(this::convertToDTO).collect(Collectors.toList()));
+    }
+    
+    /**
+     * 基于批次库存计数器估算总数，存在计数器无法覆盖的条件时返回null
+     */
+    private Long estimateTotalFromBatchStock(SimCardQuery query) {
+        if (StringUtils.isNotBlank(query.getIccid()) || StringUtils.isNotBlank(query.getImsi())
+                || query.getOrgId() != null || query.getCardType() != null) {
+            return null;
+        }
         
-        // 构建分页结果
-        PageResult<SimCardDTO> result = new PageResult<>();
-        result.setList(dtoList);
-        result.setTotal(pageResult.getTotal());
-        result.setPageNum(request.getCurrent());
-        result.setPageSize(request.getSize());
-        result.setPages((pageResult.getTotal() + request.getSize() - 1) / request.getSize());
+        Function<SimCardBatch, Integer> counter;
+        if (query.getStatus() == null) {
+            counter = SimCardBatch::getTotalCount;
+        } else if (query.getStatus() == SimCardConstant.STATUS_ACTIVATED) {
+            counter = SimCardBatch::getActivatedCount;
+        } else if (query.getStatus() == SimCardConstant.STATUS_DEACTIVATED) {
+            counter = SimCardBatch::getDeactivatedCount;
+        } else if (query.getStatus() == SimCardConstant.STATUS_RECYCLED) {
+            counter = SimCardBatch::getRecycledCount;
+        } else {
+            return null;
+        }
         
-        return result;
+        LambdaQueryWrapper<SimCardBatch> batchWrapper = new LambdaQueryWrapper<>();
+        if (query.getBatchId() != null) {
+            batchWrapper.eq(SimCardBatch::getBatchId, query.getBatchId());
+        }
+        return simCardBatchService.list(batchWrapper).stream()
+                .map(counter)
+                .filter(Objects::nonNull)
+                .mapToLong(Integer::longValue)
+                .sum();
     }
     
 
     
     @Override
     public SimCardDTO getCardByIccid(String iccid) {
-        SimCard simCard = getSimCardByIccid(iccid);
+        SimCard simCard = StringUtils.isBlank(iccid) ? null : simCardCache().get(iccid, this::getSimCardByIccid);
         return simCard != null ? convertToDTO(simCard) : null;
     }
     
@@ -571,19 +761,18 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             throw new BusinessException(ErrorMessageEnum.ICCID_ALREADY_EXISTS.getMessage());
         }
         
-        SimCard simCard = new SimCard();
-        BeanUtils.copyProperties(cardDTO, simCard);
+        SimCard simCard = SimCardConvert.INSTANCE.toEntity(cardDTO);
         // 使用全局序列服务生成ID
-        Long globalId = sequenceService.getNextSequenceValue("sim_card_id_seq");
+        Long globalId = sequenceService.getNextSimCardId(simCard.getIccid());
         simCard.setId(globalId);
-        // 修正orgId -> organizationId
-        simCard.setOrganizationId(cardDTO.getOrgId());
         simCard.setCreateTime(new Date());
         simCard.setUpdateTime(new Date());
         
         boolean result = this.save(simCard);
         
         if (result) {
+            simCardSearchIndex.index(simCard);
+            inventoryCounterService.recordSimCardChange(null, SimCardCounterKey.of(simCard), 1);
             // 更新批次库存信息
             if (cardDTO.getBatchId() != null && cardDTO.getStatus() != null) {
                 simCardBatchStockService.updateStockByStatusChange(
@@ -627,9 +816,8 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             }
         }
         
-        BeanUtils.copyProperties(cardDTO, simCard);
-        // 修正orgId -> organizationId
-        simCard.setOrganizationId(cardDTO.getOrgId());
+        SimCardCounterKey oldKey = SimCardCounterKey.of(simCard);
+        SimCardConvert.INSTANCE.updateEntity(cardDTO, simCard);
         simCard.setUpdateTime(new Date());
         
         // 【分表友好更新】使用ICCID进行更新，避免分表键更新问题
@@ -658,8 +846,16 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         updateWrapper.set(SimCard::getUpdateTime, simCard.getUpdateTime());
         
         boolean result = this.update(updateWrapper);
+        evictSimCardCache(iccid);
+        if (result && simCard.getImsi() != null) {
+            indexImsi(cardId, iccid, simCard.getImsi());
+        }
         
         if (result) {
+            // 只更新了非空字段
+            inventoryCounterService.recordSimCardChange(oldKey, oldKey.merge(simCard.getBatchId(),
+                    simCard.getCardTypeId(), simCard.getSupplierId(), simCard.getOrganizationId(), simCard.getStatus()), 1);
+
             // 如果状态发生变化，更新批次库存状态
             if (cardDTO.getStatus() != null && !cardDTO.getStatus().equals(oldStatus)) {
                 if (batchId != null) {
@@ -693,6 +889,7 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         for (SimCard simCard : simCards) {
             Integer oldStatus = simCard.getStatus();
             Long oldOrgId = simCard.getOrganizationId();
+            SimCardCounterKey oldKey = SimCardCounterKey.of(simCard);
             
             simCard.setOrganizationId(orgId);
             simCard.setStatus(SimCardConstant.STATUS_ASSIGNED); // 已分配
@@ -706,8 +903,10 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
                         .set(SimCard::getUpdateTime, new Date());
             
             boolean result = this.update(updateWrapper);
+            evictSimCardCache(simCard.getIccid());
                 
             if (result) {
+                inventoryCounterService.recordSimCardChange(oldKey, SimCardCounterKey.of(simCard), 1);
                 // 更新批次库存状态
                 if (simCard.getBatchId() != null) {
                     simCardBatchStockService.updateStockByStatusChange(
@@ -742,6 +941,7 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         List<SimCard> simCards = getSimCardsByIds(cardIds);
         for (SimCard simCard : simCards) {
             Integer oldStatus = simCard.getStatus();
+            SimCardCounterKey oldKey = SimCardCounterKey.of(simCard);
             simCard.setOrganizationId(null); // 清空组织ID
             simCard.setStatus(SimCardConstant.STATUS_RECYCLED); // 已回收
             simCard.setUpdateTime(new Date());
@@ -754,8 +954,10 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
                         .set(SimCard::getUpdateTime, new Date());
             
             boolean result = this.update(updateWrapper);
+            evictSimCardCache(simCard.getIccid());
                 
             if (result) {
+                inventoryCounterService.recordSimCardChange(oldKey, SimCardCounterKey.of(simCard), 1);
                 // 更新批次库存状态
                 if (simCard.getBatchId() != null) {
                     simCardBatchStockService.updateStockByStatusChange(
@@ -784,51 +986,17 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         if (iccids == null || iccids.isEmpty()) {
             throw new BusinessException(ErrorMessageEnum.SIMCARD_ID_LIST_EMPTY.getMessage());
         }
-        
-        // 使用分表友好的查询方法
-        List<SimCard> simCards = getSimCardsByIccids(iccids);
-        if (simCards.size() != iccids.size()) {
-            log.error("[Sharding Query] Some SIM cards not found by iccids. Expected: {}, Found: {}", 
-                     iccids.size(), simCards.size());
-            throw new BusinessException("Some SIM cards not found");
-        }
-        
-        for (SimCard simCard : simCards) {
-            Integer oldStatus = simCard.getStatus();
-            simCard.setOrganizationId(orgId);
-            simCard.setStatus(SimCardConstant.STATUS_ASSIGNED); // 已分配
-            simCard.setUpdateTime(new Date());
-            
-            // 【分表友好更新】使用ICCID进行更新，避免分表键更新问题
-            LambdaUpdateWrapper<SimCard> updateWrapper = new LambdaUpdateWrapper<>();
-            updateWrapper.eq(SimCard::getIccid, simCard.getIccid())
-                        .set(SimCard::getOrganizationId, orgId)
-                        .set(SimCard::getStatus, SimCardConstant.STATUS_ASSIGNED)
-                        .set(SimCard::getUpdateTime, new Date());
-            
-            boolean result = this.update(updateWrapper);
-                
-            if (result) {
-                // 更新批次库存状态
-                if (simCard.getBatchId() != null) {
-                    simCardBatchStockService.updateStockByStatusChange(
-                        simCard.getBatchId(), oldStatus, SimCardConstant.STATUS_ASSIGNED, 1);
-                }
-                
-                // 记录操作日志
-                SimCardOperationDTO operationDTO = new SimCardOperationDTO();
-                operationDTO.setCardId(simCard.getId());
-                operationDTO.setIccid(simCard.getIccid());
-                operationDTO.setOperationType(SimCardConstant.OPERATION_ASSIGN);
-                operationDTO.setOperatorUserId(operatorUserId);
-                operationDTO.setOldStatus(oldStatus);
-                operationDTO.setNewStatus(SimCardConstant.STATUS_ASSIGNED);
-                operationDTO.setRemark("Allocate SIM card to organization: " + orgId);
-                simCardOperationService.addOperation(operationDTO);
-            }
+        if (orgId == null) {
+            throw new BusinessException(ErrorMessageEnum.INVALID_PARAMETERS.getMessage());
         }
         
-        return true;
+        SimCardTransitionRequest request = new SimCardTransitionRequest();
+        request.setTransition(SimCardTransitionEnum.ALLOCATE);
+        request.setIccids(iccids);
+        request.setOrgId(orgId);
+        request.setOperatorUserId(operatorUserId);
+        request.setRemark("Allocate SIM card to organization: " + orgId);
+        return requireAllTransitioned(transitionCards(request));
     }
     
     @Override
@@ -838,49 +1006,27 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             throw new BusinessException(ErrorMessageEnum.SIMCARD_ID_LIST_EMPTY.getMessage());
         }
         
-        // 使用分表友好的查询方法
-        List<SimCard> simCards = getSimCardsByIccids(iccids);
-        if (simCards.size() != iccids.size()) {
-            log.error("[Sharding Query] Some SIM cards not found by iccids. Expected: {}, Found: {}", 
-                     iccids.size(), simCards.size());
+        SimCardTransitionRequest request = new SimCardTransitionRequest();
+        request.setTransition(SimCardTransitionEnum.RECYCLE);
+        request.setIccids(iccids);
+        request.setOperatorUserId(operatorUserId);
+        request.setRemark("Recycle SIM card");
+        return requireAllTransitioned(transitionCards(request));
+    }
+    
+    /**
+     * 按ICCID列表的分配与回收要求全部成功，否则整体回滚
+     */
+    private boolean requireAllTransitioned(SimCardTransitionResult result) {
+        if (result.getNotFoundCount() > 0) {
+            log.error("[Sharding Query] Some SIM cards not found by iccids. Expected: {}, Not found: {}",
+                     result.getTotalCount(), result.getNotFoundCount());
             throw new BusinessException("Some SIM cards not found");
         }
-        
-        for (SimCard simCard : simCards) {
-            Integer oldStatus = simCard.getStatus();
-            simCard.setOrganizationId(null); // 清空组织ID
-            simCard.setStatus(SimCardConstant.STATUS_RECYCLED); // 已回收
-            simCard.setUpdateTime(new Date());
-            
-            // 【分表友好更新】使用ICCID进行更新，避免分表键更新问题
-            LambdaUpdateWrapper<SimCard> updateWrapper = new LambdaUpdateWrapper<>();
-            updateWrapper.eq(SimCard::getIccid, simCard.getIccid())
-                        .set(SimCard::getOrganizationId, (Long)null) // 清空组织ID
-                        .set(SimCard::getStatus, SimCardConstant.STATUS_RECYCLED)
-                        .set(SimCard::getUpdateTime, new Date());
-            
-            boolean result = this.update(updateWrapper);
-                
-            if (result) {
-                // 更新批次库存状态
-                if (simCard.getBatchId() != null) {
-                    simCardBatchStockService.updateStockByStatusChange(
-                        simCard.getBatchId(), oldStatus, SimCardConstant.STATUS_RECYCLED, 1);
-                }
-                
-                // 记录操作日志
-                SimCardOperationDTO operationDTO = new SimCardOperationDTO();
-                operationDTO.setCardId(simCard.getId());
-                operationDTO.setIccid(simCard.getIccid());
-                operationDTO.setOperationType(SimCardConstant.OPERATION_RECYCLE);
-                operationDTO.setOperatorUserId(operatorUserId);
-                operationDTO.setOldStatus(oldStatus);
-                operationDTO.setNewStatus(SimCardConstant.STATUS_RECYCLED);
-                operationDTO.setRemark("Recycle SIM card");
-                simCardOperationService.addOperation(operationDTO);
-            }
+        if (result.getNotAllowedCount() > 0) {
+            throw new BusinessException(result.getNotAllowedCount() + " SIM cards are not in a status allowing "
+                    + result.getTransition().getDescription().toLowerCase());
         }
-        
         return true;
     }
     
@@ -905,8 +1051,11 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         LambdaQueryWrapper<SimCard> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(SimCard::getIccid, iccid);
         boolean result = this.remove(queryWrapper);
+        evictSimCardCache(iccid);
         
         if (result) {
+            simCardSearchIndex.remove(cardId);
+            inventoryCounterService.recordSimCardChange(SimCardCounterKey.of(simCard), null, 1);
             // 更新批次库存状态
             if (batchId != null) {
                 simCardBatchStockService.updateStockByStatusChange(
@@ -965,6 +1114,15 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         updateWrapper.set(SimCard::getUpdateTime, simCard.getUpdateTime());
         
         boolean result = this.update(updateWrapper);
+        evictSimCardCache(iccid);
+        if (result && simCard.getImsi() != null) {
+            indexImsi(cardId, iccid, simCard.getImsi());
+        }
+        if (result) {
+            SimCardCounterKey oldKey = SimCardCounterKey.of(existingCard);
+            inventoryCounterService.recordSimCardChange(oldKey, oldKey.merge(null, simCard.getCardTypeId(),
+                    null, simCard.getOrganizationId(), simCard.getStatus()), 1);
+        }
         
         if (result && simCard.getStatus() != null && !simCard.getStatus().equals(oldStatus)) {
             // 更新批次库存状态
@@ -1000,6 +1158,7 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         }
         
         Integer oldStatus = simCard.getStatus();
+        SimCardCounterKey oldKey = SimCardCounterKey.of(simCard);
         simCard.setStatus(SimCardConstant.STATUS_ACTIVATED); // 已激活
         simCard.setUpdateTime(new Date());
         
@@ -1010,8 +1169,10 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
                     .set(SimCard::getUpdateTime, new Date());
         
         boolean result = this.update(updateWrapper);
+        evictSimCardCache(iccid);
         
         if (result) {
+            inventoryCounterService.recordSimCardChange(oldKey, oldKey.withStatus(SimCardConstant.STATUS_ACTIVATED), 1);
             // 更新批次库存状态
             if (simCard.getBatchId() != null) {
                 simCardBatchStockService.updateStockByStatusChange(
@@ -1046,6 +1207,7 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         }
         
         Integer oldStatus = simCard.getStatus();
+        SimCardCounterKey oldKey = SimCardCounterKey.of(simCard);
         simCard.setStatus(SimCardConstant.STATUS_DEACTIVATED); // 已停用
         simCard.setUpdateTime(new Date());
         
@@ -1056,8 +1218,10 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
                     .set(SimCard::getUpdateTime, new Date());
         
         boolean result = this.update(updateWrapper);
+        evictSimCardCache(iccid);
         
         if (result) {
+            inventoryCounterService.recordSimCardChange(oldKey, oldKey.withStatus(SimCardConstant.STATUS_DEACTIVATED), 1);
             // 更新批次库存状态
             if (simCard.getBatchId() != null) {
                 simCardBatchStockService.updateStockByStatusChange(
@@ -1094,7 +1258,11 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             }
         }
         
-        List<Map<String, Object>> typeStats = baseMapper.countByCardType(params);
+        // 启用库存计数时直接汇总库存立方，不再跨分表GROUP BY
+        List<Map<String, Object>> typeStats = inventoryCounterService.isEnabled()
+                ? inventoryCounterService.countSimCardsByCardType(MapUtils.getInteger(params, "status"),
+                        MapUtils.getLong(params, "batchId"), MapUtils.getLong(params, "orgId"))
+                : baseMapper.countByCardType(params);
         Map<String, Object> result = new HashMap<>();
         result.put("typeStats", typeStats);
         result.put("total", typeStats.stream().mapToLong(stat -> 
@@ -1117,7 +1285,8 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             }
         }
         
-        List<Map<String, Object>> orgStats = baseMapper.countByOrganization(params);
+        List<Map<String, Object>> orgStats = inventoryCounterService.isEnabled()
+                ? countByOrganizationFromCube(query) : baseMapper.countByOrganization(params);
         Map<String, Object> result = new HashMap<>();
         result.put("orgStats", orgStats);
         result.put("total", orgStats.stream().mapToLong(stat -> 
@@ -1125,6 +1294,34 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         return result;
     }
     
+    /**
+     * 按组织汇总库存立方，结果与 countByOrganization 查询一致：未分配组织的orgId为空，按数量降序
+     */
+    private List<Map<String, Object>> countByOrganizationFromCube(SimCardQuery query) {
+        InventoryCubeQuery cubeQuery = new InventoryCubeQuery();
+        if (query != null) {
+            if (query.getStatus() != null) {
+                cubeQuery.setStatuses(Collections.singletonList(query.getStatus()));
+            }
+            if (query.getBatchId() != null) {
+                cubeQuery.setBatchIds(Collections.singletonList(query.getBatchId()));
+            }
+            if (query.getCardType() != null) {
+                cubeQuery.setCardTypeIds(Collections.singletonList(query.getCardType()));
+            }
+        }
+        cubeQuery.setGroupBy(Collections.singletonList(InventoryCubeDimensionEnum.ORG));
+        return inventoryCounterService.queryCube(cubeQuery).stream()
+                .sorted(Comparator.comparing(SimCardStockCounter::getCardCount).reversed())
+                .map(counter -> {
+                    Map<String, Object> stat = new HashMap<>();
+                    stat.put("orgId", counter.getOrgId() != null && counter.getOrgId() != 0L ? counter.getOrgId() : null);
+                    stat.put("count", counter.getCardCount());
+                    return stat;
+                })
+                .collect(Collectors.toList());
+    }
+    
     // 其他接口方法实现
     
     @Override
@@ -1136,7 +1333,7 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         }
         
         if (StringUtils.isNotBlank(imsi)) {
-            queryWrapper.like(SimCard::getImsi, imsi);
+            likeBySearchIndex(queryWrapper, SimCardSearchIndex.FIELD_IMSI, SimCard::getImsi, imsi);
         }
         
         if (status != null) {
@@ -1173,7 +1370,7 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             return null;
         }
         
-        SimCard simCard = getSimCardByIccid(iccid);
+        SimCard simCard = simCardCache().get(iccid, this::getSimCardByIccid);
         return simCard != null ? convertToDetailDTO(simCard) : null;
     }
     
@@ -1190,7 +1387,7 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         Date now = new Date();
         for (int i = 0; i < simCards.size(); i++) {
             SimCard simCard = simCards.get(i);
-            simCard.setId(globalIds.get(i));
+            simCard.setId(sequenceService.toShardingId(globalIds.get(i), ShardingIdUtils.iccidShardCode(simCard.getIccid())));
             simCard.setBatchId(batchId);
             simCard.setCreateTime(now);
             simCard.setUpdateTime(now);
@@ -1199,6 +1396,10 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         boolean result = this.saveBatch(simCards);
         
         if (result) {
+            simCards.forEach(simCard -> {
+                simCardSearchIndex.index(simCard);
+                inventoryCounterService.recordSimCardChange(null, SimCardCounterKey.of(simCard), 1);
+            });
             // 创建IMSI-ICCID映射关系
             List<ImsiIccidMapping> mappings = new ArrayList<>();
             for (SimCard simCard : simCards) {
@@ -1240,8 +1441,13 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
                     .set(SimCard::getUpdateTime, new Date());
         
         boolean result = this.update(updateWrapper);
+        evictSimCardCache(simCard.getIccid());
         
         if (result) {
+            if (status != null) {
+                SimCardCounterKey oldKey = SimCardCounterKey.of(simCard);
+                inventoryCounterService.recordSimCardChange(oldKey, oldKey.withStatus(status), 1);
+            }
             // 更新批次库存状态
             if (simCard.getBatchId() != null) {
                 simCardBatchStockService.updateStockByStatusChange(
@@ -1285,11 +1491,16 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
                         .set(SimCard::getUpdateTime, new Date());
             
             boolean result = this.update(updateWrapper);
+            evictSimCardCache(originalCard.getIccid());
             if (!result) {
                 allSuccess = false;
                 log.error("[Sharding Update Failed] Failed to update SIM card status for ICCID: {}", originalCard.getIccid());
                 continue;
             }
+            if (status != null) {
+                SimCardCounterKey oldKey = SimCardCounterKey.of(originalCard);
+                inventoryCounterService.recordSimCardChange(oldKey, oldKey.withStatus(status), 1);
+            }
             
             // 更新批次库存状态
             if (originalCard.getBatchId() != null) {
@@ -1342,11 +1553,16 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
                         .set(SimCard::getUpdateTime, new Date());
             
             boolean result = this.update(updateWrapper);
+            evictSimCardCache(originalCard.getIccid());
             if (!result) {
                 allSuccess = false;
                 log.error("[Sharding Update Failed] Failed to update SIM card status for ICCID: {}", originalCard.getIccid());
                 continue;
             }
+            if (status != null) {
+                SimCardCounterKey oldKey = SimCardCounterKey.of(originalCard);
+                inventoryCounterService.recordSimCardChange(oldKey, oldKey.withStatus(status), 1);
+            }
             
             // 更新批次库存状态
             if (originalCard.getBatchId() != null) {
@@ -1447,7 +1663,9 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
              }
          }
          
-         return this.update(updateWrapper);
+         boolean result = this.update(updateWrapper);
+         evictSimCardCache(simCard.getIccid());
+         return result;
     }
     
     /**
@@ -1458,11 +1676,7 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             return null;
         }
         
-        SimCardDTO dto = new SimCardDTO();
-        BeanUtils.copyProperties(simCard, dto);
-        
-        // 修正organizationId -> orgId
-        dto.setOrgId(simCard.getOrganizationId());
+        SimCardDTO dto = SimCardConvert.INSTANCE.toDTO(simCard);
         
         // 获取批次名称
         if (simCard.getBatchId() != null) {
@@ -1504,11 +1718,7 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             return null;
         }
         
-        SimCardDetailDTO dto = new SimCardDetailDTO();
-        BeanUtils.copyProperties(simCard, dto);
-        
-        // 修正organizationId -> orgId
-        dto.setOrgId(simCard.getOrganizationId());
+        SimCardDetailDTO dto = SimCardConvert.INSTANCE.toDetailDTO(simCard);
         
         // 获取批次名称
         if (simCard.getBatchId() != null) {
@@ -1567,8 +1777,11 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
                     .set(SimCard::getUpdateTime, new Date());
         
         boolean result = this.update(updateWrapper);
+        evictSimCardCache(iccid);
         
         if (result) {
+            SimCardCounterKey oldKey = SimCardCounterKey.of(simCard);
+            inventoryCounterService.recordSimCardChange(oldKey, oldKey.withStatus(status), 1);
             // 更新批次库存状态
             if (batchId != null) {
                 simCardBatchStockService.updateStockByStatusChange(
@@ -1590,12 +1803,8 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public Map<String, Object> batchImportFromExcel(List<SimCard> simCards, Long batchId, Long operatorUserId) {
         Map<String, Object> result = new HashMap<>();
-        int successCount = 0;
-        int failCount = 0;
-        List<String> errorMessages = new ArrayList<>();
         
         if (CollectionUtils.isEmpty(simCards)) {
             result.put("success", false);
@@ -1603,8 +1812,6 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             return result;
         }
         
-        log.info("Starting batch import of {} SIM cards for batch {}", simCards.size(), batchId);
-        
         // 获取批次信息
         SimCardBatch batch = simCardBatchService.getById(batchId);
         if (batch == null) {
@@ -1613,78 +1820,352 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             return result;
         }
         
-        // 批量获取全局序列ID
-        List<Long> globalIds = sequenceService.getBatchSequenceValues("sim_card_id_seq", simCards.size());
+        SimCardBulkImportResult importResult = bulkImport(simCards, batchId, operatorUserId);
+        List<String> errorMessages = importResult.getRejects().stream()
+                .map(reject -> "Row " + reject.getRowNumber() + " (" + reject.getIccid() + "): " + reject.getReason())
+                .collect(Collectors.toList());
         
-        // 批量处理SIM卡
-        for (int i = 0; i < simCards.size(); i++) {
-            SimCard simCard = simCards.get(i);
-            try {
-                // 设置全局序列ID
-                simCard.setId(globalIds.get(i));
-                // 设置批次信息
-                simCard.setBatchId(batchId);
-                // SimCardBatch没有orgId字段，暂时不设置组织ID
-                simCard.setCreateUserId(operatorUserId);
-                simCard.setUpdateUserId(operatorUserId);
-                simCard.setCreateTime(new Date());
-                simCard.setUpdateTime(new Date());
-                
-                // 检查ICCID是否已存在
-                SimCard existingCard = getSimCardByIccid(simCard.getIccid());
-                if (existingCard != null) {
-                    errorMessages.add("ICCID already exists: " + simCard.getIccid());
-                    failCount++;
-                    continue;
-                }
-                
-                // 保存SIM卡
-                boolean saved = save(simCard);
-                if (saved) {
-                    successCount++;
-                    
-                    // 记录操作日志
-                    SimCardOperationDTO operationDTO = new SimCardOperationDTO();
-                    operationDTO.setCardId(simCard.getId());
-                    operationDTO.setIccid(simCard.getIccid());
-                    operationDTO.setOperationType(SimCardConstant.OPERATION_TYPE_IMPORT);
-                    operationDTO.setOperatorUserId(operatorUserId);
-                    operationDTO.setNewStatus(simCard.getStatus());
-                    operationDTO.setStockInOrgId(simCard.getOrganizationId());
-                    operationDTO.setRemark("Import SIM card from Excel");
-                    operationDTO.setResultStatus(SimCardConstant.RESULT_SUCCESS);
-                    simCardOperationService.addOperation(operationDTO);
-                } else {
-                    errorMessages.add("Failed to save SIM card: " + simCard.getIccid());
-                    failCount++;
-                }
-            } catch (Exception e) {
-                log.error("Error importing SIM card: {}", simCard.getIccid(), e);
-                errorMessages.add("Error importing " + simCard.getIccid() + ": " + e.getMessage());
-                failCount++;
+        result.put("success", importResult.getRejectCount() == 0);
+        result.put("successCount", importResult.getSuccessCount());
+        result.put("failCount", importResult.getRejectCount());
+        result.put("totalCount", importResult.getTotalCount());
+        result.put("errorMessages", errorMessages);
+        result.put("rejects", importResult.getRejects());
+        result.put("elapsedMillis", importResult.getElapsedMillis());
+        result.put("rowsPerSecond", importResult.getRowsPerSecond());
+        result.put("message", String.format("Import completed. Success: %d, Failed: %d, %d rows/s",
+                importResult.getSuccessCount(), importResult.getRejectCount(), importResult.getRowsPerSecond()));
+        
+        return result;
+    }
+
+    @Override
+    public SimCardBulkImportResult bulkImport(List<SimCard> simCards, Long batchId, Long operatorUserId) {
+        long startMillis = System.currentTimeMillis();
+        SimCardBulkImportResult result = new SimCardBulkImportResult();
+        if (CollectionUtils.isEmpty(simCards)) {
+            return result;
+        }
+        if (simCardBatchService.getById(batchId) == null) {
+            throw new BusinessException("Batch not found: " + batchId);
+        }
+        result.setTotalCount(simCards.size());
+        log.info("Starting bulk import of {} SIM cards for batch {}", simCards.size(), batchId);
+        
+        Set<String> seenIccids = new HashSet<>();
+        for (int from = 0; from < simCards.size(); from += IMPORT_CHUNK_SIZE) {
+            int to = Math.min(from + IMPORT_CHUNK_SIZE, simCards.size());
+            int chunkFrom = from;
+            // 每个分块单独提交，失败的分块只回滚本分块，已提交的分块保留
+            List<SimCard> accepted = chunkTransaction.execute(status ->
+                    importChunk(simCards, chunkFrom, to, seenIccids, batchId, operatorUserId, result));
+            result.setChunkCount(result.getChunkCount() + 1);
+            if (accepted != null) {
+                accepted.forEach(simCardSearchIndex::index);
+                result.setSuccessCount(result.getSuccessCount() + accepted.size());
             }
         }
         
-        // 更新批次库存统计
-        if (successCount > 0) {
+        // 批次库存统计在全部分块完成后更新一次
+        if (result.getSuccessCount() > 0) {
             try {
-                simCardBatchStockService.updateStockAfterImport(batchId, successCount);
-                log.info("Updated batch stock for batch {} with {} new cards", batchId, successCount);
+                simCardBatchStockService.updateStockAfterImport(batchId, result.getSuccessCount());
+                log.info("Updated batch stock for batch {} with {} new cards", batchId, result.getSuccessCount());
             } catch (Exception e) {
                 log.error("Failed to update batch stock for batch {}", batchId, e);
             }
         }
         
-        log.info("Batch import completed. Success: {}, Failed: {}", successCount, failCount);
+        result.setRejectCount(result.getRejects().size());
+        result.setElapsedMillis(System.currentTimeMillis() - startMillis);
+        result.setRowsPerSecond(result.getTotalCount() * 1000L / Math.max(result.getElapsedMillis(), 1L));
+        log.info("Bulk import completed for batch {}. Success: {}, Rejected: {}, {} chunks in {} ms ({} rows/s)",
+                batchId, result.getSuccessCount(), result.getRejectCount(), result.getChunkCount(),
+                result.getElapsedMillis(), result.getRowsPerSecond());
+        return result;
+    }
+    
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public SimCardTransitionResult transitionCards(SimCardTransitionRequest request) {
+        long startMillis = System.currentTimeMillis();
+        SimCardTransitionEnum transition = request.getTransition();
+        if (transition == null || request.getOperatorUserId() == null) {
+            throw new BusinessException(ErrorMessageEnum.INVALID_PARAMETERS.getMessage());
+        }
+        if (transition == SimCardTransitionEnum.ALLOCATE && request.getOrgId() == null) {
+            throw new BusinessException("Organization ID is required for allocation");
+        }
+        SimCardTransitionResult result = new SimCardTransitionResult();
+        result.setTransition(transition);
+
+        Map<Integer, List<String>> iccidsByShard = request.useRange()
+                ? resolveIccidRange(request.getStartIccid(), request.getEndIccid(), result)
+                : partitionIccidsByShard(request.getIccids(), result);
+        if (result.getTotalCount() > MAX_TRANSITION_SIZE) {
+            throw new BusinessException("At most " + MAX_TRANSITION_SIZE + " SIM cards can be transitioned at once");
+        }
+        result.setShardCount(iccidsByShard.size());
+
+        // 批次库存按 批次 -> 原状态 -> 数量 汇总，全部分块完成后更新
+        Map<Long, Map<Integer, Integer>> stockChanges = new HashMap<>();
+        List<SimCardOperation> operations = new ArrayList<>();
+        Date now = new Date();
+        for (List<String> shardIccids : iccidsByShard.values()) {
+            for (int from = 0; from < shardIccids.size(); from += TRANSITION_CHUNK_SIZE) {
+                List<String> chunk = shardIccids.subList(from, Math.min(from + TRANSITION_CHUNK_SIZE, shardIccids.size()));
+                transitionChunk(request, chunk, now, result, stockChanges, operations);
+            }
+        }
+
+        stockChanges.forEach((batchId, byStatus) -> byStatus.forEach((oldStatus, count) ->
+                simCardBatchStockService.updateStockByStatusChange(batchId, oldStatus, transition.getTargetStatus(), count)));
+        if (!operations.isEmpty()) {
+            simCardOperationService.saveBatch(operations, IMPORT_CHUNK_SIZE);
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - startMillis);
+        log.info("SIM card transition {} completed: total {}, transitioned {}, not found {}, not allowed {}, {} shards, {} statements in {} ms",
+                transition, result.getTotalCount(), result.getTransitionedCount(), result.getNotFoundCount(),
+                result.getNotAllowedCount(), result.getShardCount(), result.getStatementCount(), result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * ICCID列表去重后按分表分组，无效ICCID直接记为不存在
+     */
+    private Map<Integer, List<String>> partitionIccidsByShard(List<String> iccids, SimCardTransitionResult result) {
+        Map<Integer, List<String>> iccidsByShard = new TreeMap<>();
+        Set<String> seen = new HashSet<>();
+        for (String raw : iccids) {
+            String iccid = StringUtils.trimToNull(raw);
+            if (iccid == null || !seen.add(iccid)) {
+                continue;
+            }
+            result.setTotalCount(result.getTotalCount() + 1);
+            int shard = ShardingIdUtils.iccidShardCode(iccid);
+            if (shard < 0) {
+                result.getOutcomes().add(new SimCardTransitionResult.Outcome(iccid, SimCardTransitionResult.Result.NOT_FOUND, null));
+                result.setNotFoundCount(result.getNotFoundCount() + 1);
+            } else {
+                iccidsByShard.computeIfAbsent(shard, k -> new ArrayList<>()).add(iccid);
+            }
+        }
+        return iccidsByShard;
+    }
+
+    /**
+     * 查询ICCID区间内存在的卡并按分表分组，区间查询由各分表并行执行后归并
+     */
+    private Map<Integer, List<String>> resolveIccidRange(String startIccid, String endIccid, SimCardTransitionResult result) {
+        String start = StringUtils.trimToNull(startIccid);
+        String end = StringUtils.trimToNull(endIccid);
+        if (start == null || end == null) {
+            throw new BusinessException("Either ICCID list or ICCID range must be provided");
+        }
+        if (start.length() != end.length() || start.compareTo(end) > 0) {
+            throw new BusinessException("Invalid ICCID range: " + start + " - " + end);
+        }
+        List<SimCard> cards = list(new LambdaQueryWrapper<SimCard>()
+                .select(SimCard::getIccid)
+                .between(SimCard::getIccid, start, end)
+                .last("LIMIT " + (MAX_TRANSITION_SIZE + 1)));
+        result.setStatementCount(result.getStatementCount() + 1);
+
+        Map<Integer, List<String>> iccidsByShard = new TreeMap<>();
+        for (SimCard card : cards) {
+            int shard = ShardingIdUtils.iccidShardCode(card.getIccid());
+            if (shard >= 0 && card.getIccid().length() == start.length()) {
+                iccidsByShard.computeIfAbsent(shard, k -> new ArrayList<>()).add(card.getIccid());
+                result.setTotalCount(result.getTotalCount() + 1);
+            }
+        }
+        return iccidsByShard;
+    }
+
+    /**
+     * 流转同一分表内的一块卡：一次查询锁定并读取原状态，一次带状态条件的UPDATE完成流转
+     */
+    private void transitionChunk(SimCardTransitionRequest request, List<String> iccids, Date now,
+                                 SimCardTransitionResult result, Map<Long, Map<Integer, Integer>> stockChanges,
+                                 List<SimCardOperation> operations) {
+        SimCardTransitionEnum transition = request.getTransition();
+        Map<String, SimCard> cards = list(new LambdaQueryWrapper<SimCard>()
+                .select(SimCard::getId, SimCard::getIccid, SimCard::getStatus, SimCard::getBatchId, SimCard::getOrganizationId,
+                        SimCard::getCardTypeId, SimCard::getSpecId, SimCard::getSupplierId, SimCard::getDataType)
+                .in(SimCard::getIccid, iccids)
+                .last("FOR UPDATE"))
+                .stream()
+                .collect(Collectors.toMap(SimCard::getIccid, Function.identity(), (a, b) -> a));
+        result.setStatementCount(result.getStatementCount() + 1);
+
+        List<SimCard> eligible = new ArrayList<>();
+        for (String iccid : iccids) {
+            SimCard card = cards.get(iccid);
+            if (card == null) {
+                result.getOutcomes().add(new SimCardTransitionResult.Outcome(iccid, SimCardTransitionResult.Result.NOT_FOUND, null));
+                result.setNotFoundCount(result.getNotFoundCount() + 1);
+            } else if (!transition.isAllowedFrom(card.getStatus())) {
+                result.getOutcomes().add(new SimCardTransitionResult.Outcome(iccid,
+                        SimCardTransitionResult.Result.STATUS_NOT_ALLOWED, card.getStatus()));
+                result.setNotAllowedCount(result.getNotAllowedCount() + 1);
+            } else {
+                eligible.add(card);
+            }
+        }
+        if (eligible.isEmpty()) {
+            return;
+        }
+
+        LambdaUpdateWrapper<SimCard> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.in(SimCard::getIccid, eligible.stream().map(SimCard::getIccid).collect(Collectors.toList()))
+                .in(SimCard::getStatus, transition.getSourceStatuses())
+                .set(SimCard::getStatus, transition.getTargetStatus())
+                .set(SimCard::getUpdateTime, now)
+                .set(SimCard::getUpdateUserId, request.getOperatorUserId());
+        if (transition == SimCardTransitionEnum.ALLOCATE) {
+            updateWrapper.set(SimCard::getOrganizationId, request.getOrgId());
+        } else if (transition == SimCardTransitionEnum.RECYCLE) {
+            updateWrapper.set(SimCard::getOrganizationId, (Long) null);
+        }
+        int updated = baseMapper.update(null, updateWrapper);
+        result.setStatementCount(result.getStatementCount() + 1);
+        if (updated != eligible.size()) {
+            // 行已加锁，影响行数不一致说明数据被并发修改，整体回滚
+            throw new BusinessException("SIM card status changed concurrently, expected " + eligible.size()
+                    + " cards to transition but updated " + updated);
+        }
+
+        for (SimCard card : eligible) {
+            evictSimCardCache(card.getIccid());
+            result.getOutcomes().add(new SimCardTransitionResult.Outcome(card.getIccid(),
+                    SimCardTransitionResult.Result.TRANSITIONED, card.getStatus()));
+            if (card.getBatchId() != null && !Objects.equals(card.getStatus(), transition.getTargetStatus())) {
+                stockChanges.computeIfAbsent(card.getBatchId(), k -> new HashMap<>()).merge(card.getStatus(), 1, Integer::sum);
+            }
+            SimCardCounterKey oldKey = SimCardCounterKey.of(card);
+            SimCardCounterKey newKey = oldKey.withStatus(transition.getTargetStatus());
+            if (transition == SimCardTransitionEnum.ALLOCATE) {
+                newKey = newKey.withOrgId(request.getOrgId());
+            } else if (transition == SimCardTransitionEnum.RECYCLE) {
+                newKey = newKey.withOrgId(null);
+            }
+            inventoryCounterService.recordSimCardChange(oldKey, newKey, 1);
+
+            SimCardOperation operation = new SimCardOperation();
+            operation.setCardId(card.getId());
+            operation.setIccid(card.getIccid());
+            operation.setOperationType(transition.getOperationType());
+            operation.setOperationTime(now);
+            operation.setOperatorUserId(request.getOperatorUserId());
+            operation.setOldStatus(card.getStatus());
+            operation.setNewStatus(transition.getTargetStatus());
+            if (transition == SimCardTransitionEnum.ALLOCATE) {
+                operation.setStockOutOrgId(card.getOrganizationId());
+                operation.setStockInOrgId(request.getOrgId());
+            } else if (transition == SimCardTransitionEnum.RECYCLE) {
+                operation.setStockOutOrgId(card.getOrganizationId());
+            }
+            operation.setRemark(StringUtils.defaultIfBlank(request.getRemark(), transition.getDescription() + " SIM card"));
+            operation.setResultStatus(SimCardConstant.RESULT_SUCCESS);
+            operation.setCreateTime(now);
+            operation.setUpdateTime(now);
+            operation.setCreateUserId(request.getOperatorUserId());
+            operation.setUpdateUserId(request.getOperatorUserId());
+            operations.add(operation);
+        }
+        result.setTransitionedCount(result.getTransitionedCount() + eligible.size());
+    }
+    
+    /**
+     * 导入一个分块：行校验与文件内去重后按分表分组，每个分表一次IN查询检测已存在的ICCID，
+     * 按分表多值插入（未指定状态的卡默认为已发布），并记录一条汇总操作记录，在分块事务内执行
+     *
+     * @return 成功导入的SIM卡
+     */
+    private List<SimCard> importChunk(List<SimCard> simCards, int from, int to, Set<String> seenIccids,
+                                      Long batchId, Long operatorUserId, SimCardBulkImportResult result) {
+        Map<Integer, List<Integer>> rowsByShard = new TreeMap<>();
+        for (int i = from; i < to; i++) {
+            String iccid = StringUtils.trimToNull(simCards.get(i).getIccid());
+            int shard = ShardingIdUtils.iccidShardCode(iccid);
+            if (iccid == null) {
+                result.getRejects().add(new SimCardBulkImportResult.Reject(i + 1, null, "ICCID is empty"));
+            } else if (shard < 0) {
+                result.getRejects().add(new SimCardBulkImportResult.Reject(i + 1, iccid, "Invalid ICCID"));
+            } else if (!seenIccids.add(iccid)) {
+                result.getRejects().add(new SimCardBulkImportResult.Reject(i + 1, iccid, "Duplicate ICCID in import data"));
+            } else {
+                simCards.get(i).setIccid(iccid);
+                rowsByShard.computeIfAbsent(shard, k -> new ArrayList<>()).add(i);
+            }
+        }
         
-        result.put("success", failCount == 0);
-        result.put("successCount", successCount);
-        result.put("failCount", failCount);
-        result.put("totalCount", simCards.size());
-        result.put("errorMessages", errorMessages);
-        result.put("message", String.format("Import completed. Success: %d, Failed: %d", successCount, failCount));
+        Map<Integer, List<SimCard>> acceptedByShard = new TreeMap<>();
+        int acceptedCount = 0;
+        for (Map.Entry<Integer, List<Integer>> entry : rowsByShard.entrySet()) {
+            List<String> iccids = entry.getValue().stream()
+                    .map(row -> simCards.get(row).getIccid())
+                    .collect(Collectors.toList());
+            Set<String> existing = list(new LambdaQueryWrapper<SimCard>()
+                    .select(SimCard::getIccid)
+                    .in(SimCard::getIccid, iccids))
+                    .stream()
+                    .map(SimCard::getIccid)
+                    .collect(Collectors.toSet());
+            for (Integer row : entry.getValue()) {
+                SimCard simCard = simCards.get(row);
+                if (existing.contains(simCard.getIccid())) {
+                    result.getRejects().add(new SimCardBulkImportResult.Reject(row + 1, simCard.getIccid(), "ICCID already exists"));
+                } else {
+                    acceptedByShard.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(simCard);
+                    acceptedCount++;
+                }
+            }
+        }
+        if (acceptedCount == 0) {
+            return Collections.emptyList();
+        }
         
-        return result;
+        // 批量获取全局序列ID
+        List<Long> globalIds = sequenceService.getBatchSequenceValues("sim_card_id_seq", acceptedCount);
+        Date now = new Date();
+        List<SimCard> accepted = new ArrayList<>(acceptedCount);
+        for (Map.Entry<Integer, List<SimCard>> entry : acceptedByShard.entrySet()) {
+            for (SimCard simCard : entry.getValue()) {
+                simCard.setId(sequenceService.toShardingId(globalIds.get(accepted.size()), entry.getKey()));
+                simCard.setBatchId(batchId);
+                if (simCard.getStatus() == null) {
+                    simCard.setStatus(SimCardConstant.STATUS_PUBLISHED);
+                }
+                simCard.setCreateUserId(operatorUserId);
+                simCard.setUpdateUserId(operatorUserId);
+                simCard.setCreateTime(now);
+                simCard.setUpdateTime(now);
+                accepted.add(simCard);
+            }
+            // 同一分表的数据一条多值INSERT写入
+            baseMapper.batchInsert(entry.getValue());
+        }
+        accepted.forEach(simCard -> inventoryCounterService.recordSimCardChange(null, SimCardCounterKey.of(simCard), 1));
+        
+        // 每个分块一条汇总操作记录，卡ID为0，ICCID记录为分块内首尾ICCID
+        SimCardOperation operation = new SimCardOperation();
+        operation.setCardId(0L);
+        operation.setIccid(accepted.get(0).getIccid() + "-" + accepted.get(accepted.size() - 1).getIccid());
+        operation.setOperationType(SimCardConstant.OPERATION_TYPE_IMPORT);
+        operation.setOperationTime(now);
+        operation.setOperatorUserId(operatorUserId);
+        operation.setNewStatus(accepted.get(0).getStatus());
+        operation.setStockInOrgId(accepted.get(0).getOrganizationId());
+        operation.setRemark(String.format("Bulk import of %d SIM cards into batch %d", accepted.size(), batchId));
+        operation.setResultStatus(SimCardConstant.RESULT_SUCCESS);
+        operation.setCreateTime(now);
+        operation.setUpdateTime(now);
+        operation.setCreateUserId(operatorUserId);
+        operation.setUpdateUserId(operatorUserId);
+        simCardOperationService.save(operation);
+        return accepted;
     }
 
     @Override
@@ -1693,11 +2174,11 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
         
         // 添加查询条件
         if (params.get("iccid") != null) {
-            wrapper.like(SimCard::getIccid, params.get("iccid").toString());
+            likeBySearchIndex(wrapper, SimCardSearchIndex.FIELD_ICCID, SimCard::getIccid, params.get("iccid").toString());
         }
         
         if (params.get("imsi") != null) {
-            wrapper.like(SimCard::getImsi, params.get("imsi").toString());
+            likeBySearchIndex(wrapper, SimCardSearchIndex.FIELD_IMSI, SimCard::getImsi, params.get("imsi").toString());
         }
         
         if (params.get("status") != null) {
@@ -1748,15 +2229,53 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
 
     @Override
     public List<SimCard> queryForExport(SimCardQuery queryParams) {
+        LambdaQueryWrapper<SimCard> wrapper = buildExportQueryWrapper(queryParams);
+        
+        // Order by creation time
+        wrapper.orderByDesc(SimCard::getCreateTime);
+        
+        // Limit export quantity to prevent excessive data
+        Integer maxExportCount = 10000; // Maximum export 10,000 records
+        wrapper.last("LIMIT " + maxExportCount);
+        
+        List<SimCard> result = list(wrapper);
+        log.info("Query for export completed, found {} SIM cards", result.size());
+        
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true, rollbackFor = Exception.class)
+    public long streamForExport(SimCardQuery queryParams, Consumer<SimCard> consumer) {
+        long total = 0;
+        // Read physical shard tables one by one through a streaming cursor, without the 10,000 row cap
+        for (String tableName : ShardingBatchUpdateUtils.getAllSimCardTableNames()) {
+            try (Cursor<SimCard> cursor = baseMapper.selectCursorByTable(tableName, buildExportQueryWrapper(queryParams))) {
+                for (SimCard simCard : cursor) {
+                    consumer.accept(simCard);
+                    total++;
+                }
+            } catch (IOException e) {
+                throw new BusinessException("Stream export failed: " + e.getMessage());
+            }
+        }
+        log.info("Stream export completed, read {} SIM cards", total);
+        return total;
+    }
+    
+    /**
+     * Build export query conditions
+     */
+    private LambdaQueryWrapper<SimCard> buildExportQueryWrapper(SimCardQuery queryParams) {
         LambdaQueryWrapper<SimCard> wrapper = new LambdaQueryWrapper<>();
         
         // Add query conditions
         if (StringUtils.isNotBlank(queryParams.getIccid())) {
-            wrapper.like(SimCard::getIccid, queryParams.getIccid());
+            likeBySearchIndex(wrapper, SimCardSearchIndex.FIELD_ICCID, SimCard::getIccid, queryParams.getIccid());
         }
         
         if (StringUtils.isNotBlank(queryParams.getImsi())) {
-            wrapper.like(SimCard::getImsi, queryParams.getImsi());
+            likeBySearchIndex(wrapper, SimCardSearchIndex.FIELD_IMSI, SimCard::getImsi, queryParams.getImsi());
         }
         
         if (queryParams.getStatus() != null) {
@@ -1775,16 +2294,6 @@ public class SimCardServiceImpl extends ServiceImpl<SimCardMapper, SimCard> impl
             wrapper.eq(SimCard::getCardTypeId, queryParams.getCardType());
         }
         
-        // Order by creation time
-        wrapper.orderByDesc(SimCard::getCreateTime);
-        
-        // Limit export quantity to prevent excessive data
-        Integer maxExportCount = 10000; // Maximum export 10,000 records
-        wrapper.last("LIMIT " + maxExportCount);
-        
-        List<SimCard> result = list(wrapper);
-        log.info("Query for export completed, found {} SIM cards", result.size());
-        
-        return result;
+        return wrapper;
     }
-}
\ No newline at end of file
+}
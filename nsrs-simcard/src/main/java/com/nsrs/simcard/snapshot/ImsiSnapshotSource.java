@@ -0,0 +1,51 @@
+package com.nsrs.simcard.snapshot;
+
+import com.nsrs.framework.snapshot.InventorySnapshotPoint;
+import com.nsrs.framework.snapshot.InventorySnapshotSource;
+import com.nsrs.simcard.entity.ImsiStockCounter;
+import com.nsrs.simcard.enums.ImsiStatusEnum;
+import com.nsrs.simcard.service.InventoryCounterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * IMSI库存快照数据源
+ * 从IMSI计数按 IMSI组 + 状态 采集，维度键为IMSI组ID，0表示无组
+ */
+@Component
+public class ImsiSnapshotSource implements InventorySnapshotSource {
+
+    public static final String RESOURCE_TYPE = "IMSI";
+
+    private static final Set<Integer> AVAILABLE_STATUSES = Collections.singleton(ImsiStatusEnum.IDLE.getCode());
+
+    @Autowired
+    private InventoryCounterService inventoryCounterService;
+
+    @Override
+    public String getResourceType() {
+        return RESOURCE_TYPE;
+    }
+
+    @Override
+    public Set<Integer> getAvailableStatuses() {
+        return AVAILABLE_STATUSES;
+    }
+
+    @Override
+    public List<InventorySnapshotPoint> collect() {
+        if (!inventoryCounterService.isEnabled()) {
+            return Collections.emptyList();
+        }
+        List<ImsiStockCounter> counters = inventoryCounterService.listImsiCounters();
+        return counters.stream()
+                .map(counter -> new InventorySnapshotPoint(String.valueOf(counter.getGroupId()),
+                        counter.getStatus(), counter.getImsiCount()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,37 @@
+package com.nsrs.simcard.snapshot;
+
+import com.nsrs.framework.snapshot.InventoryDepletionEvent;
+import com.nsrs.framework.snapshot.InventoryForecast;
+import com.nsrs.simcard.service.SimCardInventoryAlertService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * SIM卡库存耗尽预测预警
+ * 收到SIM卡维度的耗尽预测事件后，为配置键相同的低库存预警配置生成预测预警日志，由告警通知任务统一发送
+ */
+@Slf4j
+@Component
+public class InventoryDepletionAlertListener {
+
+    @Autowired
+    private SimCardInventoryAlertService alertService;
+
+    @EventListener
+    public void onDepletionForecast(InventoryDepletionEvent event) {
+        InventoryForecast forecast = event.getForecast();
+        if (!SimCardSnapshotSource.RESOURCE_TYPE.equals(forecast.getResourceType())) {
+            return;
+        }
+        try {
+            int days = (int) Math.ceil(forecast.getDaysToDepletion());
+            long current = forecast.getCurrentCount() != null ? forecast.getCurrentCount() : 0L;
+            alertService.createDepletionForecastAlerts(forecast.getDimensionKey(),
+                    (int) Math.min(current, Integer.MAX_VALUE), days);
+        } catch (Exception e) {
+            log.error("Failed to create depletion forecast alerts for config key: {}", forecast.getDimensionKey(), e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.nsrs.simcard.snapshot;
+
+import com.nsrs.framework.snapshot.InventorySnapshotPoint;
+import com.nsrs.framework.snapshot.InventorySnapshotSource;
+import com.nsrs.simcard.entity.SimCardStockCounter;
+import com.nsrs.simcard.enums.InventoryCubeDimensionEnum;
+import com.nsrs.simcard.model.dto.SimCardCounterKey;
+import com.nsrs.simcard.model.query.InventoryCubeQuery;
+import com.nsrs.simcard.service.InventoryCounterService;
+import com.nsrs.simcard.utils.SimCardConstant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SIM卡库存快照数据源
+ * 从库存立方按 卡类型 + 规格 + 供应商 + 组织 + 状态 上卷，维度键与库存预警配置键一致
+ */
+@Component
+public class SimCardSnapshotSource implements InventorySnapshotSource {
+
+    public static final String RESOURCE_TYPE = "SIM";
+
+    private static final Set<Integer> AVAILABLE_STATUSES = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList(SimCardConstant.STATUS_PUBLISHED, SimCardConstant.STATUS_ASSIGNED)));
+
+    @Autowired
+    private InventoryCounterService inventoryCounterService;
+
+    @Override
+    public String getResourceType() {
+        return RESOURCE_TYPE;
+    }
+
+    @Override
+    public Set<Integer> getAvailableStatuses() {
+        return AVAILABLE_STATUSES;
+    }
+
+    @Override
+    public List<InventorySnapshotPoint> collect() {
+        if (!inventoryCounterService.isEnabled()) {
+            return Collections.emptyList();
+        }
+        InventoryCubeQuery query = new InventoryCubeQuery();
+        query.setGroupBy(Arrays.asList(InventoryCubeDimensionEnum.CARD_TYPE, InventoryCubeDimensionEnum.SPEC,
+                InventoryCubeDimensionEnum.SUPPLIER, InventoryCubeDimensionEnum.ORG, InventoryCubeDimensionEnum.STATUS));
+        List<InventorySnapshotPoint> points = new ArrayList<>();
+        for (SimCardStockCounter row : inventoryCounterService.queryCube(query)) {
+            SimCardCounterKey key = new SimCardCounterKey(null, row.getCardTypeId(), row.getSpecId(),
+                    row.getSupplierId(), row.getOrgId(), null, row.getStatus());
+            points.add(new InventorySnapshotPoint(key.toAlertConfigKey(), row.getStatus(), row.getCardCount()));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,109 @@
+package com.nsrs.simcard.task;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.nsrs.simcard.entity.ImsiGroup;
+import com.nsrs.simcard.entity.SimCardBatch;
+import com.nsrs.simcard.service.ImsiGroupService;
+import com.nsrs.simcard.service.ImsiGroupStockService;
+import com.nsrs.simcard.service.InventoryCounterService;
+import com.nsrs.simcard.service.SimCardBatchService;
+import com.nsrs.simcard.service.SimCardBatchStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 库存计数对账任务
+ * 逐个批次/IMSI组锁定计数行后重新统计并校正偏差，再用校正后的计数刷新批次和IMSI组的库存字段；
+ * 另按较短间隔清理零计数行
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryCounterReconcileTask {
+
+    private final InventoryCounterService inventoryCounterService;
+    private final SimCardBatchService simCardBatchService;
+    private final SimCardBatchStockService simCardBatchStockService;
+    private final ImsiGroupService imsiGroupService;
+    private final ImsiGroupStockService imsiGroupStockService;
+
+    @Scheduled(initialDelayString = "${nsrs.inventory-counter.reconcile-interval-ms:21600000}",
+            fixedDelayString = "${nsrs.inventory-counter.reconcile-interval-ms:21600000}")
+    public void reconcile() {
+        if (!inventoryCounterService.isEnabled()) {
+            return;
+        }
+        try {
+            log.info("Starting inventory counter reconciliation");
+            int corrected = reconcileSimCards() + reconcileImsis();
+            log.info("Inventory counter reconciliation completed, corrected {} counters", corrected);
+        } catch (Exception e) {
+            log.error("Error occurred during inventory counter reconciliation: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 流转后归零的维度组合会留下零计数行，定期清理以保持库存立方紧凑
+     */
+    @Scheduled(initialDelayString = "${nsrs.inventory-counter.compact-interval-ms:3600000}",
+            fixedDelayString = "${nsrs.inventory-counter.compact-interval-ms:3600000}")
+    public void compact() {
+        if (!inventoryCounterService.isEnabled()) {
+            return;
+        }
+        try {
+            int deleted = inventoryCounterService.compactSimCardCounters();
+            log.info("Inventory counter compaction completed, deleted {} zero counters", deleted);
+        } catch (Exception e) {
+            log.error("Error occurred during inventory counter compaction: {}", e.getMessage(), e);
+        }
+    }
+
+    private int reconcileSimCards() {
+        List<Long> batchIds = simCardBatchService.list(new LambdaQueryWrapper<SimCardBatch>()
+                        .select(SimCardBatch::getBatchId))
+                .stream().map(SimCardBatch::getBatchId).collect(Collectors.toCollection(ArrayList::new));
+        // 无批次的卡
+        batchIds.add(null);
+
+        int corrected = 0;
+        for (Long batchId : batchIds) {
+            try {
+                corrected += inventoryCounterService.reconcileSimCardBatch(batchId);
+                if (batchId != null) {
+                    simCardBatchStockService.updateBatchStock(batchId);
+                }
+            } catch (Exception e) {
+                log.error("Failed to reconcile SIM card counters: batchId={}", batchId, e);
+            }
+        }
+        return corrected;
+    }
+
+    private int reconcileImsis() {
+        List<Long> groupIds = imsiGroupService.list(new LambdaQueryWrapper<ImsiGroup>()
+                        .select(ImsiGroup::getGroupId))
+                .stream().map(ImsiGroup::getGroupId).collect(Collectors.toCollection(ArrayList::new));
+        // 无组的IMSI
+        groupIds.add(null);
+
+        int corrected = 0;
+        for (Long groupId : groupIds) {
+            try {
+                corrected += inventoryCounterService.reconcileImsiGroup(groupId);
+                if (groupId != null) {
+                    imsiGroupStockService.updateGroupStock(groupId);
+                }
+            } catch (Exception e) {
+                log.error("Failed to reconcile IMSI counters: groupId={}", groupId, e);
+            }
+        }
+        return corrected;
+    }
+}
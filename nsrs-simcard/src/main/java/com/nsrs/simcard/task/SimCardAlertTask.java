@@ -54,7 +54,7 @@ public class SimCardAlertTask {
             
             int processedCount = notificationService.processPendingNotifications();
             
-            log.info("Processed {} pending alert notifications", processedCount);
+            log.info("Queued {} pending alert notifications", processedCount);
             
         } catch (Exception e) {
             log.error("Error occurred during pending notification processing: {}", e.getMessage(), e);
@@ -72,7 +72,7 @@ public class SimCardAlertTask {
             
             int retriedCount = notificationService.retryFailedNotifications();
             
-            log.info("Retried {} failed alert notifications", retriedCount);
+            log.info("Queued {} failed alert notifications for retry", retriedCount);
             
         } catch (Exception e) {
             log.error("Error occurred during failed notification retry: {}", e.getMessage(), e);
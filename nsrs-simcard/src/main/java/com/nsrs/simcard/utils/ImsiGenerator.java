@@ -2,6 +2,11 @@ package com.nsrs.simcard.utils;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 /**
  * IMSI生成工具类
  */
@@ -43,6 +48,25 @@ public class ImsiGenerator {
         return prefix + StringUtils.leftPad(String.valueOf(nextDigit), digits.length(), '0');
     }
     
+    /**
+     * 生成一段连续的IMSI并按分表分组
+     *
+     * @param prefix IMSI前缀，可为空
+     * @param startValue 起始数值（不含前缀）
+     * @param count 数量
+     * @param tableShardsCount 分表数量
+     * @return 分表索引 -> 该分表的IMSI列表（按分表索引排序）
+     */
+    public static Map<Integer, List<String>> generateBlockByShard(String prefix, long startValue, int count, int tableShardsCount) {
+        Map<Integer, List<String>> imsisByShard = new TreeMap<>();
+        String imsiPrefix = StringUtils.defaultString(prefix);
+        for (int i = 0; i < count; i++) {
+            String imsi = imsiPrefix + (startValue + i);
+            imsisByShard.computeIfAbsent(getTableShardingIndex(imsi, tableShardsCount), k -> new ArrayList<>()).add(imsi);
+        }
+        return imsisByShard;
+    }
+    
     /**
      * 验证IMSI格式
      *
@@ -8,6 +8,9 @@ interface PageData<T> {
     records?: T[]
     pages?: number
     size?: number
+    // 未统计总数时为 -1，由 hasNext 判断是否有下一页
+    hasNext?: boolean
+    countMode?: 'exact' | 'approximate' | 'skip'
 }
 
 // 通用响应结果类型
@@ -49,6 +52,15 @@ interface UseTableResult<T> {
     ) => void
 }
 
+// 未统计总数时，按是否有下一页推算分页器可展示的总数
+function resolveTotal<T>(data: PageData<T>, prev: Pagination): number {
+    const total = data?.total ?? 0
+    if (total >= 0) return total
+    const current = data.current ?? prev.current
+    const size = data.size ?? prev.pageSize
+    return current * size + (data.hasNext ? 1 : 0)
+}
+
 function useTable<T>(
     apiPath: string,
     method: 'GET' | 'POST' | 'PUT' | 'DELETE' = 'GET',
@@ -75,6 +87,8 @@ function useTable<T>(
             ...(initParams || {}),
             current: paginationOverride?.current ?? pagination.current,
             size: paginationOverride?.pageSize ?? pagination.pageSize,
+            // 列表默认使用近似统计，避免大表每次翻页都执行精确 COUNT
+            countMode: params?.countMode ?? initParams?.countMode ?? 'approximate',
         }
 
         if (initParams) setParams((prev) => ({ ...prev, ...initParams }))
@@ -121,7 +135,7 @@ function useTable<T>(
                                 setDataSource((data.records as T[]) ?? [])
                                 setPagination((prev) => ({
                                     ...prev,
-                                    total: data?.total ?? 0,
+                                    total: resolveTotal(data, prev),
                                 }))
                                 resolve(resultData)
                             }
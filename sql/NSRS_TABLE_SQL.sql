@@ -216,6 +216,7 @@ CREATE TABLE IF NOT EXISTS number_resource (
     charge DECIMAL(10,2) COMMENT '费用', -- 预留，可能暂时用不到
     attributive_org VARCHAR(50) COMMENT '归属组织',
     remark VARCHAR(200) COMMENT '备注',
+    expire_time DATETIME COMMENT '状态到期时间：预留/冻结到期或回收隔离结束时间，为空表示不过期',
     create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     create_user_id BIGINT COMMENT '创建用户ID',
@@ -223,9 +224,14 @@ CREATE TABLE IF NOT EXISTS number_resource (
     PRIMARY KEY (number_id),
     UNIQUE KEY uk_number (number),
     INDEX idx_segment_id (segment_id),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_status_expire (status, expire_time)
 ) ENGINE=InnoDB COMMENT='号码资源表';
 
+-- 已有分表升级（逐个分表执行）：
+-- ALTER TABLE number_resource_139 ADD COLUMN expire_time DATETIME COMMENT '状态到期时间' AFTER remark,
+--     ADD INDEX idx_status_expire (status, expire_time);
+
 -- 创建号码审批表
 CREATE TABLE number_approval (
     approval_id BIGINT NOT NULL AUTO_INCREMENT COMMENT '审批ID',
@@ -464,7 +470,7 @@ CREATE TABLE IF NOT EXISTS sim_card_inventory_alert_log (
     current_count INT COMMENT '当前数量',
     threshold INT COMMENT '阈值',
     alert_type TINYINT COMMENT '预警类型：1-低库存预警，2-超量预警',
-    notify_status TINYINT COMMENT '通知状态：0-未通知，1-已通知',
+    notify_status TINYINT COMMENT '通知状态：0-未通知，1-已通知，2-通知失败，3-已抑制',
     notify_time DATETIME COMMENT '通知时间',
     remark VARCHAR(256) COMMENT '备注',
     PRIMARY KEY (log_id),
@@ -548,6 +554,25 @@ CREATE TABLE IF NOT EXISTS sim_card_operation (
     CONSTRAINT fk_operation_stock_in_org FOREIGN KEY (stock_in_org_id) REFERENCES organization (org_id)
 ) ENGINE=InnoDB COMMENT='SIM卡操作记录表';
 
+-- SIM卡库存计数表（库存立方）：按 批次 + 卡类型 + 规格 + 供应商 + 组织 + 数据类型 + 状态 维护卡数量，
+-- 状态流转时在同一事务内增量更新；维度为空时记为0（主键列不允许NULL），由定时对账任务按批次校正偏差、定时清理零计数行
+-- 仪表盘统计按任意维度切片、上卷均直接汇总该表，不再扫描sim_card分表
+CREATE TABLE IF NOT EXISTS sim_card_stock_counter (
+    batch_id BIGINT NOT NULL DEFAULT 0 COMMENT '批次ID，0表示无批次',
+    card_type_id BIGINT NOT NULL DEFAULT 0 COMMENT '卡类型ID，0表示未设置',
+    spec_id BIGINT NOT NULL DEFAULT 0 COMMENT '规格ID，0表示未设置',
+    supplier_id BIGINT NOT NULL DEFAULT 0 COMMENT '供应商ID，0表示未设置',
+    org_id BIGINT NOT NULL DEFAULT 0 COMMENT '组织ID，0表示未分配',
+    data_type TINYINT NOT NULL DEFAULT 0 COMMENT '数据类型，0表示未设置',
+    status TINYINT NOT NULL COMMENT '状态：1-已发布，2-已分配，3-已激活，4-已停用，5-已回收',
+    card_count BIGINT NOT NULL DEFAULT 0 COMMENT '卡数量',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (batch_id, card_type_id, spec_id, supplier_id, org_id, data_type, status),
+    INDEX idx_org_status (org_id, status),
+    INDEX idx_card_type_id (card_type_id),
+    INDEX idx_supplier_id (supplier_id)
+) ENGINE=InnoDB COMMENT='SIM卡库存计数表';
+
 -- SIM卡资源管理表模型 -- end
 
 
@@ -563,6 +588,7 @@ CREATE TABLE IF NOT EXISTS imsi_group (
     imsi_type TINYINT COMMENT 'IMSI类型：1-GSM Postpaid，2-GSM Prepaid，3-CDMA......',
     total_count INT DEFAULT 0 COMMENT '总数量',
     used_count INT DEFAULT 0 COMMENT '已使用数量',
+    next_imsi BIGINT COMMENT '下一个待分配的IMSI数值（不含前缀），为空表示尚未预留过，首次生成时按已有IMSI最大值初始化',
     create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     create_user_id BIGINT COMMENT '创建用户ID',
@@ -603,6 +629,15 @@ CREATE TABLE IF NOT EXISTS imsi_resource_7 LIKE imsi_resource;
 CREATE TABLE IF NOT EXISTS imsi_resource_8 LIKE imsi_resource;
 CREATE TABLE IF NOT EXISTS imsi_resource_9 LIKE imsi_resource;
 
+-- IMSI库存计数表：按 IMSI组 + 状态 维护IMSI数量，状态流转时在同一事务内增量更新，由定时对账任务校正偏差
+CREATE TABLE IF NOT EXISTS imsi_stock_counter (
+    group_id BIGINT NOT NULL DEFAULT 0 COMMENT 'IMSI组ID，0表示无组',
+    status TINYINT NOT NULL COMMENT '状态：1-空闲，2-已绑定，3-已使用，4-已锁定',
+    imsi_count BIGINT NOT NULL DEFAULT 0 COMMENT 'IMSI数量',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (group_id, status)
+) ENGINE=InnoDB COMMENT='IMSI库存计数表';
+
 -- IMSI资源表模型 -- end
 
 
@@ -670,3 +705,27 @@ CREATE TABLE IF NOT EXISTS batch_binding_detail (
     INDEX idx_task_id (task_id),
     INDEX idx_status (status)
 ) ENGINE=InnoDB COMMENT='批量绑定任务详情表';
+
+
+-- 库存快照表模型 -- start
+
+-- 库存快照表：按粒度分区，原始快照定期降采样为小时、天快照，各粒度按保留期清理
+CREATE TABLE IF NOT EXISTS inventory_snapshot (
+    granularity TINYINT NOT NULL COMMENT '粒度：1-原始，2-小时，3-天',
+    resource_type VARCHAR(20) NOT NULL COMMENT '资源类型：SIM、IMSI、NUMBER',
+    dimension_key VARCHAR(100) NOT NULL COMMENT '维度键，SIM卡为 卡类型_规格_供应商_组织，IMSI为组ID，号码为号码段ID',
+    status TINYINT NOT NULL COMMENT '资源状态',
+    snapshot_time DATETIME NOT NULL COMMENT '快照时间，小时、天快照为时段起点',
+    item_count BIGINT NOT NULL DEFAULT 0 COMMENT '数量，降采样后为时段内最后一次采集值',
+    min_count BIGINT NOT NULL DEFAULT 0 COMMENT '时段内最小数量',
+    max_count BIGINT NOT NULL DEFAULT 0 COMMENT '时段内最大数量',
+    PRIMARY KEY (granularity, resource_type, dimension_key, status, snapshot_time),
+    INDEX idx_granularity_time (granularity, snapshot_time)
+) ENGINE=InnoDB COMMENT='库存快照表'
+PARTITION BY LIST (granularity) (
+    PARTITION p_raw VALUES IN (1),
+    PARTITION p_hourly VALUES IN (2),
+    PARTITION p_daily VALUES IN (3)
+);
+
+-- 库存快照表模型 -- end
@@ -0,0 +1,4 @@
+-- IMSI组区间预留字段
+-- next_imsi 记录下一个待分配的IMSI数值（不含前缀），生成IMSI时在组记录上加锁预留连续区间并推进，
+-- 不再跨全部 imsi_resource 分表查询最大IMSI。为空时首次生成按已有IMSI的最大值初始化，无需回填。
+ALTER TABLE imsi_group ADD COLUMN next_imsi BIGINT COMMENT '下一个待分配的IMSI数值（不含前缀），为空表示尚未预留过，首次生成时按已有IMSI最大值初始化' AFTER used_count;
@@ -0,0 +1,65 @@
+-- 库存计数表迁移脚本
+-- 建表后按各物理分表的现有数据初始化计数，之后由状态流转增量维护、定时对账任务校正（nsrs.inventory-counter）。
+-- 初始化语句可重复执行（覆盖已有计数）；执行期间建议停止写入，否则偏差由下一次对账校正。
+
+-- SIM卡库存计数表：按 批次 + 卡类型 + 规格 + 供应商 + 组织 + 状态 维护卡数量，状态流转时在同一事务内增量更新
+-- 维度为空时记为0（主键列不允许NULL），由定时对账任务按批次校正偏差
+CREATE TABLE IF NOT EXISTS sim_card_stock_counter (
+    batch_id BIGINT NOT NULL DEFAULT 0 COMMENT '批次ID，0表示无批次',
+    card_type_id BIGINT NOT NULL DEFAULT 0 COMMENT '卡类型ID，0表示未设置',
+    spec_id BIGINT NOT NULL DEFAULT 0 COMMENT '规格ID，0表示未设置',
+    supplier_id BIGINT NOT NULL DEFAULT 0 COMMENT '供应商ID，0表示未设置',
+    org_id BIGINT NOT NULL DEFAULT 0 COMMENT '组织ID，0表示未分配',
+    status TINYINT NOT NULL COMMENT '状态：1-已发布，2-已分配，3-已激活，4-已停用，5-已回收',
+    card_count BIGINT NOT NULL DEFAULT 0 COMMENT '卡数量',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (batch_id, card_type_id, spec_id, supplier_id, org_id, status),
+    INDEX idx_org_status (org_id, status),
+    INDEX idx_card_type_id (card_type_id)
+) ENGINE=InnoDB COMMENT='SIM卡库存计数表';
+
+-- IMSI库存计数表：按 IMSI组 + 状态 维护IMSI数量，状态流转时在同一事务内增量更新，由定时对账任务校正偏差
+CREATE TABLE IF NOT EXISTS imsi_stock_counter (
+    group_id BIGINT NOT NULL DEFAULT 0 COMMENT 'IMSI组ID，0表示无组',
+    status TINYINT NOT NULL COMMENT '状态：1-空闲，2-已绑定，3-已使用，4-已锁定',
+    imsi_count BIGINT NOT NULL DEFAULT 0 COMMENT 'IMSI数量',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (group_id, status)
+) ENGINE=InnoDB COMMENT='IMSI库存计数表';
+
+-- 初始化SIM卡计数
+INSERT INTO sim_card_stock_counter (batch_id, card_type_id, spec_id, supplier_id, org_id, status, card_count)
+SELECT COALESCE(batch_id, 0), COALESCE(card_type_id, 0), COALESCE(spec_id, 0), COALESCE(supplier_id, 0), COALESCE(org_id, 0),
+       status, COUNT(1)
+FROM (
+    SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, status FROM sim_card_0
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, status FROM sim_card_1
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, status FROM sim_card_2
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, status FROM sim_card_3
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, status FROM sim_card_4
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, status FROM sim_card_5
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, status FROM sim_card_6
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, status FROM sim_card_7
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, status FROM sim_card_8
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, status FROM sim_card_9
+) t
+GROUP BY COALESCE(batch_id, 0), COALESCE(card_type_id, 0), COALESCE(spec_id, 0), COALESCE(supplier_id, 0), COALESCE(org_id, 0), status
+ON DUPLICATE KEY UPDATE card_count = VALUES(card_count);
+
+-- 初始化IMSI计数
+INSERT INTO imsi_stock_counter (group_id, status, imsi_count)
+SELECT COALESCE(group_id, 0), status, COUNT(1)
+FROM (
+    SELECT group_id, status FROM imsi_resource_0
+    UNION ALL SELECT group_id, status FROM imsi_resource_1
+    UNION ALL SELECT group_id, status FROM imsi_resource_2
+    UNION ALL SELECT group_id, status FROM imsi_resource_3
+    UNION ALL SELECT group_id, status FROM imsi_resource_4
+    UNION ALL SELECT group_id, status FROM imsi_resource_5
+    UNION ALL SELECT group_id, status FROM imsi_resource_6
+    UNION ALL SELECT group_id, status FROM imsi_resource_7
+    UNION ALL SELECT group_id, status FROM imsi_resource_8
+    UNION ALL SELECT group_id, status FROM imsi_resource_9
+) t
+GROUP BY COALESCE(group_id, 0), status
+ON DUPLICATE KEY UPDATE imsi_count = VALUES(imsi_count);
@@ -0,0 +1,31 @@
+-- 库存立方迁移脚本
+-- SIM卡库存计数表增加数据类型维度（主键随之调整），并按各物理分表的现有数据重新初始化计数。
+-- 初始化语句可重复执行（覆盖已有计数）；执行期间建议停止写入，否则偏差由下一次对账校正。
+
+ALTER TABLE sim_card_stock_counter
+    ADD COLUMN data_type TINYINT NOT NULL DEFAULT 0 COMMENT '数据类型，0表示未设置' AFTER org_id,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (batch_id, card_type_id, spec_id, supplier_id, org_id, data_type, status),
+    ADD INDEX idx_supplier_id (supplier_id);
+
+-- 原计数不区分数据类型，清空后按数据类型重新统计
+DELETE FROM sim_card_stock_counter;
+
+INSERT INTO sim_card_stock_counter (batch_id, card_type_id, spec_id, supplier_id, org_id, data_type, status, card_count)
+SELECT COALESCE(batch_id, 0), COALESCE(card_type_id, 0), COALESCE(spec_id, 0), COALESCE(supplier_id, 0), COALESCE(org_id, 0),
+       COALESCE(data_type, 0), COALESCE(status, 1), COUNT(1)
+FROM (
+    SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, data_type, status FROM sim_card_0
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, data_type, status FROM sim_card_1
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, data_type, status FROM sim_card_2
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, data_type, status FROM sim_card_3
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, data_type, status FROM sim_card_4
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, data_type, status FROM sim_card_5
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, data_type, status FROM sim_card_6
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, data_type, status FROM sim_card_7
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, data_type, status FROM sim_card_8
+    UNION ALL SELECT batch_id, card_type_id, spec_id, supplier_id, org_id, data_type, status FROM sim_card_9
+) t
+GROUP BY COALESCE(batch_id, 0), COALESCE(card_type_id, 0), COALESCE(spec_id, 0), COALESCE(supplier_id, 0), COALESCE(org_id, 0),
+         COALESCE(data_type, 0), COALESCE(status, 1)
+ON DUPLICATE KEY UPDATE card_count = VALUES(card_count);
@@ -0,0 +1,21 @@
+-- 库存快照迁移脚本
+-- 新增库存快照表（不在分片规则内，位于默认数据源）。按粒度分区，过期清理只扫描对应粒度的分区，无需定期维护分区。
+-- 表创建后由定时任务开始采集，历史趋势从采集开始积累。
+
+CREATE TABLE IF NOT EXISTS inventory_snapshot (
+    granularity TINYINT NOT NULL COMMENT '粒度：1-原始，2-小时，3-天',
+    resource_type VARCHAR(20) NOT NULL COMMENT '资源类型：SIM、IMSI、NUMBER',
+    dimension_key VARCHAR(100) NOT NULL COMMENT '维度键，SIM卡为 卡类型_规格_供应商_组织，IMSI为组ID，号码为号码段ID',
+    status TINYINT NOT NULL COMMENT '资源状态',
+    snapshot_time DATETIME NOT NULL COMMENT '快照时间，小时、天快照为时段起点',
+    item_count BIGINT NOT NULL DEFAULT 0 COMMENT '数量，降采样后为时段内最后一次采集值',
+    min_count BIGINT NOT NULL DEFAULT 0 COMMENT '时段内最小数量',
+    max_count BIGINT NOT NULL DEFAULT 0 COMMENT '时段内最大数量',
+    PRIMARY KEY (granularity, resource_type, dimension_key, status, snapshot_time),
+    INDEX idx_granularity_time (granularity, snapshot_time)
+) ENGINE=InnoDB COMMENT='库存快照表'
+PARTITION BY LIST (granularity) (
+    PARTITION p_raw VALUES IN (1),
+    PARTITION p_hourly VALUES IN (2),
+    PARTITION p_daily VALUES IN (3)
+);
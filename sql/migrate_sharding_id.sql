@@ -0,0 +1,108 @@
+-- 分片感知ID迁移脚本
+-- 新ID格式：1000000000000000 + 原ID * 100 + 分片码（见 ShardingIdUtils）
+--   号码资源/绑定关系：分片码为号码前缀在前缀列表中的下标（0开始，顺序与 ShardingBatchUpdateUtils.SUPPORTED_NUMBER_PREFIXES 一致）
+--   SIM卡：分片码为ICCID后3位对10取模，即所在分表下标
+-- 迁移是可选的：未迁移的历史ID按ID查询时仍广播到全部分表，新生成的ID直接路由。
+-- 所有语句以 ID < 1000000000000000 为条件，可重复执行；执行期间需停止写入，执行后清空实体缓存（nsrs.entity-cache）。
+-- 注意：前端或外部系统保存的历史ID会失效，如有依赖请勿执行本脚本。
+
+-- 1. 号码资源分表
+UPDATE number_resource_139 SET number_id = 1000000000000000 + number_id * 100 + 0 WHERE number_id < 1000000000000000;
+UPDATE number_resource_177 SET number_id = 1000000000000000 + number_id * 100 + 1 WHERE number_id < 1000000000000000;
+UPDATE number_resource_138 SET number_id = 1000000000000000 + number_id * 100 + 2 WHERE number_id < 1000000000000000;
+UPDATE number_resource_136 SET number_id = 1000000000000000 + number_id * 100 + 3 WHERE number_id < 1000000000000000;
+UPDATE number_resource_135 SET number_id = 1000000000000000 + number_id * 100 + 4 WHERE number_id < 1000000000000000;
+UPDATE number_resource_134 SET number_id = 1000000000000000 + number_id * 100 + 5 WHERE number_id < 1000000000000000;
+UPDATE number_resource_150 SET number_id = 1000000000000000 + number_id * 100 + 6 WHERE number_id < 1000000000000000;
+UPDATE number_resource_151 SET number_id = 1000000000000000 + number_id * 100 + 7 WHERE number_id < 1000000000000000;
+UPDATE number_resource_152 SET number_id = 1000000000000000 + number_id * 100 + 8 WHERE number_id < 1000000000000000;
+UPDATE number_resource_153 SET number_id = 1000000000000000 + number_id * 100 + 9 WHERE number_id < 1000000000000000;
+UPDATE number_resource_155 SET number_id = 1000000000000000 + number_id * 100 + 10 WHERE number_id < 1000000000000000;
+UPDATE number_resource_156 SET number_id = 1000000000000000 + number_id * 100 + 11 WHERE number_id < 1000000000000000;
+UPDATE number_resource_157 SET number_id = 1000000000000000 + number_id * 100 + 12 WHERE number_id < 1000000000000000;
+UPDATE number_resource_158 SET number_id = 1000000000000000 + number_id * 100 + 13 WHERE number_id < 1000000000000000;
+UPDATE number_resource_159 SET number_id = 1000000000000000 + number_id * 100 + 14 WHERE number_id < 1000000000000000;
+UPDATE number_resource_180 SET number_id = 1000000000000000 + number_id * 100 + 15 WHERE number_id < 1000000000000000;
+UPDATE number_resource_181 SET number_id = 1000000000000000 + number_id * 100 + 16 WHERE number_id < 1000000000000000;
+UPDATE number_resource_182 SET number_id = 1000000000000000 + number_id * 100 + 17 WHERE number_id < 1000000000000000;
+UPDATE number_resource_183 SET number_id = 1000000000000000 + number_id * 100 + 18 WHERE number_id < 1000000000000000;
+UPDATE number_resource_184 SET number_id = 1000000000000000 + number_id * 100 + 19 WHERE number_id < 1000000000000000;
+UPDATE number_resource_185 SET number_id = 1000000000000000 + number_id * 100 + 20 WHERE number_id < 1000000000000000;
+UPDATE number_resource_186 SET number_id = 1000000000000000 + number_id * 100 + 21 WHERE number_id < 1000000000000000;
+UPDATE number_resource_187 SET number_id = 1000000000000000 + number_id * 100 + 22 WHERE number_id < 1000000000000000;
+UPDATE number_resource_188 SET number_id = 1000000000000000 + number_id * 100 + 23 WHERE number_id < 1000000000000000;
+UPDATE number_resource_189 SET number_id = 1000000000000000 + number_id * 100 + 24 WHERE number_id < 1000000000000000;
+
+-- 2. 引用号码ID的表（按号码前缀计算分片码）
+UPDATE number_imsi_binding_139 SET number_id = 1000000000000000 + number_id * 100 + 0 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_177 SET number_id = 1000000000000000 + number_id * 100 + 1 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_138 SET number_id = 1000000000000000 + number_id * 100 + 2 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_136 SET number_id = 1000000000000000 + number_id * 100 + 3 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_135 SET number_id = 1000000000000000 + number_id * 100 + 4 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_134 SET number_id = 1000000000000000 + number_id * 100 + 5 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_150 SET number_id = 1000000000000000 + number_id * 100 + 6 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_151 SET number_id = 1000000000000000 + number_id * 100 + 7 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_152 SET number_id = 1000000000000000 + number_id * 100 + 8 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_153 SET number_id = 1000000000000000 + number_id * 100 + 9 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_155 SET number_id = 1000000000000000 + number_id * 100 + 10 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_156 SET number_id = 1000000000000000 + number_id * 100 + 11 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_157 SET number_id = 1000000000000000 + number_id * 100 + 12 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_158 SET number_id = 1000000000000000 + number_id * 100 + 13 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_159 SET number_id = 1000000000000000 + number_id * 100 + 14 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_180 SET number_id = 1000000000000000 + number_id * 100 + 15 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_181 SET number_id = 1000000000000000 + number_id * 100 + 16 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_182 SET number_id = 1000000000000000 + number_id * 100 + 17 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_183 SET number_id = 1000000000000000 + number_id * 100 + 18 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_184 SET number_id = 1000000000000000 + number_id * 100 + 19 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_185 SET number_id = 1000000000000000 + number_id * 100 + 20 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_186 SET number_id = 1000000000000000 + number_id * 100 + 21 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_187 SET number_id = 1000000000000000 + number_id * 100 + 22 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_188 SET number_id = 1000000000000000 + number_id * 100 + 23 WHERE number_id < 1000000000000000;
+UPDATE number_imsi_binding_189 SET number_id = 1000000000000000 + number_id * 100 + 24 WHERE number_id < 1000000000000000;
+UPDATE number_approval SET number_id = 1000000000000000 + number_id * 100 + FIELD(LEFT(number, 3), '139', '177', '138', '136', '135', '134', '150', '151', '152', '153', '155', '156', '157', '158', '159', '180', '181', '182', '183', '184', '185', '186', '187', '188', '189') - 1
+WHERE number_id < 1000000000000000 AND FIELD(LEFT(number, 3), '139', '177', '138', '136', '135', '134', '150', '151', '152', '153', '155', '156', '157', '158', '159', '180', '181', '182', '183', '184', '185', '186', '187', '188', '189') > 0;
+UPDATE number_operation_log SET number_id = 1000000000000000 + number_id * 100 + FIELD(LEFT(number, 3), '139', '177', '138', '136', '135', '134', '150', '151', '152', '153', '155', '156', '157', '158', '159', '180', '181', '182', '183', '184', '185', '186', '187', '188', '189') - 1
+WHERE number_id < 1000000000000000 AND FIELD(LEFT(number, 3), '139', '177', '138', '136', '135', '134', '150', '151', '152', '153', '155', '156', '157', '158', '159', '180', '181', '182', '183', '184', '185', '186', '187', '188', '189') > 0;
+
+-- 3. 绑定关系分表
+UPDATE number_imsi_binding_139 SET binding_id = 1000000000000000 + binding_id * 100 + 0 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_177 SET binding_id = 1000000000000000 + binding_id * 100 + 1 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_138 SET binding_id = 1000000000000000 + binding_id * 100 + 2 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_136 SET binding_id = 1000000000000000 + binding_id * 100 + 3 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_135 SET binding_id = 1000000000000000 + binding_id * 100 + 4 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_134 SET binding_id = 1000000000000000 + binding_id * 100 + 5 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_150 SET binding_id = 1000000000000000 + binding_id * 100 + 6 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_151 SET binding_id = 1000000000000000 + binding_id * 100 + 7 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_152 SET binding_id = 1000000000000000 + binding_id * 100 + 8 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_153 SET binding_id = 1000000000000000 + binding_id * 100 + 9 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_155 SET binding_id = 1000000000000000 + binding_id * 100 + 10 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_156 SET binding_id = 1000000000000000 + binding_id * 100 + 11 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_157 SET binding_id = 1000000000000000 + binding_id * 100 + 12 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_158 SET binding_id = 1000000000000000 + binding_id * 100 + 13 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_159 SET binding_id = 1000000000000000 + binding_id * 100 + 14 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_180 SET binding_id = 1000000000000000 + binding_id * 100 + 15 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_181 SET binding_id = 1000000000000000 + binding_id * 100 + 16 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_182 SET binding_id = 1000000000000000 + binding_id * 100 + 17 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_183 SET binding_id = 1000000000000000 + binding_id * 100 + 18 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_184 SET binding_id = 1000000000000000 + binding_id * 100 + 19 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_185 SET binding_id = 1000000000000000 + binding_id * 100 + 20 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_186 SET binding_id = 1000000000000000 + binding_id * 100 + 21 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_187 SET binding_id = 1000000000000000 + binding_id * 100 + 22 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_188 SET binding_id = 1000000000000000 + binding_id * 100 + 23 WHERE binding_id < 1000000000000000;
+UPDATE number_imsi_binding_189 SET binding_id = 1000000000000000 + binding_id * 100 + 24 WHERE binding_id < 1000000000000000;
+
+-- 4. SIM卡分表
+UPDATE sim_card_0 SET card_id = 1000000000000000 + card_id * 100 + 0 WHERE card_id < 1000000000000000;
+UPDATE sim_card_1 SET card_id = 1000000000000000 + card_id * 100 + 1 WHERE card_id < 1000000000000000;
+UPDATE sim_card_2 SET card_id = 1000000000000000 + card_id * 100 + 2 WHERE card_id < 1000000000000000;
+UPDATE sim_card_3 SET card_id = 1000000000000000 + card_id * 100 + 3 WHERE card_id < 1000000000000000;
+UPDATE sim_card_4 SET card_id = 1000000000000000 + card_id * 100 + 4 WHERE card_id < 1000000000000000;
+UPDATE sim_card_5 SET card_id = 1000000000000000 + card_id * 100 + 5 WHERE card_id < 1000000000000000;
+UPDATE sim_card_6 SET card_id = 1000000000000000 + card_id * 100 + 6 WHERE card_id < 1000000000000000;
+UPDATE sim_card_7 SET card_id = 1000000000000000 + card_id * 100 + 7 WHERE card_id < 1000000000000000;
+UPDATE sim_card_8 SET card_id = 1000000000000000 + card_id * 100 + 8 WHERE card_id < 1000000000000000;
+UPDATE sim_card_9 SET card_id = 1000000000000000 + card_id * 100 + 9 WHERE card_id < 1000000000000000;
+
+-- 5. 引用SIM卡ID的表（按ICCID后3位计算分片码）
+UPDATE sim_card_operation SET card_id = 1000000000000000 + card_id * 100 + MOD(CAST(RIGHT(iccid, 3) AS UNSIGNED), 10)
+WHERE card_id < 1000000000000000 AND RIGHT(iccid, 3) REGEXP '^[0-9]{3}$';